@@ -0,0 +1,61 @@
+package br.com.fiap.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Anel de hash consistente: distribui chaves entre partições de modo que incluir uma partição
+ * mude o dono apenas de uma fração das chaves, todas passando para a partição nova.
+ *
+ * <p>Cada partição ocupa {@value #NOS_VIRTUAIS} posições no anel, derivadas do seu nome; a chave pertence
+ * à primeira posição igual ou posterior ao seu hash. A posição depende só dos nomes, não da ordem da lista.</p>
+ */
+final class AnelConsistente {
+
+    static final int NOS_VIRTUAIS = 160;
+
+    private final TreeMap<Long, Integer> posicoes = new TreeMap<>();
+
+    /**
+     * @param nomes Nomes das partições; o índice de cada nome é o valor devolvido por {@link #indice(String)}.
+     */
+    AnelConsistente(List<String> nomes) {
+        if (nomes.isEmpty()) {
+            throw new IllegalArgumentException("O anel precisa de ao menos uma partição.");
+        }
+        for (int i = 0; i < nomes.size(); i++) {
+            for (int no = 0; no < NOS_VIRTUAIS; no++) {
+                posicoes.put(hash(nomes.get(i) + "#" + no), i);
+            }
+        }
+    }
+
+    /**
+     * Índice da partição dona da chave informada.
+     */
+    int indice(String chave) {
+        Map.Entry<Long, Integer> dono = posicoes.ceilingEntry(hash(chave));
+        return (dono != null ? dono : posicoes.firstEntry()).getValue();
+    }
+
+    /**
+     * Hash de 64 bits estável entre execuções e instâncias: os primeiros 8 bytes do MD5 da chave.
+     */
+    static long hash(String chave) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("MD5").digest(chave.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 indisponível", e);
+        }
+        long hash = 0;
+        for (int i = 0; i < 8; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.fiap.dao;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Escolhe a réplica de leitura que atenderá cada conexão solicitada.
+ */
+final class BalanceadorReplicas {
+
+    /** Estratégias de balanceamento aceitas em {@code app.replicas.balanceamento}. */
+    enum Estrategia {
+        /** Alterna entre as réplicas, uma conexão para cada. */
+        ROUND_ROBIN,
+        /** Escolhe a réplica com menos conexões abertas no momento. */
+        MENOS_PENDENTES;
+
+        static Estrategia deConfiguracao(String valor) {
+            return switch (valor.trim().toLowerCase()) {
+                case "round-robin" -> ROUND_ROBIN;
+                case "menos-pendentes" -> MENOS_PENDENTES;
+                default -> throw new IllegalArgumentException("Balanceamento de réplicas desconhecido: " + valor);
+            };
+        }
+    }
+
+    /** Réplica de leitura e a quantidade de conexões dela em uso. */
+    static final class Replica {
+        final String nome;
+        final DataSource dataSource;
+        final AtomicInteger pendentes = new AtomicInteger();
+
+        Replica(String nome, DataSource dataSource) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final Estrategia estrategia;
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    BalanceadorReplicas(List<Replica> replicas, Estrategia estrategia) {
+        this.replicas = new ArrayList<>(replicas);
+        this.estrategia = estrategia;
+    }
+
+    boolean vazio() {
+        return replicas.isEmpty();
+    }
+
+    /**
+     * Retorna a réplica que deve atender a próxima conexão.
+     */
+    Replica escolher() {
+        if (estrategia == Estrategia.ROUND_ROBIN || replicas.size() == 1) {
+            return replicas.get(Math.floorMod(proxima.getAndIncrement(), replicas.size()));
+        }
+
+        // Começa em posições diferentes para não concentrar os empates na primeira réplica
+        int inicio = Math.floorMod(proxima.getAndIncrement(), replicas.size());
+        Replica escolhida = replicas.get(inicio);
+        for (int i = 1; i < replicas.size(); i++) {
+            Replica candidata = replicas.get((inicio + i) % replicas.size());
+            if (candidata.pendentes.get() < escolhida.pendentes.get()) {
+                escolhida = candidata;
+            }
+        }
+        return escolhida;
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.fiap.dao;
+
+/**
+ * Chamada a um DAO recusada sem acessar o banco, porque o disjuntor está aberto ou o limite de
+ * chamadas simultâneas do DAO foi atingido.
+ */
+public class BancoIndisponivelException extends RuntimeException {
+
+    public BancoIndisponivelException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.fiap.dao;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limite de chamadas simultâneas de um DAO (bulkhead). Chamadas além do limite são recusadas na hora,
+ * em vez de esperar por uma conexão do pool, para que um DAO lento não ocupe o pool inteiro.
+ */
+public final class Compartimento {
+
+    private final String nome;
+    private final int maximo;
+    private final Semaphore vagas;
+    private final LongAdder recusas = new LongAdder();
+
+    Compartimento(String nome, int maximo) {
+        this.nome = nome;
+        this.maximo = maximo;
+        this.vagas = new Semaphore(maximo);
+    }
+
+    /**
+     * Ocupa uma vaga, sem esperar.
+     *
+     * @return {@code false} se todas as vagas estiverem ocupadas.
+     */
+    boolean entrar() {
+        if (vagas.tryAcquire()) {
+            return true;
+        }
+        recusas.increment();
+        return false;
+    }
+
+    /** Libera a vaga ocupada por {@link #entrar()}. */
+    void sair() {
+        vagas.release();
+    }
+
+    public String getNome() { return nome; }
+
+    /** Máximo de chamadas simultâneas. */
+    public int getMaximo() { return maximo; }
+
+    /** Chamadas em andamento. */
+    public int getEmUso() { return maximo - vagas.availablePermits(); }
+
+    /** Chamadas recusadas por falta de vaga. */
+    public long getRecusas() { return recusas.sum(); }
+}
@@ -0,0 +1,65 @@
+package br.com.fiap.dao;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cláusula WHERE montada a partir de condições opcionais, com os valores sempre enviados como parâmetros.
+ *
+ * <p>Cada condição é um trecho fixo de SQL, incluído ou não conforme o filtro, e os DAOs as incluem sempre na
+ * mesma ordem. Assim, o texto gerado só varia com a combinação de filtros presentes: há no máximo
+ * {@code 2^n} formatos por listagem, todos reaproveitados pelo cache de comandos do driver
+ * e pelo cache de cursores do banco.</p>
+ */
+final class CondicoesSql {
+
+    private final List<String> trechos = new ArrayList<>();
+    private final List<Object> parametros = new ArrayList<>();
+
+    /**
+     * Inclui a condição se o valor não for nulo. O trecho deve ter um único marcador {@code ?}.
+     */
+    CondicoesSql se(Object valor, String trecho) {
+        return quando(valor != null, trecho, valor);
+    }
+
+    /**
+     * Inclui a condição se {@code incluir} for verdadeiro, com um valor para cada marcador do trecho, em ordem.
+     */
+    CondicoesSql quando(boolean incluir, String trecho, Object... valores) {
+        if (incluir) {
+            trechos.add(trecho);
+            for (Object valor : valores) {
+                parametros.add(valor instanceof LocalDate data ? Date.valueOf(data) : valor);
+            }
+        }
+        return this;
+    }
+
+    /** Cláusula {@code WHERE} com as condições incluídas, ou texto vazio se não houver nenhuma. */
+    String where() {
+        return trechos.isEmpty() ? "" : " WHERE " + String.join(" AND ", trechos);
+    }
+
+    /** Valores dos marcadores, na ordem em que aparecem em {@link #where()}. */
+    List<Object> parametros() {
+        return parametros;
+    }
+
+    /**
+     * Preenche os marcadores da cláusula a partir da posição informada.
+     *
+     * @return Posição do próximo marcador, após os da cláusula.
+     */
+    int aplicar(PreparedStatement ps, int inicio) throws SQLException {
+        int i = inicio;
+        for (Object valor : parametros) {
+            ps.setObject(i++, valor);
+        }
+        return i;
+    }
+}
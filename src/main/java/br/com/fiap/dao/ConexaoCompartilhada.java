@@ -0,0 +1,22 @@
+package br.com.fiap.dao;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca operações de serviço em que todas as chamadas aos DAOs devem usar uma única conexão do pool.
+ *
+ * <p>A conexão é obtida na primeira chamada a um DAO e devolvida ao pool quando o método anotado termina.
+ * Chamadas aninhadas a outros métodos anotados reaproveitam a mesma conexão.</p>
+ *
+ * @see FonteConexoes#compartilhar()
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface ConexaoCompartilhada {
+}
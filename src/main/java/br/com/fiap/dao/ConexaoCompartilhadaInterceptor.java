@@ -0,0 +1,27 @@
+package br.com.fiap.dao;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Abre um escopo de {@link FonteConexoes#compartilhar()} em volta dos métodos anotados com
+ * {@link ConexaoCompartilhada}.
+ */
+@ConexaoCompartilhada
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class ConexaoCompartilhadaInterceptor {
+
+    @Inject
+    FonteConexoes fonteConexoes;
+
+    @AroundInvoke
+    Object compartilhar(InvocationContext contexto) throws Exception {
+        try (FonteConexoes.Escopo escopo = fonteConexoes.compartilhar()) {
+            return contexto.proceed();
+        }
+    }
+}
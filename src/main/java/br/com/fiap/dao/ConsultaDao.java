@@ -2,58 +2,65 @@ package br.com.fiap.dao;
 
 import br.com.fiap.models.Consulta;
 import br.com.fiap.models.Profissional;
+import io.quarkus.arc.properties.IfBuildProperty;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
-import javax.sql.DataSource;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Classe responsável por realizar operações de persistência relacionadas à entidade {@link Consulta}.
  * Inclui métodos de CRUD e o gerenciamento da relação N:N entre {@link Consulta} e {@link Profissional}.
  */
 @ApplicationScoped
-public class ConsultaDao {
+@IfBuildProperty(name = "app.armazenamento", stringValue = "jdbc", enableIfMissing = true)
+@Resiliente("consultas")
+public class ConsultaDao implements ConsultaRepositorio {
 
     @Inject
-    DataSource dataSource;
+    FonteConexoes conexoes;
+
+    @Inject
+    GeradorIds geradorIds;
 
     /**
      * Cadastra uma nova consulta no banco de dados.
      * Também realiza o vínculo com os profissionais informados.
+     * A consulta e os vínculos são gravados em uma única transação; os vínculos são enviados em um único lote.
      */
     public void cadastrarConsulta(Consulta consulta) {
-        int proximoId = gerarProximoIdConsulta();
+        int proximoId = geradorIds.proximoId(GeradorIds.SEQ_CONSULTA);
 
         String sql = """
             INSERT INTO CONSULTA (id_consulta, tipo_consulta, data_consulta, motivo_consulta)
             VALUES (?, ?, ?, ?)
         """;
 
-        try (Connection conexao = dataSource.getConnection();
-             PreparedStatement ps = conexao.prepareStatement(sql, new String[]{"id_consulta"})) {
+        try (UnidadeDeTrabalho uow = UnidadeDeTrabalho.iniciar(conexoes)) {
 
-            ps.setInt(1, proximoId);
-            ps.setString(2, consulta.getTipoConsulta());
-            ps.setDate(3, Date.valueOf(consulta.getDataConsulta()));
-            ps.setString(4, consulta.getMotivoConsulta());
+            try (PreparedStatement ps = uow.conexao().prepareStatement(sql)) {
+                ps.setInt(1, proximoId);
+                ps.setString(2, consulta.getTipoConsulta());
+                ps.setDate(3, Date.valueOf(consulta.getDataConsulta()));
+                ps.setString(4, consulta.getMotivoConsulta());
 
-            ps.executeUpdate();
-
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    consulta.setIdConsulta(rs.getInt(1));
-                }
+                ps.executeUpdate();
             }
 
             // Vincula profissionais à consulta
-            if (consulta.getProfissionais() != null && !consulta.getProfissionais().isEmpty()) {
-                for (Profissional p : consulta.getProfissionais()) {
-                    vincularProfissional(consulta.getIdConsulta(), p.getId());
-                }
-            }
+            vincularProfissionais(uow.conexao(), proximoId, idsDosProfissionais(consulta.getProfissionais()));
+
+            uow.confirmar();
+            consulta.setIdConsulta(proximoId);
 
             System.out.println("Consulta cadastrada com sucesso! ID: " + consulta.getIdConsulta());
 
@@ -64,49 +71,85 @@ public class ConsultaDao {
     }
 
     /**
-     * Gera o próximo ID disponível para uma nova consulta.
+     * Retorna uma lista de todas as consultas cadastradas no banco de dados,
+     * incluindo os profissionais vinculados a cada uma.
+     * Os profissionais são carregados em lote na mesma conexão, evitando uma consulta por linha.
      */
-    private int gerarProximoIdConsulta() {
-        String sql = "SELECT NVL(MAX(id_consulta), 0) + 1 AS proximo_id FROM CONSULTA";
+    @Repetivel
+    public List<Consulta> listarConsultas() {
+        List<Consulta> lista = new ArrayList<>();
+        Map<Integer, Consulta> consultasPorId = new HashMap<>();
+        String sql = "SELECT " + MapeadorLinhas.COLUNAS_CONSULTA + " FROM CONSULTA ORDER BY data_consulta DESC";
+
+        try (Connection conexao = conexoes.obterLeitura()) {
 
-        try (Connection conexao = dataSource.getConnection();
-             PreparedStatement ps = conexao.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+            try (PreparedStatement ps = conexao.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
 
-            if (rs.next()) {
-                return rs.getInt("proximo_id");
+                while (rs.next()) {
+                    Consulta c = MapeadorLinhas.consulta(rs);
+                    lista.add(c);
+                    consultasPorId.put(c.getIdConsulta(), c);
+                }
             }
 
+            carregarProfissionais(conexao, consultasPorId);
+
+            System.out.println(lista.size() + " consultas listadas.");
+
         } catch (SQLException e) {
-            System.err.println("Erro ao gerar próximo ID da consulta: " + e.getMessage());
+            System.err.println("Erro ao listar consultas: " + e.getMessage());
+            throw new RuntimeException("Erro ao listar consultas", e);
         }
 
-        return 1;
+        return lista;
     }
 
     /**
-     * Retorna uma lista de todas as consultas cadastradas no banco de dados,
-     * incluindo os profissionais vinculados a cada uma.
+     * Retorna uma página de consultas da mais recente para a mais antiga (data e ID decrescentes),
+     * incluindo os profissionais vinculados.
+     * A posição é dada pela chave da última consulta da página anterior (paginação keyset),
+     * de modo que o custo de cada página não depende de quantas vieram antes.
+     *
+     * <p>Os critérios do filtro entram como condições parametrizadas ({@link CondicoesSql}). O tipo usa um índice
+     * por tipo, data e ID decrescentes, e o período usa o próprio índice da paginação (V4__indices_filtros.sql).
+     * Consultas sem data vêm antes das demais ({@code NULLS FIRST}, o padrão do Oracle em ordem decrescente).</p>
+     *
+     * @param filtro     Critérios da listagem.
+     * @param dataAntes  Data da última consulta já entregue (nula se ela não tiver data).
+     * @param idAntes    ID da última consulta já entregue, ou {@code 0} para a primeira página.
+     * @param quantidade Quantidade máxima de consultas retornadas.
      */
-    public List<Consulta> listarConsultas() {
+    @Repetivel
+    public List<Consulta> listarConsultas(FiltroConsulta filtro, LocalDate dataAntes, int idAntes, int quantidade) {
         List<Consulta> lista = new ArrayList<>();
-        String sql = "SELECT * FROM CONSULTA ORDER BY data_consulta DESC";
-
-        try (Connection conexao = dataSource.getConnection();
-             PreparedStatement ps = conexao.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                Consulta c = new Consulta();
-                c.setIdConsulta(rs.getInt("id_consulta"));
-                c.setTipoConsulta(rs.getString("tipo_consulta"));
-                c.setDataConsulta(rs.getDate("data_consulta").toLocalDate());
-                c.setMotivoConsulta(rs.getString("motivo_consulta"));
-                c.setProfissionais(buscarProfissionaisDaConsulta(c.getIdConsulta()));
-                lista.add(c);
+        Map<Integer, Consulta> consultasPorId = new HashMap<>();
+        CondicoesSql condicoes = new CondicoesSql()
+                .se(filtro.tipoConsulta(), "tipo_consulta = ?")
+                .se(filtro.dataInicio(), "data_consulta >= ?")
+                .se(filtro.dataFim(), "data_consulta <= ?")
+                .quando(idAntes > 0 && dataAntes != null,
+                        "data_consulta <= ? AND (data_consulta < ? OR id_consulta < ?)", dataAntes, dataAntes, idAntes)
+                .quando(idAntes > 0 && dataAntes == null,
+                        "(data_consulta IS NOT NULL OR id_consulta < ?)", idAntes);
+        String sql = "SELECT " + MapeadorLinhas.COLUNAS_CONSULTA + " FROM CONSULTA" + condicoes.where()
+                + " ORDER BY data_consulta DESC NULLS FIRST, id_consulta DESC FETCH FIRST ? ROWS ONLY";
+
+        try (Connection conexao = conexoes.obterLeitura()) {
+
+            try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+                ps.setInt(condicoes.aplicar(ps, 1), quantidade);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Consulta c = MapeadorLinhas.consulta(rs);
+                        lista.add(c);
+                        consultasPorId.put(c.getIdConsulta(), c);
+                    }
+                }
             }
 
-            System.out.println(lista.size() + " consultas listadas.");
+            carregarProfissionais(conexao, consultasPorId);
 
         } catch (SQLException e) {
             System.err.println("Erro ao listar consultas: " + e.getMessage());
@@ -119,41 +162,106 @@ public class ConsultaDao {
     /**
      * Busca uma consulta pelo seu identificador.
      */
+    @Repetivel
     public Consulta buscarPorId(int id) {
-        Consulta consulta = null;
-        String sql = "SELECT * FROM CONSULTA WHERE id_consulta = ?";
+        try (Connection conexao = conexoes.obterLeitura()) {
+            Consulta consulta = buscarPorId(conexao, id);
+            if (consulta != null) {
+                carregarProfissionais(conexao, Map.of(id, consulta));
+            }
+            return consulta;
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar consulta por ID: " + e.getMessage());
+            throw new RuntimeException("Erro ao buscar consulta por ID: " + id, e);
+        }
+    }
 
-        try (Connection conexao = dataSource.getConnection();
-             PreparedStatement ps = conexao.prepareStatement(sql)) {
+    /**
+     * Busca várias consultas pelos IDs, com os profissionais vinculados, em blocos de {@link ListaIn}:
+     * um comando para as consultas e um para os profissionais a cada {@value ListaIn#TAMANHO_MAXIMO} IDs,
+     * todos na mesma conexão.
+     *
+     * @return Consultas encontradas, indexadas pelo ID; IDs inexistentes ficam fora do mapa.
+     */
+    @Repetivel
+    public Map<Integer, Consulta> buscarPorIds(Collection<Integer> ids) {
+        Map<Integer, Consulta> encontradas = new HashMap<>();
+        List<Integer> lista = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (lista.isEmpty()) {
+            return encontradas;
+        }
+
+        try (Connection conexao = conexoes.obterLeitura()) {
+            for (int inicio = 0; inicio < lista.size(); inicio += ListaIn.TAMANHO_MAXIMO) {
+                List<Integer> bloco = lista.subList(inicio, Math.min(inicio + ListaIn.TAMANHO_MAXIMO, lista.size()));
+                int tamanho = ListaIn.tamanho(bloco.size());
+                String sql = "SELECT " + MapeadorLinhas.COLUNAS_CONSULTA
+                        + " FROM CONSULTA WHERE id_consulta IN (" + ListaIn.marcadores(tamanho) + ")";
+
+                try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+                    for (int i = 0; i < tamanho; i++) {
+                        ps.setInt(i + 1, bloco.get(Math.min(i, bloco.size() - 1)));
+                    }
+
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            Consulta c = MapeadorLinhas.consulta(rs);
+                            encontradas.put(c.getIdConsulta(), c);
+                        }
+                    }
+                }
+            }
 
+            carregarProfissionais(conexao, encontradas);
+
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar consultas por IDs: " + e.getMessage());
+            throw new RuntimeException("Erro ao buscar consultas por IDs", e);
+        }
+
+        return encontradas;
+    }
+
+    /**
+     * Lê somente a linha da consulta, sem os profissionais vinculados.
+     */
+    private Consulta buscarPorId(Connection conexao, int id) throws SQLException {
+        Consulta consulta = null;
+        String sql = "SELECT " + MapeadorLinhas.COLUNAS_CONSULTA + " FROM CONSULTA WHERE id_consulta = ?";
+
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
             ps.setInt(1, id);
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    consulta = new Consulta();
-                    consulta.setIdConsulta(rs.getInt("id_consulta"));
-                    consulta.setTipoConsulta(rs.getString("tipo_consulta"));
-                    consulta.setDataConsulta(rs.getDate("data_consulta").toLocalDate());
-                    consulta.setMotivoConsulta(rs.getString("motivo_consulta"));
-                    consulta.setProfissionais(buscarProfissionaisDaConsulta(id));
+                    consulta = MapeadorLinhas.consulta(rs);
 
                     System.out.println("Consulta encontrada: " + consulta.getTipoConsulta());
                 } else {
                     System.out.println("Consulta não encontrada com ID: " + id);
                 }
             }
-
-        } catch (SQLException e) {
-            System.err.println("Erro ao buscar consulta por ID: " + e.getMessage());
-            throw new RuntimeException("Erro ao buscar consulta por ID: " + id, e);
         }
 
         return consulta;
     }
 
     /**
-     * Atualiza os dados de uma consulta existente.
-     * Também atualiza os vínculos de profissionais associados.
+     * Atualiza os dados de uma consulta existente e sincroniza seus vínculos com profissionais, na mesma transação.
+     *
+     * <p>Somente a diferença entre os vínculos atuais e os de {@link Consulta#getProfissionais()} é gravada:
+     * vínculos removidos e incluídos são enviados cada um em um lote, e a tabela CONSULTA_PROFIS
+     * não é tocada quando o conjunto de profissionais não mudou.</p>
+     *
+     * <p>Os vínculos atuais são lidos dentro da transação, depois do {@code UPDATE}, que bloqueia a linha da
+     * consulta: duas atualizações da mesma consulta calculam a diferença uma depois da outra, sem perder
+     * vínculos gravados pela outra.</p>
+     *
+     * <p>Não faz parte de {@link ConsultaRepositorio}: nenhum endpoint altera os vínculos de uma consulta
+     * existente, e o {@code PUT} usa {@link #atualizarDadosConsulta(Consulta)}. Se passar a ser exposto,
+     * {@link #excluirConsulta(int)} precisa bloquear a consulta antes dos vínculos, na mesma ordem deste.</p>
+     *
+     * @param consulta Consulta com os novos dados e profissionais.
      */
     public Consulta atualizarConsulta(Consulta consulta) {
         if (consulta.getIdConsulta() == null || consulta.getIdConsulta() <= 0) {
@@ -166,27 +274,34 @@ public class ConsultaDao {
             WHERE id_consulta = ?
         """;
 
-        try (Connection conexao = dataSource.getConnection();
-             PreparedStatement ps = conexao.prepareStatement(sql)) {
+        try (UnidadeDeTrabalho uow = UnidadeDeTrabalho.iniciar(conexoes)) {
 
-            ps.setString(1, consulta.getTipoConsulta());
-            ps.setDate(2, Date.valueOf(consulta.getDataConsulta()));
-            ps.setString(3, consulta.getMotivoConsulta());
-            ps.setInt(4, consulta.getIdConsulta());
+            int rows;
+            try (PreparedStatement ps = uow.conexao().prepareStatement(sql)) {
+                ps.setString(1, consulta.getTipoConsulta());
+                ps.setDate(2, Date.valueOf(consulta.getDataConsulta()));
+                ps.setString(3, consulta.getMotivoConsulta());
+                ps.setInt(4, consulta.getIdConsulta());
 
-            int rows = ps.executeUpdate();
+                rows = ps.executeUpdate();
+            }
 
             if (rows > 0) {
-                System.out.println("Consulta atualizada com sucesso! ID: " + consulta.getIdConsulta());
+                // Atualiza somente os vínculos que mudaram, a partir do estado visto com a consulta já bloqueada
+                Set<Integer> atuais = buscarIdsProfissionais(uow.conexao(), consulta.getIdConsulta());
+                Set<Integer> desejados = idsDosProfissionais(consulta.getProfissionais());
 
-                // Atualiza vínculos
-                desvincularTodosProfissionais(consulta.getIdConsulta());
-                if (consulta.getProfissionais() != null && !consulta.getProfissionais().isEmpty()) {
-                    for (Profissional p : consulta.getProfissionais()) {
-                        vincularProfissional(consulta.getIdConsulta(), p.getId());
-                    }
-                }
+                Set<Integer> removidos = new LinkedHashSet<>(atuais);
+                removidos.removeAll(desejados);
+                Set<Integer> incluidos = new LinkedHashSet<>(desejados);
+                incluidos.removeAll(atuais);
+
+                desvincularProfissionais(uow.conexao(), consulta.getIdConsulta(), removidos);
+                vincularProfissionais(uow.conexao(), consulta.getIdConsulta(), incluidos);
+                uow.confirmar();
 
+                System.out.println("Consulta atualizada com sucesso! ID: " + consulta.getIdConsulta()
+                        + " (vínculos: -" + removidos.size() + " +" + incluidos.size() + ")");
             } else {
                 System.out.println("Nenhuma consulta encontrada para atualização. ID: " + consulta.getIdConsulta());
             }
@@ -199,23 +314,97 @@ public class ConsultaDao {
     }
 
     /**
-     * Exclui uma consulta e remove seus vínculos com profissionais.
+     * Atualiza os campos não nulos da consulta informada (tipo, data e motivo), sem alterar seus vínculos
+     * com profissionais, e retorna o estado gravado já com os profissionais carregados.
+     *
+     * <p>No Oracle, a gravação e a leitura da consulta são um único comando ({@code UPDATE ... RETURNING});
+     * os profissionais são lidos em seguida, na mesma conexão.</p>
+     *
+     * @return Consulta como ficou gravada, ou {@code null} se não houver consulta com o ID.
      */
-    public void excluirConsulta(int id) {
+    public Consulta atualizarDadosConsulta(Consulta consulta) {
+        if (consulta.getIdConsulta() == null || consulta.getIdConsulta() <= 0) {
+            throw new IllegalArgumentException("ID inválido para atualização.");
+        }
+
+        String sql = """
+            UPDATE CONSULTA
+            SET tipo_consulta = NVL(?, tipo_consulta), data_consulta = NVL(?, data_consulta),
+                motivo_consulta = NVL(?, motivo_consulta)
+            WHERE id_consulta = ?
+        """;
+
+        try (Connection conexao = conexoes.obter()) {
+            boolean comRetorno = RetornoDml.suportado(conexao);
+            Consulta atualizada = null;
+
+            try (PreparedStatement ps = conexao.prepareStatement(
+                    comRetorno ? sql + RetornoDml.clausula(MapeadorLinhas.COLUNAS_CONSULTA) : sql)) {
+
+                ps.setString(1, consulta.getTipoConsulta());
+                ps.setDate(2, consulta.getDataConsulta() != null ? Date.valueOf(consulta.getDataConsulta()) : null);
+                ps.setString(3, consulta.getMotivoConsulta());
+                ps.setInt(4, consulta.getIdConsulta());
+                if (comRetorno) {
+                    RetornoDml.registrar(ps, 5, RetornoDml.TIPOS_CONSULTA);
+                }
+
+                if (ps.executeUpdate() == 0) {
+                    System.out.println("Nenhuma consulta encontrada para atualização. ID: " + consulta.getIdConsulta());
+                    return null;
+                }
+
+                if (comRetorno) {
+                    try (ResultSet rs = RetornoDml.resultado(ps)) {
+                        if (rs.next()) {
+                            atualizada = MapeadorLinhas.consulta(rs);
+                        }
+                    }
+                }
+            }
+
+            if (!comRetorno) {
+                atualizada = buscarPorId(conexao, consulta.getIdConsulta());
+            }
+
+            if (atualizada != null) {
+                carregarProfissionais(conexao, Map.of(atualizada.getIdConsulta(), atualizada));
+            }
+
+            System.out.println("Consulta atualizada com sucesso! ID: " + consulta.getIdConsulta());
+            return atualizada;
+
+        } catch (SQLException e) {
+            System.err.println("Erro ao atualizar consulta: " + e.getMessage());
+            throw new RuntimeException("Erro ao atualizar consulta", e);
+        }
+    }
+
+    /**
+     * Exclui uma consulta e remove seus vínculos com profissionais, na mesma transação.
+     *
+     * @return {@code true} se a consulta existia e foi excluída.
+     */
+    public boolean excluirConsulta(int id) {
         String sql = "DELETE FROM CONSULTA WHERE id_consulta = ?";
 
-        try (Connection conexao = dataSource.getConnection();
-             PreparedStatement ps = conexao.prepareStatement(sql)) {
+        try (UnidadeDeTrabalho uow = UnidadeDeTrabalho.iniciar(conexoes)) {
 
-            desvincularTodosProfissionais(id);
-            ps.setInt(1, id);
-            int rows = ps.executeUpdate();
+            desvincularTodosProfissionais(uow.conexao(), id);
+
+            int rows;
+            try (PreparedStatement ps = uow.conexao().prepareStatement(sql)) {
+                ps.setInt(1, id);
+                rows = ps.executeUpdate();
+            }
+            uow.confirmar();
 
             if (rows > 0) {
                 System.out.println("Consulta excluída com sucesso. ID: " + id);
             } else {
                 System.out.println("Nenhuma consulta encontrada para exclusão. ID: " + id);
             }
+            return rows > 0;
 
         } catch (SQLException e) {
             System.err.println("Erro ao excluir consulta: " + e.getMessage());
@@ -225,75 +414,126 @@ public class ConsultaDao {
 
 
     /**
-     * Cria um vínculo entre um profissional e uma consulta.
+     * Cria os vínculos entre uma consulta e os profissionais informados, enviando todos em um único lote.
      */
-    private void vincularProfissional(int idConsulta, int idProfissional) {
+    private void vincularProfissionais(Connection conexao, int idConsulta, Set<Integer> idsProfissionais)
+            throws SQLException {
+        if (idsProfissionais.isEmpty()) {
+            return;
+        }
+
         String sql = "INSERT INTO CONSULTA_PROFIS (fk_consulta, fk_profis) VALUES (?, ?)";
 
-        try (Connection conexao = dataSource.getConnection();
-             PreparedStatement ps = conexao.prepareStatement(sql)) {
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            for (int idProfissional : idsProfissionais) {
+                ps.setInt(1, idConsulta);
+                ps.setInt(2, idProfissional);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Remove os vínculos entre uma consulta e os profissionais informados, enviando todos em um único lote.
+     */
+    private void desvincularProfissionais(Connection conexao, int idConsulta, Set<Integer> idsProfissionais)
+            throws SQLException {
+        if (idsProfissionais.isEmpty()) {
+            return;
+        }
+
+        String sql = "DELETE FROM CONSULTA_PROFIS WHERE fk_consulta = ? AND fk_profis = ?";
+
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            for (int idProfissional : idsProfissionais) {
+                ps.setInt(1, idConsulta);
+                ps.setInt(2, idProfissional);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
 
+    /**
+     * Retorna os IDs dos profissionais vinculados hoje a uma consulta.
+     */
+    private Set<Integer> buscarIdsProfissionais(Connection conexao, int idConsulta) throws SQLException {
+        Set<Integer> ids = new LinkedHashSet<>();
+        String sql = "SELECT fk_profis FROM CONSULTA_PROFIS WHERE fk_consulta = ?";
+
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
             ps.setInt(1, idConsulta);
-            ps.setInt(2, idProfissional);
-            ps.executeUpdate();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
 
-        } catch (SQLException e) {
-            System.err.println("Erro ao vincular profissional à consulta: " + e.getMessage());
+    /**
+     * Extrai os IDs de uma lista de profissionais, sem repetições.
+     */
+    public static Set<Integer> idsDosProfissionais(List<Profissional> profissionais) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        if (profissionais != null) {
+            for (Profissional p : profissionais) {
+                ids.add(p.getId());
+            }
         }
+        return ids;
     }
 
     /**
      * Remove todos os vínculos entre profissionais e uma consulta.
      */
-    private void desvincularTodosProfissionais(int idConsulta) {
+    private void desvincularTodosProfissionais(Connection conexao, int idConsulta) throws SQLException {
         String sql = "DELETE FROM CONSULTA_PROFIS WHERE fk_consulta = ?";
 
-        try (Connection conexao = dataSource.getConnection();
-             PreparedStatement ps = conexao.prepareStatement(sql)) {
-
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
             ps.setInt(1, idConsulta);
             ps.executeUpdate();
-
-        } catch (SQLException e) {
-            System.err.println("Erro ao desvincular profissionais da consulta: " + e.getMessage());
         }
     }
 
     /**
-     * Busca todos os profissionais associados a uma consulta específica.
+     * Preenche a lista de profissionais de cada consulta informada.
+     * Os IDs são enviados em blocos de {@link ListaIn}, de modo que o número de comandos
+     * cresce com a quantidade de blocos e não com a quantidade de consultas.
      */
-    private List<Profissional> buscarProfissionaisDaConsulta(int idConsulta) {
-        List<Profissional> lista = new ArrayList<>();
+    private void carregarProfissionais(Connection conexao, Map<Integer, Consulta> consultasPorId) throws SQLException {
+        if (consultasPorId.isEmpty()) {
+            return;
+        }
 
-        String sql = """
-            SELECT p.id_profissional, p.nome_profissional, p.especialidade_profissional, 
-                   p.tipo_atend, p.crm_profissional
-            FROM PROFISSIONAL p
-            JOIN CONSULTA_PROFIS cp ON p.id_profissional = cp.fk_profis
-            WHERE cp.fk_consulta = ?
-        """;
+        List<Integer> ids = new ArrayList<>(consultasPorId.keySet());
 
-        try (Connection conexao = dataSource.getConnection();
-             PreparedStatement ps = conexao.prepareStatement(sql)) {
+        for (int inicio = 0; inicio < ids.size(); inicio += ListaIn.TAMANHO_MAXIMO) {
+            List<Integer> bloco = ids.subList(inicio, Math.min(inicio + ListaIn.TAMANHO_MAXIMO, ids.size()));
+            int tamanho = ListaIn.tamanho(bloco.size());
 
-            ps.setInt(1, idConsulta);
+            String sql = """
+                SELECT cp.fk_consulta, %s
+                FROM CONSULTA_PROFIS cp
+                JOIN PROFISSIONAL p ON p.id_profissional = cp.fk_profis
+                WHERE cp.fk_consulta IN (%s)
+            """.formatted(MapeadorLinhas.comAlias(MapeadorLinhas.COLUNAS_PROFISSIONAL, "p."),
+                    ListaIn.marcadores(tamanho));
 
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    Profissional p = new Profissional();
-                    p.setId(rs.getInt("id_profissional"));
-                    p.setNome(rs.getString("nome_profissional"));
-                    p.setEspecialidade(rs.getString("especialidade_profissional"));
-                    p.setTipoAtendimento(rs.getString("tipo_atend"));
-                    p.setCrm(rs.getInt("crm_profissional"));
-                    lista.add(p);
+            try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+                for (int i = 0; i < tamanho; i++) {
+                    ps.setInt(i + 1, bloco.get(Math.min(i, bloco.size() - 1)));
                 }
-            }
 
-        } catch (SQLException e) {
-            System.err.println("Erro ao buscar profissionais da consulta: " + e.getMessage());
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Profissional p = MapeadorLinhas.profissional(rs, 2);
+                        consultasPorId.get(rs.getInt(1)).getProfissionais().add(p);
+                    }
+                }
+            }
         }
-
-        return lista;
     }
 }
@@ -0,0 +1,65 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.models.Consulta;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operações de armazenamento de {@link Consulta} e de seus vínculos com profissionais usadas pelos serviços.
+ *
+ * <p>A implementação ativa é escolhida no build por {@code app.armazenamento}: {@link ConsultaDao} (JDBC, padrão)
+ * ou {@link br.com.fiap.dao.memoria.ConsultaRepositorioMemoria} (em memória).</p>
+ */
+public interface ConsultaRepositorio {
+
+    /**
+     * Cadastra uma nova consulta com os vínculos aos profissionais informados e preenche o seu ID.
+     */
+    void cadastrarConsulta(Consulta consulta);
+
+    /**
+     * Retorna todas as consultas com seus profissionais, da mais recente para a mais antiga.
+     */
+    List<Consulta> listarConsultas();
+
+    /**
+     * Retorna uma página das consultas que atendem ao filtro, com seus profissionais, ordenadas por data e ID
+     * decrescentes, após a chave informada.
+     *
+     * @param filtro     Critérios da listagem.
+     * @param dataAntes  Data da última consulta já entregue (nula se ela não tiver data; essas vêm primeiro).
+     * @param idAntes    ID da última consulta já entregue, ou {@code 0} para a primeira página.
+     * @param quantidade Quantidade máxima de consultas retornadas.
+     */
+    List<Consulta> listarConsultas(FiltroConsulta filtro, LocalDate dataAntes, int idAntes, int quantidade);
+
+    /**
+     * @return Consulta com o ID e seus profissionais, ou {@code null} se não existir.
+     */
+    Consulta buscarPorId(int id);
+
+    /**
+     * Busca várias consultas de uma vez, com os profissionais vinculados, com poucas idas ao banco
+     * independentemente da quantidade de IDs.
+     *
+     * @return Consultas encontradas, indexadas pelo ID; IDs inexistentes ficam fora do mapa.
+     */
+    Map<Integer, Consulta> buscarPorIds(Collection<Integer> ids);
+
+    /**
+     * Atualiza os campos não nulos da consulta (tipo, data e motivo), sem alterar seus vínculos.
+     *
+     * @return Consulta como ficou gravada, com seus profissionais, ou {@code null} se não houver consulta com o ID.
+     */
+    Consulta atualizarDadosConsulta(Consulta consulta);
+
+    /**
+     * Exclui a consulta e seus vínculos com profissionais.
+     *
+     * @return {@code true} se a consulta existia e foi excluída.
+     */
+    boolean excluirConsulta(int id);
+}
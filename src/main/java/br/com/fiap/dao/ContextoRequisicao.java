@@ -0,0 +1,149 @@
+package br.com.fiap.dao;
+
+/**
+ * Estado de acesso ao banco da requisição HTTP em andamento na thread atual.
+ *
+ * <p>É iniciado e encerrado pelo filtro de requisições. Fora de uma requisição (tarefas em segundo plano,
+ * testes), {@link #houveEscrita()} é sempre {@code false}.</p>
+ *
+ * <p>Carrega também o prazo da requisição, definido pelo filtro: cada comando executado pelos DAOs recebe como
+ * tempo limite o que resta dele (ver {@link FonteConexoes}). Como o contexto acompanha a thread, o prazo chega
+ * aos DAOs sem passar por parâmetros dos serviços.</p>
+ */
+public final class ContextoRequisicao {
+
+    /** Valor de {@link #nanosRestantes()} quando não há prazo. */
+    static final long SEM_PRAZO = Long.MAX_VALUE;
+
+    private static final ThreadLocal<ContextoRequisicao> ATUAL = new ThreadLocal<>();
+
+    private boolean escreveu;
+    private int conexoes;
+    private boolean temPrazo;
+    private long prazo;
+    private boolean prazoEsgotado;
+    private boolean recusada;
+
+    private ContextoRequisicao() {}
+
+    /**
+     * Inicia o contexto de uma nova requisição na thread atual, descartando qualquer estado anterior.
+     */
+    public static void iniciar() {
+        ATUAL.set(new ContextoRequisicao());
+    }
+
+    /**
+     * Encerra o contexto da requisição na thread atual.
+     *
+     * @return Quantidade de conexões obtidas do pool durante a requisição.
+     */
+    public static int encerrar() {
+        ContextoRequisicao contexto = ATUAL.get();
+        ATUAL.remove();
+        return contexto != null ? contexto.conexoes : 0;
+    }
+
+    /**
+     * Define o prazo da requisição atual, contado a partir de agora. Sem contexto iniciado, não faz nada.
+     *
+     * @param milissegundos Tempo disponível para a requisição.
+     */
+    public static void definirPrazo(long milissegundos) {
+        ContextoRequisicao contexto = ATUAL.get();
+        if (contexto != null) {
+            contexto.temPrazo = true;
+            contexto.prazo = System.nanoTime() + milissegundos * 1_000_000;
+        }
+    }
+
+    /**
+     * Inicia, em uma thread auxiliar ou na escrita de um corpo transmitido em streaming, um contexto que herda
+     * o prazo restante da requisição que a acionou. Deve ser encerrado com {@link #encerrar()} ao fim da tarefa.
+     *
+     * @param nanosRestantes Valor de {@link #nanosRestantes()} na thread da requisição.
+     */
+    public static void iniciarComPrazo(long nanosRestantes) {
+        iniciar();
+        if (nanosRestantes != SEM_PRAZO) {
+            ContextoRequisicao contexto = ATUAL.get();
+            contexto.temPrazo = true;
+            contexto.prazo = System.nanoTime() + nanosRestantes;
+        }
+    }
+
+    /**
+     * Tempo restante até o prazo da requisição atual, em nanossegundos (zero ou negativo se já passou),
+     * ou {@link #SEM_PRAZO}.
+     */
+    public static long nanosRestantes() {
+        ContextoRequisicao contexto = ATUAL.get();
+        return contexto != null && contexto.temPrazo ? contexto.prazo - System.nanoTime() : SEM_PRAZO;
+    }
+
+    /**
+     * Registra que um comando da requisição atual foi interrompido por falta de prazo.
+     */
+    static void registrarPrazoEsgotado() {
+        ContextoRequisicao contexto = ATUAL.get();
+        if (contexto != null) {
+            contexto.prazoEsgotado = true;
+        }
+    }
+
+    /**
+     * Indica se algum comando da requisição atual foi interrompido por falta de prazo.
+     */
+    public static boolean prazoEsgotado() {
+        ContextoRequisicao contexto = ATUAL.get();
+        return contexto != null && contexto.prazoEsgotado;
+    }
+
+    /**
+     * Registra que uma chamada a um DAO da requisição atual foi recusada pela proteção do banco.
+     */
+    static void registrarRecusa() {
+        ContextoRequisicao contexto = ATUAL.get();
+        if (contexto != null) {
+            contexto.recusada = true;
+        }
+    }
+
+    /**
+     * Indica se alguma chamada a um DAO da requisição atual foi recusada pela proteção do banco
+     * ({@link BancoIndisponivelException}).
+     */
+    public static boolean recusada() {
+        ContextoRequisicao contexto = ATUAL.get();
+        return contexto != null && contexto.recusada;
+    }
+
+    /**
+     * Registra que a requisição atual obteve uma conexão do pool.
+     */
+    static void registrarConexao() {
+        ContextoRequisicao contexto = ATUAL.get();
+        if (contexto != null) {
+            contexto.conexoes++;
+        }
+    }
+
+    /**
+     * Registra que a requisição atual obteve uma conexão de escrita.
+     */
+    static void registrarEscrita() {
+        ContextoRequisicao contexto = ATUAL.get();
+        if (contexto != null) {
+            contexto.escreveu = true;
+        }
+    }
+
+    /**
+     * Indica se a requisição atual já obteve uma conexão de escrita; nesse caso as leituras seguintes
+     * devem ir ao banco principal para enxergar o que foi gravado.
+     */
+    static boolean houveEscrita() {
+        ContextoRequisicao contexto = ATUAL.get();
+        return contexto != null && contexto.escreveu;
+    }
+}
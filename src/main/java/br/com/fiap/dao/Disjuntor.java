@@ -0,0 +1,162 @@
+package br.com.fiap.dao;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Disjuntor (circuit breaker) das chamadas ao banco.
+ *
+ * <p>Fechado, registra o resultado das últimas chamadas em uma janela circular e abre quando, com ao menos
+ * {@code minimoChamadas} na janela, a fração de falhas ou a de chamadas lentas atinge o limite configurado.
+ * Aberto, recusa todas as chamadas até passar {@code tempoAbertoNanos}; depois fica semiaberto e deixa passar
+ * {@code chamadasTeste} chamadas: se todas forem bem-sucedidas e rápidas, fecha com a janela limpa; na
+ * primeira falha ou lentidão, abre de novo.</p>
+ */
+public final class Disjuntor {
+
+    /** Estado do disjuntor. */
+    public enum Estado { FECHADO, ABERTO, SEMIABERTO }
+
+    private static final byte FALHA = 1;
+    private static final byte LENTA = 2;
+
+    private final int minimoChamadas;
+    private final double taxaFalhas;
+    private final double taxaLentas;
+    private final long limiteLentoNanos;
+    private final long tempoAbertoNanos;
+    private final int chamadasTeste;
+    private final LongSupplier relogio;
+
+    private final byte[] janela;
+    private int posicao;
+    private int chamadas;
+    private int falhas;
+    private int lentas;
+
+    private Estado estado = Estado.FECHADO;
+    private long abertoAte;
+    private int testesIniciados;
+    private int testesConcluidos;
+    private long aberturas;
+    private long recusas;
+
+    /**
+     * @param tamanhoJanela    Quantidade de chamadas recentes consideradas.
+     * @param minimoChamadas   Chamadas necessárias na janela antes de avaliar as taxas.
+     * @param taxaFalhas       Fração de falhas (0 a 1) que abre o disjuntor.
+     * @param taxaLentas       Fração de chamadas lentas (0 a 1) que abre o disjuntor.
+     * @param limiteLentoNanos Duração a partir da qual uma chamada é lenta.
+     * @param tempoAbertoNanos Tempo em que o disjuntor fica aberto antes de testar o banco.
+     * @param chamadasTeste    Chamadas liberadas no estado semiaberto.
+     * @param relogio          Fonte de tempo em nanossegundos, como {@link System#nanoTime()}.
+     */
+    Disjuntor(int tamanhoJanela, int minimoChamadas, double taxaFalhas, double taxaLentas,
+              long limiteLentoNanos, long tempoAbertoNanos, int chamadasTeste, LongSupplier relogio) {
+        if (tamanhoJanela <= 0 || chamadasTeste <= 0) {
+            throw new IllegalArgumentException("A janela e as chamadas de teste do disjuntor devem ser positivas.");
+        }
+        this.janela = new byte[tamanhoJanela];
+        this.minimoChamadas = Math.min(Math.max(1, minimoChamadas), tamanhoJanela);
+        this.taxaFalhas = taxaFalhas;
+        this.taxaLentas = taxaLentas;
+        this.limiteLentoNanos = limiteLentoNanos;
+        this.tempoAbertoNanos = tempoAbertoNanos;
+        this.chamadasTeste = chamadasTeste;
+        this.relogio = relogio;
+    }
+
+    /**
+     * Indica se uma chamada pode ir ao banco. Cada chamada permitida deve terminar com
+     * {@link #registrar(boolean, long)}.
+     */
+    synchronized boolean permitir() {
+        if (estado == Estado.ABERTO && relogio.getAsLong() - abertoAte >= 0) {
+            estado = Estado.SEMIABERTO;
+            testesIniciados = 0;
+            testesConcluidos = 0;
+        }
+        if (estado == Estado.FECHADO) {
+            return true;
+        }
+        if (estado == Estado.SEMIABERTO && testesIniciados < chamadasTeste) {
+            testesIniciados++;
+            return true;
+        }
+        recusas++;
+        return false;
+    }
+
+    /**
+     * Registra o resultado de uma chamada permitida.
+     *
+     * @param falha  Se a chamada falhou por erro do banco.
+     * @param nanos  Duração da chamada.
+     */
+    synchronized void registrar(boolean falha, long nanos) {
+        boolean lenta = nanos >= limiteLentoNanos;
+        switch (estado) {
+            case SEMIABERTO -> {
+                if (falha || lenta) {
+                    abrir();
+                } else if (++testesConcluidos >= chamadasTeste) {
+                    fechar();
+                }
+            }
+            case FECHADO -> {
+                byte saida = janela[posicao];
+                if (chamadas == janela.length) {
+                    falhas -= saida & FALHA;
+                    lentas -= (saida & LENTA) >> 1;
+                } else {
+                    chamadas++;
+                }
+                janela[posicao] = (byte) ((falha ? FALHA : 0) | (lenta ? LENTA : 0));
+                falhas += falha ? 1 : 0;
+                lentas += lenta ? 1 : 0;
+                posicao = (posicao + 1) % janela.length;
+
+                if (chamadas >= minimoChamadas
+                        && (falhas >= taxaFalhas * chamadas || lentas >= taxaLentas * chamadas)) {
+                    abrir();
+                }
+            }
+            // Chamadas iniciadas antes da abertura não mudam o estado
+            case ABERTO -> { }
+        }
+    }
+
+    private void abrir() {
+        estado = Estado.ABERTO;
+        abertoAte = relogio.getAsLong() + tempoAbertoNanos;
+        aberturas++;
+        System.err.println("Disjuntor do banco aberto: chamadas recusadas pelos próximos "
+                + tempoAbertoNanos / 1_000_000 + " ms.");
+    }
+
+    private void fechar() {
+        estado = Estado.FECHADO;
+        chamadas = 0;
+        falhas = 0;
+        lentas = 0;
+        posicao = 0;
+        System.out.println("Disjuntor do banco fechado.");
+    }
+
+    /** Estado atual; um disjuntor aberto cujo tempo já passou só fica semiaberto na próxima chamada. */
+    public synchronized Estado getEstado() { return estado; }
+
+    /** Chamadas na janela atual. */
+    public synchronized int getChamadasNaJanela() { return chamadas; }
+
+    /** Fração de falhas na janela atual. */
+    public synchronized double getTaxaFalhas() { return chamadas > 0 ? (double) falhas / chamadas : 0; }
+
+    /** Fração de chamadas lentas na janela atual. */
+    public synchronized double getTaxaLentas() { return chamadas > 0 ? (double) lentas / chamadas : 0; }
+
+    /** Vezes em que o disjuntor abriu desde o início da aplicação. */
+    public synchronized long getAberturas() { return aberturas; }
+
+    /** Chamadas recusadas pelo disjuntor desde o início da aplicação. */
+    public synchronized long getRecusas() { return recusas; }
+}
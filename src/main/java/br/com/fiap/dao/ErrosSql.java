@@ -0,0 +1,146 @@
+package br.com.fiap.dao;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Classificação das {@link SQLException} recebidas pelos DAOs, pelo SQLState e pelo código do fabricante.
+ */
+final class ErrosSql {
+
+    /** SQLState padrão de violação de chave única (H2, PostgreSQL). */
+    private static final String ESTADO_CHAVE_UNICA = "23505";
+
+    /** SQLState padrão de comando cancelado (H2, PostgreSQL). */
+    private static final String ESTADO_CANCELADO = "57014";
+
+    /** Código do Oracle para {@code ORA-01013: user requested cancel of current operation}. */
+    private static final int ORACLE_CANCELADO = 1013;
+
+    /** Código do Oracle para {@code ORA-00001: unique constraint violated}, reportado com SQLState 23000. */
+    private static final int ORACLE_CHAVE_UNICA = 1;
+
+    /**
+     * Códigos do Oracle para objetos que já existem: nome já usado (ORA-00955), colunas já indexadas
+     * (ORA-01408), tabela com chave primária (ORA-02260), chave única ou estrangeira repetida (ORA-02261, ORA-02275).
+     * O índice existente pode não ser único: o {@link MigradorEsquema} confere isso nos índices únicos.
+     */
+    private static final Set<Integer> ORACLE_OBJETO_EXISTENTE = Set.of(955, 1408, 2260, 2261, 2275);
+
+    /**
+     * SQLStates do H2 para objetos que já existem: tabela (42S01), índice (42S11), sequence (90035)
+     * e restrição (90045).
+     */
+    private static final Set<String> ESTADOS_OBJETO_EXISTENTE = Set.of("42S01", "42S11", "90035", "90045");
+
+    /**
+     * SQLStates de falhas transitórias: conexão (classe 08), conflito de serialização (40001)
+     * e deadlock (40P01 no PostgreSQL).
+     */
+    private static final Set<String> ESTADOS_TRANSITORIOS = Set.of("40001", "40P01");
+
+    /**
+     * Códigos do Oracle e do driver JDBC do Oracle para falhas transitórias: deadlock (ORA-00060), serialização
+     * (ORA-08177), banco iniciando ou parando (ORA-01033, ORA-01034, ORA-01089), conexão perdida (ORA-03113,
+     * ORA-03114, ORA-03135), listener inacessível (ORA-12170, ORA-12514, ORA-12528, ORA-12537, ORA-12541),
+     * erros de E/S e conexão fechada no driver (17002, 17008, 17410) e replay impossível após failover (ORA-25408).
+     */
+    private static final Set<Integer> ORACLE_TRANSITORIOS = Set.of(
+            60, 8177, 1033, 1034, 1089, 3113, 3114, 3135, 12170, 12514, 12528, 12537, 12541,
+            17002, 17008, 17410, 25408);
+
+    private ErrosSql() {}
+
+    /**
+     * Indica se o erro, ou algum erro encadeado a ele, é uma violação de índice ou restrição única.
+     */
+    static boolean violacaoUnicidade(SQLException e) {
+        for (SQLException atual = e; atual != null; atual = atual.getNextException()) {
+            if (chaveUnica(atual)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indica se o erro é uma violação da restrição única informada. O nome da restrição aparece na mensagem
+     * do Oracle ({@code ORA-00001: unique constraint (ESQUEMA.NOME) violated}) e do H2; violações de outras
+     * restrições, como a chave primária, não contam.
+     *
+     * @param restricao Nome do índice ou restrição única, como criado pelas migrações.
+     */
+    static boolean violacaoUnicidade(SQLException e, String restricao) {
+        String nome = restricao.toUpperCase(Locale.ROOT);
+        for (SQLException atual = e; atual != null; atual = atual.getNextException()) {
+            String mensagem = atual.getMessage();
+            if (chaveUnica(atual) && mensagem != null && mensagem.toUpperCase(Locale.ROOT).contains(nome)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean chaveUnica(SQLException e) {
+        String estado = e.getSQLState();
+        return ESTADO_CHAVE_UNICA.equals(estado)
+                || (estado != null && estado.startsWith("23") && e.getErrorCode() == ORACLE_CHAVE_UNICA);
+    }
+
+    /**
+     * Indica se o comando foi interrompido por tempo limite ou cancelamento.
+     */
+    static boolean tempoEsgotado(SQLException e) {
+        return e instanceof SQLTimeoutException
+                || ESTADO_CANCELADO.equals(e.getSQLState())
+                || e.getErrorCode() == ORACLE_CANCELADO;
+    }
+
+    /**
+     * Indica se a exceção, ou alguma de suas causas, é um erro do banco que não decorre dos dados enviados:
+     * violações de restrição (SQLState classe 23) não contam.
+     */
+    static boolean falhaDoBanco(Throwable erro) {
+        for (Throwable atual = erro; atual != null; atual = atual.getCause()) {
+            if (atual instanceof SQLException sql) {
+                String estado = sql.getSQLState();
+                return estado == null || !estado.startsWith("23");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indica se a exceção, ou alguma de suas causas, é uma falha transitória do banco, que pode não se repetir
+     * em uma nova tentativa com outra conexão. Tempos limite não contam: decorrem do prazo da requisição.
+     */
+    static boolean transitoria(Throwable erro) {
+        for (Throwable atual = erro; atual != null; atual = atual.getCause()) {
+            if (atual instanceof SQLException sql) {
+                if (sql instanceof SQLTimeoutException) {
+                    return false;
+                }
+                String estado = sql.getSQLState();
+                return sql instanceof SQLTransientConnectionException
+                        || sql instanceof SQLTransactionRollbackException
+                        || sql instanceof SQLRecoverableException
+                        || (estado != null && (estado.startsWith("08") || ESTADOS_TRANSITORIOS.contains(estado)))
+                        || ORACLE_TRANSITORIOS.contains(sql.getErrorCode());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indica se o erro de um comando DDL ocorreu porque o objeto criado por ele já existe.
+     */
+    static boolean objetoExistente(SQLException e) {
+        return ORACLE_OBJETO_EXISTENTE.contains(e.getErrorCode())
+                || ESTADOS_OBJETO_EXISTENTE.contains(e.getSQLState());
+    }
+}
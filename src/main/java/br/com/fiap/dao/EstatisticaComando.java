@@ -0,0 +1,103 @@
+package br.com.fiap.dao;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores acumulados de um comando SQL executado pelos DAOs.
+ *
+ * <p>Os valores são atualizados concorrentemente por todas as requisições e lidos apenas
+ * para exibição, por isso não formam um instantâneo consistente entre si.</p>
+ *
+ * <p>Para consultas, mantém também uma média móvel das linhas lidas por execução, usada pela
+ * {@link FonteConexoes} para escolher o tamanho de fetch da próxima execução.</p>
+ *
+ * <p>{@code preparacoes} conta as chamadas a {@code prepareStatement} feitas pelos DAOs, não os parses no
+ * banco: o reaproveitamento de cursores acontece dentro do cache implícito do driver Oracle, que não expõe
+ * acertos por SQL, por isso os acertos de cache não são contabilizados aqui.</p>
+ */
+public final class EstatisticaComando {
+
+    /** Peso de cada nova leitura na média móvel (exponencial) de linhas por execução. */
+    private static final double PESO_NOVA_LEITURA = 0.25;
+
+    private final String sql;
+    private final LongAdder execucoes = new LongAdder();
+    private final LongAdder tempoNanos = new LongAdder();
+    private final LongAdder linhas = new LongAdder();
+    private final LongAdder preparacoes = new LongAdder();
+    private final LongAdder idasAoBanco = new LongAdder();
+    private double linhasEstimadas = -1;
+    private volatile int tamanhoFetch;
+
+    EstatisticaComando(String sql) {
+        this.sql = sql;
+    }
+
+    void registrarExecucao(long nanos) {
+        execucoes.increment();
+        tempoNanos.add(nanos);
+    }
+
+    void registrarLinhas(long quantidade) {
+        linhas.add(quantidade);
+    }
+
+    void registrarPreparacao() {
+        preparacoes.increment();
+    }
+
+    /**
+     * Escolhe o tamanho de fetch da próxima execução: uma linha a mais que a estimativa de linhas por
+     * execução, para que o driver perceba o fim do resultado na mesma ida ao banco, limitado ao intervalo
+     * informado. Sem leituras anteriores, usa o mínimo.
+     */
+    synchronized int escolherTamanhoFetch(int minimo, int maximo) {
+        int tamanho = linhasEstimadas < 0
+                ? minimo
+                : (int) Math.max(minimo, Math.min(maximo, Math.ceil(linhasEstimadas) + 1));
+        tamanhoFetch = tamanho;
+        return tamanho;
+    }
+
+    /**
+     * Registra uma leitura encerrada, com as linhas lidas e o tamanho de fetch com que foram buscadas.
+     */
+    synchronized void registrarLeitura(long linhas, int fetch) {
+        linhasEstimadas = linhasEstimadas < 0 ? linhas : linhasEstimadas + PESO_NOVA_LEITURA * (linhas - linhasEstimadas);
+        idasAoBanco.add(fetch > 0 ? linhas / fetch + 1 : 1);
+    }
+
+    /**
+     * Zera os contadores. A estimativa de linhas por execução é mantida, pois orienta o tamanho de fetch.
+     */
+    void zerar() {
+        execucoes.reset();
+        tempoNanos.reset();
+        linhas.reset();
+        preparacoes.reset();
+        idasAoBanco.reset();
+    }
+
+    public String getSql() { return sql; }
+
+    /** Quantidade de execuções (cada lote conta como uma execução). */
+    public long getExecucoes() { return execucoes.sum(); }
+
+    /** Tempo total gasto nas chamadas de execução, sem contar a leitura do ResultSet. */
+    public long getTempoNanos() { return tempoNanos.sum(); }
+
+    /** Linhas lidas (consultas) ou afetadas (comandos de escrita). */
+    public long getLinhas() { return linhas.sum(); }
+
+    /** Vezes em que o comando foi preparado pelos DAOs (o driver pode reaproveitar o cursor do seu cache). */
+    public long getPreparacoes() { return preparacoes.sum(); }
+
+    /** Idas ao banco para buscar as linhas das consultas, estimadas pelas linhas lidas e o tamanho de fetch. */
+    public long getIdasAoBanco() { return idasAoBanco.sum(); }
+
+    /** Média móvel de linhas lidas por execução, ou {@code -1} se o comando ainda não foi lido. */
+    public synchronized double getLinhasEstimadas() { return linhasEstimadas; }
+
+    /** Último tamanho de fetch escolhido automaticamente, ou {@code 0} se nunca foi escolhido. */
+    public int getTamanhoFetch() { return tamanhoFetch; }
+}
@@ -0,0 +1,30 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.models.Consulta;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Critérios da listagem de consultas. Campos nulos não filtram.
+ *
+ * @param tipoConsulta Tipo da consulta, comparado por igualdade.
+ * @param dataInicio   Primeira data aceita (inclusive).
+ * @param dataFim      Última data aceita (inclusive).
+ */
+public record FiltroConsulta(String tipoConsulta, LocalDate dataInicio, LocalDate dataFim) {
+
+    /** Filtro que aceita todas as consultas. */
+    public static final FiltroConsulta VAZIO = new FiltroConsulta(null, null, null);
+
+    /**
+     * Indica se a consulta atende aos critérios; usado pelo armazenamento em memória.
+     * Consultas sem data não atendem a um filtro de período, como no banco.
+     */
+    public boolean aceita(Consulta consulta) {
+        LocalDate data = consulta.getDataConsulta();
+        return (tipoConsulta == null || Objects.equals(tipoConsulta, consulta.getTipoConsulta()))
+                && (dataInicio == null || (data != null && !data.isBefore(dataInicio)))
+                && (dataFim == null || (data != null && !data.isAfter(dataFim)));
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.models.Paciente;
+
+import java.util.Objects;
+
+/**
+ * Critérios da listagem de pacientes. Campos nulos não filtram.
+ *
+ * @param tipoAtendimento Tipo de atendimento, comparado por igualdade.
+ */
+public record FiltroPaciente(String tipoAtendimento) {
+
+    /** Filtro que aceita todos os pacientes. */
+    public static final FiltroPaciente VAZIO = new FiltroPaciente(null);
+
+    /**
+     * Indica se o paciente atende aos critérios; usado pelo armazenamento em memória.
+     */
+    public boolean aceita(Paciente paciente) {
+        return tipoAtendimento == null || Objects.equals(tipoAtendimento, paciente.getTipoAtendimento());
+    }
+}
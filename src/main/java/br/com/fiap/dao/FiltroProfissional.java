@@ -0,0 +1,25 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.models.Profissional;
+
+import java.util.Objects;
+
+/**
+ * Critérios da listagem de profissionais. Campos nulos não filtram.
+ *
+ * @param especialidade   Especialidade, comparada por igualdade.
+ * @param tipoAtendimento Tipo de atendimento, comparado por igualdade.
+ */
+public record FiltroProfissional(String especialidade, String tipoAtendimento) {
+
+    /** Filtro que aceita todos os profissionais. */
+    public static final FiltroProfissional VAZIO = new FiltroProfissional(null, null);
+
+    /**
+     * Indica se o profissional atende aos critérios; usado pelo armazenamento em memória.
+     */
+    public boolean aceita(Profissional profissional) {
+        return (especialidade == null || Objects.equals(especialidade, profissional.getEspecialidade()))
+                && (tipoAtendimento == null || Objects.equals(tipoAtendimento, profissional.getTipoAtendimento()));
+    }
+}
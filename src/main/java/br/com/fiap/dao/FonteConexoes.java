@@ -0,0 +1,564 @@
+package br.com.fiap.dao;
+
+import io.agroal.api.AgroalDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Origem das conexões usadas pelos DAOs, com estatísticas por SQL.
+ *
+ * <p>As conexões e os comandos entregues aos DAOs apenas envolvem os do pool: {@code close()} os devolve ou
+ * fecha normalmente, sem passar por cima do controle de vazamentos do Agroal. O reaproveitamento dos cursores
+ * entre usos da mesma conexão física fica com o cache implícito de comandos do driver Oracle
+ * ({@code oracle.jdbc.implicitStatementCacheSize}, definido em {@code application.properties}).</p>
+ *
+ * <p>As leituras podem ser distribuídas entre réplicas com {@link #obterLeitura()}.</p>
+ *
+ * <p>Consultas cujo DAO não define o tamanho de fetch recebem um tamanho adaptado às linhas que o mesmo SQL
+ * costuma retornar (ver {@link EstatisticaComando}), entre {@code app.comandos.fetch-minimo} e
+ * {@code app.comandos.fetch-maximo}. Assim, listagens grandes não ficam presas ao padrão do driver
+ * (10 linhas por ida ao banco no Oracle) e buscas pontuais não reservam memória à toa.</p>
+ *
+ * <p>Durante uma requisição com prazo ({@link ContextoRequisicao#definirPrazo(long)}), cada execução recebe
+ * o tempo restante como {@code setQueryTimeout} e é cancelada com {@link java.sql.Statement#cancel()} quando
+ * o prazo termina; comandos interrompidos, cancelados enquanto terminavam, ou iniciados com o prazo já
+ * esgotado, falham com {@link SQLTimeoutException}.</p>
+ *
+ * <p>Todas as execuções são contabilizadas em {@link EstatisticaComando} (execuções, tempo,
+ * linhas e preparações), disponíveis em {@link #estatisticas()}.</p>
+ */
+@ApplicationScoped
+public class FonteConexoes {
+
+    /** Cancela os comandos que ultrapassam o prazo da requisição; compartilhado por todas as fontes. */
+    private static final ScheduledExecutorService CANCELADOR = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "prazo-comandos");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    @Any
+    Instance<DataSource> dataSources;
+
+    @ConfigProperty(name = "app.comandos.fetch-minimo", defaultValue = "10")
+    int fetchMinimo = 10;
+
+    @ConfigProperty(name = "app.comandos.fetch-maximo", defaultValue = "1000")
+    int fetchMaximo = 1000;
+
+    @ConfigProperty(name = "app.replicas.nomes")
+    Optional<List<String>> nomesReplicas;
+
+    @ConfigProperty(name = "app.replicas.balanceamento", defaultValue = "round-robin")
+    String balanceamento;
+
+    BalanceadorReplicas replicas = new BalanceadorReplicas(List.of(), BalanceadorReplicas.Estrategia.ROUND_ROBIN);
+
+    private final Map<String, EstatisticaComando> estatisticas = new ConcurrentHashMap<>();
+    private final ThreadLocal<Escopo> escopoAtual = new ThreadLocal<>();
+    private final LongAdder requisicoes = new LongAdder();
+    private final LongAdder conexoesEmRequisicoes = new LongAdder();
+    private final AtomicInteger maximoConexoesPorRequisicao = new AtomicInteger();
+
+    @PostConstruct
+    void iniciar() {
+        List<String> nomes = nomesReplicas.orElse(List.of());
+        if (nomes.isEmpty()) {
+            return;
+        }
+
+        List<BalanceadorReplicas.Replica> lista = new ArrayList<>();
+        for (String nome : nomes) {
+            DataSource replica = dataSources.select(new io.quarkus.agroal.DataSource.DataSourceLiteral(nome)).get();
+            lista.add(new BalanceadorReplicas.Replica(nome, replica));
+        }
+        replicas = new BalanceadorReplicas(lista, BalanceadorReplicas.Estrategia.deConfiguracao(balanceamento));
+        System.out.println("Leituras distribuídas entre as réplicas " + nomes + " (" + balanceamento + ").");
+    }
+
+    /**
+     * Obtém uma conexão do banco principal, para escrita. Deve ser fechada pelo chamador, como uma conexão comum.
+     * A partir daí, as leituras da mesma requisição também vão ao banco principal.
+     *
+     * @return Conexão cujos comandos são contabilizados nas estatísticas.
+     * @throws SQLException Caso não seja possível obter a conexão.
+     */
+    public Connection obter() throws SQLException {
+        ContextoRequisicao.registrarEscrita();
+        Escopo escopo = escopoAtual.get();
+        if (escopo != null) {
+            return escopo.conexao();
+        }
+        return abrir(dataSource, null);
+    }
+
+    /**
+     * Obtém uma conexão para comandos somente de leitura.
+     *
+     * <p>Se houver réplicas configuradas em {@code app.replicas.nomes}, a conexão vem de uma delas, escolhida
+     * conforme {@code app.replicas.balanceamento}. As leituras vão ao banco principal quando não há réplicas,
+     * quando a réplica escolhida está indisponível ou quando a requisição atual já escreveu, para que ela
+     * sempre enxergue as próprias gravações.</p>
+     *
+     * @return Conexão que não deve ser usada para gravar.
+     * @throws SQLException Caso não seja possível obter a conexão.
+     */
+    public Connection obterLeitura() throws SQLException {
+        Escopo escopo = escopoAtual.get();
+        if (escopo != null) {
+            return escopo.conexao();
+        }
+        if (replicas.vazio() || ContextoRequisicao.houveEscrita()) {
+            return abrir(dataSource, null);
+        }
+
+        BalanceadorReplicas.Replica replica = replicas.escolher();
+        replica.pendentes.incrementAndGet();
+        try {
+            return abrir(replica.dataSource, replica.pendentes::decrementAndGet);
+        } catch (SQLException e) {
+            replica.pendentes.decrementAndGet();
+            System.err.println("Réplica " + replica.nome + " indisponível, lendo do banco principal: " + e.getMessage());
+            return abrir(dataSource, null);
+        }
+    }
+
+    /**
+     * Indica se há réplicas de leitura configuradas em {@code app.replicas.nomes}.
+     */
+    public boolean temReplicas() {
+        return !replicas.vazio();
+    }
+
+    /**
+     * Quantidade mínima de conexões mantidas pelo pool do banco principal ({@code min-size} do datasource),
+     * ou zero se o {@link DataSource} não for um pool do Agroal.
+     */
+    public int tamanhoMinimoPool() {
+        return dataSource instanceof AgroalDataSource pool
+                ? pool.getConfiguration().connectionPoolConfiguration().minSize()
+                : 0;
+    }
+
+    /**
+     * Abre um escopo em que todas as conexões obtidas na thread atual, de leitura ou de escrita, são a mesma
+     * conexão do banco principal. Ela só é obtida do pool quando algum DAO a solicita e é devolvida ao fechar
+     * o escopo mais externo. Escopos aninhados reaproveitam o escopo já aberto.
+     *
+     * @return Escopo que deve ser fechado pelo chamador.
+     */
+    public Escopo compartilhar() {
+        Escopo atual = escopoAtual.get();
+        if (atual != null) {
+            atual.nivel++;
+            return atual;
+        }
+        Escopo novo = new Escopo();
+        escopoAtual.set(novo);
+        return novo;
+    }
+
+    /**
+     * Indica se há um escopo de {@link #compartilhar()} aberto na thread atual.
+     */
+    boolean emEscopo() {
+        return escopoAtual.get() != null;
+    }
+
+    /**
+     * Cria uma fonte avulsa sobre outro {@link DataSource}, com as mesmas configurações de fetch
+     * desta, sem réplicas e sem escopo compartilhado. As estatísticas da nova fonte são próprias.
+     */
+    FonteConexoes sobre(DataSource origem) {
+        FonteConexoes fonte = new FonteConexoes();
+        fonte.dataSource = origem;
+        fonte.fetchMinimo = fetchMinimo;
+        fonte.fetchMaximo = fetchMaximo;
+        return fonte;
+    }
+
+    /**
+     * Registra a quantidade de conexões obtidas do pool por uma requisição encerrada.
+     */
+    public void registrarRequisicao(int conexoes) {
+        requisicoes.increment();
+        conexoesEmRequisicoes.add(conexoes);
+        maximoConexoesPorRequisicao.accumulateAndGet(conexoes, Math::max);
+    }
+
+    /** Quantidade de requisições HTTP encerradas. */
+    public long getRequisicoes() { return requisicoes.sum(); }
+
+    /** Total de conexões obtidas do pool durante requisições HTTP. */
+    public long getConexoesEmRequisicoes() { return conexoesEmRequisicoes.sum(); }
+
+    /** Maior quantidade de conexões obtidas do pool por uma única requisição. */
+    public int getMaximoConexoesPorRequisicao() { return maximoConexoesPorRequisicao.get(); }
+
+    private Connection abrir(DataSource origem, Runnable aoFechar) throws SQLException {
+        Connection conexao = origem.getConnection();
+        ContextoRequisicao.registrarConexao();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                new ConexaoInterceptada(conexao, aoFechar));
+    }
+
+    /**
+     * Retorna as estatísticas acumuladas de todos os comandos executados.
+     */
+    public Collection<EstatisticaComando> estatisticas() {
+        return Collections.unmodifiableCollection(estatisticas.values());
+    }
+
+    /**
+     * Zera as estatísticas acumuladas.
+     */
+    public void zerarEstatisticas() {
+        estatisticas.values().forEach(EstatisticaComando::zerar);
+    }
+
+    private EstatisticaComando estatistica(String sql) {
+        return estatisticas.computeIfAbsent(sql, EstatisticaComando::new);
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Escopo de conexão compartilhada aberto por {@link #compartilhar()}.
+     */
+    public final class Escopo implements AutoCloseable {
+
+        private int nivel = 1;
+        private Connection conexao;
+        private Connection semFechar;
+
+        private Escopo() {}
+
+        /**
+         * Retorna a conexão do escopo, obtendo-a do pool na primeira chamada.
+         * O {@code close()} da conexão retornada não tem efeito; ela é fechada pelo escopo.
+         */
+        private Connection conexao() throws SQLException {
+            if (conexao == null) {
+                conexao = abrir(dataSource, null);
+                semFechar = (Connection) Proxy.newProxyInstance(
+                        Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                        (proxy, metodo, args) -> switch (metodo.getName()) {
+                            case "close" -> null;
+                            case "isClosed" -> false;
+                            case "equals" -> proxy == args[0];
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            default -> invocar(conexao, metodo, args);
+                        });
+            }
+            return semFechar;
+        }
+
+        @Override
+        public void close() {
+            if (--nivel > 0) {
+                return;
+            }
+            escopoAtual.remove();
+            if (conexao != null) {
+                try {
+                    conexao.close();
+                } catch (SQLException e) {
+                    System.err.println("Erro ao devolver conexão compartilhada: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Conexão entregue aos DAOs: contabiliza os comandos preparados e os entrega interceptados.
+     */
+    private final class ConexaoInterceptada implements InvocationHandler {
+
+        private final Connection conexao;
+        private Runnable aoFechar;
+
+        ConexaoInterceptada(Connection conexao, Runnable aoFechar) {
+            this.conexao = conexao;
+            this.aoFechar = aoFechar;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String nome = metodo.getName();
+            if (nome.equals("prepareStatement") || nome.equals("prepareCall")) {
+                EstatisticaComando estatistica = estatistica((String) args[0]);
+                estatistica.registrarPreparacao();
+                return new ComandoInterceptado((PreparedStatement) invocar(conexao, metodo, args), estatistica).proxy;
+            }
+            if (nome.equals("close") && aoFechar != null) {
+                try {
+                    return invocar(conexao, metodo, args);
+                } finally {
+                    aoFechar.run();
+                    aoFechar = null;
+                }
+            }
+            if (nome.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (nome.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            return invocar(conexao, metodo, args);
+        }
+    }
+
+    /**
+     * Comando preparado entregue aos DAOs. Mede as execuções e aplica o prazo da requisição.
+     */
+    private final class ComandoInterceptado implements InvocationHandler {
+
+        private final PreparedStatement ps;
+        private final EstatisticaComando estatistica;
+        private final PreparedStatement proxy;
+        private ResultadoInterceptado leituraAberta;
+        private boolean fetchDefinido;
+
+        ComandoInterceptado(PreparedStatement ps, EstatisticaComando estatistica) {
+            this.ps = ps;
+            this.estatistica = estatistica;
+            Class<?> tipo = ps instanceof CallableStatement ? CallableStatement.class : PreparedStatement.class;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(), new Class<?>[]{tipo}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String nome = metodo.getName();
+            if (nome.equals("close")) {
+                encerrarLeitura();
+            }
+            if (nome.startsWith("execute") && (args == null || args.length == 0)) {
+                return executar(metodo);
+            }
+            if (nome.equals("setFetchSize")) {
+                fetchDefinido = true;
+            }
+            if (nome.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (nome.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            return invocar(ps, metodo, args);
+        }
+
+        private Object executar(Method metodo) throws Throwable {
+            if (!fetchDefinido && metodo.getName().equals("executeQuery")) {
+                ps.setFetchSize(estatistica.escolherTamanhoFetch(fetchMinimo, fetchMaximo));
+            }
+
+            long restante = ContextoRequisicao.nanosRestantes();
+            CancelamentoExecucao cancelamento = null;
+            if (restante != ContextoRequisicao.SEM_PRAZO) {
+                if (restante <= 0) {
+                    ContextoRequisicao.registrarPrazoEsgotado();
+                    throw new SQLTimeoutException("Prazo da requisição esgotado antes de executar o comando.");
+                }
+                // O tempo limite do driver é em segundos; o cancelamento agendado respeita o prazo exato
+                ps.setQueryTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(restante + 999_999_999L)));
+                cancelamento = CancelamentoExecucao.agendar(ps, restante);
+            }
+
+            long inicio = System.nanoTime();
+            Object resultado;
+            boolean cancelado = false;
+            try {
+                resultado = invocar(ps, metodo, null);
+            } catch (SQLException e) {
+                if (cancelamento != null && (ErrosSql.tempoEsgotado(e) || ContextoRequisicao.nanosRestantes() <= 0)) {
+                    ContextoRequisicao.registrarPrazoEsgotado();
+                    throw new SQLTimeoutException("Prazo da requisição esgotado durante o comando.",
+                            e.getSQLState(), e.getErrorCode(), e);
+                }
+                throw e;
+            } finally {
+                if (cancelamento != null) {
+                    cancelado = cancelamento.encerrar();
+                }
+            }
+            if (cancelado) {
+                // O cancelamento chegou ao driver enquanto o comando terminava; o Oracle pode aplicá-lo à
+                // chamada seguinte da conexão, então a execução é tratada como interrompida pelo prazo
+                if (resultado instanceof ResultSet rs) {
+                    rs.close();
+                }
+                ContextoRequisicao.registrarPrazoEsgotado();
+                throw new SQLTimeoutException("Prazo da requisição esgotado ao fim do comando.");
+            }
+            estatistica.registrarExecucao(System.nanoTime() - inicio);
+
+            if (resultado instanceof ResultSet rs) {
+                return interceptarResultado(rs);
+            }
+            if (resultado instanceof Integer afetadas) {
+                estatistica.registrarLinhas(afetadas);
+            } else if (resultado instanceof Long afetadas) {
+                estatistica.registrarLinhas(afetadas);
+            } else if (resultado instanceof int[] lote) {
+                for (int afetadas : lote) {
+                    if (afetadas > 0) {
+                        estatistica.registrarLinhas(afetadas);
+                    }
+                }
+            }
+            return resultado;
+        }
+
+        private ResultSet interceptarResultado(ResultSet rs) throws SQLException {
+            encerrarLeitura();
+            leituraAberta = new ResultadoInterceptado(rs, estatistica, rs.getFetchSize());
+            return (ResultSet) Proxy.newProxyInstance(
+                    ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class}, leituraAberta);
+        }
+
+        private void encerrarLeitura() {
+            if (leituraAberta != null) {
+                leituraAberta.encerrar();
+                leituraAberta = null;
+            }
+        }
+    }
+
+    /**
+     * Cancelamento agendado de uma única execução de um comando.
+     *
+     * <p>O disparo e o fim da execução são sincronizados: depois de {@link #encerrar()}, um disparo atrasado
+     * (já em andamento quando o agendamento foi cancelado) não chama {@link java.sql.Statement#cancel()}.
+     * Sem essa guarda, o cancelamento poderia atingir a execução seguinte do mesmo comando ou o próximo
+     * comando da conexão.</p>
+     */
+    static final class CancelamentoExecucao implements Runnable {
+
+        private final PreparedStatement ps;
+        private ScheduledFuture<?> agendamento;
+        private boolean emExecucao = true;
+        private boolean disparado;
+
+        private CancelamentoExecucao(PreparedStatement ps) {
+            this.ps = ps;
+        }
+
+        /**
+         * Agenda o cancelamento da execução de {@code ps} que está para começar, após o tempo informado.
+         */
+        static CancelamentoExecucao agendar(PreparedStatement ps, long nanos) {
+            CancelamentoExecucao cancelamento = new CancelamentoExecucao(ps);
+            cancelamento.agendamento = CANCELADOR.schedule(cancelamento, nanos, TimeUnit.NANOSECONDS);
+            return cancelamento;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (!emExecucao) {
+                return;
+            }
+            disparado = true;
+            try {
+                ps.cancel();
+            } catch (SQLException e) {
+                System.err.println("Erro ao cancelar comando após o prazo: " + e.getMessage());
+            }
+        }
+
+        /**
+         * Marca a execução como terminada e cancela o agendamento. Espera um disparo em andamento terminar.
+         *
+         * @return Se o cancelamento chegou a ser enviado ao driver.
+         */
+        synchronized boolean encerrar() {
+            emExecucao = false;
+            agendamento.cancel(false);
+            return disparado;
+        }
+    }
+
+    /**
+     * ResultSet entregue aos DAOs; conta as linhas lidas e, ao fim da leitura, as registra na estimativa do comando.
+     */
+    private static final class ResultadoInterceptado implements InvocationHandler {
+
+        private final ResultSet rs;
+        private final EstatisticaComando estatistica;
+        private final int fetch;
+        private long linhas;
+        private boolean encerrado;
+
+        ResultadoInterceptado(ResultSet rs, EstatisticaComando estatistica, int fetch) {
+            this.rs = rs;
+            this.estatistica = estatistica;
+            this.fetch = fetch;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String nome = metodo.getName();
+            if (nome.equals("close")) {
+                encerrar();
+            }
+            Object resultado = invocar(rs, metodo, args);
+            if (nome.equals("next")) {
+                if (Boolean.TRUE.equals(resultado)) {
+                    linhas++;
+                    estatistica.registrarLinhas(1);
+                } else {
+                    encerrar();
+                }
+            }
+            return resultado;
+        }
+
+        /** Registra a leitura uma única vez, no fim do resultado ou ao fechar o que restou. */
+        void encerrar() {
+            if (!encerrado) {
+                encerrado = true;
+                estatistica.registrarLeitura(linhas, fetch);
+            }
+        }
+    }
+}
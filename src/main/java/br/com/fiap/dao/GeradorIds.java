@@ -0,0 +1,91 @@
+package br.com.fiap.dao;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serviço compartilhado de geração de identificadores para os DAOs.
+ *
+ * <p>Usa o algoritmo hi-lo sobre sequences do banco: cada {@code NEXTVAL} reserva para esta instância
+ * um bloco de {@code app.ids.tamanho-bloco} IDs ({@code hi * tamanhoBloco} até {@code (hi + 1) * tamanhoBloco - 1}),
+ * que são entregues em memória. Assim, os inserts não precisam de uma consulta extra a cada registro e
+ * instâncias diferentes nunca recebem o mesmo ID.</p>
+ *
+ * <p>Todas as instâncias da aplicação devem usar o mesmo tamanho de bloco. As sequences esperadas são
+ * {@value #SEQ_PACIENTE}, {@value #SEQ_PROFISSIONAL} e {@value #SEQ_CONSULTA}, criadas pelo {@link MigradorEsquema}
+ * com {@code INCREMENT BY 1}. Em bancos com dados anteriores, o valor atual de cada sequence deve ser maior que
+ * {@code MAX(id) / tamanhoBloco} da respectiva tabela; o {@link MigradorEsquema} as ajusta ao adotar as tabelas.</p>
+ */
+@ApplicationScoped
+public class GeradorIds {
+
+    public static final String SEQ_PACIENTE = "SEQ_PACIENTE";
+    public static final String SEQ_PROFISSIONAL = "SEQ_PROFISSIONAL";
+    public static final String SEQ_CONSULTA = "SEQ_CONSULTA";
+
+    @Inject
+    FonteConexoes conexoes;
+
+    @ConfigProperty(name = "app.ids.tamanho-bloco", defaultValue = "50")
+    int tamanhoBloco;
+
+    private final Map<String, Bloco> blocos = new ConcurrentHashMap<>();
+
+    /**
+     * Retorna o próximo ID disponível para a sequence informada.
+     * Só acessa o banco quando o bloco reservado para esta instância se esgota.
+     *
+     * @param sequencia Nome da sequence (uma das constantes desta classe).
+     * @return Novo identificador único.
+     */
+    public int proximoId(String sequencia) {
+        return blocos.computeIfAbsent(sequencia, Bloco::new).proximo();
+    }
+
+    /**
+     * Faixa de IDs reservada para uma sequence.
+     */
+    private final class Bloco {
+
+        private final String sequencia;
+        private long proximo;
+        private long limite;
+
+        Bloco(String sequencia) {
+            this.sequencia = sequencia;
+        }
+
+        synchronized int proximo() {
+            if (proximo >= limite) {
+                long hi = reservarHi();
+                proximo = hi * tamanhoBloco;
+                limite = proximo + tamanhoBloco;
+            }
+            return Math.toIntExact(proximo++);
+        }
+
+        private long reservarHi() {
+            String sql = "SELECT " + sequencia + ".NEXTVAL FROM DUAL";
+
+            try (Connection conexao = conexoes.obter();
+                 PreparedStatement ps = conexao.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
+
+                rs.next();
+                return rs.getLong(1);
+
+            } catch (SQLException e) {
+                System.err.println("Erro ao reservar bloco de IDs da sequence " + sequencia + ": " + e.getMessage());
+                throw new RuntimeException("Erro ao gerar ID para " + sequencia, e);
+            }
+        }
+    }
+}
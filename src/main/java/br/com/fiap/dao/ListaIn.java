@@ -0,0 +1,39 @@
+package br.com.fiap.dao;
+
+import java.util.Collections;
+
+/**
+ * Regras compartilhadas pelos DAOs para montar cláusulas {@code IN (?, ?, ...)} com muitos valores.
+ *
+ * <p>Os valores são enviados em blocos de até {@value #TAMANHO_MAXIMO} por comando (limite do IN no Oracle).
+ * O tamanho de cada bloco é arredondado para um dos valores de {@link #TAMANHOS}, repetindo o último valor,
+ * para que o banco veja poucos textos de SQL distintos e reaproveite os planos de execução.</p>
+ */
+final class ListaIn {
+
+    static final int TAMANHO_MAXIMO = 1000;
+
+    /** Tamanhos padronizados dos blocos de valores enviados em cláusulas IN. */
+    private static final int[] TAMANHOS = {10, 100, TAMANHO_MAXIMO};
+
+    private ListaIn() {}
+
+    /**
+     * Retorna o menor tamanho de bloco padronizado capaz de conter a quantidade informada.
+     */
+    static int tamanho(int quantidade) {
+        for (int tamanho : TAMANHOS) {
+            if (quantidade <= tamanho) {
+                return tamanho;
+            }
+        }
+        return TAMANHO_MAXIMO;
+    }
+
+    /**
+     * Retorna a lista de marcadores {@code ?, ?, ...} com a quantidade informada.
+     */
+    static String marcadores(int tamanho) {
+        return String.join(", ", Collections.nCopies(tamanho, "?"));
+    }
+}
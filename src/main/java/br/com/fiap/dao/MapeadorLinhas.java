@@ -0,0 +1,106 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.models.Consulta;
+import br.com.fiap.models.Paciente;
+import br.com.fiap.models.Profissional;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Conversão das linhas de {@link ResultSet} nos modelos, usada por todos os DAOs.
+ *
+ * <p>As colunas são lidas por posição, na ordem definida pelas constantes {@code COLUNAS_*},
+ * que devem ser usadas na lista do SELECT. Isso evita a busca da coluna pelo nome a cada linha lida.
+ * Colunas que aceitam nulo ({@code idade_pac}, {@code nivel_tec}, {@code data_consulta}) viram {@code null}
+ * no modelo.</p>
+ *
+ * <p>Os mapeadores são escritos à mão, não gerados em tempo de compilação: são três modelos com poucas colunas,
+ * e um processador de anotações exigiria um módulo próprio no build. A correspondência entre as constantes,
+ * as tabelas e os modelos é conferida pelo {@code MapeadorLinhasTest}.</p>
+ */
+final class MapeadorLinhas {
+
+    static final String COLUNAS_PACIENTE =
+            "id_pac, nome_pac, idade_pac, nivel_tec, tipo_atendimento, cpf_pac, senha_pac";
+
+    static final String COLUNAS_PROFISSIONAL =
+            "id_profissional, nome_profissional, especialidade_profissional, tipo_atend, crm_profissional";
+
+    static final String COLUNAS_CONSULTA =
+            "id_consulta, tipo_consulta, data_consulta, motivo_consulta";
+
+    private MapeadorLinhas() {}
+
+    /**
+     * Monta um {@link Paciente} a partir da linha atual, com as colunas de {@link #COLUNAS_PACIENTE}
+     * a partir da primeira posição.
+     */
+    static Paciente paciente(ResultSet rs) throws SQLException {
+        return new Paciente(
+                rs.getInt(1),
+                rs.getString(2),
+                inteiro(rs, 3),
+                inteiro(rs, 4),
+                rs.getString(5),
+                rs.getString(6),
+                rs.getString(7)
+        );
+    }
+
+    /**
+     * Monta um {@link Profissional} a partir da linha atual, com as colunas de {@link #COLUNAS_PROFISSIONAL}
+     * a partir da primeira posição.
+     */
+    static Profissional profissional(ResultSet rs) throws SQLException {
+        return profissional(rs, 1);
+    }
+
+    /**
+     * Monta um {@link Profissional} a partir da linha atual, com as colunas de {@link #COLUNAS_PROFISSIONAL}
+     * a partir da posição informada.
+     */
+    static Profissional profissional(ResultSet rs, int primeira) throws SQLException {
+        return new Profissional(
+                rs.getInt(primeira),
+                rs.getString(primeira + 1),
+                rs.getString(primeira + 2),
+                rs.getString(primeira + 3),
+                rs.getInt(primeira + 4)
+        );
+    }
+
+    /**
+     * Monta uma {@link Consulta} (sem profissionais) a partir da linha atual, com as colunas de
+     * {@link #COLUNAS_CONSULTA} a partir da primeira posição.
+     */
+    static Consulta consulta(ResultSet rs) throws SQLException {
+        return new Consulta(
+                rs.getInt(1),
+                rs.getString(2),
+                data(rs, 3),
+                rs.getString(4)
+        );
+    }
+
+    /** Valor inteiro da coluna, ou {@code null} se ela for nula. */
+    private static Integer inteiro(ResultSet rs, int posicao) throws SQLException {
+        int valor = rs.getInt(posicao);
+        return rs.wasNull() ? null : valor;
+    }
+
+    /** Data da coluna, ou {@code null} se ela for nula. */
+    private static LocalDate data(ResultSet rs, int posicao) throws SQLException {
+        Date valor = rs.getDate(posicao);
+        return valor != null ? valor.toLocalDate() : null;
+    }
+
+    /**
+     * Prefixa cada coluna da lista com o alias de tabela informado (ex.: {@code "p."}).
+     */
+    static String comAlias(String colunas, String alias) {
+        return alias + colunas.replace(", ", ", " + alias);
+    }
+}
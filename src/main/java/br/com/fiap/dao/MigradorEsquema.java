@@ -0,0 +1,312 @@
+package br.com.fiap.dao;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cria e evolui as tabelas, índices e sequences usados pelos DAOs ao iniciar a aplicação.
+ *
+ * <p>Cada migração é um script em {@value #DIRETORIO}, listado em {@link #MIGRACOES} na ordem de aplicação,
+ * com nome {@code V<versão>__<descrição>.sql} e comandos terminados por {@code ;} no fim da linha.
+ * As versões já aplicadas ficam registradas na tabela {@value #TABELA_VERSAO}; um script aplicado
+ * não deve ser alterado, e mudanças de esquema entram como um novo script no fim da lista.</p>
+ *
+ * <p>Comandos que criam objetos já existentes são ignorados com aviso. Assim, um banco criado
+ * antes do controle de versão é adotado, e instâncias que iniciam ao mesmo tempo não falham por aplicarem
+ * a mesma migração. Um índice único só é dado como existente se a tabela já tiver um índice único nas mesmas
+ * colunas; um índice comum nelas (ORA-01408) interrompe a migração, pois não garante a unicidade.</p>
+ *
+ * <p>Ao adotar tabelas com dados, as sequences do {@link GeradorIds} são avançadas para além de
+ * {@code MAX(id) / app.ids.tamanho-bloco}, para que os blocos de IDs reservados não colidam com os IDs
+ * gerados antes (por {@code MAX(id) + 1}).</p>
+ *
+ * <p>Os shards de pacientes em outros datasources ({@link ShardsPaciente}) recebem as mesmas migrações.</p>
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "app.armazenamento", stringValue = "jdbc", enableIfMissing = true)
+public class MigradorEsquema {
+
+    static final String DIRETORIO = "db/migracoes/";
+    static final String TABELA_VERSAO = "SCHEMA_VERSAO";
+
+    /** Scripts de migração, na ordem em que devem ser aplicados. */
+    static final List<String> MIGRACOES = List.of(
+            "V1__tabelas_e_sequences.sql",
+            "V2__indices.sql",
+            "V3__arquivo_consultas.sql",
+            "V4__indices_filtros.sql");
+
+    /** Sequences do {@link GeradorIds} e a consulta do maior ID já usado na tabela de cada uma. */
+    private static final Map<String, String> MAIOR_ID_POR_SEQUENCE = Map.of(
+            GeradorIds.SEQ_PACIENTE, "SELECT MAX(id_pac) FROM PACIENTE",
+            GeradorIds.SEQ_PROFISSIONAL, "SELECT MAX(id_profissional) FROM PROFISSIONAL",
+            GeradorIds.SEQ_CONSULTA, "SELECT MAX(id_consulta) FROM CONSULTA");
+
+    /** Comando de criação de índice único: tabela e colunas. */
+    private static final Pattern INDICE_UNICO = Pattern.compile(
+            "CREATE\\s+UNIQUE\\s+INDEX\\s+\\w+\\s+ON\\s+(\\w+)\\s*\\(([^)]*)\\)", Pattern.CASE_INSENSITIVE);
+
+    @Inject
+    FonteConexoes conexoes;
+
+    @Inject
+    ShardsPaciente shards;
+
+    @ConfigProperty(name = "app.migracoes.habilitadas", defaultValue = "true")
+    boolean habilitadas;
+
+    @ConfigProperty(name = "app.ids.tamanho-bloco", defaultValue = "50")
+    int tamanhoBloco;
+
+    void aoIniciar(@Observes StartupEvent evento) {
+        if (habilitadas) {
+            migrar();
+            for (FonteConexoes shard : shards.adicionais()) {
+                migrar(shard);
+            }
+        }
+    }
+
+    /**
+     * Aplica, em ordem, as migrações ainda não registradas em {@value #TABELA_VERSAO} do banco principal.
+     *
+     * @return Quantidade de migrações aplicadas nesta chamada.
+     */
+    public int migrar() {
+        return migrar(conexoes);
+    }
+
+    /**
+     * Aplica, em ordem, as migrações ainda não registradas em {@value #TABELA_VERSAO} do banco informado.
+     *
+     * @return Quantidade de migrações aplicadas nesta chamada.
+     */
+    int migrar(FonteConexoes fonte) {
+        try (Connection conexao = fonte.obter()) {
+            executar(conexao, """
+                CREATE TABLE SCHEMA_VERSAO (
+                    versao NUMBER(10) PRIMARY KEY, descricao VARCHAR2(200), aplicada_em TIMESTAMP)
+            """);
+
+            Set<Integer> aplicadas = versoesAplicadas(conexao);
+            int quantidade = 0;
+
+            for (String script : MIGRACOES) {
+                int versao = versao(script);
+                if (aplicadas.contains(versao)) {
+                    continue;
+                }
+
+                for (String comando : comandos(script)) {
+                    executar(conexao, comando);
+                }
+                if (versao == 1) {
+                    // Tabelas adotadas podem ter IDs gerados antes do GeradorIds
+                    for (Map.Entry<String, String> sequence : MAIOR_ID_POR_SEQUENCE.entrySet()) {
+                        ajustarSequence(conexao, sequence.getKey(), sequence.getValue());
+                    }
+                }
+                registrar(conexao, versao, descricao(script));
+                quantidade++;
+
+                System.out.println("Migração aplicada: " + script);
+            }
+
+            System.out.println("Esquema do banco atualizado (" + quantidade + " migrações aplicadas).");
+            return quantidade;
+
+        } catch (SQLException e) {
+            System.err.println("Erro ao migrar esquema do banco: " + e.getMessage());
+            throw new RuntimeException("Erro ao migrar esquema do banco", e);
+        }
+    }
+
+    private void executar(Connection conexao, String comando) throws SQLException {
+        try (Statement st = conexao.createStatement()) {
+            st.execute(comando);
+        } catch (SQLException e) {
+            if (!jaAplicado(conexao, comando, e)) {
+                throw e;
+            }
+            System.out.println("Objeto já existente, comando ignorado: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Indica se o erro do comando significa que o objeto já existe e o comando pode ser ignorado.
+     * Para um índice único, só se a tabela já tiver um índice único nas mesmas colunas.
+     */
+    static boolean jaAplicado(Connection conexao, String comando, SQLException e) throws SQLException {
+        if (!ErrosSql.objetoExistente(e)) {
+            return false;
+        }
+        Matcher indice = INDICE_UNICO.matcher(comando.strip());
+        if (!indice.lookingAt()) {
+            return true;
+        }
+
+        String tabela = indice.group(1).toUpperCase(Locale.ROOT);
+        Set<String> colunas = new HashSet<>();
+        for (String coluna : indice.group(2).split(",")) {
+            colunas.add(coluna.strip().toUpperCase(Locale.ROOT));
+        }
+        if (indicesUnicos(conexao, tabela).contains(colunas)) {
+            return true;
+        }
+        System.err.println("Índice único não criado: as colunas " + colunas + " de " + tabela
+                + " já têm um índice não único. Remova-o para que a migração crie o índice único.");
+        return false;
+    }
+
+    /**
+     * Colunas de cada índice único da tabela, no esquema da conexão.
+     */
+    private static Set<Set<String>> indicesUnicos(Connection conexao, String tabela) throws SQLException {
+        Map<String, Set<String>> colunasPorIndice = new HashMap<>();
+        // approximate = true: sem coleta de estatísticas (ANALYZE) no Oracle
+        try (ResultSet rs = conexao.getMetaData().getIndexInfo(null, conexao.getSchema(), tabela, true, true)) {
+            while (rs.next()) {
+                String nome = rs.getString("INDEX_NAME");
+                String coluna = rs.getString("COLUMN_NAME");
+                if (nome != null && coluna != null) {
+                    colunasPorIndice.computeIfAbsent(nome, n -> new HashSet<>()).add(coluna.toUpperCase(Locale.ROOT));
+                }
+            }
+        }
+        return new HashSet<>(colunasPorIndice.values());
+    }
+
+    /**
+     * Avança a sequence, se necessário, para que o próximo bloco de IDs comece depois do maior ID da tabela.
+     * Usa {@code INCREMENT BY} temporário, aceito pelo Oracle e pelo H2; instâncias que reservem um bloco
+     * durante o ajuste só recebem valores maiores.
+     */
+    private void ajustarSequence(Connection conexao, String sequence, String sqlMaiorId) throws SQLException {
+        long maiorId;
+        try (PreparedStatement ps = conexao.prepareStatement(sqlMaiorId);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            maiorId = rs.getLong(1);
+        }
+        if (maiorId <= 0) {
+            return;
+        }
+
+        long necessario = maiorId / tamanhoBloco + 1;
+        long atual = proximoValor(conexao, sequence);
+        if (atual >= necessario) {
+            return;
+        }
+
+        try (Statement st = conexao.createStatement()) {
+            st.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + (necessario - atual));
+            try {
+                proximoValor(conexao, sequence);
+            } finally {
+                st.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY 1");
+            }
+        }
+        System.out.println("Sequence " + sequence + " avançada para " + necessario
+                + " (maior ID existente: " + maiorId + ").");
+    }
+
+    private static long proximoValor(Connection conexao, String sequence) throws SQLException {
+        try (PreparedStatement ps = conexao.prepareStatement("SELECT " + sequence + ".NEXTVAL FROM DUAL");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private Set<Integer> versoesAplicadas(Connection conexao) throws SQLException {
+        Set<Integer> versoes = new HashSet<>();
+        try (PreparedStatement ps = conexao.prepareStatement("SELECT versao FROM SCHEMA_VERSAO");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                versoes.add(rs.getInt(1));
+            }
+        }
+        return versoes;
+    }
+
+    private void registrar(Connection conexao, int versao, String descricao) throws SQLException {
+        String sql = "INSERT INTO SCHEMA_VERSAO (versao, descricao, aplicada_em) VALUES (?, ?, ?)";
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            ps.setInt(1, versao);
+            ps.setString(2, descricao);
+            ps.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            // Outra instância registrou a mesma versão ao mesmo tempo
+            if (!ErrosSql.violacaoUnicidade(e)) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Lê o script informado e o divide em comandos, ignorando linhas em branco e comentários ({@code --}).
+     */
+    static List<String> comandos(String script) {
+        String conteudo;
+        try (InputStream entrada = MigradorEsquema.class.getClassLoader().getResourceAsStream(DIRETORIO + script)) {
+            if (entrada == null) {
+                throw new IllegalStateException("Migração não encontrada: " + DIRETORIO + script);
+            }
+            conteudo = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao ler migração: " + script, e);
+        }
+
+        List<String> comandos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        for (String linha : conteudo.split("\\R")) {
+            String limpa = linha.strip();
+            if (limpa.isEmpty() || limpa.startsWith("--")) {
+                continue;
+            }
+            if (limpa.endsWith(";")) {
+                atual.append(limpa, 0, limpa.length() - 1);
+                comandos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(limpa).append('\n');
+            }
+        }
+        if (!atual.toString().isBlank()) {
+            comandos.add(atual.toString());
+        }
+        return comandos;
+    }
+
+    static int versao(String script) {
+        return Integer.parseInt(script.substring(1, script.indexOf("__")));
+    }
+
+    private static String descricao(String script) {
+        return script.substring(script.indexOf("__") + 2, script.lastIndexOf('.')).replace('_', ' ');
+    }
+}
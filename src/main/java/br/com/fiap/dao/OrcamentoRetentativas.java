@@ -0,0 +1,53 @@
+package br.com.fiap.dao;
+
+/**
+ * Limita as novas tentativas a uma fração das chamadas, para que elas não multipliquem a carga durante
+ * uma queda do banco.
+ *
+ * <p>Cada chamada acrescenta {@code proporcao} ao saldo, até {@code saldoMaximo}, e cada nova tentativa consome
+ * uma unidade. Com o banco saudável o saldo fica cheio; quando muitas chamadas falham, ele se esgota e as
+ * falhas seguintes são devolvidas sem repetir.</p>
+ */
+public final class OrcamentoRetentativas {
+
+    private final double proporcao;
+    private final double saldoMaximo;
+    private double saldo;
+    private long concedidas;
+    private long negadas;
+
+    OrcamentoRetentativas(double proporcao, double saldoMaximo) {
+        this.proporcao = proporcao;
+        this.saldoMaximo = saldoMaximo;
+        this.saldo = saldoMaximo;
+    }
+
+    /** Registra uma chamada nova (não uma nova tentativa). */
+    synchronized void registrarChamada() {
+        saldo = Math.min(saldoMaximo, saldo + proporcao);
+    }
+
+    /**
+     * Consome uma unidade do saldo para uma nova tentativa.
+     *
+     * @return {@code false} se o saldo estiver esgotado.
+     */
+    synchronized boolean retirar() {
+        if (saldo >= 1) {
+            saldo -= 1;
+            concedidas++;
+            return true;
+        }
+        negadas++;
+        return false;
+    }
+
+    /** Saldo atual de novas tentativas. */
+    public synchronized double getSaldo() { return saldo; }
+
+    /** Novas tentativas concedidas desde o início da aplicação. */
+    public synchronized long getConcedidas() { return concedidas; }
+
+    /** Novas tentativas negadas por falta de saldo desde o início da aplicação. */
+    public synchronized long getNegadas() { return negadas; }
+}
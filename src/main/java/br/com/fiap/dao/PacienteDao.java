@@ -1,93 +1,241 @@
 package br.com.fiap.dao;
 
 import br.com.fiap.models.Paciente;
+import io.quarkus.arc.properties.IfBuildProperty;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
-import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Classe responsável por realizar operações de persistência relacionadas à entidade {@link Paciente}.
  * Inclui métodos de CRUD e consultas por CPF.
+ *
+ * <p>Com {@code app.pacientes.shards}, os pacientes ficam particionados conforme o {@link ShardsPaciente}:
+ * buscas, alterações e exclusões vão ao shard dono do CPF ou do ID, e as listagens consultam todos os
+ * shards em paralelo e intercalam os resultados por nome e ID.</p>
  */
 @ApplicationScoped
-public class PacienteDao {
+@IfBuildProperty(name = "app.armazenamento", stringValue = "jdbc", enableIfMissing = true)
+@Resiliente("pacientes")
+public class PacienteDao implements PacienteRepositorio {
+
+    /** Índice único do CPF, criado em V2__indices.sql. */
+    static final String INDICE_CPF = "UK_PACIENTE_CPF";
+
+    @Inject
+    FonteConexoes conexoes;
 
     @Inject
-    DataSource dataSource;
+    GeradorIds geradorIds;
+
+    @Inject
+    ShardsPaciente shards;
 
     /**
      * Cadastra um novo paciente no banco de dados.
-     * O ID é gerado automaticamente com base no maior valor existente na tabela.
+     * O ID é obtido do {@link GeradorIds}, sem consulta extra ao banco.
+     * O CPF repetido é recusado pelo índice único de {@code cpf_pac}, sem consulta prévia
+     * (exceto durante um rebalanceamento de shards, quando o CPF pode estar fora do shard dono).
+     *
+     * @throws IllegalArgumentException Caso o CPF já esteja cadastrado.
      */
     public void cadastrarPaciente(Paciente paciente) {
-        String sqlGetMax = "SELECT NVL(MAX(id_pac), 0) + 1 AS next_id FROM PACIENTE";
         String sqlInsert = """
             INSERT INTO PACIENTE 
             (id_pac, nome_pac, idade_pac, nivel_tec, tipo_atendimento, cpf_pac, senha_pac)
             VALUES (?, ?, ?, ?, ?, ?, ?)
         """;
 
-        try (Connection conexao = dataSource.getConnection();
-             PreparedStatement psGetId = conexao.prepareStatement(sqlGetMax);
-             ResultSet rs = psGetId.executeQuery()) {
+        if (shards.rebalanceando() && cpfCadastrado(paciente.getCpf())) {
+            throw new IllegalArgumentException("CPF já cadastrado.");
+        }
+
+        int novoId = novoId(paciente.getCpf());
 
-            int nextId = 1;
-            if (rs.next()) {
-                nextId = rs.getInt("next_id");
-            }
+        try (Connection conexao = fontePorCpf(paciente.getCpf()).obter();
+             PreparedStatement ps = conexao.prepareStatement(sqlInsert)) {
 
-            try (PreparedStatement ps = conexao.prepareStatement(sqlInsert)) {
-                ps.setInt(1, nextId);
-                ps.setString(2, paciente.getNome());
-                ps.setInt(3, paciente.getIdade());
-                ps.setInt(4, paciente.getNivelTecnico());
-                ps.setString(5, paciente.getTipoAtendimento());
-                ps.setString(6, paciente.getCpf());
-                ps.setString(7, paciente.getSenha());
+            ps.setInt(1, novoId);
+            ps.setString(2, paciente.getNome());
+            ps.setInt(3, paciente.getIdade());
+            ps.setInt(4, paciente.getNivelTecnico());
+            ps.setString(5, paciente.getTipoAtendimento());
+            ps.setString(6, paciente.getCpf());
+            ps.setString(7, paciente.getSenha());
 
-                ps.executeUpdate();
-                paciente.setId(nextId);
-            }
+            ps.executeUpdate();
+            paciente.setId(novoId);
 
         } catch (SQLException e) {
+            if (ErrosSql.violacaoUnicidade(e, INDICE_CPF)) {
+                throw new IllegalArgumentException("CPF já cadastrado.", e);
+            }
             System.err.println("Erro ao cadastrar paciente: " + e.getMessage());
             throw new RuntimeException("Erro ao cadastrar paciente", e);
         }
     }
 
     /**
-     * Retorna uma lista de todos os pacientes cadastrados no banco de dados.
+     * Cadastra vários pacientes em um único lote JDBC e uma única transação.
+     * Os IDs são obtidos do {@link GeradorIds} e atribuídos a cada paciente após a gravação.
+     * Se qualquer linha falhar, nenhum paciente do lote é gravado.
+     *
+     * <p>Com shards, cada shard recebe o seu lote em uma transação própria, e todas são confirmadas
+     * só depois de todos os lotes gravados. Uma falha no momento da confirmação ainda pode deixar
+     * parte dos shards gravados.</p>
+     *
+     * @throws IllegalArgumentException Caso algum CPF já esteja cadastrado.
      */
-    public List<Paciente> listarPacientes() {
-        List<Paciente> lista = new ArrayList<>();
-        String sql = "SELECT * FROM PACIENTE ORDER BY nome_pac";
+    public void cadastrarPacientes(List<Paciente> pacientes) {
+        if (pacientes.isEmpty()) {
+            return;
+        }
+
+        String sqlInsert = """
+            INSERT INTO PACIENTE
+            (id_pac, nome_pac, idade_pac, nivel_tec, tipo_atendimento, cpf_pac, senha_pac)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+
+        int[] ids = new int[pacientes.size()];
+        Map<FonteConexoes, List<Integer>> porShard = new LinkedHashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = novoId(pacientes.get(i).getCpf());
+            porShard.computeIfAbsent(fontePorCpf(pacientes.get(i).getCpf()), f -> new ArrayList<>()).add(i);
+        }
+
+        List<UnidadeDeTrabalho> unidades = new ArrayList<>(porShard.size());
+        try {
+            for (Map.Entry<FonteConexoes, List<Integer>> shard : porShard.entrySet()) {
+                UnidadeDeTrabalho uow = UnidadeDeTrabalho.iniciar(shard.getKey());
+                unidades.add(uow);
+
+                try (PreparedStatement ps = uow.conexao().prepareStatement(sqlInsert)) {
+                    for (int i : shard.getValue()) {
+                        Paciente paciente = pacientes.get(i);
+                        ps.setInt(1, ids[i]);
+                        ps.setString(2, paciente.getNome());
+                        ps.setInt(3, paciente.getIdade());
+                        ps.setInt(4, paciente.getNivelTecnico());
+                        ps.setString(5, paciente.getTipoAtendimento());
+                        ps.setString(6, paciente.getCpf());
+                        ps.setString(7, paciente.getSenha());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            }
+            for (UnidadeDeTrabalho uow : unidades) {
+                uow.confirmar();
+            }
 
-        try (Connection conexao = dataSource.getConnection();
-             PreparedStatement ps = conexao.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+            for (int i = 0; i < ids.length; i++) {
+                pacientes.get(i).setId(ids[i]);
+            }
 
-            while (rs.next()) {
-                Paciente p = new Paciente();
-                p.setId(rs.getInt("id_pac"));
-                p.setNome(rs.getString("nome_pac"));
-                p.setIdade(rs.getInt("idade_pac"));
-                p.setNivelTecnico(rs.getInt("nivel_tec"));
-                p.setTipoAtendimento(rs.getString("tipo_atendimento"));
-                p.setCpf(rs.getString("cpf_pac"));
-                p.setSenha(rs.getString("senha_pac"));
-                lista.add(p);
+        } catch (SQLException e) {
+            if (ErrosSql.violacaoUnicidade(e, INDICE_CPF)) {
+                throw new IllegalArgumentException("CPF já cadastrado.", e);
             }
+            System.err.println("Erro ao cadastrar lote de pacientes: " + e.getMessage());
+            throw new RuntimeException("Erro ao cadastrar lote de pacientes", e);
+        } finally {
+            fecharTodas(unidades);
+        }
+    }
+
+    /**
+     * Retorna uma lista de todos os pacientes cadastrados no banco de dados.
+     */
+    @Repetivel
+    public List<Paciente> listarPacientes() {
+        String sql = "SELECT " + MapeadorLinhas.COLUNAS_PACIENTE + " FROM PACIENTE ORDER BY nome_pac NULLS LAST, id_pac";
+
+        try {
+            List<Paciente> lista = shards.ativo()
+                    ? ShardsPaciente.intercalar(shards.emTodos(fonte -> lerPacientes(fonte, sql)), Integer.MAX_VALUE)
+                    : lerPacientes(conexoes, sql);
 
             System.out.println(lista.size() + " pacientes listados.");
+            return lista;
 
         } catch (SQLException e) {
             System.err.println("Erro ao listar pacientes: " + e.getMessage());
             throw new RuntimeException("Erro ao listar pacientes", e);
         }
+    }
+
+    /**
+     * Retorna uma página de pacientes ordenados por nome e ID.
+     * A posição é dada pela chave do último paciente da página anterior (paginação keyset),
+     * de modo que o custo de cada página não depende de quantas vieram antes.
+     * Com shards, cada shard devolve até {@code quantidade} pacientes após a chave e a página é
+     * formada pelos primeiros da intercalação.
+     * Os critérios do filtro entram como condições parametrizadas ({@link CondicoesSql}), iguais em todos os shards.
+     * Pacientes sem nome vêm depois dos demais ({@code NULLS LAST}) e são paginados entre si pelo ID.
+     *
+     * @param filtro     Critérios da listagem.
+     * @param nomeApos   Nome do último paciente já entregue (nulo se ele não tiver nome).
+     * @param idApos     ID do último paciente já entregue, ou {@code 0} para a primeira página.
+     * @param quantidade Quantidade máxima de pacientes retornados.
+     */
+    @Repetivel
+    public List<Paciente> listarPacientes(FiltroPaciente filtro, String nomeApos, int idApos, int quantidade) {
+        CondicoesSql condicoes = new CondicoesSql()
+                .se(filtro.tipoAtendimento(), "tipo_atendimento = ?")
+                .quando(idApos > 0 && nomeApos != null,
+                        "(nome_pac >= ? AND (nome_pac > ? OR id_pac > ?) OR nome_pac IS NULL)", nomeApos, nomeApos, idApos)
+                .quando(idApos > 0 && nomeApos == null, "nome_pac IS NULL AND id_pac > ?", idApos);
+        String sql = "SELECT " + MapeadorLinhas.COLUNAS_PACIENTE + " FROM PACIENTE" + condicoes.where()
+                + " ORDER BY nome_pac NULLS LAST, id_pac FETCH FIRST ? ROWS ONLY";
+
+        List<Object> valores = new ArrayList<>(condicoes.parametros());
+        valores.add(quantidade);
+        Object[] parametros = valores.toArray();
+
+        try {
+            if (shards.ativo()) {
+                return ShardsPaciente.intercalar(shards.emTodos(fonte -> lerPacientes(fonte, sql, parametros)), quantidade);
+            }
+            return lerPacientes(conexoes, sql, parametros);
+
+        } catch (SQLException e) {
+            System.err.println("Erro ao listar pacientes: " + e.getMessage());
+            throw new RuntimeException("Erro ao listar pacientes", e);
+        }
+    }
+
+    /**
+     * Lê todas as linhas do SELECT informado, em uma conexão de leitura da fonte.
+     */
+    private List<Paciente> lerPacientes(FonteConexoes fonte, String sql, Object... parametros) throws SQLException {
+        List<Paciente> lista = new ArrayList<>();
+
+        try (Connection conexao = fonte.obterLeitura();
+             PreparedStatement ps = conexao.prepareStatement(sql)) {
+
+            for (int i = 0; i < parametros.length; i++) {
+                ps.setObject(i + 1, parametros[i]);
+            }
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Paciente p = MapeadorLinhas.paciente(rs);
+                    lista.add(p);
+                }
+            }
+        }
 
         return lista;
     }
@@ -95,97 +243,231 @@ public class PacienteDao {
     /**
      * Busca um paciente pelo seu identificador único (ID).
      */
+    @Repetivel
     public Paciente buscarPorId(int id) {
-        Paciente paciente = null;
-        String sql = "SELECT * FROM PACIENTE WHERE id_pac = ?";
+        try {
+            for (FonteConexoes fonte : fontesPorId(id)) {
+                try (Connection conexao = fonte.obterLeitura()) {
+                    Paciente paciente = buscarPorId(conexao, id);
+                    if (paciente != null) {
+                        return paciente;
+                    }
+                }
+            }
+            return null;
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar paciente por ID: " + e.getMessage());
+            throw new RuntimeException("Erro ao buscar paciente por ID: " + id, e);
+        }
+    }
 
-        try (Connection conexao = dataSource.getConnection();
-             PreparedStatement ps = conexao.prepareStatement(sql)) {
+    /**
+     * Busca vários pacientes pelos IDs, em blocos de {@link ListaIn} (um comando a cada
+     * {@value ListaIn#TAMANHO_MAXIMO} IDs). Com shards, cada shard recebe só os IDs que são dele.
+     *
+     * @return Pacientes encontrados, indexados pelo ID; IDs inexistentes ficam fora do mapa.
+     */
+    @Repetivel
+    public Map<Integer, Paciente> buscarPorIds(Collection<Integer> ids) {
+        Map<Integer, Paciente> encontrados = new HashMap<>();
+        if (ids.isEmpty()) {
+            return encontrados;
+        }
+
+        Map<FonteConexoes, List<Integer>> porShard = new LinkedHashMap<>();
+        for (int id : new LinkedHashSet<>(ids)) {
+            porShard.computeIfAbsent(shards.ativo() ? shards.porId(id) : conexoes, f -> new ArrayList<>()).add(id);
+        }
+
+        try {
+            for (Map.Entry<FonteConexoes, List<Integer>> shard : porShard.entrySet()) {
+                buscarPorIds(shard.getKey(), shard.getValue(), encontrados);
+            }
+
+            if (shards.rebalanceando()) {
+                List<Integer> faltantes = new ArrayList<>(new LinkedHashSet<>(ids));
+                faltantes.removeAll(encontrados.keySet());
+                for (FonteConexoes fonte : shards.todos()) {
+                    if (!faltantes.isEmpty()) {
+                        buscarPorIds(fonte, faltantes, encontrados);
+                        faltantes.removeAll(encontrados.keySet());
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar pacientes por IDs: " + e.getMessage());
+            throw new RuntimeException("Erro ao buscar pacientes por IDs", e);
+        }
+
+        return encontrados;
+    }
 
+    private void buscarPorIds(FonteConexoes fonte, List<Integer> ids, Map<Integer, Paciente> encontrados)
+            throws SQLException {
+        try (Connection conexao = fonte.obterLeitura()) {
+            for (int inicio = 0; inicio < ids.size(); inicio += ListaIn.TAMANHO_MAXIMO) {
+                List<Integer> bloco = ids.subList(inicio, Math.min(inicio + ListaIn.TAMANHO_MAXIMO, ids.size()));
+                int tamanho = ListaIn.tamanho(bloco.size());
+                String sql = "SELECT " + MapeadorLinhas.COLUNAS_PACIENTE
+                        + " FROM PACIENTE WHERE id_pac IN (" + ListaIn.marcadores(tamanho) + ")";
+
+                try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+                    for (int i = 0; i < tamanho; i++) {
+                        ps.setInt(i + 1, bloco.get(Math.min(i, bloco.size() - 1)));
+                    }
+
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            Paciente p = MapeadorLinhas.paciente(rs);
+                            encontrados.put(p.getId(), p);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private Paciente buscarPorId(Connection conexao, int id) throws SQLException {
+        Paciente paciente = null;
+        String sql = "SELECT " + MapeadorLinhas.COLUNAS_PACIENTE + " FROM PACIENTE WHERE id_pac = ?";
+
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
             ps.setInt(1, id);
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    paciente = new Paciente();
-                    paciente.setId(rs.getInt("id_pac"));
-                    paciente.setNome(rs.getString("nome_pac"));
-                    paciente.setIdade(rs.getInt("idade_pac"));
-                    paciente.setNivelTecnico(rs.getInt("nivel_tec"));
-                    paciente.setTipoAtendimento(rs.getString("tipo_atendimento"));
-                    paciente.setCpf(rs.getString("cpf_pac"));
-                    paciente.setSenha(rs.getString("senha_pac"));
+                    paciente = MapeadorLinhas.paciente(rs);
 
                     System.out.println("Paciente encontrado: " + paciente.getNome());
                 } else {
                     System.out.println("Paciente não encontrado com ID: " + id);
                 }
             }
-
-        } catch (SQLException e) {
-            System.err.println("Erro ao buscar paciente por ID: " + e.getMessage());
-            throw new RuntimeException("Erro ao buscar paciente por ID: " + id, e);
         }
 
         return paciente;
     }
 
     /**
-     * Atualiza os dados de um paciente existente no banco.
+     * Atualiza os campos não nulos do paciente informado, identificado pelo ID, e retorna o estado gravado.
+     * Campos nulos mantêm o valor atual do banco.
+     *
+     * <p>No Oracle, a gravação e a leitura do resultado são um único comando ({@code UPDATE ... RETURNING}).</p>
+     *
+     * @return Paciente como ficou gravado, ou {@code null} se não houver paciente com o ID.
+     * @throws IllegalArgumentException Caso o novo CPF já esteja cadastrado ou, com shards, pertença a outra fatia
+     *                                  que não a do ID.
      */
     public Paciente atualizarPaciente(Paciente paciente) {
         if (paciente.getId() == null || paciente.getId() <= 0) {
             throw new IllegalArgumentException("ID inválido para atualização.");
         }
+        if (shards.ativo() && paciente.getCpf() != null
+                && ShardsPaciente.fatiaDoCpf(paciente.getCpf()) != ShardsPaciente.fatiaDoId(paciente.getId())) {
+            throw new IllegalArgumentException("O novo CPF pertence a outra partição; cadastre o paciente novamente.");
+        }
 
         String sql = """
-            UPDATE PACIENTE 
-            SET nome_pac = ?, idade_pac = ?, nivel_tec = ?, tipo_atendimento = ?, cpf_pac = ?, senha_pac = ?
+            UPDATE PACIENTE
+            SET nome_pac = NVL(?, nome_pac), idade_pac = NVL(?, idade_pac), nivel_tec = NVL(?, nivel_tec),
+                tipo_atendimento = NVL(?, tipo_atendimento), cpf_pac = NVL(?, cpf_pac), senha_pac = NVL(?, senha_pac)
             WHERE id_pac = ?
         """;
 
-        try (Connection conexao = dataSource.getConnection();
-             PreparedStatement ps = conexao.prepareStatement(sql)) {
-
-            ps.setString(1, paciente.getNome());
-            ps.setInt(2, paciente.getIdade());
-            ps.setInt(3, paciente.getNivelTecnico());
-            ps.setString(4, paciente.getTipoAtendimento());
-            ps.setString(5, paciente.getCpf());
-            ps.setString(6, paciente.getSenha());
-            ps.setInt(7, paciente.getId());
-
-            int rows = ps.executeUpdate();
-
-            if (rows > 0) {
-                System.out.println("Paciente atualizado com sucesso! ID: " + paciente.getId());
-            } else {
-                System.out.println("Nenhum paciente encontrado para atualização. ID: " + paciente.getId());
+        try {
+            for (FonteConexoes fonte : fontesPorId(paciente.getId())) {
+                Paciente atualizado = atualizarPaciente(fonte, paciente, sql);
+                if (atualizado != null) {
+                    System.out.println("Paciente atualizado com sucesso! ID: " + paciente.getId());
+                    return atualizado;
+                }
             }
 
+            System.out.println("Nenhum paciente encontrado para atualização. ID: " + paciente.getId());
+            return null;
+
         } catch (SQLException e) {
+            if (ErrosSql.violacaoUnicidade(e, INDICE_CPF)) {
+                throw new IllegalArgumentException("CPF já cadastrado.", e);
+            }
             System.err.println("Erro ao atualizar paciente: " + e.getMessage());
             throw new RuntimeException("Erro ao atualizar paciente", e);
         }
-        return paciente;
+    }
+
+    /**
+     * Executa a atualização em uma fonte.
+     *
+     * @return Paciente como ficou gravado, ou {@code null} se a fonte não tiver paciente com o ID.
+     */
+    private Paciente atualizarPaciente(FonteConexoes fonte, Paciente paciente, String sql) throws SQLException {
+        try (Connection conexao = fonte.obter()) {
+            boolean comRetorno = RetornoDml.suportado(conexao);
+            Paciente atualizado = null;
+
+            try (PreparedStatement ps = conexao.prepareStatement(
+                    comRetorno ? sql + RetornoDml.clausula(MapeadorLinhas.COLUNAS_PACIENTE) : sql)) {
+
+                ps.setString(1, paciente.getNome());
+                ps.setObject(2, paciente.getIdade(), Types.INTEGER);
+                ps.setObject(3, paciente.getNivelTecnico(), Types.INTEGER);
+                ps.setString(4, paciente.getTipoAtendimento());
+                ps.setString(5, paciente.getCpf());
+                ps.setString(6, paciente.getSenha());
+                ps.setInt(7, paciente.getId());
+                if (comRetorno) {
+                    RetornoDml.registrar(ps, 8, RetornoDml.TIPOS_PACIENTE);
+                }
+
+                if (ps.executeUpdate() == 0) {
+                    return null;
+                }
+
+                if (comRetorno) {
+                    try (ResultSet rs = RetornoDml.resultado(ps)) {
+                        if (rs.next()) {
+                            atualizado = MapeadorLinhas.paciente(rs);
+                        }
+                    }
+                }
+            }
+
+            if (!comRetorno) {
+                atualizado = buscarPorId(conexao, paciente.getId());
+            }
+            return atualizado;
+        }
     }
 
     /**
      * Exclui um paciente do banco de dados pelo seu ID.
+     *
+     * @return {@code true} se o paciente existia e foi excluído.
      */
-    public void excluirPaciente(int id) {
+    public boolean excluirPaciente(int id) {
         String sql = "DELETE FROM PACIENTE WHERE id_pac = ?";
 
-        try (Connection conexao = dataSource.getConnection();
-             PreparedStatement ps = conexao.prepareStatement(sql)) {
+        try {
+            int rows = 0;
+            for (FonteConexoes fonte : fontesPorId(id)) {
+                try (Connection conexao = fonte.obter();
+                     PreparedStatement ps = conexao.prepareStatement(sql)) {
 
-            ps.setInt(1, id);
-            int rows = ps.executeUpdate();
+                    ps.setInt(1, id);
+                    rows = ps.executeUpdate();
+                }
+                if (rows > 0) {
+                    break;
+                }
+            }
 
             if (rows > 0) {
                 System.out.println("Paciente excluído com sucesso. ID: " + id);
             } else {
                 System.out.println("Nenhum paciente encontrado para exclusão. ID: " + id);
             }
+            return rows > 0;
 
         } catch (SQLException e) {
             System.err.println("Erro ao excluir paciente: " + e.getMessage());
@@ -196,41 +478,148 @@ public class PacienteDao {
     /**
      * Busca um paciente pelo CPF.
      */
+    @Repetivel
     public Paciente buscarPorCpf(String cpf) {
         if (cpf == null || !cpf.matches("\\d{11}")) {
             throw new IllegalArgumentException("CPF inválido. Deve conter exatamente 11 números.");
         }
 
-        Paciente paciente = null;
-        String sql = "SELECT * FROM PACIENTE WHERE cpf_pac = ?";
+        try {
+            Paciente paciente = buscarPorCpf(fontesPorCpf(cpf), cpf);
 
-        try (Connection conexao = dataSource.getConnection();
-             PreparedStatement ps = conexao.prepareStatement(sql)) {
+            if (paciente != null) {
+                System.out.println("Paciente encontrado com CPF: " + cpf);
+            } else {
+                System.out.println("Nenhum paciente encontrado com CPF: " + cpf);
+            }
+            return paciente;
 
-            ps.setString(1, cpf);
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar paciente: " + e.getMessage());
+            throw new RuntimeException("Erro ao buscar paciente: " + cpf, e);
+        }
+    }
 
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    paciente = new Paciente();
-                    paciente.setId(rs.getInt("id_pac"));
-                    paciente.setNome(rs.getString("nome_pac"));
-                    paciente.setIdade(rs.getInt("idade_pac"));
-                    paciente.setNivelTecnico(rs.getInt("nivel_tec"));
-                    paciente.setTipoAtendimento(rs.getString("tipo_atendimento"));
-                    paciente.setCpf(rs.getString("cpf_pac"));
-                    paciente.setSenha(rs.getString("senha_pac"));
-
-                    System.out.println("Paciente encontrado com CPF: " + cpf);
-                } else {
-                    System.out.println("Nenhum paciente encontrado com CPF: " + cpf);
+    /**
+     * Indica se o CPF já está cadastrado em algum shard, para a checagem prévia durante um rebalanceamento.
+     */
+    private boolean cpfCadastrado(String cpf) {
+        try {
+            return buscarPorCpf(fontesPorCpf(cpf), cpf) != null;
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar paciente: " + e.getMessage());
+            throw new RuntimeException("Erro ao buscar paciente: " + cpf, e);
+        }
+    }
+
+    /**
+     * Busca o paciente pelo CPF nas fontes informadas, na ordem. Usado também pelo próprio DAO: uma chamada
+     * ao método público passaria de novo pelo {@link ResilienteInterceptor}.
+     */
+    private Paciente buscarPorCpf(List<FonteConexoes> fontes, String cpf) throws SQLException {
+        String sql = "SELECT " + MapeadorLinhas.COLUNAS_PACIENTE + " FROM PACIENTE WHERE cpf_pac = ?";
+
+        for (FonteConexoes fonte : fontes) {
+            try (Connection conexao = fonte.obterLeitura();
+                 PreparedStatement ps = conexao.prepareStatement(sql)) {
+
+                ps.setString(1, cpf);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        return MapeadorLinhas.paciente(rs);
+                    }
                 }
             }
+        }
+        return null;
+    }
+
+    /**
+     * Retorna quais dos CPFs informados já estão cadastrados.
+     * Os CPFs são consultados em blocos de {@link ListaIn}, com poucos comandos independentemente da quantidade.
+     * A consulta é feita no banco principal, pois precede a gravação e não pode sofrer atraso de réplica.
+     * Com shards, cada CPF é consultado apenas no seu shard dono (em todos, durante um rebalanceamento).
+     */
+    @Repetivel
+    public Set<String> buscarCpfsCadastrados(Collection<String> cpfs) {
+        Set<String> cadastrados = new HashSet<>();
+        if (cpfs.isEmpty()) {
+            return cadastrados;
+        }
 
+        Map<FonteConexoes, List<String>> porShard = new LinkedHashMap<>();
+        for (String cpf : cpfs) {
+            for (FonteConexoes fonte : fontesPorCpf(cpf)) {
+                porShard.computeIfAbsent(fonte, f -> new ArrayList<>()).add(cpf);
+            }
+        }
+
+        try {
+            for (Map.Entry<FonteConexoes, List<String>> shard : porShard.entrySet()) {
+                buscarCpfsCadastrados(shard.getKey(), shard.getValue(), cadastrados);
+            }
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar paciente: " + e.getMessage());
-            throw new RuntimeException("Erro ao buscar paciente: " + cpf, e);
+            System.err.println("Erro ao verificar CPFs cadastrados: " + e.getMessage());
+            throw new RuntimeException("Erro ao verificar CPFs cadastrados", e);
         }
 
-        return paciente;
+        return cadastrados;
+    }
+
+    private void buscarCpfsCadastrados(FonteConexoes fonte, List<String> lista, Set<String> cadastrados)
+            throws SQLException {
+        try (Connection conexao = fonte.obter()) {
+            for (int inicio = 0; inicio < lista.size(); inicio += ListaIn.TAMANHO_MAXIMO) {
+                List<String> bloco = lista.subList(inicio, Math.min(inicio + ListaIn.TAMANHO_MAXIMO, lista.size()));
+                int tamanho = ListaIn.tamanho(bloco.size());
+                String sql = "SELECT cpf_pac FROM PACIENTE WHERE cpf_pac IN (" + ListaIn.marcadores(tamanho) + ")";
+
+                try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+                    for (int i = 0; i < tamanho; i++) {
+                        ps.setString(i + 1, bloco.get(Math.min(i, bloco.size() - 1)));
+                    }
+
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            cadastrados.add(rs.getString(1));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Novo ID para o paciente com o CPF informado; com shards, o ID carrega a fatia do CPF.
+     */
+    private int novoId(String cpf) {
+        int sequencial = geradorIds.proximoId(GeradorIds.SEQ_PACIENTE);
+        return shards.ativo() ? ShardsPaciente.compor(sequencial, ShardsPaciente.fatiaDoCpf(cpf)) : sequencial;
+    }
+
+    private FonteConexoes fontePorCpf(String cpf) {
+        return shards.ativo() ? shards.porCpf(cpf) : conexoes;
+    }
+
+    private List<FonteConexoes> fontesPorCpf(String cpf) {
+        return shards.ativo() ? shards.aProcurar(shards.porCpf(cpf)) : List.of(conexoes);
+    }
+
+    private List<FonteConexoes> fontesPorId(int id) {
+        return shards.ativo() ? shards.aProcurar(shards.porId(id)) : List.of(conexoes);
+    }
+
+    /**
+     * Fecha todas as unidades de trabalho, desfazendo as não confirmadas, mesmo que alguma falhe ao fechar.
+     */
+    private static void fecharTodas(List<UnidadeDeTrabalho> unidades) {
+        for (UnidadeDeTrabalho uow : unidades) {
+            try {
+                uow.close();
+            } catch (SQLException e) {
+                System.err.println("Erro ao encerrar transação de lote de pacientes: " + e.getMessage());
+            }
+        }
     }
 }
@@ -0,0 +1,80 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.models.Paciente;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Operações de armazenamento de {@link Paciente} usadas pelos serviços.
+ *
+ * <p>A implementação ativa é escolhida no build por {@code app.armazenamento}: {@link PacienteDao} (JDBC, padrão)
+ * ou {@link br.com.fiap.dao.memoria.PacienteRepositorioMemoria} (em memória).</p>
+ */
+public interface PacienteRepositorio {
+
+    /**
+     * Cadastra um novo paciente e preenche o seu ID.
+     *
+     * @throws IllegalArgumentException Caso o CPF já esteja cadastrado.
+     */
+    void cadastrarPaciente(Paciente paciente);
+
+    /**
+     * Cadastra vários pacientes de uma vez e preenche os seus IDs. Se qualquer um falhar, nenhum é gravado.
+     *
+     * @throws IllegalArgumentException Caso algum CPF já esteja cadastrado.
+     */
+    void cadastrarPacientes(List<Paciente> pacientes);
+
+    /**
+     * Retorna todos os pacientes, ordenados por nome.
+     */
+    List<Paciente> listarPacientes();
+
+    /**
+     * Retorna uma página dos pacientes que atendem ao filtro, ordenados por nome e ID, após a chave informada.
+     *
+     * @param filtro     Critérios da listagem.
+     * @param nomeApos   Nome do último paciente já entregue (nulo se ele não tiver nome; esses vêm por último).
+     * @param idApos     ID do último paciente já entregue, ou {@code 0} para a primeira página.
+     * @param quantidade Quantidade máxima de pacientes retornados.
+     */
+    List<Paciente> listarPacientes(FiltroPaciente filtro, String nomeApos, int idApos, int quantidade);
+
+    /**
+     * @return Paciente com o ID, ou {@code null} se não existir.
+     */
+    Paciente buscarPorId(int id);
+
+    /**
+     * Busca vários pacientes de uma vez, com poucas idas ao banco independentemente da quantidade de IDs.
+     *
+     * @return Pacientes encontrados, indexados pelo ID; IDs inexistentes ficam fora do mapa.
+     */
+    Map<Integer, Paciente> buscarPorIds(Collection<Integer> ids);
+
+    /**
+     * Atualiza os campos não nulos do paciente informado, identificado pelo ID.
+     *
+     * @return Paciente como ficou gravado, ou {@code null} se não houver paciente com o ID.
+     */
+    Paciente atualizarPaciente(Paciente paciente);
+
+    /**
+     * @return {@code true} se o paciente existia e foi excluído.
+     */
+    boolean excluirPaciente(int id);
+
+    /**
+     * @return Paciente com o CPF, ou {@code null} se não existir.
+     */
+    Paciente buscarPorCpf(String cpf);
+
+    /**
+     * Retorna quais dos CPFs informados já estão cadastrados.
+     */
+    Set<String> buscarCpfsCadastrados(Collection<String> cpfs);
+}
@@ -1,27 +1,45 @@
 package br.com.fiap.dao;
 
 import br.com.fiap.models.Profissional;
+import io.quarkus.arc.properties.IfBuildProperty;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
-import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Classe responsável por realizar operações de persistência relacionadas à entidade {@link Profissional}.
  * Inclui métodos de CRUD e busca por CRM.
  */
 @ApplicationScoped
-public class ProfissionalDao {
+@IfBuildProperty(name = "app.armazenamento", stringValue = "jdbc", enableIfMissing = true)
+@Resiliente("profissionais")
+public class ProfissionalDao implements ProfissionalRepositorio {
+
+    /** Índice único do CRM, criado em V2__indices.sql. */
+    static final String INDICE_CRM = "UK_PROFISSIONAL_CRM";
+
+    @Inject
+    FonteConexoes conexoes;
 
     @Inject
-    DataSource dataSource;
+    GeradorIds geradorIds;
 
     /**
      * Cadastra um novo profissional no banco de dados.
-     * O ID é gerado de forma aleatória.
+     * O ID é obtido do {@link GeradorIds}, sem consulta extra ao banco.
+     * O CRM repetido é recusado pelo índice único de {@code crm_profissional}, sem consulta prévia.
+     *
+     * @throws IllegalArgumentException Caso já exista um profissional com o CRM.
      */
     public void cadastrarProfissional(Profissional profissional) {
         String sql = """
@@ -30,10 +48,10 @@ public class ProfissionalDao {
             VALUES (?, ?, ?, ?, ?)
         """;
 
-        try (Connection conexao = dataSource.getConnection();
+        try (Connection conexao = conexoes.obter();
              PreparedStatement ps = conexao.prepareStatement(sql)) {
 
-            int novoId = (int) (Math.random() * 9999) + 1;
+            int novoId = geradorIds.proximoId(GeradorIds.SEQ_PROFISSIONAL);
             profissional.setId(novoId);
 
             int crmLimitado = profissional.getCrm() % 1_000_000;
@@ -49,29 +67,143 @@ public class ProfissionalDao {
             System.out.println("Profissional cadastrado com sucesso! ID: " + novoId);
 
         } catch (SQLException e) {
+            if (ErrosSql.violacaoUnicidade(e, INDICE_CRM)) {
+                throw new IllegalArgumentException("Já existe um profissional com esse CRM.", e);
+            }
             System.err.println("Erro ao cadastrar profissional: " + e.getMessage());
             throw new RuntimeException("Erro ao cadastrar profissional", e);
         }
     }
 
+    /**
+     * Insere ou atualiza profissionais pelo CRM, em blocos de até {@value ListaIn#TAMANHO_MAXIMO}.
+     *
+     * <p>Cada bloco usa uma transação com dois comandos: um SELECT por {@link ListaIn} que separa os
+     * CRMs novos, alterados e inalterados, e um único lote de {@code MERGE INTO PROFISSIONAL} com os
+     * novos e alterados. Os inalterados não são gravados. O MERGE mantém a gravação correta mesmo que
+     * outro processo cadastre o mesmo CRM entre os dois comandos; nesse caso a linha é contada como inserida.</p>
+     *
+     * <p>Os IDs dos profissionais informados são preenchidos com os IDs gravados.</p>
+     *
+     * @param profissionais Profissionais com CRMs distintos.
+     * @return Quantidade de profissionais inseridos, atualizados e inalterados.
+     */
+    public ResultadoUpsert upsertPorCrm(List<Profissional> profissionais) {
+        ResultadoUpsert total = new ResultadoUpsert();
+
+        for (int inicio = 0; inicio < profissionais.size(); inicio += ListaIn.TAMANHO_MAXIMO) {
+            List<Profissional> bloco = profissionais.subList(
+                    inicio, Math.min(inicio + ListaIn.TAMANHO_MAXIMO, profissionais.size()));
+
+            try (UnidadeDeTrabalho uow = UnidadeDeTrabalho.iniciar(conexoes)) {
+                ResultadoUpsert parcial = upsertBloco(uow.conexao(), bloco);
+                uow.confirmar();
+                total.somar(parcial);
+            } catch (SQLException e) {
+                System.err.println("Erro ao gravar profissionais por CRM: " + e.getMessage());
+                throw new RuntimeException("Erro ao gravar profissionais por CRM", e);
+            }
+        }
+
+        return total;
+    }
+
+    private ResultadoUpsert upsertBloco(Connection conexao, List<Profissional> bloco) throws SQLException {
+        Map<Integer, Profissional> existentes = buscarPorCrms(conexao, bloco);
+        ResultadoUpsert resultado = new ResultadoUpsert();
+        List<Profissional> gravar = new ArrayList<>();
+
+        for (Profissional profissional : bloco) {
+            Profissional existente = existentes.get(profissional.getCrm() % 1_000_000);
+            if (existente == null) {
+                profissional.setId(geradorIds.proximoId(GeradorIds.SEQ_PROFISSIONAL));
+                resultado.inserido();
+                gravar.add(profissional);
+            } else {
+                profissional.setId(existente.getId());
+                if (Objects.equals(existente.getNome(), profissional.getNome())
+                        && Objects.equals(existente.getEspecialidade(), profissional.getEspecialidade())
+                        && Objects.equals(existente.getTipoAtendimento(), profissional.getTipoAtendimento())) {
+                    resultado.inalterado();
+                } else {
+                    resultado.atualizado();
+                    gravar.add(profissional);
+                }
+            }
+        }
+
+        if (gravar.isEmpty()) {
+            return resultado;
+        }
+
+        String sql = """
+            MERGE INTO PROFISSIONAL p
+            USING (SELECT ? AS id_profissional, ? AS nome_profissional, ? AS especialidade_profissional,
+                          ? AS tipo_atend, ? AS crm_profissional FROM DUAL) n
+            ON (p.crm_profissional = n.crm_profissional)
+            WHEN MATCHED THEN UPDATE SET
+                p.nome_profissional = n.nome_profissional,
+                p.especialidade_profissional = n.especialidade_profissional,
+                p.tipo_atend = n.tipo_atend
+            WHEN NOT MATCHED THEN INSERT
+                (id_profissional, nome_profissional, especialidade_profissional, tipo_atend, crm_profissional)
+                VALUES (n.id_profissional, n.nome_profissional, n.especialidade_profissional,
+                        n.tipo_atend, n.crm_profissional)
+        """;
+
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            for (Profissional profissional : gravar) {
+                ps.setInt(1, profissional.getId());
+                ps.setString(2, profissional.getNome());
+                ps.setString(3, profissional.getEspecialidade());
+                ps.setString(4, profissional.getTipoAtendimento());
+                ps.setInt(5, profissional.getCrm() % 1_000_000);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+
+        return resultado;
+    }
+
+    /**
+     * Busca, em um único comando, os profissionais cadastrados com os CRMs do bloco, indexados pelo CRM.
+     */
+    private Map<Integer, Profissional> buscarPorCrms(Connection conexao, List<Profissional> bloco) throws SQLException {
+        Map<Integer, Profissional> porCrm = new HashMap<>();
+        int tamanho = ListaIn.tamanho(bloco.size());
+        String sql = "SELECT " + MapeadorLinhas.COLUNAS_PROFISSIONAL
+                + " FROM PROFISSIONAL WHERE crm_profissional IN (" + ListaIn.marcadores(tamanho) + ")";
+
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            for (int i = 0; i < tamanho; i++) {
+                ps.setInt(i + 1, bloco.get(Math.min(i, bloco.size() - 1)).getCrm() % 1_000_000);
+            }
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Profissional p = MapeadorLinhas.profissional(rs);
+                    porCrm.put(p.getCrm(), p);
+                }
+            }
+        }
+        return porCrm;
+    }
+
     /**
      * Retorna uma lista de todos os profissionais cadastrados no banco de dados.
      */
+    @Repetivel
     public List<Profissional> listarProfissionais() {
         List<Profissional> lista = new ArrayList<>();
-        String sql = "SELECT * FROM PROFISSIONAL ORDER BY nome_profissional";
+        String sql = "SELECT " + MapeadorLinhas.COLUNAS_PROFISSIONAL + " FROM PROFISSIONAL ORDER BY nome_profissional";
 
-        try (Connection conexao = dataSource.getConnection();
+        try (Connection conexao = conexoes.obterLeitura();
              PreparedStatement ps = conexao.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
-                Profissional p = new Profissional();
-                p.setId(rs.getInt("id_profissional"));
-                p.setNome(rs.getString("nome_profissional"));
-                p.setEspecialidade(rs.getString("especialidade_profissional"));
-                p.setTipoAtendimento(rs.getString("tipo_atend"));
-                p.setCrm(rs.getInt("crm_profissional"));
+                Profissional p = MapeadorLinhas.profissional(rs);
                 lista.add(p);
             }
 
@@ -85,43 +217,144 @@ public class ProfissionalDao {
         return lista;
     }
 
+    /**
+     * Retorna uma página de profissionais ordenados por nome e ID.
+     * A posição é dada pela chave do último profissional da página anterior (paginação keyset),
+     * de modo que o custo de cada página não depende de quantas vieram antes.
+     *
+     * <p>Os critérios do filtro entram como condições parametrizadas ({@link CondicoesSql}); cada um tem um índice
+     * que começa pela coluna filtrada e segue a ordem da listagem (V4__indices_filtros.sql).</p>
+     *
+     * <p>Profissionais sem nome vêm depois dos demais ({@code NULLS LAST}) e são paginados entre si pelo ID.</p>
+     *
+     * @param filtro     Critérios da listagem.
+     * @param nomeApos   Nome do último profissional já entregue (nulo se ele não tiver nome).
+     * @param idApos     ID do último profissional já entregue, ou {@code 0} para a primeira página.
+     * @param quantidade Quantidade máxima de profissionais retornados.
+     */
+    @Repetivel
+    public List<Profissional> listarProfissionais(FiltroProfissional filtro, String nomeApos, int idApos,
+                                                  int quantidade) {
+        List<Profissional> lista = new ArrayList<>();
+        CondicoesSql condicoes = new CondicoesSql()
+                .se(filtro.especialidade(), "especialidade_profissional = ?")
+                .se(filtro.tipoAtendimento(), "tipo_atend = ?")
+                .quando(idApos > 0 && nomeApos != null, "(nome_profissional >= ? AND (nome_profissional > ? "
+                        + "OR id_profissional > ?) OR nome_profissional IS NULL)", nomeApos, nomeApos, idApos)
+                .quando(idApos > 0 && nomeApos == null, "nome_profissional IS NULL AND id_profissional > ?", idApos);
+        String sql = "SELECT " + MapeadorLinhas.COLUNAS_PROFISSIONAL + " FROM PROFISSIONAL" + condicoes.where()
+                + " ORDER BY nome_profissional NULLS LAST, id_profissional FETCH FIRST ? ROWS ONLY";
+
+        try (Connection conexao = conexoes.obterLeitura();
+             PreparedStatement ps = conexao.prepareStatement(sql)) {
+
+            ps.setInt(condicoes.aplicar(ps, 1), quantidade);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Profissional p = MapeadorLinhas.profissional(rs);
+                    lista.add(p);
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Erro ao listar profissionais: " + e.getMessage());
+            throw new RuntimeException("Erro ao listar profissionais", e);
+        }
+
+        return lista;
+    }
+
     /**
      * Busca um profissional pelo seu identificador único (ID).
      */
+    @Repetivel
     public Profissional buscarPorId(int id) {
-        Profissional profissional = null;
-        String sql = "SELECT * FROM PROFISSIONAL WHERE id_profissional = ?";
+        try (Connection conexao = conexoes.obterLeitura()) {
+            return buscarPorId(conexao, id);
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar profissional por ID: " + e.getMessage());
+            throw new RuntimeException("Erro ao buscar profissional por ID: " + id, e);
+        }
+    }
 
-        try (Connection conexao = dataSource.getConnection();
-             PreparedStatement ps = conexao.prepareStatement(sql)) {
+    /**
+     * Busca vários profissionais pelos IDs, em blocos de {@link ListaIn} (um comando a cada
+     * {@value ListaIn#TAMANHO_MAXIMO} IDs), todos na mesma conexão.
+     *
+     * @return Profissionais encontrados, indexados pelo ID na ordem recebida; IDs inexistentes ficam fora do mapa.
+     */
+    @Repetivel
+    public Map<Integer, Profissional> buscarPorIds(Collection<Integer> ids) {
+        Map<Integer, Profissional> lidos = new HashMap<>();
+        List<Integer> lista = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (lista.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
 
+        try (Connection conexao = conexoes.obterLeitura()) {
+            for (int inicio = 0; inicio < lista.size(); inicio += ListaIn.TAMANHO_MAXIMO) {
+                List<Integer> bloco = lista.subList(inicio, Math.min(inicio + ListaIn.TAMANHO_MAXIMO, lista.size()));
+                int tamanho = ListaIn.tamanho(bloco.size());
+                String sql = "SELECT " + MapeadorLinhas.COLUNAS_PROFISSIONAL
+                        + " FROM PROFISSIONAL WHERE id_profissional IN (" + ListaIn.marcadores(tamanho) + ")";
+
+                try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+                    for (int i = 0; i < tamanho; i++) {
+                        ps.setInt(i + 1, bloco.get(Math.min(i, bloco.size() - 1)));
+                    }
+
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            Profissional p = MapeadorLinhas.profissional(rs);
+                            lidos.put(p.getId(), p);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar profissionais por IDs: " + e.getMessage());
+            throw new RuntimeException("Erro ao buscar profissionais por IDs", e);
+        }
+
+        Map<Integer, Profissional> encontrados = new LinkedHashMap<>();
+        for (int id : lista) {
+            if (lidos.containsKey(id)) {
+                encontrados.put(id, lidos.get(id));
+            }
+        }
+        return encontrados;
+    }
+
+    private Profissional buscarPorId(Connection conexao, int id) throws SQLException {
+        Profissional profissional = null;
+        String sql = "SELECT " + MapeadorLinhas.COLUNAS_PROFISSIONAL + " FROM PROFISSIONAL WHERE id_profissional = ?";
+
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
             ps.setInt(1, id);
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    profissional = new Profissional();
-                    profissional.setId(rs.getInt("id_profissional"));
-                    profissional.setNome(rs.getString("nome_profissional"));
-                    profissional.setEspecialidade(rs.getString("especialidade_profissional"));
-                    profissional.setTipoAtendimento(rs.getString("tipo_atend"));
-                    profissional.setCrm(rs.getInt("crm_profissional"));
+                    profissional = MapeadorLinhas.profissional(rs);
 
                     System.out.println("Profissional encontrado: " + profissional.getNome());
                 } else {
                     System.out.println("Profissional não encontrado com ID: " + id);
                 }
             }
-
-        } catch (SQLException e) {
-            System.err.println("Erro ao buscar profissional por ID: " + e.getMessage());
-            throw new RuntimeException("Erro ao buscar profissional por ID: " + id, e);
         }
 
         return profissional;
     }
 
     /**
-     * Atualiza os dados de um profissional existente no banco.
+     * Atualiza os campos não nulos do profissional informado, identificado pelo ID, e retorna o estado gravado.
+     * Campos nulos mantêm o valor atual do banco.
+     *
+     * <p>No Oracle, a gravação e a leitura do resultado são um único comando ({@code UPDATE ... RETURNING}).</p>
+     *
+     * @return Profissional como ficou gravado, ou {@code null} se não houver profissional com o ID.
+     * @throws IllegalArgumentException Caso o novo CRM já pertença a outro profissional.
      */
     public Profissional atualizarProfissional(Profissional profissional) {
         if (profissional.getId() == null || profissional.getId() <= 0) {
@@ -130,42 +363,67 @@ public class ProfissionalDao {
 
         String sql = """
             UPDATE PROFISSIONAL
-            SET nome_profissional = ?, especialidade_profissional = ?, tipo_atend = ?, crm_profissional = ?
+            SET nome_profissional = NVL(?, nome_profissional),
+                especialidade_profissional = NVL(?, especialidade_profissional),
+                tipo_atend = NVL(?, tipo_atend), crm_profissional = NVL(?, crm_profissional)
             WHERE id_profissional = ?
         """;
 
-        try (Connection conexao = dataSource.getConnection();
-             PreparedStatement ps = conexao.prepareStatement(sql)) {
+        try (Connection conexao = conexoes.obter()) {
+            boolean comRetorno = RetornoDml.suportado(conexao);
+            Profissional atualizado = null;
 
-            ps.setString(1, profissional.getNome());
-            ps.setString(2, profissional.getEspecialidade());
-            ps.setString(3, profissional.getTipoAtendimento());
-            ps.setInt(4, profissional.getCrm());
-            ps.setInt(5, profissional.getId());
+            try (PreparedStatement ps = conexao.prepareStatement(
+                    comRetorno ? sql + RetornoDml.clausula(MapeadorLinhas.COLUNAS_PROFISSIONAL) : sql)) {
 
-            int rows = ps.executeUpdate();
+                ps.setString(1, profissional.getNome());
+                ps.setString(2, profissional.getEspecialidade());
+                ps.setString(3, profissional.getTipoAtendimento());
+                ps.setObject(4, profissional.getCrm(), Types.INTEGER);
+                ps.setInt(5, profissional.getId());
+                if (comRetorno) {
+                    RetornoDml.registrar(ps, 6, RetornoDml.TIPOS_PROFISSIONAL);
+                }
 
-            if (rows > 0) {
-                System.out.println("Profissional atualizado com sucesso! ID: " + profissional.getId());
-            } else {
-                System.out.println("Nenhum profissional encontrado para atualização. ID: " + profissional.getId());
+                if (ps.executeUpdate() == 0) {
+                    System.out.println("Nenhum profissional encontrado para atualização. ID: " + profissional.getId());
+                    return null;
+                }
+
+                if (comRetorno) {
+                    try (ResultSet rs = RetornoDml.resultado(ps)) {
+                        if (rs.next()) {
+                            atualizado = MapeadorLinhas.profissional(rs);
+                        }
+                    }
+                }
             }
 
+            if (!comRetorno) {
+                atualizado = buscarPorId(conexao, profissional.getId());
+            }
+
+            System.out.println("Profissional atualizado com sucesso! ID: " + profissional.getId());
+            return atualizado;
+
         } catch (SQLException e) {
+            if (ErrosSql.violacaoUnicidade(e, INDICE_CRM)) {
+                throw new IllegalArgumentException("Já existe um profissional com esse CRM.", e);
+            }
             System.err.println("Erro ao atualizar profissional: " + e.getMessage());
             throw new RuntimeException("Erro ao atualizar profissional", e);
         }
-
-        return profissional;
     }
 
     /**
      * Exclui um profissional do banco de dados pelo seu ID.
+     *
+     * @return {@code true} se o profissional existia e foi excluído.
      */
-    public void excluirProfissional(int id) {
+    public boolean excluirProfissional(int id) {
         String sql = "DELETE FROM PROFISSIONAL WHERE id_profissional = ?";
 
-        try (Connection conexao = dataSource.getConnection();
+        try (Connection conexao = conexoes.obter();
              PreparedStatement ps = conexao.prepareStatement(sql)) {
 
             ps.setInt(1, id);
@@ -176,6 +434,7 @@ public class ProfissionalDao {
             } else {
                 System.out.println("Nenhum profissional encontrado para exclusão. ID: " + id);
             }
+            return rows > 0;
 
         } catch (SQLException e) {
             System.err.println("Erro ao excluir profissional: " + e.getMessage());
@@ -186,27 +445,23 @@ public class ProfissionalDao {
     /**
      * Busca um profissional pelo seu CRM.
      */
+    @Repetivel
     public Profissional buscarPorCrm(int crm) {
         if (crm <= 0) {
             throw new IllegalArgumentException("CRM inválido. Deve ser um número positivo.");
         }
 
         Profissional profissional = null;
-        String sql = "SELECT * FROM PROFISSIONAL WHERE crm_profissional = ?";
+        String sql = "SELECT " + MapeadorLinhas.COLUNAS_PROFISSIONAL + " FROM PROFISSIONAL WHERE crm_profissional = ?";
 
-        try (Connection conexao = dataSource.getConnection();
+        try (Connection conexao = conexoes.obterLeitura();
              PreparedStatement ps = conexao.prepareStatement(sql)) {
 
             ps.setInt(1, crm);
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    profissional = new Profissional();
-                    profissional.setId(rs.getInt("id_profissional"));
-                    profissional.setNome(rs.getString("nome_profissional"));
-                    profissional.setEspecialidade(rs.getString("especialidade_profissional"));
-                    profissional.setTipoAtendimento(rs.getString("tipo_atend"));
-                    profissional.setCrm(rs.getInt("crm_profissional"));
+                    profissional = MapeadorLinhas.profissional(rs);
 
                     System.out.println("Profissional encontrado com CRM: " + crm);
                 } else {
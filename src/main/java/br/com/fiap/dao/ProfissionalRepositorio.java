@@ -0,0 +1,75 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.models.Profissional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operações de armazenamento de {@link Profissional} usadas pelos serviços.
+ *
+ * <p>A implementação ativa é escolhida no build por {@code app.armazenamento}: {@link ProfissionalDao} (JDBC, padrão)
+ * ou {@link br.com.fiap.dao.memoria.ProfissionalRepositorioMemoria} (em memória).</p>
+ */
+public interface ProfissionalRepositorio {
+
+    /**
+     * Cadastra um novo profissional e preenche o seu ID.
+     *
+     * @throws IllegalArgumentException Caso já exista um profissional com o CRM.
+     */
+    void cadastrarProfissional(Profissional profissional);
+
+    /**
+     * Insere ou atualiza profissionais pelo CRM e preenche os seus IDs.
+     *
+     * @param profissionais Profissionais com CRMs distintos.
+     * @return Quantidade de profissionais inseridos, atualizados e inalterados.
+     */
+    ResultadoUpsert upsertPorCrm(List<Profissional> profissionais);
+
+    /**
+     * Retorna todos os profissionais, ordenados por nome.
+     */
+    List<Profissional> listarProfissionais();
+
+    /**
+     * Retorna uma página dos profissionais que atendem ao filtro, ordenados por nome e ID, após a chave informada.
+     *
+     * @param filtro     Critérios da listagem.
+     * @param nomeApos   Nome do último profissional já entregue (nulo se ele não tiver nome; esses vêm por último).
+     * @param idApos     ID do último profissional já entregue, ou {@code 0} para a primeira página.
+     * @param quantidade Quantidade máxima de profissionais retornados.
+     */
+    List<Profissional> listarProfissionais(FiltroProfissional filtro, String nomeApos, int idApos, int quantidade);
+
+    /**
+     * @return Profissional com o ID, ou {@code null} se não existir.
+     */
+    Profissional buscarPorId(int id);
+
+    /**
+     * Busca vários profissionais de uma vez, com poucas idas ao banco independentemente da quantidade de IDs.
+     *
+     * @return Profissionais encontrados, indexados pelo ID na ordem recebida; IDs inexistentes ficam fora do mapa.
+     */
+    Map<Integer, Profissional> buscarPorIds(Collection<Integer> ids);
+
+    /**
+     * Atualiza os campos não nulos do profissional informado, identificado pelo ID.
+     *
+     * @return Profissional como ficou gravado, ou {@code null} se não houver profissional com o ID.
+     */
+    Profissional atualizarProfissional(Profissional profissional);
+
+    /**
+     * @return {@code true} se o profissional existia e foi excluído.
+     */
+    boolean excluirProfissional(int id);
+
+    /**
+     * @return Profissional com o CRM, ou {@code null} se não existir.
+     */
+    Profissional buscarPorCrm(int crm);
+}
@@ -0,0 +1,21 @@
+package br.com.fiap.dao;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca métodos de DAOs {@link Resiliente} que podem ser executados de novo após uma falha transitória do banco
+ * sem mudar o resultado.
+ *
+ * <p>Só as leituras são marcadas. As atualizações são chamadas pelos serviços dentro de um escopo
+ * {@link ConexaoCompartilhada}, onde a nova tentativa usaria a mesma conexão que acabou de falhar e por isso
+ * nunca é feita.</p>
+ *
+ * @see ResilienteInterceptor
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Repetivel {
+}
@@ -0,0 +1,134 @@
+package br.com.fiap.dao;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Proteção das chamadas aos DAOs anotados com {@link Resiliente} quando o banco fica lento ou instável.
+ *
+ * <p>Cada DAO tem um {@link Compartimento} com até {@code app.resiliencia.maximo-concorrente} chamadas
+ * simultâneas (ou {@code app.resiliencia.<nome>.maximo-concorrente}), para que uma entidade lenta não esgote
+ * o pool e trave as leituras baratas das demais. Todas as chamadas passam também por um único {@link Disjuntor},
+ * pois o banco é o mesmo. Chamadas recusadas falham na hora com {@link BancoIndisponivelException}.</p>
+ *
+ * <p>Métodos {@link Repetivel} que falham por erro transitório ({@link ErrosSql#transitoria(Throwable)}) são
+ * repetidos até {@code app.retentativas.maximo-tentativas} vezes, com espera exponencial limitada e aleatória
+ * ({@link #espera(int)}), dentro do saldo do {@link OrcamentoRetentativas}.</p>
+ */
+@ApplicationScoped
+public class ResilienciaBanco {
+
+    @Inject
+    Config config;
+
+    @ConfigProperty(name = "app.resiliencia.habilitada", defaultValue = "true")
+    boolean habilitada;
+
+    @ConfigProperty(name = "app.resiliencia.maximo-concorrente", defaultValue = "8")
+    int maximoConcorrente;
+
+    @ConfigProperty(name = "app.resiliencia.janela", defaultValue = "20")
+    int janela;
+
+    @ConfigProperty(name = "app.resiliencia.minimo-chamadas", defaultValue = "10")
+    int minimoChamadas;
+
+    @ConfigProperty(name = "app.resiliencia.taxa-falhas", defaultValue = "0.5")
+    double taxaFalhas;
+
+    @ConfigProperty(name = "app.resiliencia.limite-lento-ms", defaultValue = "2000")
+    long limiteLentoMs;
+
+    @ConfigProperty(name = "app.resiliencia.taxa-lentas", defaultValue = "0.5")
+    double taxaLentas;
+
+    @ConfigProperty(name = "app.resiliencia.aberto-ms", defaultValue = "5000")
+    long abertoMs;
+
+    @ConfigProperty(name = "app.resiliencia.chamadas-teste", defaultValue = "3")
+    int chamadasTeste;
+
+    @ConfigProperty(name = "app.retentativas.maximo-tentativas", defaultValue = "3")
+    int maximoTentativas;
+
+    @ConfigProperty(name = "app.retentativas.espera-inicial-ms", defaultValue = "50")
+    long esperaInicialMs;
+
+    @ConfigProperty(name = "app.retentativas.espera-maxima-ms", defaultValue = "1000")
+    long esperaMaximaMs;
+
+    @ConfigProperty(name = "app.retentativas.proporcao", defaultValue = "0.1")
+    double proporcaoRetentativas;
+
+    @ConfigProperty(name = "app.retentativas.saldo-maximo", defaultValue = "10")
+    double saldoMaximoRetentativas;
+
+    private Disjuntor disjuntor;
+    private OrcamentoRetentativas orcamento;
+    private final Map<String, Compartimento> compartimentos = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void iniciar() {
+        disjuntor = new Disjuntor(janela, minimoChamadas, taxaFalhas, taxaLentas,
+                limiteLentoMs * 1_000_000, abertoMs * 1_000_000, chamadasTeste, System::nanoTime);
+        orcamento = new OrcamentoRetentativas(proporcaoRetentativas, saldoMaximoRetentativas);
+    }
+
+    /** Indica se a proteção está ativa; desativada, as chamadas vão direto aos DAOs. */
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    /** Disjuntor compartilhado do banco. */
+    public Disjuntor getDisjuntor() {
+        return disjuntor;
+    }
+
+    /** Saldo de novas tentativas compartilhado pelos DAOs. */
+    public OrcamentoRetentativas getOrcamento() {
+        return orcamento;
+    }
+
+    /** Máximo de tentativas de um método {@link Repetivel}, contando a primeira. */
+    public int getMaximoTentativas() {
+        return maximoTentativas;
+    }
+
+    /**
+     * Espera antes da nova tentativa seguinte à tentativa informada (1 = primeira): um valor aleatório entre zero
+     * e {@code espera-inicial-ms * 2^(tentativa - 1)}, limitado a {@code espera-maxima-ms}. A parte aleatória
+     * evita que as chamadas que falharam juntas voltem ao banco ao mesmo tempo.
+     *
+     * @return Espera em milissegundos.
+     */
+    long espera(int tentativa) {
+        long teto = esperaInicialMs << Math.min(tentativa - 1, 20);
+        return ThreadLocalRandom.current().nextLong(Math.min(esperaMaximaMs, teto) + 1);
+    }
+
+    /**
+     * Compartimento do DAO com o nome informado, criado no primeiro uso.
+     */
+    Compartimento compartimento(String nome) {
+        return compartimentos.computeIfAbsent(nome, n -> new Compartimento(n, config
+                .getOptionalValue("app.resiliencia." + n + ".maximo-concorrente", Integer.class)
+                .orElse(maximoConcorrente)));
+    }
+
+    /** Compartimentos já usados, por nome. */
+    public List<Compartimento> getCompartimentos() {
+        List<Compartimento> lista = new ArrayList<>(compartimentos.values());
+        lista.sort(Comparator.comparing(Compartimento::getNome));
+        return lista;
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.fiap.dao;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca DAOs cujas chamadas passam pela proteção de {@link ResilienciaBanco}: um limite de chamadas
+ * simultâneas próprio do DAO (bulkhead) e o disjuntor compartilhado do banco.
+ *
+ * @see ResilienteInterceptor
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Resiliente {
+
+    /** Nome do compartimento do DAO, usado na configuração e nas métricas. */
+    @Nonbinding
+    String value();
+}
@@ -0,0 +1,109 @@
+package br.com.fiap.dao;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.lang.reflect.Method;
+
+/**
+ * Aplica o compartimento do DAO e o disjuntor do banco ({@link ResilienciaBanco}) em volta dos métodos
+ * das classes anotadas com {@link Resiliente}.
+ *
+ * <p>Só contam como falha os erros do banco ({@link ErrosSql#falhaDoBanco(Throwable)}); erros de validação,
+ * violações de restrição e comandos interrompidos pelo prazo da própria requisição não abrem o disjuntor.</p>
+ *
+ * <p>Métodos {@link Repetivel} que falham por erro transitório são executados de novo, cada tentativa passando
+ * pelo disjuntor, enquanto houver tentativas, saldo no {@link OrcamentoRetentativas} e prazo na requisição.
+ * A vaga no compartimento é mantida entre as tentativas. Dentro de um escopo de conexão compartilhada não há
+ * nova tentativa: ela usaria a mesma conexão que acabou de falhar.</p>
+ *
+ * <p>O Quarkus intercepta também as chamadas de um bean a si mesmo. Por isso um método público do DAO não deve
+ * chamar outro método público do mesmo DAO, ou a chamada ocuparia duas vagas do compartimento e contaria duas
+ * vezes no disjuntor: o trabalho em comum fica em métodos privados.</p>
+ */
+@Resiliente("")
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class ResilienteInterceptor {
+
+    @Inject
+    ResilienciaBanco resiliencia;
+
+    @Inject
+    FonteConexoes fonteConexoes;
+
+    @AroundInvoke
+    Object proteger(InvocationContext contexto) throws Exception {
+        if (!resiliencia.isHabilitada()) {
+            return contexto.proceed();
+        }
+
+        Method metodo = contexto.getMethod();
+        Resiliente anotacao = metodo.getAnnotation(Resiliente.class);
+        if (anotacao == null) {
+            anotacao = metodo.getDeclaringClass().getAnnotation(Resiliente.class);
+        }
+        String nome = anotacao != null ? anotacao.value() : metodo.getDeclaringClass().getSimpleName();
+
+        Compartimento compartimento = resiliencia.compartimento(nome);
+        Disjuntor disjuntor = resiliencia.getDisjuntor();
+        if (!compartimento.entrar()) {
+            ContextoRequisicao.registrarRecusa();
+            throw new BancoIndisponivelException("Limite de chamadas simultâneas atingido: "
+                    + compartimento.getNome() + ".");
+        }
+        // Em um escopo compartilhado a nova tentativa usaria a mesma conexão que acabou de falhar
+        boolean repetivel = metodo.isAnnotationPresent(Repetivel.class) && !fonteConexoes.emEscopo();
+        OrcamentoRetentativas orcamento = resiliencia.getOrcamento();
+        orcamento.registrarChamada();
+
+        try {
+            for (int tentativa = 1; ; tentativa++) {
+                if (!disjuntor.permitir()) {
+                    ContextoRequisicao.registrarRecusa();
+                    throw new BancoIndisponivelException("Banco indisponível: disjuntor aberto.");
+                }
+
+                long inicio = System.nanoTime();
+                boolean falha = false;
+                try {
+                    return contexto.proceed();
+                } catch (Exception e) {
+                    falha = ErrosSql.falhaDoBanco(e) && !ContextoRequisicao.prazoEsgotado();
+                    if (!repetivel || tentativa >= resiliencia.getMaximoTentativas()
+                            || !ErrosSql.transitoria(e) || !aguardar(tentativa, orcamento)) {
+                        throw e;
+                    }
+                    System.err.println("Falha transitória em " + nome + "." + metodo.getName()
+                            + ", nova tentativa " + (tentativa + 1) + ": " + e.getMessage());
+                } finally {
+                    disjuntor.registrar(falha, System.nanoTime() - inicio);
+                }
+            }
+        } finally {
+            compartimento.sair();
+        }
+    }
+
+    /**
+     * Espera antes de uma nova tentativa, se houver saldo no orçamento e a espera couber no prazo da requisição.
+     *
+     * @return {@code false} se a nova tentativa não deve ser feita.
+     */
+    private boolean aguardar(int tentativa, OrcamentoRetentativas orcamento) {
+        long espera = resiliencia.espera(tentativa);
+        if (ContextoRequisicao.nanosRestantes() <= espera * 1_000_000 || !orcamento.retirar()) {
+            return false;
+        }
+        try {
+            Thread.sleep(espera);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.fiap.dao;
+
+/**
+ * Contagem das linhas de uma gravação em massa por upsert (MERGE).
+ */
+public final class ResultadoUpsert {
+
+    private int inseridos;
+    private int atualizados;
+    private int inalterados;
+
+    void somar(ResultadoUpsert outro) {
+        inseridos += outro.inseridos;
+        atualizados += outro.atualizados;
+        inalterados += outro.inalterados;
+    }
+
+    public void inserido() { inseridos++; }
+    public void atualizado() { atualizados++; }
+    public void inalterado() { inalterados++; }
+
+    public int getInseridos() { return inseridos; }
+    public int getAtualizados() { return atualizados; }
+    public int getInalterados() { return inalterados; }
+}
@@ -0,0 +1,260 @@
+package br.com.fiap.dao;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rotina de retenção que move as consultas anteriores a {@code app.retencao.horizonte-dias} para as tabelas
+ * de arquivo ({@code CONSULTA_ARQ} e {@code CONSULTA_PROFIS_ARQ}), mantendo pequenas as tabelas lidas pelos DAOs.
+ *
+ * <p>As consultas são movidas em lotes de {@code app.retencao.tamanho-lote}, da mais antiga para a mais recente
+ * (data e ID), cada lote em uma transação curta, com uma pausa de {@code app.retencao.pausa-ms} entre eles.
+ * Como cada lote copia e exclui as mesmas linhas na mesma transação, uma execução interrompida (inclusive por
+ * reinício da aplicação) continua, na próxima, a partir da consulta mais antiga que ainda não foi arquivada.</p>
+ *
+ * <p>Com {@code app.retencao.habilitada=true}, executa a cada {@code app.retencao.intervalo-minutos};
+ * o andamento fica disponível nos getters desta classe (GET /admin/retencao).</p>
+ */
+@ApplicationScoped
+public class RetencaoConsultas {
+
+    @Inject
+    FonteConexoes conexoes;
+
+    @ConfigProperty(name = "app.retencao.habilitada", defaultValue = "false")
+    boolean habilitada;
+
+    @ConfigProperty(name = "app.retencao.horizonte-dias", defaultValue = "730")
+    int horizonteDias;
+
+    @ConfigProperty(name = "app.retencao.tamanho-lote", defaultValue = "200")
+    int tamanhoLote;
+
+    @ConfigProperty(name = "app.retencao.pausa-ms", defaultValue = "200")
+    long pausaMs;
+
+    @ConfigProperty(name = "app.retencao.intervalo-minutos", defaultValue = "60")
+    long intervaloMinutos;
+
+    private ScheduledExecutorService agendador;
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+    private final AtomicLong consultasArquivadas = new AtomicLong();
+    private final AtomicLong vinculosArquivados = new AtomicLong();
+    private final AtomicLong lotes = new AtomicLong();
+    private volatile LocalDate ultimaDataArquivada;
+    private volatile Instant inicioUltimaExecucao;
+    private volatile Instant fimUltimaExecucao;
+    private volatile String ultimoErro;
+
+    @PostConstruct
+    void iniciar() {
+        agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "retencao-consultas");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void encerrar() {
+        agendador.shutdownNow();
+    }
+
+    void aoIniciar(@Observes StartupEvent evento) {
+        if (habilitada) {
+            // A primeira execução, logo após o início, retoma o que ficou pendente antes do reinício
+            agendador.scheduleWithFixedDelay(this::executarAgendado, 1, intervaloMinutos * 60, TimeUnit.SECONDS);
+            System.out.println("Retenção de consultas habilitada: arquivando consultas com mais de "
+                    + horizonteDias + " dias a cada " + intervaloMinutos + " minutos.");
+        }
+    }
+
+    /**
+     * Agenda uma execução imediata em segundo plano, sem esperar o intervalo.
+     *
+     * @return {@code false} se já houver uma execução em andamento.
+     */
+    public boolean executarAgora() {
+        if (emExecucao.get()) {
+            return false;
+        }
+        agendador.execute(this::executarAgendado);
+        return true;
+    }
+
+    private void executarAgendado() {
+        try {
+            executar();
+        } catch (RuntimeException e) {
+            // Exceções não tratadas cancelariam as próximas execuções agendadas
+            System.err.println("Erro na retenção de consultas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Arquiva, lote a lote, todas as consultas anteriores ao horizonte de retenção.
+     * Retorna sem fazer nada se outra execução estiver em andamento.
+     *
+     * @return Quantidade de consultas arquivadas nesta execução.
+     */
+    public int executar() {
+        if (!emExecucao.compareAndSet(false, true)) {
+            return 0;
+        }
+
+        LocalDate horizonte = LocalDate.now().minusDays(horizonteDias);
+        int total = 0;
+        inicioUltimaExecucao = Instant.now();
+        ultimoErro = null;
+
+        try {
+            int arquivadas;
+            do {
+                arquivadas = arquivarLote(horizonte);
+                total += arquivadas;
+
+                if (arquivadas == tamanhoLote && pausaMs > 0) {
+                    Thread.sleep(pausaMs);
+                }
+            } while (arquivadas == tamanhoLote);
+
+            System.out.println("Retenção de consultas concluída: " + total + " consultas arquivadas.");
+            return total;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Retenção de consultas interrompida após " + total + " consultas arquivadas.");
+            return total;
+        } catch (SQLException e) {
+            ultimoErro = e.getMessage();
+            System.err.println("Erro ao arquivar consultas: " + e.getMessage());
+            throw new RuntimeException("Erro ao arquivar consultas", e);
+        } finally {
+            fimUltimaExecucao = Instant.now();
+            emExecucao.set(false);
+        }
+    }
+
+    /**
+     * Move para o arquivo, em uma única transação, o próximo lote de consultas anteriores ao horizonte.
+     *
+     * @return Quantidade de consultas arquivadas no lote.
+     */
+    int arquivarLote(LocalDate horizonte) throws SQLException {
+        String sqlLote = """
+            SELECT id_consulta, data_consulta FROM CONSULTA
+            WHERE data_consulta < ?
+            ORDER BY data_consulta, id_consulta
+            FETCH FIRST ? ROWS ONLY
+        """;
+
+        try (UnidadeDeTrabalho uow = UnidadeDeTrabalho.iniciar(conexoes)) {
+            Connection conexao = uow.conexao();
+
+            List<Integer> ids = new ArrayList<>(tamanhoLote);
+            LocalDate ultimaData = null;
+            try (PreparedStatement ps = conexao.prepareStatement(sqlLote)) {
+                ps.setDate(1, Date.valueOf(horizonte));
+                ps.setInt(2, tamanhoLote);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt(1));
+                        ultimaData = rs.getDate(2).toLocalDate();
+                    }
+                }
+            }
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            int vinculos = 0;
+            for (int inicio = 0; inicio < ids.size(); inicio += ListaIn.TAMANHO_MAXIMO) {
+                List<Integer> bloco = ids.subList(inicio, Math.min(inicio + ListaIn.TAMANHO_MAXIMO, ids.size()));
+                String in = "(" + ListaIn.marcadores(ListaIn.tamanho(bloco.size())) + ")";
+
+                executar(conexao, """
+                    INSERT INTO CONSULTA_ARQ (id_consulta, tipo_consulta, data_consulta, motivo_consulta, arquivada_em)
+                    SELECT id_consulta, tipo_consulta, data_consulta, motivo_consulta, CURRENT_TIMESTAMP
+                    FROM CONSULTA WHERE id_consulta IN
+                """ + in, bloco);
+                vinculos += executar(conexao, """
+                    INSERT INTO CONSULTA_PROFIS_ARQ (fk_consulta, fk_profis)
+                    SELECT fk_consulta, fk_profis FROM CONSULTA_PROFIS WHERE fk_consulta IN
+                """ + in, bloco);
+                executar(conexao, "DELETE FROM CONSULTA_PROFIS WHERE fk_consulta IN " + in, bloco);
+                executar(conexao, "DELETE FROM CONSULTA WHERE id_consulta IN " + in, bloco);
+            }
+
+            uow.confirmar();
+
+            consultasArquivadas.addAndGet(ids.size());
+            vinculosArquivados.addAndGet(vinculos);
+            lotes.incrementAndGet();
+            ultimaDataArquivada = ultimaData;
+            return ids.size();
+        }
+    }
+
+    /**
+     * Executa um comando cuja cláusula IN recebe os IDs do bloco, completando com o último ID.
+     */
+    private int executar(Connection conexao, String sql, List<Integer> bloco) throws SQLException {
+        int tamanho = ListaIn.tamanho(bloco.size());
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            for (int i = 0; i < tamanho; i++) {
+                ps.setInt(i + 1, bloco.get(Math.min(i, bloco.size() - 1)));
+            }
+            return ps.executeUpdate();
+        }
+    }
+
+    /** Indica se a rotina executa periodicamente. */
+    public boolean isHabilitada() { return habilitada; }
+
+    /** Indica se há uma execução em andamento. */
+    public boolean isEmExecucao() { return emExecucao.get(); }
+
+    /** Dias de retenção: consultas com data anterior a hoje menos esse valor são arquivadas. */
+    public int getHorizonteDias() { return horizonteDias; }
+
+    /** Consultas arquivadas desde o início da aplicação. */
+    public long getConsultasArquivadas() { return consultasArquivadas.get(); }
+
+    /** Vínculos com profissionais arquivados desde o início da aplicação. */
+    public long getVinculosArquivados() { return vinculosArquivados.get(); }
+
+    /** Lotes confirmados desde o início da aplicação. */
+    public long getLotes() { return lotes.get(); }
+
+    /** Data da consulta mais recente já arquivada, ou {@code null}. */
+    public LocalDate getUltimaDataArquivada() { return ultimaDataArquivada; }
+
+    /** Início da última execução, ou {@code null}. */
+    public Instant getInicioUltimaExecucao() { return inicioUltimaExecucao; }
+
+    /** Fim da última execução, ou {@code null} se nenhuma terminou. */
+    public Instant getFimUltimaExecucao() { return fimUltimaExecucao; }
+
+    /** Mensagem do erro que encerrou a última execução, ou {@code null}. */
+    public String getUltimoErro() { return ultimoErro; }
+}
@@ -0,0 +1,67 @@
+package br.com.fiap.dao;
+
+import oracle.jdbc.OracleConnection;
+import oracle.jdbc.OraclePreparedStatement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Suporte a {@code UPDATE ... RETURNING ... INTO} do driver Oracle, usado pelos DAOs para gravar e
+ * obter o estado resultante no mesmo comando.
+ *
+ * <p>Com outros drivers (ex.: H2 nos testes) o RETURNING não está disponível: os DAOs executam o UPDATE
+ * sem ele e leem a linha em seguida, na mesma conexão.</p>
+ */
+final class RetornoDml {
+
+    /** Tipos das colunas de {@link MapeadorLinhas#COLUNAS_PACIENTE}. */
+    static final int[] TIPOS_PACIENTE = {
+            Types.INTEGER, Types.VARCHAR, Types.INTEGER, Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR};
+
+    /** Tipos das colunas de {@link MapeadorLinhas#COLUNAS_PROFISSIONAL}. */
+    static final int[] TIPOS_PROFISSIONAL = {
+            Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.INTEGER};
+
+    /** Tipos das colunas de {@link MapeadorLinhas#COLUNAS_CONSULTA}. */
+    static final int[] TIPOS_CONSULTA = {
+            Types.INTEGER, Types.VARCHAR, Types.DATE, Types.VARCHAR};
+
+    private RetornoDml() {}
+
+    /**
+     * Indica se a conexão é do driver Oracle, cujos comandos aceitam parâmetros de retorno.
+     */
+    static boolean suportado(Connection conexao) throws SQLException {
+        return conexao.isWrapperFor(OracleConnection.class);
+    }
+
+    /**
+     * Retorna a cláusula {@code RETURNING colunas INTO ?, ?, ...} para a lista de colunas informada.
+     */
+    static String clausula(String colunas) {
+        int quantidade = colunas.split(",").length;
+        return " RETURNING " + colunas + " INTO " + ListaIn.marcadores(quantidade);
+    }
+
+    /**
+     * Registra os parâmetros de retorno a partir da posição informada, com os tipos das colunas na ordem do RETURNING.
+     */
+    static void registrar(PreparedStatement ps, int primeiro, int... tipos) throws SQLException {
+        OraclePreparedStatement oracle = ps.unwrap(OraclePreparedStatement.class);
+        for (int i = 0; i < tipos.length; i++) {
+            oracle.registerReturnParameter(primeiro + i, tipos[i]);
+        }
+    }
+
+    /**
+     * Retorna as linhas devolvidas pelo RETURNING, com as colunas na ordem da cláusula.
+     */
+    static ResultSet resultado(PreparedStatement ps) throws SQLException {
+        return ps.unwrap(OraclePreparedStatement.class).getReturnResultSet();
+    }
+
+}
@@ -0,0 +1,422 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.models.Paciente;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.sql.DataSource;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Particionamento horizontal (shards) da tabela PACIENTE entre os datasources de {@code app.pacientes.shards}.
+ *
+ * <p>O CPF define uma de {@value #FATIAS} fatias ({@code hash(cpf) % FATIAS}) e um {@link AnelConsistente} sobre
+ * os nomes dos datasources define o dono de cada fatia. O ID do paciente carrega a fatia
+ * ({@code sequencial * FATIAS + fatia}), de modo que buscas por CPF e por ID vão direto a um único shard.
+ * Ao incluir um shard, apenas as fatias que o anel passa para ele mudam de dono, e {@link #rebalancear()}
+ * move as linhas dessas fatias.</p>
+ *
+ * <p>Sem {@code app.pacientes.shards}, o particionamento fica inativo e os DAOs usam apenas a
+ * {@link FonteConexoes} principal. O nome {@value #PRINCIPAL} indica o datasource padrão.</p>
+ */
+@ApplicationScoped
+public class ShardsPaciente {
+
+    /** Quantidade fixa de fatias; mudar o valor invalida os IDs já gravados. */
+    static final int FATIAS = 64;
+
+    /** Nome do datasource padrão do Quarkus na lista de shards. */
+    static final String PRINCIPAL = "<default>";
+
+    /** Ordem das listagens de pacientes, igual ao {@code ORDER BY nome_pac NULLS LAST, id_pac} de cada shard. */
+    static final Comparator<Paciente> ORDEM = Comparator
+            .comparing(Paciente::getNome, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+            .thenComparing(Paciente::getId);
+
+    /** Linhas lidas e movidas por vez no rebalanceamento. */
+    private static final int LOTE_REBALANCEAMENTO = ListaIn.TAMANHO_MAXIMO;
+
+    @Inject
+    FonteConexoes conexoes;
+
+    @Inject
+    @Any
+    Instance<DataSource> dataSources;
+
+    @ConfigProperty(name = "app.pacientes.shards")
+    Optional<List<String>> nomesShards;
+
+    @ConfigProperty(name = "app.pacientes.rebalanceamento-pendente", defaultValue = "false")
+    boolean rebalanceamentoPendente;
+
+    private List<String> nomes = List.of();
+    private List<FonteConexoes> fontes = List.of();
+    private int[] donoDaFatia = new int[0];
+    private ExecutorService executor;
+    private volatile boolean rebalanceando;
+
+    /**
+     * Consulta executada em um shard.
+     */
+    @FunctionalInterface
+    interface ConsultaShard<T> {
+        T executar(FonteConexoes fonte) throws SQLException;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        List<String> lista = nomesShards.orElse(List.of());
+        if (lista.isEmpty()) {
+            return;
+        }
+
+        List<FonteConexoes> lidas = new ArrayList<>();
+        for (String nome : lista) {
+            if (PRINCIPAL.equals(nome)) {
+                lidas.add(conexoes);
+            } else {
+                lidas.add(conexoes.sobre(
+                        dataSources.select(new io.quarkus.agroal.DataSource.DataSourceLiteral(nome)).get()));
+            }
+        }
+        definir(lista, lidas);
+        rebalanceando = rebalanceamentoPendente;
+        System.out.println("Pacientes particionados entre os shards " + lista
+                + (rebalanceando ? " (rebalanceamento pendente)." : "."));
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Define os shards e recalcula o dono de cada fatia.
+     */
+    void definir(List<String> nomes, List<FonteConexoes> fontes) {
+        AnelConsistente anel = new AnelConsistente(nomes);
+        int[] donos = new int[FATIAS];
+        for (int fatia = 0; fatia < FATIAS; fatia++) {
+            donos[fatia] = anel.indice("fatia-" + fatia);
+        }
+
+        if (executor == null) {
+            executor = Executors.newCachedThreadPool(tarefa -> {
+                Thread thread = new Thread(tarefa, "shards-paciente");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.nomes = List.copyOf(nomes);
+        this.fontes = List.copyOf(fontes);
+        this.donoDaFatia = donos;
+    }
+
+    /** Indica se há shards configurados. */
+    public boolean ativo() {
+        return !fontes.isEmpty();
+    }
+
+    /** Nomes dos datasources usados como shards, na ordem da configuração. */
+    public List<String> getNomes() {
+        return nomes;
+    }
+
+    /**
+     * Indica se há linhas fora do shard dono. Nesse caso, buscas que não encontram o paciente no
+     * dono consultam também os demais shards.
+     */
+    boolean rebalanceando() {
+        return rebalanceando;
+    }
+
+    /** Fatia do CPF informado. */
+    static int fatiaDoCpf(String cpf) {
+        return (int) Math.floorMod(AnelConsistente.hash(cpf), (long) FATIAS);
+    }
+
+    /** Fatia do paciente com o ID informado. */
+    static int fatiaDoId(int id) {
+        return Math.floorMod(id, FATIAS);
+    }
+
+    /**
+     * Compõe o ID de um paciente a partir de um número sequencial e da fatia do seu CPF.
+     *
+     * @throws ArithmeticException Caso o ID ultrapasse o limite de {@code int}.
+     */
+    static int compor(int sequencial, int fatia) {
+        return Math.addExact(Math.multiplyExact(sequencial, FATIAS), fatia);
+    }
+
+    /** Shard dono do CPF informado. */
+    FonteConexoes porCpf(String cpf) {
+        return fontes.get(donoDaFatia[fatiaDoCpf(cpf)]);
+    }
+
+    /** Shard dono do paciente com o ID informado. */
+    FonteConexoes porId(int id) {
+        return fontes.get(donoDaFatia[fatiaDoId(id)]);
+    }
+
+    /**
+     * Shards onde procurar um registro cujo dono é o shard informado: só o dono, ou o dono
+     * seguido dos demais enquanto houver rebalanceamento pendente.
+     */
+    List<FonteConexoes> aProcurar(FonteConexoes dono) {
+        if (!rebalanceando) {
+            return List.of(dono);
+        }
+        List<FonteConexoes> lista = new ArrayList<>(fontes.size());
+        lista.add(dono);
+        for (FonteConexoes fonte : fontes) {
+            if (fonte != dono) {
+                lista.add(fonte);
+            }
+        }
+        return lista;
+    }
+
+    /** Todos os shards. */
+    List<FonteConexoes> todos() {
+        return fontes;
+    }
+
+    /** Shards em datasources diferentes do principal, que precisam de migração própria. */
+    public List<FonteConexoes> adicionais() {
+        return fontes.stream().filter(fonte -> fonte != conexoes).toList();
+    }
+
+    /**
+     * Executa a consulta em todos os shards em paralelo e retorna os resultados na ordem dos shards.
+     * As tarefas herdam o prazo da requisição atual.
+     *
+     * @throws SQLException O primeiro erro de banco ocorrido em algum shard.
+     */
+    <T> List<T> emTodos(ConsultaShard<T> consulta) throws SQLException {
+        long prazo = ContextoRequisicao.nanosRestantes();
+        List<Future<T>> tarefas = new ArrayList<>(fontes.size());
+        for (FonteConexoes fonte : fontes) {
+            tarefas.add(executor.submit(() -> {
+                ContextoRequisicao.iniciarComPrazo(prazo);
+                try {
+                    return consulta.executar(fonte);
+                } finally {
+                    ContextoRequisicao.encerrar();
+                }
+            }));
+        }
+
+        List<T> resultados = new ArrayList<>(tarefas.size());
+        try {
+            for (Future<T> tarefa : tarefas) {
+                resultados.add(tarefa.get());
+            }
+        } catch (ExecutionException e) {
+            tarefas.forEach(tarefa -> tarefa.cancel(true));
+            if (e.getCause() instanceof SQLException erro) {
+                if (ErrosSql.tempoEsgotado(erro)) {
+                    ContextoRequisicao.registrarPrazoEsgotado();
+                }
+                throw erro;
+            }
+            if (e.getCause() instanceof RuntimeException erro) {
+                throw erro;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tarefas.forEach(tarefa -> tarefa.cancel(true));
+            throw new RuntimeException("Consulta aos shards interrompida.", e);
+        }
+        return resultados;
+    }
+
+    /**
+     * Intercala listas já ordenadas por {@link #ORDEM} (k-way merge), até a quantidade informada.
+     */
+    static List<Paciente> intercalar(List<List<Paciente>> listas, int quantidade) {
+        // Cada entrada da fila é {lista, posição}, ordenada pelo paciente daquela posição
+        PriorityQueue<int[]> fila = new PriorityQueue<>(Math.max(1, listas.size()),
+                (a, b) -> ORDEM.compare(listas.get(a[0]).get(a[1]), listas.get(b[0]).get(b[1])));
+        int total = 0;
+        for (int i = 0; i < listas.size(); i++) {
+            total += listas.get(i).size();
+            if (!listas.get(i).isEmpty()) {
+                fila.add(new int[]{i, 0});
+            }
+        }
+
+        List<Paciente> resultado = new ArrayList<>(Math.min(total, quantidade));
+        while (!fila.isEmpty() && resultado.size() < quantidade) {
+            int[] topo = fila.poll();
+            List<Paciente> lista = listas.get(topo[0]);
+            resultado.add(lista.get(topo[1]));
+            if (++topo[1] < lista.size()) {
+                fila.add(topo);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Move para o shard dono as linhas de pacientes que estão em outro shard, como ocorre após incluir um
+     * shard na configuração. Cada linha é gravada no dono e depois excluída da origem, em lotes de
+     * {@value #LOTE_REBALANCEAMENTO}; uma execução interrompida pode ser repetida sem duplicar pacientes.
+     *
+     * <p>Enquanto o rebalanceamento não termina, as buscas também procuram nos shards que não são donos.
+     * Alterações feitas em uma linha durante a sua cópia podem se perder, por isso o rebalanceamento deve
+     * rodar com pouco tráfego de escrita.</p>
+     *
+     * @return Quantidade de pacientes movidos.
+     */
+    public synchronized int rebalancear() {
+        if (!ativo()) {
+            return 0;
+        }
+
+        rebalanceando = true;
+        int movidos = 0;
+
+        for (int origem = 0; origem < fontes.size(); origem++) {
+            StringJoiner alheias = new StringJoiner(", ");
+            for (int fatia = 0; fatia < FATIAS; fatia++) {
+                if (donoDaFatia[fatia] != origem) {
+                    alheias.add(String.valueOf(fatia));
+                }
+            }
+            if (alheias.length() == 0) {
+                continue;
+            }
+
+            String sqlFora = "SELECT " + MapeadorLinhas.COLUNAS_PACIENTE
+                    + " FROM PACIENTE WHERE MOD(id_pac, " + FATIAS + ") IN (" + alheias
+                    + ") ORDER BY id_pac FETCH FIRST " + LOTE_REBALANCEAMENTO + " ROWS ONLY";
+
+            try {
+                List<Paciente> lote;
+                do {
+                    lote = new ArrayList<>();
+                    try (Connection conexao = fontes.get(origem).obter();
+                         PreparedStatement ps = conexao.prepareStatement(sqlFora);
+                         ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            lote.add(MapeadorLinhas.paciente(rs));
+                        }
+                    }
+
+                    Map<FonteConexoes, List<Paciente>> porDestino = new LinkedHashMap<>();
+                    for (Paciente paciente : lote) {
+                        porDestino.computeIfAbsent(porId(paciente.getId()), f -> new ArrayList<>()).add(paciente);
+                    }
+                    for (Map.Entry<FonteConexoes, List<Paciente>> destino : porDestino.entrySet()) {
+                        copiar(destino.getKey(), destino.getValue());
+                    }
+                    excluir(fontes.get(origem), lote);
+                    movidos += lote.size();
+
+                } while (lote.size() == LOTE_REBALANCEAMENTO);
+
+            } catch (SQLException e) {
+                System.err.println("Erro ao rebalancear shard " + nomes.get(origem) + ": " + e.getMessage());
+                throw new RuntimeException("Erro ao rebalancear shard " + nomes.get(origem), e);
+            }
+        }
+
+        rebalanceando = false;
+        System.out.println("Rebalanceamento concluído: " + movidos + " pacientes movidos.");
+        return movidos;
+    }
+
+    /**
+     * Grava os pacientes no shard de destino. Se algum já estiver lá (execução anterior interrompida),
+     * grava um a um, ignorando os repetidos.
+     */
+    private void copiar(FonteConexoes destino, List<Paciente> pacientes) throws SQLException {
+        String sql = """
+            INSERT INTO PACIENTE
+            (id_pac, nome_pac, idade_pac, nivel_tec, tipo_atendimento, cpf_pac, senha_pac)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+
+        try (UnidadeDeTrabalho uow = UnidadeDeTrabalho.iniciar(destino);
+             PreparedStatement ps = uow.conexao().prepareStatement(sql)) {
+            for (Paciente paciente : pacientes) {
+                preencher(ps, paciente);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            uow.confirmar();
+            return;
+        } catch (BatchUpdateException e) {
+            if (!ErrosSql.violacaoUnicidade(e)) {
+                throw e;
+            }
+        }
+
+        try (Connection conexao = destino.obter();
+             PreparedStatement ps = conexao.prepareStatement(sql)) {
+            for (Paciente paciente : pacientes) {
+                preencher(ps, paciente);
+                try {
+                    ps.executeUpdate();
+                } catch (SQLException e) {
+                    if (!ErrosSql.violacaoUnicidade(e)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+
+    private void excluir(FonteConexoes origem, List<Paciente> pacientes) throws SQLException {
+        if (pacientes.isEmpty()) {
+            return;
+        }
+
+        int tamanho = ListaIn.tamanho(pacientes.size());
+        String sql = "DELETE FROM PACIENTE WHERE id_pac IN (" + ListaIn.marcadores(tamanho) + ")";
+
+        try (Connection conexao = origem.obter();
+             PreparedStatement ps = conexao.prepareStatement(sql)) {
+            for (int i = 0; i < tamanho; i++) {
+                ps.setInt(i + 1, pacientes.get(Math.min(i, pacientes.size() - 1)).getId());
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    private static void preencher(PreparedStatement ps, Paciente paciente) throws SQLException {
+        ps.setInt(1, paciente.getId());
+        ps.setString(2, paciente.getNome());
+        ps.setObject(3, paciente.getIdade(), Types.INTEGER);
+        ps.setObject(4, paciente.getNivelTecnico(), Types.INTEGER);
+        ps.setString(5, paciente.getTipoAtendimento());
+        ps.setString(6, paciente.getCpf());
+        ps.setString(7, paciente.getSenha());
+    }
+}
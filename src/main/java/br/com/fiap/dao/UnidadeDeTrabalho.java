@@ -0,0 +1,82 @@
+package br.com.fiap.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Unidade de trabalho JDBC: agrupa vários comandos em uma única conexão e uma única transação.
+ *
+ * <p>Uso típico:</p>
+ * <pre>{@code
+ * try (UnidadeDeTrabalho uow = UnidadeDeTrabalho.iniciar(conexoes)) {
+ *     // comandos com uow.conexao()
+ *     uow.confirmar();
+ * }
+ * }</pre>
+ *
+ * <p>Se {@link #confirmar()} não for chamado, a transação é desfeita ao fechar a unidade.</p>
+ */
+public final class UnidadeDeTrabalho implements AutoCloseable {
+
+    private final Connection conexao;
+    private final boolean autoCommitOriginal;
+    private boolean confirmada;
+
+    private UnidadeDeTrabalho(Connection conexao) throws SQLException {
+        this.conexao = conexao;
+        this.autoCommitOriginal = conexao.getAutoCommit();
+        conexao.setAutoCommit(false);
+    }
+
+    /**
+     * Obtém uma conexão da {@link FonteConexoes} e inicia a transação.
+     *
+     * @param conexoes Origem das conexões.
+     * @return Unidade de trabalho aberta.
+     * @throws SQLException Caso não seja possível obter ou configurar a conexão.
+     */
+    public static UnidadeDeTrabalho iniciar(FonteConexoes conexoes) throws SQLException {
+        Connection conexao = conexoes.obter();
+        try {
+            return new UnidadeDeTrabalho(conexao);
+        } catch (SQLException e) {
+            conexao.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Retorna a conexão da transação em andamento.
+     */
+    public Connection conexao() {
+        return conexao;
+    }
+
+    /**
+     * Confirma (commit) todos os comandos executados na unidade.
+     *
+     * @throws SQLException Caso o commit falhe.
+     */
+    public void confirmar() throws SQLException {
+        conexao.commit();
+        confirmada = true;
+    }
+
+    /**
+     * Desfaz a transação caso não tenha sido confirmada e devolve a conexão ao pool.
+     */
+    @Override
+    public void close() throws SQLException {
+        try {
+            if (!confirmada) {
+                conexao.rollback();
+            }
+        } finally {
+            try {
+                conexao.setAutoCommit(autoCommitOriginal);
+            } finally {
+                conexao.close();
+            }
+        }
+    }
+}
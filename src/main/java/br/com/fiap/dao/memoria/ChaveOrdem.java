@@ -0,0 +1,38 @@
+package br.com.fiap.dao.memoria;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * Chaves dos índices ordenados dos repositórios em memória, na mesma ordem das listagens do JDBC.
+ */
+final class ChaveOrdem {
+
+    private ChaveOrdem() {}
+
+    /** Posição em listagens ordenadas por nome e ID (nomes nulos por último, como no Oracle). */
+    record Nome(String nome, int id) implements Comparable<Nome> {
+
+        private static final Comparator<Nome> ORDEM = Comparator
+                .comparing(Nome::nome, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+                .thenComparingInt(Nome::id);
+
+        @Override
+        public int compareTo(Nome outra) {
+            return ORDEM.compare(this, outra);
+        }
+    }
+
+    /** Posição em listagens da data mais recente para a mais antiga, e por ID decrescente na mesma data. */
+    record Data(LocalDate data, int id) implements Comparable<Data> {
+
+        private static final Comparator<Data> ORDEM = Comparator
+                .comparing(Data::data, Comparator.nullsFirst(Comparator.<LocalDate>reverseOrder()))
+                .thenComparing(Comparator.comparingInt(Data::id).reversed());
+
+        @Override
+        public int compareTo(Data outra) {
+            return ORDEM.compare(this, outra);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package br.com.fiap.dao.memoria;
+
+import br.com.fiap.dao.ConsultaRepositorio;
+import br.com.fiap.dao.FiltroConsulta;
+import br.com.fiap.models.Consulta;
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static br.com.fiap.dao.ConsultaDao.idsDosProfissionais;
+
+/**
+ * Armazenamento de consultas em memória, ativo com {@code app.armazenamento=memoria}.
+ *
+ * <p>As consultas e os IDs dos seus profissionais ficam em {@link MapaInt} pelo ID da consulta, com um índice
+ * ordenado por data e ID decrescentes para a paginação. Os profissionais são lidos do
+ * {@link ProfissionalRepositorioMemoria} a cada leitura, como a junção feita no banco.
+ * Este repositório bloqueia antes do de profissionais, nunca o contrário.</p>
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "app.armazenamento", stringValue = "memoria")
+public class ConsultaRepositorioMemoria implements ConsultaRepositorio {
+
+    @Inject
+    ProfissionalRepositorioMemoria profissionais;
+
+    private final MapaInt<Consulta> porId = new MapaInt<>();
+    private final MapaInt<Set<Integer>> vinculos = new MapaInt<>();
+    private final NavigableSet<ChaveOrdem.Data> porData = new TreeSet<>();
+    private final AtomicInteger sequencia = new AtomicInteger();
+    private final ReentrantReadWriteLock bloqueio = new ReentrantReadWriteLock();
+
+    @Override
+    public void cadastrarConsulta(Consulta consulta) {
+        bloqueio.writeLock().lock();
+        try {
+            Set<Integer> ids = idsDosProfissionais(consulta.getProfissionais());
+            profissionais.vincular(ids);
+
+            consulta.setIdConsulta(sequencia.incrementAndGet());
+            incluir(Copias.consulta(consulta), ids);
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Consulta> listarConsultas() {
+        return listarConsultas(FiltroConsulta.VAZIO, null, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Consulta> listarConsultas(FiltroConsulta filtro, LocalDate dataAntes, int idAntes, int quantidade) {
+        bloqueio.readLock().lock();
+        try {
+            Collection<ChaveOrdem.Data> chaves = idAntes <= 0
+                    ? porData
+                    : porData.tailSet(new ChaveOrdem.Data(dataAntes, idAntes), false);
+
+            List<Consulta> lista = new ArrayList<>(Math.min(quantidade, chaves.size()));
+            for (ChaveOrdem.Data chave : chaves) {
+                if (lista.size() >= quantidade) {
+                    break;
+                }
+                if (filtro.aceita(porId.obter(chave.id()))) {
+                    lista.add(comProfissionais(chave.id()));
+                }
+            }
+            return lista;
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Consulta buscarPorId(int id) {
+        bloqueio.readLock().lock();
+        try {
+            return porId.contem(id) ? comProfissionais(id) : null;
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<Integer, Consulta> buscarPorIds(Collection<Integer> ids) {
+        bloqueio.readLock().lock();
+        try {
+            Map<Integer, Consulta> consultas = new HashMap<>();
+            for (int id : ids) {
+                if (porId.contem(id)) {
+                    consultas.put(id, comProfissionais(id));
+                }
+            }
+            return consultas;
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Consulta atualizarDadosConsulta(Consulta consulta) {
+        if (consulta.getIdConsulta() == null || consulta.getIdConsulta() <= 0) {
+            throw new IllegalArgumentException("ID inválido para atualização.");
+        }
+
+        bloqueio.writeLock().lock();
+        try {
+            Consulta atual = porId.obter(consulta.getIdConsulta());
+            if (atual == null) {
+                return null;
+            }
+
+            Set<Integer> ids = vinculos.obter(atual.getIdConsulta());
+            retirar(atual);
+            incluir(new Consulta(atual.getIdConsulta(),
+                    Copias.novoOuAtual(consulta.getTipoConsulta(), atual.getTipoConsulta()),
+                    Copias.novoOuAtual(consulta.getDataConsulta(), atual.getDataConsulta()),
+                    Copias.novoOuAtual(consulta.getMotivoConsulta(), atual.getMotivoConsulta())), ids);
+
+            return comProfissionais(atual.getIdConsulta());
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean excluirConsulta(int id) {
+        bloqueio.writeLock().lock();
+        try {
+            Consulta atual = porId.obter(id);
+            if (atual == null) {
+                return false;
+            }
+            profissionais.desvincular(vinculos.obter(id));
+            retirar(atual);
+            return true;
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cópia da consulta armazenada com os profissionais vinculados. Deve ser chamado com o bloqueio obtido.
+     */
+    private Consulta comProfissionais(int id) {
+        Consulta consulta = Copias.consulta(porId.obter(id));
+        consulta.getProfissionais().addAll(profissionais.buscarPorIds(vinculos.obter(id)).values());
+        return consulta;
+    }
+
+    private void incluir(Consulta consulta, Set<Integer> idsProfissionais) {
+        porId.gravar(consulta.getIdConsulta(), consulta);
+        vinculos.gravar(consulta.getIdConsulta(), new LinkedHashSet<>(idsProfissionais));
+        porData.add(new ChaveOrdem.Data(consulta.getDataConsulta(), consulta.getIdConsulta()));
+    }
+
+    private void retirar(Consulta consulta) {
+        porId.remover(consulta.getIdConsulta());
+        vinculos.remover(consulta.getIdConsulta());
+        porData.remove(new ChaveOrdem.Data(consulta.getDataConsulta(), consulta.getIdConsulta()));
+    }
+}
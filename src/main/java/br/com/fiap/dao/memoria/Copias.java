@@ -0,0 +1,37 @@
+package br.com.fiap.dao.memoria;
+
+import br.com.fiap.models.Consulta;
+import br.com.fiap.models.Paciente;
+import br.com.fiap.models.Profissional;
+
+/**
+ * Cópias dos modelos trocadas entre os repositórios em memória e os serviços.
+ * Assim como no JDBC, alterar um objeto recebido ou entregue não altera o que está armazenado.
+ */
+final class Copias {
+
+    private Copias() {}
+
+    static Paciente paciente(Paciente p) {
+        return new Paciente(p.getId(), p.getNome(), p.getIdade(), p.getNivelTecnico(),
+                p.getTipoAtendimento(), p.getCpf(), p.getSenha());
+    }
+
+    static Profissional profissional(Profissional p) {
+        return new Profissional(p.getId(), p.getNome(), p.getEspecialidade(), p.getTipoAtendimento(), p.getCrm());
+    }
+
+    /**
+     * Copia os dados da consulta, sem os profissionais vinculados.
+     */
+    static Consulta consulta(Consulta c) {
+        return new Consulta(c.getIdConsulta(), c.getTipoConsulta(), c.getDataConsulta(), c.getMotivoConsulta());
+    }
+
+    /**
+     * Valor gravado por uma atualização parcial: o novo valor, ou o atual quando o novo não foi informado.
+     */
+    static <T> T novoOuAtual(T novo, T atual) {
+        return novo != null ? novo : atual;
+    }
+}
@@ -0,0 +1,141 @@
+package br.com.fiap.dao.memoria;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mapa de chaves {@code int} para valores, com endereçamento aberto e sondagem linear.
+ *
+ * <p>As chaves ficam em um vetor de primitivos, sem objetos {@link Integer} nem nós de lista por entrada,
+ * o que reduz memória e coleta de lixo em tabelas grandes. A chave {@code 0} é reservada para posições vazias
+ * (os IDs e CRMs gravados são sempre positivos). Não é seguro para uso concorrente: os repositórios em memória
+ * o protegem com o seu próprio bloqueio.</p>
+ *
+ * @param <V> Tipo dos valores.
+ */
+final class MapaInt<V> {
+
+    private static final int CAPACIDADE_INICIAL = 64;
+
+    private int[] chaves;
+    private Object[] valores;
+    private int quantidade;
+
+    MapaInt() {
+        chaves = new int[CAPACIDADE_INICIAL];
+        valores = new Object[CAPACIDADE_INICIAL];
+    }
+
+    int tamanho() {
+        return quantidade;
+    }
+
+    @SuppressWarnings("unchecked")
+    V obter(int chave) {
+        int i = posicao(chave);
+        return chaves[i] == chave ? (V) valores[i] : null;
+    }
+
+    boolean contem(int chave) {
+        return chave != 0 && chaves[posicao(chave)] == chave;
+    }
+
+    /**
+     * Grava o valor para a chave e retorna o valor anterior, ou {@code null} se a chave era nova.
+     */
+    @SuppressWarnings("unchecked")
+    V gravar(int chave, V valor) {
+        if (chave == 0) {
+            throw new IllegalArgumentException("Chave 0 é reservada.");
+        }
+        int i = posicao(chave);
+        if (chaves[i] == chave) {
+            V anterior = (V) valores[i];
+            valores[i] = valor;
+            return anterior;
+        }
+
+        chaves[i] = chave;
+        valores[i] = valor;
+        if (++quantidade * 2 > chaves.length) {
+            redimensionar();
+        }
+        return null;
+    }
+
+    /**
+     * Remove a chave e retorna o valor removido, ou {@code null} se a chave não existia.
+     */
+    @SuppressWarnings("unchecked")
+    V remover(int chave) {
+        int i = posicao(chave);
+        if (chaves[i] != chave || chave == 0) {
+            return null;
+        }
+        V removido = (V) valores[i];
+        quantidade--;
+
+        // Desloca para trás as entradas seguintes do mesmo grupo, para não deixar lacunas na sondagem
+        int mascara = chaves.length - 1;
+        int vazia = i;
+        for (int j = (i + 1) & mascara; chaves[j] != 0; j = (j + 1) & mascara) {
+            int ideal = espalhar(chaves[j]) & mascara;
+            if (((j - ideal) & mascara) >= ((j - vazia) & mascara)) {
+                chaves[vazia] = chaves[j];
+                valores[vazia] = valores[j];
+                vazia = j;
+            }
+        }
+        chaves[vazia] = 0;
+        valores[vazia] = null;
+        return removido;
+    }
+
+    /**
+     * Cópia dos valores, em ordem indefinida.
+     */
+    @SuppressWarnings("unchecked")
+    List<V> valores() {
+        List<V> lista = new ArrayList<>(quantidade);
+        for (int i = 0; i < chaves.length; i++) {
+            if (chaves[i] != 0) {
+                lista.add((V) valores[i]);
+            }
+        }
+        return lista;
+    }
+
+    /**
+     * Posição da chave ou, se ela não existir, da primeira posição vazia do seu grupo.
+     */
+    private int posicao(int chave) {
+        int mascara = chaves.length - 1;
+        int i = espalhar(chave) & mascara;
+        while (chaves[i] != 0 && chaves[i] != chave) {
+            i = (i + 1) & mascara;
+        }
+        return i;
+    }
+
+    private void redimensionar() {
+        int[] chavesAntigas = chaves;
+        Object[] valoresAntigos = valores;
+        chaves = new int[chavesAntigas.length * 2];
+        valores = new Object[chavesAntigas.length * 2];
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (chavesAntigas[i] != 0) {
+                int j = posicao(chavesAntigas[i]);
+                chaves[j] = chavesAntigas[i];
+                valores[j] = valoresAntigos[i];
+            }
+        }
+    }
+
+    /**
+     * Espalha os bits da chave, já que IDs sequenciais cairiam em posições vizinhas.
+     */
+    private static int espalhar(int chave) {
+        int h = chave * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
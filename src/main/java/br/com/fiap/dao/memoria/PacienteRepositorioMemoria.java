@@ -0,0 +1,207 @@
+package br.com.fiap.dao.memoria;
+
+import br.com.fiap.dao.FiltroPaciente;
+import br.com.fiap.dao.PacienteRepositorio;
+import br.com.fiap.models.Paciente;
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Armazenamento de pacientes em memória, ativo com {@code app.armazenamento=memoria}.
+ *
+ * <p>Os pacientes ficam em um {@link MapaInt} pelo ID, com um índice único de CPF e um índice ordenado
+ * por nome e ID para a paginação. Leituras concorrentes não se bloqueiam; gravações são exclusivas.
+ * Os dados se perdem ao encerrar a aplicação.</p>
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "app.armazenamento", stringValue = "memoria")
+public class PacienteRepositorioMemoria implements PacienteRepositorio {
+
+    private final MapaInt<Paciente> porId = new MapaInt<>();
+    private final Map<String, Integer> idPorCpf = new HashMap<>();
+    private final NavigableSet<ChaveOrdem.Nome> porNome = new TreeSet<>();
+    private final AtomicInteger sequencia = new AtomicInteger();
+    private final ReentrantReadWriteLock bloqueio = new ReentrantReadWriteLock();
+
+    @Override
+    public void cadastrarPaciente(Paciente paciente) {
+        cadastrarPacientes(List.of(paciente));
+    }
+
+    @Override
+    public void cadastrarPacientes(List<Paciente> pacientes) {
+        bloqueio.writeLock().lock();
+        try {
+            Set<String> novos = new HashSet<>();
+            for (Paciente paciente : pacientes) {
+                if (idPorCpf.containsKey(paciente.getCpf()) || !novos.add(paciente.getCpf())) {
+                    throw new IllegalArgumentException("CPF já cadastrado.");
+                }
+            }
+
+            for (Paciente paciente : pacientes) {
+                paciente.setId(sequencia.incrementAndGet());
+                incluir(Copias.paciente(paciente));
+            }
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Paciente> listarPacientes() {
+        return listarPacientes(FiltroPaciente.VAZIO, null, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Paciente> listarPacientes(FiltroPaciente filtro, String nomeApos, int idApos, int quantidade) {
+        bloqueio.readLock().lock();
+        try {
+            Collection<ChaveOrdem.Nome> chaves = idApos <= 0
+                    ? porNome
+                    : porNome.tailSet(new ChaveOrdem.Nome(nomeApos, idApos), false);
+
+            List<Paciente> lista = new ArrayList<>(Math.min(quantidade, chaves.size()));
+            for (ChaveOrdem.Nome chave : chaves) {
+                if (lista.size() >= quantidade) {
+                    break;
+                }
+                Paciente paciente = porId.obter(chave.id());
+                if (filtro.aceita(paciente)) {
+                    lista.add(Copias.paciente(paciente));
+                }
+            }
+            return lista;
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Paciente buscarPorId(int id) {
+        bloqueio.readLock().lock();
+        try {
+            Paciente paciente = porId.obter(id);
+            return paciente != null ? Copias.paciente(paciente) : null;
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<Integer, Paciente> buscarPorIds(Collection<Integer> ids) {
+        bloqueio.readLock().lock();
+        try {
+            Map<Integer, Paciente> pacientes = new HashMap<>();
+            for (int id : ids) {
+                Paciente paciente = porId.obter(id);
+                if (paciente != null) {
+                    pacientes.put(id, Copias.paciente(paciente));
+                }
+            }
+            return pacientes;
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Paciente atualizarPaciente(Paciente paciente) {
+        if (paciente.getId() == null || paciente.getId() <= 0) {
+            throw new IllegalArgumentException("ID inválido para atualização.");
+        }
+
+        bloqueio.writeLock().lock();
+        try {
+            Paciente atual = porId.obter(paciente.getId());
+            if (atual == null) {
+                return null;
+            }
+
+            Integer donoCpf = paciente.getCpf() != null ? idPorCpf.get(paciente.getCpf()) : null;
+            if (donoCpf != null && !donoCpf.equals(atual.getId())) {
+                throw new IllegalArgumentException("CPF já cadastrado.");
+            }
+
+            Paciente novo = new Paciente(atual.getId(),
+                    Copias.novoOuAtual(paciente.getNome(), atual.getNome()),
+                    Copias.novoOuAtual(paciente.getIdade(), atual.getIdade()),
+                    Copias.novoOuAtual(paciente.getNivelTecnico(), atual.getNivelTecnico()),
+                    Copias.novoOuAtual(paciente.getTipoAtendimento(), atual.getTipoAtendimento()),
+                    Copias.novoOuAtual(paciente.getCpf(), atual.getCpf()),
+                    Copias.novoOuAtual(paciente.getSenha(), atual.getSenha()));
+
+            retirar(atual);
+            incluir(novo);
+            return Copias.paciente(novo);
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean excluirPaciente(int id) {
+        bloqueio.writeLock().lock();
+        try {
+            Paciente atual = porId.obter(id);
+            if (atual == null) {
+                return false;
+            }
+            retirar(atual);
+            return true;
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Paciente buscarPorCpf(String cpf) {
+        bloqueio.readLock().lock();
+        try {
+            Integer id = idPorCpf.get(cpf);
+            return id != null ? Copias.paciente(porId.obter(id)) : null;
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<String> buscarCpfsCadastrados(Collection<String> cpfs) {
+        bloqueio.readLock().lock();
+        try {
+            Set<String> cadastrados = new HashSet<>();
+            for (String cpf : cpfs) {
+                if (idPorCpf.containsKey(cpf)) {
+                    cadastrados.add(cpf);
+                }
+            }
+            return cadastrados;
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+    }
+
+    private void incluir(Paciente paciente) {
+        porId.gravar(paciente.getId(), paciente);
+        idPorCpf.put(paciente.getCpf(), paciente.getId());
+        porNome.add(new ChaveOrdem.Nome(paciente.getNome(), paciente.getId()));
+    }
+
+    private void retirar(Paciente paciente) {
+        porId.remover(paciente.getId());
+        idPorCpf.remove(paciente.getCpf());
+        porNome.remove(new ChaveOrdem.Nome(paciente.getNome(), paciente.getId()));
+    }
+}
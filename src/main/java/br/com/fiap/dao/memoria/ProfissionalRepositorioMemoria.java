@@ -0,0 +1,279 @@
+package br.com.fiap.dao.memoria;
+
+import br.com.fiap.dao.FiltroProfissional;
+import br.com.fiap.dao.ProfissionalRepositorio;
+import br.com.fiap.dao.ResultadoUpsert;
+import br.com.fiap.models.Profissional;
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Armazenamento de profissionais em memória, ativo com {@code app.armazenamento=memoria}.
+ *
+ * <p>Os profissionais ficam em um {@link MapaInt} pelo ID, com um índice único de CRM (também por chave
+ * primitiva) e um índice ordenado por nome e ID para a paginação. A quantidade de consultas vinculadas a cada
+ * profissional é mantida pelo {@link ConsultaRepositorioMemoria}, para recusar a exclusão de profissionais
+ * com vínculos, como faz a chave estrangeira no banco.</p>
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "app.armazenamento", stringValue = "memoria")
+public class ProfissionalRepositorioMemoria implements ProfissionalRepositorio {
+
+    private final MapaInt<Profissional> porId = new MapaInt<>();
+    private final MapaInt<Integer> idPorCrm = new MapaInt<>();
+    private final MapaInt<Integer> vinculos = new MapaInt<>();
+    private final NavigableSet<ChaveOrdem.Nome> porNome = new TreeSet<>();
+    private final AtomicInteger sequencia = new AtomicInteger();
+    private final ReentrantReadWriteLock bloqueio = new ReentrantReadWriteLock();
+
+    @Override
+    public void cadastrarProfissional(Profissional profissional) {
+        bloqueio.writeLock().lock();
+        try {
+            int crm = profissional.getCrm() % 1_000_000;
+            if (idPorCrm.contem(crm)) {
+                throw new IllegalArgumentException("Já existe um profissional com esse CRM.");
+            }
+            profissional.setId(sequencia.incrementAndGet());
+
+            Profissional novo = Copias.profissional(profissional);
+            novo.setCrm(crm);
+            incluir(novo);
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public ResultadoUpsert upsertPorCrm(List<Profissional> profissionais) {
+        ResultadoUpsert resultado = new ResultadoUpsert();
+
+        bloqueio.writeLock().lock();
+        try {
+            for (Profissional profissional : profissionais) {
+                int crm = profissional.getCrm() % 1_000_000;
+                Integer id = idPorCrm.obter(crm);
+                Profissional existente = id != null ? porId.obter(id) : null;
+
+                if (existente == null) {
+                    profissional.setId(sequencia.incrementAndGet());
+                    Profissional novo = Copias.profissional(profissional);
+                    novo.setCrm(crm);
+                    incluir(novo);
+                    resultado.inserido();
+                } else {
+                    profissional.setId(existente.getId());
+                    if (Objects.equals(existente.getNome(), profissional.getNome())
+                            && Objects.equals(existente.getEspecialidade(), profissional.getEspecialidade())
+                            && Objects.equals(existente.getTipoAtendimento(), profissional.getTipoAtendimento())) {
+                        resultado.inalterado();
+                    } else {
+                        retirar(existente);
+                        incluir(new Profissional(existente.getId(), profissional.getNome(),
+                                profissional.getEspecialidade(), profissional.getTipoAtendimento(), crm));
+                        resultado.atualizado();
+                    }
+                }
+            }
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+
+        return resultado;
+    }
+
+    @Override
+    public List<Profissional> listarProfissionais() {
+        return listarProfissionais(FiltroProfissional.VAZIO, null, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Profissional> listarProfissionais(FiltroProfissional filtro, String nomeApos, int idApos,
+                                                  int quantidade) {
+        bloqueio.readLock().lock();
+        try {
+            Collection<ChaveOrdem.Nome> chaves = idApos <= 0
+                    ? porNome
+                    : porNome.tailSet(new ChaveOrdem.Nome(nomeApos, idApos), false);
+
+            List<Profissional> lista = new ArrayList<>(Math.min(quantidade, chaves.size()));
+            for (ChaveOrdem.Nome chave : chaves) {
+                if (lista.size() >= quantidade) {
+                    break;
+                }
+                Profissional profissional = porId.obter(chave.id());
+                if (filtro.aceita(profissional)) {
+                    lista.add(Copias.profissional(profissional));
+                }
+            }
+            return lista;
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Profissional buscarPorId(int id) {
+        bloqueio.readLock().lock();
+        try {
+            Profissional profissional = porId.obter(id);
+            return profissional != null ? Copias.profissional(profissional) : null;
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Profissional atualizarProfissional(Profissional profissional) {
+        if (profissional.getId() == null || profissional.getId() <= 0) {
+            throw new IllegalArgumentException("ID inválido para atualização.");
+        }
+
+        bloqueio.writeLock().lock();
+        try {
+            Profissional atual = porId.obter(profissional.getId());
+            if (atual == null) {
+                return null;
+            }
+
+            Integer donoCrm = profissional.getCrm() != null ? idPorCrm.obter(profissional.getCrm()) : null;
+            if (donoCrm != null && !donoCrm.equals(atual.getId())) {
+                throw new IllegalArgumentException("Já existe um profissional com esse CRM.");
+            }
+
+            Profissional novo = new Profissional(atual.getId(),
+                    Copias.novoOuAtual(profissional.getNome(), atual.getNome()),
+                    Copias.novoOuAtual(profissional.getEspecialidade(), atual.getEspecialidade()),
+                    Copias.novoOuAtual(profissional.getTipoAtendimento(), atual.getTipoAtendimento()),
+                    Copias.novoOuAtual(profissional.getCrm(), atual.getCrm()));
+
+            retirar(atual);
+            incluir(novo);
+            return Copias.profissional(novo);
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean excluirProfissional(int id) {
+        bloqueio.writeLock().lock();
+        try {
+            Profissional atual = porId.obter(id);
+            if (atual == null) {
+                return false;
+            }
+            if (vinculos.contem(id)) {
+                throw new RuntimeException("Erro ao excluir profissional: foreign key de CONSULTA_PROFIS violada.");
+            }
+            retirar(atual);
+            return true;
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Profissional buscarPorCrm(int crm) {
+        if (crm <= 0) {
+            throw new IllegalArgumentException("CRM inválido. Deve ser um número positivo.");
+        }
+
+        bloqueio.readLock().lock();
+        try {
+            Integer id = idPorCrm.obter(crm);
+            return id != null ? Copias.profissional(porId.obter(id)) : null;
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+    }
+
+    /**
+     * Registra novos vínculos de consultas com os profissionais informados.
+     *
+     * @return Cópias dos profissionais, na ordem dos IDs.
+     * @throws IllegalArgumentException Caso algum profissional não exista; nesse caso nenhum vínculo é registrado.
+     */
+    List<Profissional> vincular(Collection<Integer> ids) {
+        bloqueio.writeLock().lock();
+        try {
+            List<Profissional> profissionais = new ArrayList<>(ids.size());
+            for (int id : ids) {
+                Profissional profissional = porId.obter(id);
+                if (profissional == null) {
+                    throw new IllegalArgumentException("Profissional não encontrado com ID: " + id);
+                }
+                profissionais.add(Copias.profissional(profissional));
+            }
+            for (int id : ids) {
+                Integer quantidade = vinculos.obter(id);
+                vinculos.gravar(id, quantidade == null ? 1 : quantidade + 1);
+            }
+            return profissionais;
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove vínculos de consultas com os profissionais informados.
+     */
+    void desvincular(Collection<Integer> ids) {
+        bloqueio.writeLock().lock();
+        try {
+            for (int id : ids) {
+                Integer quantidade = vinculos.obter(id);
+                if (quantidade == null || quantidade <= 1) {
+                    vinculos.remover(id);
+                } else {
+                    vinculos.gravar(id, quantidade - 1);
+                }
+            }
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cópias dos profissionais informados que existem, na ordem dos IDs.
+     */
+    @Override
+    public Map<Integer, Profissional> buscarPorIds(Collection<Integer> ids) {
+        bloqueio.readLock().lock();
+        try {
+            Map<Integer, Profissional> profissionais = new LinkedHashMap<>();
+            for (int id : ids) {
+                Profissional profissional = porId.obter(id);
+                if (profissional != null) {
+                    profissionais.put(id, Copias.profissional(profissional));
+                }
+            }
+            return profissionais;
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+    }
+
+    private void incluir(Profissional profissional) {
+        porId.gravar(profissional.getId(), profissional);
+        idPorCrm.gravar(profissional.getCrm(), profissional.getId());
+        porNome.add(new ChaveOrdem.Nome(profissional.getNome(), profissional.getId()));
+    }
+
+    private void retirar(Profissional profissional) {
+        porId.remover(profissional.getId());
+        idPorCrm.remover(profissional.getCrm());
+        porNome.remove(new ChaveOrdem.Nome(profissional.getNome(), profissional.getId()));
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.fiap.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) para respostas de buscas por vários IDs ({@code ?ids=...}).
+ *
+ * <p>Os itens vêm na ordem em que os IDs foram pedidos; os IDs sem registro correspondente
+ * são listados em {@code nao_encontrados}, sem tornar a resposta um erro.</p>
+ *
+ * @param <T> Tipo dos itens encontrados.
+ */
+public class BuscaPorIdsResponseDto<T> {
+
+    /** Itens encontrados, na ordem dos IDs pedidos. */
+    @JsonProperty("itens")
+    private List<T> itens;
+
+    /** IDs pedidos que não existem. */
+    @JsonProperty("nao_encontrados")
+    private List<Integer> naoEncontrados;
+
+    /** Construtor padrão */
+    public BuscaPorIdsResponseDto() {}
+
+    /**
+     * Construtor com todos os campos
+     *
+     * @param itens Itens encontrados
+     * @param naoEncontrados IDs não encontrados
+     */
+    public BuscaPorIdsResponseDto(List<T> itens, List<Integer> naoEncontrados) {
+        this.itens = itens;
+        this.naoEncontrados = naoEncontrados;
+    }
+
+    public List<T> getItens() { return itens; }
+    public void setItens(List<T> itens) { this.itens = itens; }
+
+    public List<Integer> getNaoEncontrados() { return naoEncontrados; }
+    public void setNaoEncontrados(List<Integer> naoEncontrados) { this.naoEncontrados = naoEncontrados; }
+
+    @Override
+    public String toString() {
+        return "BuscaPorIdsResponseDto{" +
+                "itens=" + itens +
+                ", naoEncontrados=" + naoEncontrados +
+                '}';
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.fiap.dto;
+
+import br.com.fiap.dao.EstatisticaComando;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Data Transfer Object (DTO) com as estatísticas acumuladas de um comando SQL,
+ * exibidas no endpoint administrativo de comandos.
+ */
+public class EstatisticaComandoResponseDto {
+
+    /** Texto do comando SQL */
+    @JsonProperty("sql")
+    private String sql;
+
+    /** Quantidade de execuções */
+    @JsonProperty("execucoes")
+    private long execucoes;
+
+    /** Tempo total de execução em milissegundos */
+    @JsonProperty("tempo_total_ms")
+    private double tempoTotalMs;
+
+    /** Tempo médio por execução em milissegundos */
+    @JsonProperty("tempo_medio_ms")
+    private double tempoMedioMs;
+
+    /** Linhas lidas ou afetadas */
+    @JsonProperty("linhas")
+    private long linhas;
+
+    /** Preparações do comando pelos DAOs */
+    @JsonProperty("preparacoes")
+    private long preparacoes;
+
+    /** Último tamanho de fetch escolhido para a consulta (0 se não escolhido) */
+    @JsonProperty("tamanho_fetch")
+    private int tamanhoFetch;
+
+    /** Média móvel de linhas lidas por execução (-1 se ainda não lida) */
+    @JsonProperty("linhas_estimadas")
+    private double linhasEstimadas;
+
+    /** Idas ao banco estimadas para buscar as linhas lidas */
+    @JsonProperty("idas_ao_banco")
+    private long idasAoBanco;
+
+    /** Construtor padrão */
+    public EstatisticaComandoResponseDto() {}
+
+    /**
+     * Converte as estatísticas de um comando em DTO.
+     *
+     * @param estatistica Estatísticas acumuladas
+     * @return DTO correspondente
+     */
+    public static EstatisticaComandoResponseDto convertToDto(EstatisticaComando estatistica) {
+        EstatisticaComandoResponseDto dto = new EstatisticaComandoResponseDto();
+        long execucoes = estatistica.getExecucoes();
+        double tempoTotalMs = estatistica.getTempoNanos() / 1_000_000.0;
+        dto.sql = estatistica.getSql();
+        dto.execucoes = execucoes;
+        dto.tempoTotalMs = tempoTotalMs;
+        dto.tempoMedioMs = execucoes > 0 ? tempoTotalMs / execucoes : 0;
+        dto.linhas = estatistica.getLinhas();
+        dto.preparacoes = estatistica.getPreparacoes();
+        dto.tamanhoFetch = estatistica.getTamanhoFetch();
+        dto.linhasEstimadas = estatistica.getLinhasEstimadas();
+        dto.idasAoBanco = estatistica.getIdasAoBanco();
+        return dto;
+    }
+
+    public String getSql() { return sql; }
+    public long getExecucoes() { return execucoes; }
+    public double getTempoTotalMs() { return tempoTotalMs; }
+    public double getTempoMedioMs() { return tempoMedioMs; }
+    public long getLinhas() { return linhas; }
+    public long getPreparacoes() { return preparacoes; }
+    public int getTamanhoFetch() { return tamanhoFetch; }
+    public double getLinhasEstimadas() { return linhasEstimadas; }
+    public long getIdasAoBanco() { return idasAoBanco; }
+}
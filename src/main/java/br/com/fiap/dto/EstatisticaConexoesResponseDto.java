@@ -0,0 +1,50 @@
+package br.com.fiap.dto;
+
+import br.com.fiap.dao.FonteConexoes;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Data Transfer Object (DTO) com as conexões do pool obtidas por requisição HTTP,
+ * exibidas no endpoint administrativo de conexões.
+ */
+public class EstatisticaConexoesResponseDto {
+
+    /** Requisições HTTP encerradas */
+    @JsonProperty("requisicoes")
+    private long requisicoes;
+
+    /** Total de conexões obtidas do pool pelas requisições */
+    @JsonProperty("conexoes")
+    private long conexoes;
+
+    /** Média de conexões obtidas por requisição */
+    @JsonProperty("media_por_requisicao")
+    private double mediaPorRequisicao;
+
+    /** Maior quantidade de conexões obtidas por uma requisição */
+    @JsonProperty("maximo_por_requisicao")
+    private int maximoPorRequisicao;
+
+    /** Construtor padrão */
+    public EstatisticaConexoesResponseDto() {}
+
+    /**
+     * Monta o DTO a partir dos contadores da fonte de conexões.
+     *
+     * @param fonteConexoes Fonte de conexões da aplicação
+     * @return DTO correspondente
+     */
+    public static EstatisticaConexoesResponseDto convertToDto(FonteConexoes fonteConexoes) {
+        EstatisticaConexoesResponseDto dto = new EstatisticaConexoesResponseDto();
+        dto.requisicoes = fonteConexoes.getRequisicoes();
+        dto.conexoes = fonteConexoes.getConexoesEmRequisicoes();
+        dto.mediaPorRequisicao = dto.requisicoes > 0 ? (double) dto.conexoes / dto.requisicoes : 0;
+        dto.maximoPorRequisicao = fonteConexoes.getMaximoConexoesPorRequisicao();
+        return dto;
+    }
+
+    public long getRequisicoes() { return requisicoes; }
+    public long getConexoes() { return conexoes; }
+    public double getMediaPorRequisicao() { return mediaPorRequisicao; }
+    public int getMaximoPorRequisicao() { return maximoPorRequisicao; }
+}
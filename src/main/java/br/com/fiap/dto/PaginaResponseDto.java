@@ -0,0 +1,56 @@
+package br.com.fiap.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) para respostas paginadas das listagens.
+ *
+ * <p>Contém os itens da página e um cursor opaco para buscar a página seguinte.
+ * Quando {@code proximo_cursor} é {@code null}, não há mais registros.</p>
+ *
+ * <p>Compatibilidade: antes da paginação, {@code GET /pacientes}, {@code /profissionais} e {@code /consultas}
+ * respondiam com um array de todos os registros. Clientes que esperam esse formato devem ler {@code itens}
+ * página a página ou usar o {@code /stream} do recurso, que continua devolvendo o array completo.</p>
+ *
+ * @param <T> Tipo dos itens da página.
+ */
+public class PaginaResponseDto<T> {
+
+    /** Itens da página atual. */
+    @JsonProperty("itens")
+    private List<T> itens;
+
+    /** Cursor para a próxima página, ou {@code null} na última página. */
+    @JsonProperty("proximo_cursor")
+    private String proximoCursor;
+
+    /** Construtor padrão */
+    public PaginaResponseDto() {}
+
+    /**
+     * Construtor com todos os campos
+     *
+     * @param itens Itens da página
+     * @param proximoCursor Cursor da próxima página
+     */
+    public PaginaResponseDto(List<T> itens, String proximoCursor) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getItens() { return itens; }
+    public void setItens(List<T> itens) { this.itens = itens; }
+
+    public String getProximoCursor() { return proximoCursor; }
+    public void setProximoCursor(String proximoCursor) { this.proximoCursor = proximoCursor; }
+
+    @Override
+    public String toString() {
+        return "PaginaResponseDto{" +
+                "itens=" + itens +
+                ", proximoCursor='" + proximoCursor + '\'' +
+                '}';
+    }
+}
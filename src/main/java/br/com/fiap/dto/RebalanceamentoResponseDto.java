@@ -0,0 +1,39 @@
+package br.com.fiap.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) com o resultado do rebalanceamento dos shards de pacientes.
+ */
+public class RebalanceamentoResponseDto {
+
+    /** Datasources usados como shards */
+    @JsonProperty("shards")
+    private List<String> shards;
+
+    /** Pacientes movidos para o shard dono */
+    @JsonProperty("movidos")
+    private int movidos;
+
+    /** Construtor padrão */
+    public RebalanceamentoResponseDto() {}
+
+    /**
+     * Monta o DTO com o resultado do rebalanceamento.
+     *
+     * @param shards  Nomes dos shards
+     * @param movidos Quantidade de pacientes movidos
+     * @return DTO correspondente
+     */
+    public static RebalanceamentoResponseDto convertToDto(List<String> shards, int movidos) {
+        RebalanceamentoResponseDto dto = new RebalanceamentoResponseDto();
+        dto.shards = shards;
+        dto.movidos = movidos;
+        return dto;
+    }
+
+    public List<String> getShards() { return shards; }
+    public int getMovidos() { return movidos; }
+}
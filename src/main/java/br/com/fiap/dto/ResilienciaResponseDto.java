@@ -0,0 +1,136 @@
+package br.com.fiap.dto;
+
+import br.com.fiap.dao.Compartimento;
+import br.com.fiap.dao.Disjuntor;
+import br.com.fiap.dao.ResilienciaBanco;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) com o estado da proteção do banco (disjuntor, novas tentativas e limites por DAO),
+ * exibido no endpoint administrativo de resiliência.
+ */
+public class ResilienciaResponseDto {
+
+    /** Indica se a proteção está ativa */
+    @JsonProperty("habilitada")
+    private boolean habilitada;
+
+    /** Estado do disjuntor: FECHADO, ABERTO ou SEMIABERTO */
+    @JsonProperty("estado")
+    private String estado;
+
+    /** Chamadas consideradas na janela atual */
+    @JsonProperty("chamadas_na_janela")
+    private int chamadasNaJanela;
+
+    /** Fração de falhas na janela atual */
+    @JsonProperty("taxa_falhas")
+    private double taxaFalhas;
+
+    /** Fração de chamadas lentas na janela atual */
+    @JsonProperty("taxa_lentas")
+    private double taxaLentas;
+
+    /** Vezes em que o disjuntor abriu */
+    @JsonProperty("aberturas")
+    private long aberturas;
+
+    /** Chamadas recusadas pelo disjuntor */
+    @JsonProperty("recusas_disjuntor")
+    private long recusasDisjuntor;
+
+    /** Novas tentativas feitas após falhas transitórias */
+    @JsonProperty("retentativas_concedidas")
+    private long retentativasConcedidas;
+
+    /** Novas tentativas negadas por falta de saldo no orçamento */
+    @JsonProperty("retentativas_negadas")
+    private long retentativasNegadas;
+
+    /** Saldo atual do orçamento de novas tentativas */
+    @JsonProperty("saldo_retentativas")
+    private double saldoRetentativas;
+
+    /** Limites de chamadas simultâneas por DAO */
+    @JsonProperty("compartimentos")
+    private List<CompartimentoDto> compartimentos;
+
+    /** Construtor padrão */
+    public ResilienciaResponseDto() {}
+
+    /**
+     * Monta o DTO a partir do estado atual da proteção do banco.
+     *
+     * @param resiliencia Proteção do banco da aplicação
+     * @return DTO correspondente
+     */
+    public static ResilienciaResponseDto convertToDto(ResilienciaBanco resiliencia) {
+        Disjuntor disjuntor = resiliencia.getDisjuntor();
+        ResilienciaResponseDto dto = new ResilienciaResponseDto();
+        dto.habilitada = resiliencia.isHabilitada();
+        dto.estado = disjuntor.getEstado().name();
+        dto.chamadasNaJanela = disjuntor.getChamadasNaJanela();
+        dto.taxaFalhas = disjuntor.getTaxaFalhas();
+        dto.taxaLentas = disjuntor.getTaxaLentas();
+        dto.aberturas = disjuntor.getAberturas();
+        dto.recusasDisjuntor = disjuntor.getRecusas();
+        dto.retentativasConcedidas = resiliencia.getOrcamento().getConcedidas();
+        dto.retentativasNegadas = resiliencia.getOrcamento().getNegadas();
+        dto.saldoRetentativas = resiliencia.getOrcamento().getSaldo();
+        dto.compartimentos = resiliencia.getCompartimentos().stream().map(CompartimentoDto::convertToDto).toList();
+        return dto;
+    }
+
+    public boolean isHabilitada() { return habilitada; }
+    public String getEstado() { return estado; }
+    public int getChamadasNaJanela() { return chamadasNaJanela; }
+    public double getTaxaFalhas() { return taxaFalhas; }
+    public double getTaxaLentas() { return taxaLentas; }
+    public long getAberturas() { return aberturas; }
+    public long getRecusasDisjuntor() { return recusasDisjuntor; }
+    public long getRetentativasConcedidas() { return retentativasConcedidas; }
+    public long getRetentativasNegadas() { return retentativasNegadas; }
+    public double getSaldoRetentativas() { return saldoRetentativas; }
+    public List<CompartimentoDto> getCompartimentos() { return compartimentos; }
+
+    /**
+     * Ocupação do limite de chamadas simultâneas de um DAO.
+     */
+    public static class CompartimentoDto {
+
+        /** Nome do DAO */
+        @JsonProperty("nome")
+        private String nome;
+
+        /** Máximo de chamadas simultâneas */
+        @JsonProperty("maximo")
+        private int maximo;
+
+        /** Chamadas em andamento */
+        @JsonProperty("em_uso")
+        private int emUso;
+
+        /** Chamadas recusadas por falta de vaga */
+        @JsonProperty("recusas")
+        private long recusas;
+
+        /** Construtor padrão */
+        public CompartimentoDto() {}
+
+        static CompartimentoDto convertToDto(Compartimento compartimento) {
+            CompartimentoDto dto = new CompartimentoDto();
+            dto.nome = compartimento.getNome();
+            dto.maximo = compartimento.getMaximo();
+            dto.emUso = compartimento.getEmUso();
+            dto.recusas = compartimento.getRecusas();
+            return dto;
+        }
+
+        public String getNome() { return nome; }
+        public int getMaximo() { return maximo; }
+        public int getEmUso() { return emUso; }
+        public long getRecusas() { return recusas; }
+    }
+}
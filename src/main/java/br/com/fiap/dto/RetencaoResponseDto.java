@@ -0,0 +1,89 @@
+package br.com.fiap.dto;
+
+import br.com.fiap.dao.RetencaoConsultas;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Data Transfer Object (DTO) com o andamento da rotina de retenção de consultas,
+ * exibido no endpoint administrativo de retenção.
+ */
+public class RetencaoResponseDto {
+
+    /** Indica se a rotina executa periodicamente */
+    @JsonProperty("habilitada")
+    private boolean habilitada;
+
+    /** Indica se há uma execução em andamento */
+    @JsonProperty("em_execucao")
+    private boolean emExecucao;
+
+    /** Dias de retenção das consultas */
+    @JsonProperty("horizonte_dias")
+    private int horizonteDias;
+
+    /** Consultas arquivadas desde o início da aplicação */
+    @JsonProperty("consultas_arquivadas")
+    private long consultasArquivadas;
+
+    /** Vínculos com profissionais arquivados desde o início da aplicação */
+    @JsonProperty("vinculos_arquivados")
+    private long vinculosArquivados;
+
+    /** Lotes confirmados desde o início da aplicação */
+    @JsonProperty("lotes")
+    private long lotes;
+
+    /** Data da consulta mais recente já arquivada (yyyy-MM-dd) */
+    @JsonProperty("ultima_data_arquivada")
+    private String ultimaDataArquivada;
+
+    /** Início da última execução (ISO-8601) */
+    @JsonProperty("inicio_ultima_execucao")
+    private String inicioUltimaExecucao;
+
+    /** Fim da última execução (ISO-8601) */
+    @JsonProperty("fim_ultima_execucao")
+    private String fimUltimaExecucao;
+
+    /** Erro que encerrou a última execução */
+    @JsonProperty("ultimo_erro")
+    private String ultimoErro;
+
+    /** Construtor padrão */
+    public RetencaoResponseDto() {}
+
+    /**
+     * Monta o DTO a partir dos contadores da rotina de retenção.
+     *
+     * @param retencao Rotina de retenção da aplicação
+     * @return DTO correspondente
+     */
+    public static RetencaoResponseDto convertToDto(RetencaoConsultas retencao) {
+        RetencaoResponseDto dto = new RetencaoResponseDto();
+        dto.habilitada = retencao.isHabilitada();
+        dto.emExecucao = retencao.isEmExecucao();
+        dto.horizonteDias = retencao.getHorizonteDias();
+        dto.consultasArquivadas = retencao.getConsultasArquivadas();
+        dto.vinculosArquivados = retencao.getVinculosArquivados();
+        dto.lotes = retencao.getLotes();
+        dto.ultimaDataArquivada = retencao.getUltimaDataArquivada() != null
+                ? retencao.getUltimaDataArquivada().toString() : null;
+        dto.inicioUltimaExecucao = retencao.getInicioUltimaExecucao() != null
+                ? retencao.getInicioUltimaExecucao().toString() : null;
+        dto.fimUltimaExecucao = retencao.getFimUltimaExecucao() != null
+                ? retencao.getFimUltimaExecucao().toString() : null;
+        dto.ultimoErro = retencao.getUltimoErro();
+        return dto;
+    }
+
+    public boolean isHabilitada() { return habilitada; }
+    public boolean isEmExecucao() { return emExecucao; }
+    public int getHorizonteDias() { return horizonteDias; }
+    public long getConsultasArquivadas() { return consultasArquivadas; }
+    public long getVinculosArquivados() { return vinculosArquivados; }
+    public long getLotes() { return lotes; }
+    public String getUltimaDataArquivada() { return ultimaDataArquivada; }
+    public String getInicioUltimaExecucao() { return inicioUltimaExecucao; }
+    public String getFimUltimaExecucao() { return fimUltimaExecucao; }
+    public String getUltimoErro() { return ultimoErro; }
+}
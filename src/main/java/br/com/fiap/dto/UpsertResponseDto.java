@@ -0,0 +1,43 @@
+package br.com.fiap.dto;
+
+import br.com.fiap.dao.ResultadoUpsert;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Data Transfer Object (DTO) com o resultado de uma gravação em massa por upsert.
+ */
+public class UpsertResponseDto {
+
+    /** Registros novos inseridos */
+    @JsonProperty("inseridos")
+    private int inseridos;
+
+    /** Registros existentes que tiveram dados alterados */
+    @JsonProperty("atualizados")
+    private int atualizados;
+
+    /** Registros existentes recebidos sem nenhuma alteração */
+    @JsonProperty("inalterados")
+    private int inalterados;
+
+    /** Construtor padrão */
+    public UpsertResponseDto() {}
+
+    /**
+     * Converte o resultado do DAO em DTO.
+     *
+     * @param resultado Contagem retornada pelo DAO
+     * @return DTO correspondente
+     */
+    public static UpsertResponseDto convertToDto(ResultadoUpsert resultado) {
+        UpsertResponseDto dto = new UpsertResponseDto();
+        dto.inseridos = resultado.getInseridos();
+        dto.atualizados = resultado.getAtualizados();
+        dto.inalterados = resultado.getInalterados();
+        return dto;
+    }
+
+    public int getInseridos() { return inseridos; }
+    public int getAtualizados() { return atualizados; }
+    public int getInalterados() { return inalterados; }
+}
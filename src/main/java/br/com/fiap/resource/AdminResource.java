@@ -0,0 +1,132 @@
+package br.com.fiap.resource;
+
+import br.com.fiap.dao.FonteConexoes;
+import br.com.fiap.dao.ResilienciaBanco;
+import br.com.fiap.dao.RetencaoConsultas;
+import br.com.fiap.dao.ShardsPaciente;
+import br.com.fiap.dto.EstatisticaComandoResponseDto;
+import br.com.fiap.dto.EstatisticaConexoesResponseDto;
+import br.com.fiap.dto.RebalanceamentoResponseDto;
+import br.com.fiap.dto.ResilienciaResponseDto;
+import br.com.fiap.dto.RetencaoResponseDto;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.*;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Recurso REST administrativo, com informações de diagnóstico da aplicação.
+ */
+@Path("/admin")
+@Produces(MediaType.APPLICATION_JSON)
+@ApplicationScoped
+public class AdminResource {
+
+    @Inject
+    FonteConexoes fonteConexoes;
+
+    @Inject
+    ShardsPaciente shardsPaciente;
+
+    @Inject
+    RetencaoConsultas retencaoConsultas;
+
+    @Inject
+    ResilienciaBanco resilienciaBanco;
+
+    /**
+     * Lista as estatísticas de execução por comando SQL, do maior para o menor tempo total.
+     *
+     * @return Response com as estatísticas e status 200 OK.
+     */
+    @GET
+    @Path("/comandos")
+    public Response listarComandos() {
+        List<EstatisticaComandoResponseDto> comandos = fonteConexoes.estatisticas().stream()
+                .map(EstatisticaComandoResponseDto::convertToDto)
+                .sorted(Comparator.comparingDouble(EstatisticaComandoResponseDto::getTempoTotalMs).reversed())
+                .toList();
+        return Response.ok(comandos).build();
+    }
+
+    /**
+     * Zera as estatísticas de execução acumuladas.
+     *
+     * @return Response com status 204 No Content.
+     */
+    @DELETE
+    @Path("/comandos")
+    public Response zerarComandos() {
+        fonteConexoes.zerarEstatisticas();
+        return Response.noContent().build();
+    }
+
+    /**
+     * Retorna quantas conexões do pool as requisições HTTP obtiveram, em média e no máximo.
+     *
+     * @return Response com as estatísticas e status 200 OK.
+     */
+    @GET
+    @Path("/conexoes")
+    public Response estatisticasConexoes() {
+        return Response.ok(EstatisticaConexoesResponseDto.convertToDto(fonteConexoes)).build();
+    }
+
+    /**
+     * Retorna o estado do disjuntor do banco e a ocupação do limite de chamadas simultâneas de cada DAO.
+     *
+     * @return Response com o estado da proteção do banco e status 200 OK.
+     */
+    @GET
+    @Path("/resiliencia")
+    public Response estadoResiliencia() {
+        return Response.ok(ResilienciaResponseDto.convertToDto(resilienciaBanco)).build();
+    }
+
+    /**
+     * Move para o shard dono os pacientes gravados em outro shard, como após incluir um shard na configuração.
+     *
+     * @return Response com a quantidade de pacientes movidos e status 200 OK,
+     *         ou 409 Conflict se os pacientes não estiverem particionados.
+     */
+    @POST
+    @Path("/pacientes/rebalancear")
+    public Response rebalancearPacientes() {
+        if (!shardsPaciente.ativo()) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity("Pacientes não particionados: defina app.pacientes.shards.")
+                    .build();
+        }
+        int movidos = shardsPaciente.rebalancear();
+        return Response.ok(RebalanceamentoResponseDto.convertToDto(shardsPaciente.getNomes(), movidos)).build();
+    }
+
+    /**
+     * Retorna o andamento da rotina de retenção, que move as consultas antigas para as tabelas de arquivo.
+     *
+     * @return Response com os contadores da retenção e status 200 OK.
+     */
+    @GET
+    @Path("/retencao")
+    public Response estatisticasRetencao() {
+        return Response.ok(RetencaoResponseDto.convertToDto(retencaoConsultas)).build();
+    }
+
+    /**
+     * Inicia uma execução da rotina de retenção em segundo plano, sem esperar o próximo intervalo.
+     *
+     * @return Response com status 202 Accepted, ou 409 Conflict se já houver uma execução em andamento.
+     */
+    @POST
+    @Path("/retencao/executar")
+    public Response executarRetencao() {
+        if (!retencaoConsultas.executarAgora()) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity("A retenção de consultas já está em execução.")
+                    .build();
+        }
+        return Response.accepted().build();
+    }
+}
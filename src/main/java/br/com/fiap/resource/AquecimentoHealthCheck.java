@@ -0,0 +1,35 @@
+package br.com.fiap.resource;
+
+import br.com.fiap.service.AquecimentoAplicacao;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
+import org.eclipse.microprofile.health.Readiness;
+
+/**
+ * Readiness ({@code GET /q/health/ready}) que só fica UP quando o aquecimento da aplicação termina,
+ * para que o balanceador não envie tráfego a uma instância com o pool vazio e o JIT frio.
+ */
+@Readiness
+@ApplicationScoped
+public class AquecimentoHealthCheck implements HealthCheck {
+
+    @Inject
+    AquecimentoAplicacao aquecimento;
+
+    @Override
+    public HealthCheckResponse call() {
+        HealthCheckResponseBuilder resposta = HealthCheckResponse.named("aquecimento")
+                .status(aquecimento.isConcluido());
+        if (aquecimento.getInicio() != null) {
+            resposta.withData("inicio", aquecimento.getInicio().toString());
+        }
+        if (aquecimento.getFim() != null) {
+            resposta.withData("fim", aquecimento.getFim().toString())
+                    .withData("rodadas_com_erro", aquecimento.getRodadasComErro());
+        }
+        return resposta.build();
+    }
+}
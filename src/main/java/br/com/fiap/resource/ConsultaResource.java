@@ -2,8 +2,11 @@ package br.com.fiap.resource;
 
 import br.com.fiap.dto.ConsultaRequestDto;
 import br.com.fiap.dto.ConsultaResponseDto;
+import br.com.fiap.dto.PaginaResponseDto;
 import br.com.fiap.models.Consulta;
 import br.com.fiap.service.ConsultaService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -27,19 +30,44 @@ import java.util.List;
 public class ConsultaResource {
 
     @Inject
-    private ConsultaService consultaService;
+    ConsultaService consultaService;
+
+    @Inject
+    ObjectMapper objectMapper;
 
     /**
-     * Lista todas as consultas cadastradas.
+     * Lista as consultas cadastradas, paginadas por cursor e opcionalmente filtradas.
+     * Os filtros devem ser repetidos junto com o cursor nas páginas seguintes.
+     * Responde com uma {@link PaginaResponseDto}; o array completo, formato anterior à paginação, está em
+     * {@code GET /consultas/stream}.
      *
-     * @return Response com a lista de consultas no corpo e status 200 OK,
-     * ou 500 em caso de erro interno.
+     * @param limite       Tamanho da página (limitado pelo máximo configurado)
+     * @param cursor       Cursor devolvido em {@code proximo_cursor} na página anterior
+     * @param tipoConsulta Filtra pelo tipo da consulta (valor exato)
+     * @param dataInicio   Primeira data do período, {@code AAAA-MM-DD} (inclusive)
+     * @param dataFim      Última data do período, {@code AAAA-MM-DD} (inclusive)
+     * @param ids          IDs a buscar ({@code ?ids=1,2,3}); quando informado, substitui a paginação e a resposta
+     *                     traz as consultas na ordem dos IDs e os IDs em {@code nao_encontrados}
+     * @return Response com a página de consultas e status 200 OK,
+     * 400 se o limite, o cursor, as datas ou os IDs forem inválidos, ou 500 em caso de erro interno.
      */
     @GET
-    public Response listar() {
+    public Response listar(@QueryParam("limite") Integer limite, @QueryParam("cursor") String cursor,
+                           @QueryParam("tipo_consulta") String tipoConsulta,
+                           @QueryParam("data_inicio") String dataInicio,
+                           @QueryParam("data_fim") String dataFim,
+                           @QueryParam("ids") List<String> ids) {
         try {
-            List<ConsultaResponseDto> consultas = consultaService.listar();
-            return Response.ok(consultas).build();
+            if (ids != null && !ids.isEmpty()) {
+                return Response.ok(consultaService.buscarPorIds(ids)).build();
+            }
+            PaginaResponseDto<ConsultaResponseDto> pagina = consultaService.listar(limite, cursor, tipoConsulta,
+                    dataInicio, dataFim);
+            return Response.ok(pagina).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
         } catch (Exception e) {
             System.err.println("Erro ao listar consultas: " + e.getMessage());
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -48,6 +76,28 @@ public class ConsultaResource {
         }
     }
 
+    /**
+     * Transmite todas as consultas em um único array JSON, sem paginação.
+     * Os registros são lidos do banco em páginas, e cada página é gravada na resposta sem manter a conexão
+     * durante a escrita. Cada página tem o seu prazo ({@code app.streaming.prazo-pagina-ms}), e não o da
+     * requisição.
+     *
+     * @return Response com status 200 OK e o corpo gerado em streaming.
+     */
+    @GET
+    @Path("/stream")
+    public Response transmitir() {
+        StreamingOutput corpo = CorpoTransmitido.comPrazoDaRequisicao(saida -> {
+            try (JsonGenerator gerador = CorpoTransmitido.gerador(objectMapper, saida)) {
+                consultaService.transmitir(gerador);
+            } catch (RuntimeException e) {
+                System.err.println("Erro ao transmitir consultas: " + e.getMessage());
+                throw e;
+            }
+        });
+        return Response.ok(corpo).build();
+    }
+
     /**
      * Busca uma consulta por seu ID.
      *
@@ -0,0 +1,116 @@
+package br.com.fiap.resource;
+
+import br.com.fiap.dao.ContextoRequisicao;
+import br.com.fiap.dao.FonteConexoes;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delimita o {@link ContextoRequisicao} de cada requisição HTTP, usado pelos DAOs
+ * para que as leituras feitas após uma escrita enxerguem o que foi gravado,
+ * e registra quantas conexões do pool cada requisição obteve.
+ *
+ * <p>Também define o prazo da requisição: {@code app.prazos.<Recurso>.<metodo>-ms} para o endpoint
+ * (por exemplo {@code app.prazos.PacienteResource.listar-ms}), ou {@code app.prazos.padrao-ms}; zero desativa.
+ * O cliente pode encurtá-lo com o cabeçalho {@value #CABECALHO_PRAZO}, mas não ampliá-lo. Se algum comando
+ * for interrompido pelo prazo, o erro devolvido pelo recurso vira {@code 504 Gateway Timeout}; se alguma
+ * chamada a um DAO for recusada pela proteção do banco, vira {@code 503 Service Unavailable}.</p>
+ */
+@Provider
+public class ContextoRequisicaoFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    /** Cabeçalho com o prazo desejado pelo cliente, em milissegundos. */
+    static final String CABECALHO_PRAZO = "X-Prazo-Ms";
+
+    /** Valor do cabeçalho Retry-After das requisições recusadas pela proteção do banco. */
+    private static final String SEGUNDOS_PARA_NOVA_TENTATIVA = "1";
+
+    @Inject
+    FonteConexoes fonteConexoes;
+
+    @Inject
+    Config config;
+
+    @ConfigProperty(name = "app.prazos.padrao-ms", defaultValue = "10000")
+    long prazoPadraoMs;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    private final Map<Method, Long> prazosPorMetodo = new ConcurrentHashMap<>();
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        ContextoRequisicao.iniciar();
+
+        long prazo = prazoDoEndpoint();
+        String cabecalho = requestContext.getHeaderString(CABECALHO_PRAZO);
+        if (cabecalho != null) {
+            long pedido;
+            try {
+                pedido = Long.parseLong(cabecalho.trim());
+            } catch (NumberFormatException e) {
+                pedido = 0;
+            }
+            if (pedido <= 0) {
+                requestContext.abortWith(Response.status(Response.Status.BAD_REQUEST)
+                        .type(MediaType.TEXT_PLAIN)
+                        .entity("O cabeçalho " + CABECALHO_PRAZO + " deve ser um número positivo de milissegundos.")
+                        .build());
+                return;
+            }
+            prazo = prazo > 0 ? Math.min(prazo, pedido) : pedido;
+        }
+
+        if (prazo > 0) {
+            ContextoRequisicao.definirPrazo(prazo);
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext,
+                       ContainerResponseContext responseContext) {
+        // Os recursos tratam o erro do DAO como erro interno; aqui ele ganha uma resposta própria
+        if (responseContext.getStatus() == Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()) {
+            if (ContextoRequisicao.recusada()) {
+                responseContext.setStatus(Response.Status.SERVICE_UNAVAILABLE.getStatusCode());
+                responseContext.getHeaders().putSingle(HttpHeaders.RETRY_AFTER, SEGUNDOS_PARA_NOVA_TENTATIVA);
+                responseContext.setEntity("Banco de dados sobrecarregado ou indisponível; tente novamente.",
+                        null, MediaType.TEXT_PLAIN_TYPE);
+            } else if (ContextoRequisicao.prazoEsgotado()) {
+                responseContext.setStatus(Response.Status.GATEWAY_TIMEOUT.getStatusCode());
+                responseContext.setEntity("Tempo limite da requisição esgotado.", null, MediaType.TEXT_PLAIN_TYPE);
+            }
+        }
+        fonteConexoes.registrarRequisicao(ContextoRequisicao.encerrar());
+    }
+
+    /**
+     * Prazo configurado para o método do recurso que atende a requisição, ou o padrão.
+     */
+    private long prazoDoEndpoint() {
+        Method metodo = resourceInfo != null ? resourceInfo.getResourceMethod() : null;
+        if (metodo == null) {
+            return prazoPadraoMs;
+        }
+        return prazosPorMetodo.computeIfAbsent(metodo, m -> config
+                .getOptionalValue("app.prazos." + m.getDeclaringClass().getSimpleName() + "." + m.getName() + "-ms",
+                        Long.class)
+                .orElse(prazoPadraoMs));
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.fiap.resource;
+
+import br.com.fiap.dao.ContextoRequisicao;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Corpo de resposta escrito em streaming dentro de um {@link ContextoRequisicao} próprio.
+ *
+ * <p>Um {@link StreamingOutput} só é escrito depois que {@link ContextoRequisicaoFilter} encerrou o contexto
+ * da requisição. Sem outro contexto, os comandos executados durante a escrita ficariam sem prazo. Aqui o
+ * contexto é reaberto com o prazo que restava quando o recurso respondeu e encerrado ao fim da escrita.
+ * As listagens em streaming não têm prazo de requisição e definem um prazo por página
+ * (ver {@link br.com.fiap.service.Paginacao#transmitir}).</p>
+ *
+ * <p>O status 200 já foi enviado quando a escrita começa, e uma falha no meio dela só aparece no corpo. Por isso
+ * o JSON é escrito com {@link #gerador}, que não fecha arrays e objetos abertos: o cliente recebe um JSON
+ * incompleto, e não um array válido com parte dos registros.</p>
+ */
+final class CorpoTransmitido implements StreamingOutput {
+
+    private final long prazo;
+    private final StreamingOutput corpo;
+
+    private CorpoTransmitido(long prazo, StreamingOutput corpo) {
+        this.prazo = prazo;
+        this.corpo = corpo;
+    }
+
+    /**
+     * Envolve o corpo, guardando o prazo restante da requisição atual. Deve ser chamado pelo método do recurso.
+     */
+    static StreamingOutput comPrazoDaRequisicao(StreamingOutput corpo) {
+        return new CorpoTransmitido(ContextoRequisicao.nanosRestantes(), corpo);
+    }
+
+    /**
+     * Cria o {@link JsonGenerator} do corpo. Ao ser fechado depois de uma falha, ele não completa o JSON.
+     */
+    static JsonGenerator gerador(ObjectMapper objectMapper, OutputStream saida) throws IOException {
+        return objectMapper.getFactory().createGenerator(saida)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+    }
+
+    @Override
+    public void write(OutputStream saida) throws IOException {
+        ContextoRequisicao.iniciarComPrazo(prazo);
+        try {
+            corpo.write(saida);
+        } finally {
+            ContextoRequisicao.encerrar();
+        }
+    }
+}
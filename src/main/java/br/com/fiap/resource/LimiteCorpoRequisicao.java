@@ -0,0 +1,62 @@
+package br.com.fiap.resource;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.quarkus.runtime.configuration.MemorySize;
+import io.quarkus.vertx.http.runtime.RouteConstants;
+import io.quarkus.vertx.http.runtime.VertxHttpRecorder;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Limita o tamanho do corpo das requisições, com um limite maior só para a importação de pacientes.
+ *
+ * <p>O limite do Quarkus ({@code quarkus.http.limits.max-body-size}) vale para todas as rotas e é ajustado
+ * para o da importação. Este filtro roda logo depois dele e aplica {@code app.http.limite-corpo} às demais
+ * rotas: recusa com {@code 413} as requisições cujo {@code Content-Length} passa do limite e, nas enviadas em
+ * partes, troca o limite usado enquanto o corpo é lido.</p>
+ */
+@ApplicationScoped
+public class LimiteCorpoRequisicao {
+
+    /** Rota da importação em massa, a única com o limite ampliado. */
+    static final String ROTA_IMPORTACAO = "/pacientes/import";
+
+    @ConfigProperty(name = "app.http.limite-corpo", defaultValue = "10M")
+    MemorySize limite;
+
+    void registrar(@Observes Router router) {
+        router.route()
+                .order(RouteConstants.ROUTE_ORDER_UPLOAD_LIMIT + 1)
+                .handler(this::filtrar);
+    }
+
+    void filtrar(RoutingContext contexto) {
+        if (ROTA_IMPORTACAO.equals(contexto.normalizedPath())) {
+            contexto.next();
+            return;
+        }
+
+        long maximo = limite.asLongValue();
+        String tamanho = contexto.request().getHeader(HttpHeaderNames.CONTENT_LENGTH);
+        if (tamanho != null && excede(tamanho, maximo)) {
+            contexto.response().putHeader(HttpHeaderNames.CONNECTION, "close");
+            contexto.response().setStatusCode(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE.code()).end();
+            return;
+        }
+        contexto.put(VertxHttpRecorder.MAX_REQUEST_SIZE_KEY, maximo);
+        contexto.next();
+    }
+
+    private static boolean excede(String tamanho, long maximo) {
+        try {
+            return Long.parseLong(tamanho.trim()) > maximo;
+        } catch (NumberFormatException e) {
+            // O Quarkus já recusa um Content-Length inválido
+            return false;
+        }
+    }
+}
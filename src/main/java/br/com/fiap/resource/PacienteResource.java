@@ -2,12 +2,20 @@ package br.com.fiap.resource;
 
 import br.com.fiap.dto.PacienteRequestDto;
 import br.com.fiap.dto.PacienteResponseDto;
+import br.com.fiap.dto.PaginaResponseDto;
+import br.com.fiap.service.ImportacaoPacienteService;
 import br.com.fiap.service.PacienteService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.*;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -22,18 +30,42 @@ import java.util.List;
 public class PacienteResource {
 
     @Inject
-    private PacienteService pacienteService;
+    PacienteService pacienteService;
+
+    @Inject
+    ImportacaoPacienteService importacaoService;
+
+    @Inject
+    ObjectMapper objectMapper;
 
     /**
-     * Lista todos os pacientes.
+     * Lista os pacientes cadastrados, paginados por cursor e opcionalmente filtrados.
+     * Os filtros devem ser repetidos junto com o cursor nas páginas seguintes.
+     * Responde com uma {@link PaginaResponseDto}; o array completo, formato anterior à paginação, está em
+     * {@code GET /pacientes/stream}.
      *
-     * @return Response com a lista de pacientes e status 200 OK,
+     * @param limite          Tamanho da página (limitado pelo máximo configurado)
+     * @param cursor          Cursor devolvido em {@code proximo_cursor} na página anterior
+     * @param tipoAtendimento Filtra pelo tipo de atendimento (valor exato)
+     * @param ids             IDs a buscar ({@code ?ids=1,2,3}); quando informado, substitui a paginação e a
+     *                        resposta traz os pacientes na ordem dos IDs e os IDs em {@code nao_encontrados}
+     * @return Response com a página de pacientes e status 200 OK,
+     * 400 se o limite, o cursor ou os IDs forem inválidos, ou 500 em caso de erro interno.
      */
     @GET
-    public Response listar() {
+    public Response listar(@QueryParam("limite") Integer limite, @QueryParam("cursor") String cursor,
+                           @QueryParam("tipo_atendimento") String tipoAtendimento,
+                           @QueryParam("ids") List<String> ids) {
         try {
-            List<PacienteResponseDto> pacientes = pacienteService.listar();
-            return Response.ok(pacientes).build();
+            if (ids != null && !ids.isEmpty()) {
+                return Response.ok(pacienteService.buscarPorIds(ids)).build();
+            }
+            PaginaResponseDto<PacienteResponseDto> pagina = pacienteService.listar(limite, cursor, tipoAtendimento);
+            return Response.ok(pagina).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
         } catch (Exception e) {
             System.err.println("Erro ao listar pacientes: " + e.getMessage());
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -42,6 +74,28 @@ public class PacienteResource {
         }
     }
 
+    /**
+     * Transmite todos os pacientes em um único array JSON, sem paginação.
+     * Os registros são lidos do banco em páginas, e cada página é gravada na resposta sem manter a conexão
+     * durante a escrita. Cada página tem o seu prazo ({@code app.streaming.prazo-pagina-ms}), e não o da
+     * requisição.
+     *
+     * @return Response com status 200 OK e o corpo gerado em streaming.
+     */
+    @GET
+    @Path("/stream")
+    public Response transmitir() {
+        StreamingOutput corpo = CorpoTransmitido.comPrazoDaRequisicao(saida -> {
+            try (JsonGenerator gerador = CorpoTransmitido.gerador(objectMapper, saida)) {
+                pacienteService.transmitir(gerador);
+            } catch (RuntimeException e) {
+                System.err.println("Erro ao transmitir pacientes: " + e.getMessage());
+                throw e;
+            }
+        });
+        return Response.ok(corpo).build();
+    }
+
     /**
      * Busca um paciente pelo ID.
      *
@@ -157,6 +211,37 @@ public class PacienteResource {
         }
     }
 
+    /**
+     * Importa pacientes em massa a partir de um arquivo NDJSON (um objeto JSON por linha)
+     * ou CSV (com cabeçalho usando os nomes dos campos JSON).
+     * O arquivo é processado à medida que é recebido e o relatório é transmitido ao final de cada lote.
+     * Cada lote tem o prazo {@code app.importacao.prazo-lote-ms}, e o corpo aceito pode chegar a
+     * {@code app.importacao.limite-corpo}, maior que o das demais rotas (ver {@link LimiteCorpoRequisicao}).
+     *
+     * @param corpo Conteúdo do arquivo
+     * @param tipoConteudo Content-Type da requisição ({@code application/x-ndjson} ou {@code text/csv})
+     * @return Response com status 200 OK e o relatório com os erros por linha e os totais importados e rejeitados.
+     */
+    @POST
+    @Path("/import")
+    @Consumes({"application/x-ndjson", "text/csv"})
+    public Response importar(InputStream corpo, @HeaderParam(HttpHeaders.CONTENT_TYPE) String tipoConteudo) {
+        ImportacaoPacienteService.Formato formato = tipoConteudo != null && tipoConteudo.startsWith("text/csv")
+                ? ImportacaoPacienteService.Formato.CSV
+                : ImportacaoPacienteService.Formato.NDJSON;
+
+        StreamingOutput relatorio = CorpoTransmitido.comPrazoDaRequisicao(saida -> {
+            try (JsonGenerator gerador = CorpoTransmitido.gerador(objectMapper, saida);
+                 Reader leitor = new InputStreamReader(corpo, StandardCharsets.UTF_8)) {
+                importacaoService.importar(leitor, formato, gerador);
+            } catch (RuntimeException e) {
+                System.err.println("Erro ao importar pacientes: " + e.getMessage());
+                throw e;
+            }
+        });
+        return Response.ok(relatorio).build();
+    }
+
     /**
      * Atualiza um paciente existente pelo ID.
      *
@@ -1,8 +1,12 @@
 package br.com.fiap.resource;
 
+import br.com.fiap.dto.PaginaResponseDto;
 import br.com.fiap.dto.ProfissionalRequestDto;
 import br.com.fiap.dto.ProfissionalResponseDto;
+import br.com.fiap.dto.UpsertResponseDto;
 import br.com.fiap.service.ProfissionalService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -25,17 +29,40 @@ public class ProfissionalResource {
     @Inject
     private ProfissionalService profissionalService;
 
+    @Inject
+    ObjectMapper objectMapper;
+
     /**
-     * Lista todos os profissionais cadastrados.
+     * Lista os profissionais cadastrados, paginados por cursor e opcionalmente filtrados.
+     * Os filtros devem ser repetidos junto com o cursor nas páginas seguintes.
+     * Responde com uma {@link PaginaResponseDto}; o array completo, formato anterior à paginação, está em
+     * {@code GET /profissionais/stream}.
      *
-     * @return Response com a lista de profissionais e status 200 OK,
-     * ou 500 em caso de erro interno.
+     * @param limite          Tamanho da página (limitado pelo máximo configurado)
+     * @param cursor          Cursor devolvido em {@code proximo_cursor} na página anterior
+     * @param especialidade   Filtra pela especialidade (valor exato)
+     * @param tipoAtendimento Filtra pelo tipo de atendimento (valor exato)
+     * @param ids             IDs a buscar ({@code ?ids=1,2,3}); quando informado, substitui a paginação e a
+     *                        resposta traz os profissionais na ordem dos IDs e os IDs em {@code nao_encontrados}
+     * @return Response com a página de profissionais e status 200 OK,
+     * 400 se o limite, o cursor ou os IDs forem inválidos, ou 500 em caso de erro interno.
      */
     @GET
-    public Response listar() {
+    public Response listar(@QueryParam("limite") Integer limite, @QueryParam("cursor") String cursor,
+                           @QueryParam("especialidade") String especialidade,
+                           @QueryParam("tipo_atendimento") String tipoAtendimento,
+                           @QueryParam("ids") List<String> ids) {
         try {
-            List<ProfissionalResponseDto> lista = profissionalService.listar();
-            return Response.ok(lista).build();
+            if (ids != null && !ids.isEmpty()) {
+                return Response.ok(profissionalService.buscarPorIds(ids)).build();
+            }
+            PaginaResponseDto<ProfissionalResponseDto> pagina = profissionalService.listar(limite, cursor, especialidade,
+                    tipoAtendimento);
+            return Response.ok(pagina).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
         } catch (Exception e) {
             System.err.println("Erro ao listar profissionais: " + e.getMessage());
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -44,6 +71,28 @@ public class ProfissionalResource {
         }
     }
 
+    /**
+     * Transmite todos os profissionais em um único array JSON, sem paginação.
+     * Os registros são lidos do banco em páginas, e cada página é gravada na resposta sem manter a conexão
+     * durante a escrita. Cada página tem o seu prazo ({@code app.streaming.prazo-pagina-ms}), e não o da
+     * requisição.
+     *
+     * @return Response com status 200 OK e o corpo gerado em streaming.
+     */
+    @GET
+    @Path("/stream")
+    public Response transmitir() {
+        StreamingOutput corpo = CorpoTransmitido.comPrazoDaRequisicao(saida -> {
+            try (JsonGenerator gerador = CorpoTransmitido.gerador(objectMapper, saida)) {
+                profissionalService.transmitir(gerador);
+            } catch (RuntimeException e) {
+                System.err.println("Erro ao transmitir profissionais: " + e.getMessage());
+                throw e;
+            }
+        });
+        return Response.ok(corpo).build();
+    }
+
     /**
      * Busca um profissional pelo ID.
      *
@@ -159,6 +208,32 @@ public class ProfissionalResource {
         }
     }
 
+    /**
+     * Insere ou atualiza profissionais em massa, usando o CRM como chave
+     * (usado na sincronização com o cadastro externo de profissionais).
+     *
+     * @param profissionais Lista de profissionais com CRMs distintos
+     * @return Response com as quantidades de inseridos, atualizados e inalterados e status 200 OK,
+     * 400 se algum item for inválido, ou 500 em caso de erro interno.
+     */
+    @PUT
+    @Path("/lote")
+    public Response sincronizarPorCrm(List<ProfissionalRequestDto> profissionais) {
+        try {
+            UpsertResponseDto resultado = profissionalService.sincronizarPorCrm(profissionais);
+            return Response.ok(resultado).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Dados inválidos: " + e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            System.err.println("Erro ao sincronizar profissionais: " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Erro interno ao sincronizar profissionais.")
+                    .build();
+        }
+    }
+
     /**
      * Atualiza um profissional existente pelo ID.
      *
@@ -0,0 +1,247 @@
+package br.com.fiap.service;
+
+import br.com.fiap.dao.ContextoRequisicao;
+import br.com.fiap.dao.FonteConexoes;
+import br.com.fiap.dao.ShardsPaciente;
+import br.com.fiap.dto.PaginaResponseDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Aquecimento da aplicação ao iniciar, para que o primeiro tráfego após um deploy não pague a abertura
+ * das conexões, a análise dos comandos SQL no banco e a compilação JIT dos caminhos de leitura e de JSON.
+ *
+ * <p>Em segundo plano, logo após as migrações:</p>
+ * <ol>
+ *   <li>abre ao mesmo tempo, no banco principal e em cada shard de pacientes, a quantidade mínima de conexões
+ *   do pool daquele datasource ({@code min-size}), que voltam ao pool e são mantidas abertas por ele;</li>
+ *   <li>executa {@code app.aquecimento.iteracoes} rodadas de requisições sintéticas de leitura nos serviços,
+ *   distribuídas entre as conexões mínimas do banco principal (cada uma guarda seus comandos preparados),
+ *   serializando as respostas com o mesmo {@link ObjectMapper} dos recursos. Com réplicas de leitura, as leituras
+ *   de cada rodada vão às réplicas e são repetidas no banco principal, onde o tráfego real lê depois de gravar;</li>
+ *   <li>zera as estatísticas de comandos, para que GET /admin/comandos mostre só o tráfego real.</li>
+ * </ol>
+ *
+ * <p>Só leituras são executadas: as gravações seriam visíveis nos dados e são preparadas no primeiro uso.
+ * Falhas no aquecimento são registradas e não impedem a aplicação de ficar pronta; o readiness
+ * ({@code /q/health/ready}) só fica UP depois de {@link #isConcluido()}. Todo o aquecimento tem o prazo
+ * {@code app.aquecimento.prazo-ms}, aplicado também aos comandos das rodadas: uma rodada travada conta como
+ * erro e não deixa a instância fora do balanceador.</p>
+ */
+@ApplicationScoped
+public class AquecimentoAplicacao {
+
+    @Inject
+    FonteConexoes fonteConexoes;
+
+    @Inject
+    ShardsPaciente shards;
+
+    @Inject
+    PacienteService pacienteService;
+
+    @Inject
+    ProfissionalService profissionalService;
+
+    @Inject
+    ConsultaService consultaService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "app.armazenamento", defaultValue = "jdbc")
+    String armazenamento;
+
+    @ConfigProperty(name = "app.aquecimento.habilitado", defaultValue = "true")
+    boolean habilitado;
+
+    @ConfigProperty(name = "app.aquecimento.iteracoes", defaultValue = "30")
+    int iteracoes;
+
+    @ConfigProperty(name = "app.aquecimento.prazo-ms", defaultValue = "120000")
+    long prazoMs;
+
+    private volatile boolean concluido;
+    private volatile Instant inicio;
+    private volatile Instant fim;
+    private final AtomicInteger rodadasComErro = new AtomicInteger();
+
+    /**
+     * Inicia o aquecimento depois dos demais observadores de início, como as migrações do esquema.
+     */
+    void aoIniciar(@Observes @Priority(Interceptor.Priority.APPLICATION + 1000) StartupEvent evento) {
+        if (!habilitado) {
+            concluido = true;
+            return;
+        }
+        Thread thread = new Thread(this::aquecer, "aquecimento");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Executa todas as etapas do aquecimento na thread atual.
+     */
+    void aquecer() {
+        inicio = Instant.now();
+        long limite = System.nanoTime() + prazoMs * 1_000_000;
+        try {
+            if ("jdbc".equals(armazenamento)) {
+                preencherPool(fonteConexoes);
+                for (FonteConexoes shard : shards.adicionais()) {
+                    preencherPool(shard);
+                }
+            }
+            executarRodadas(limite);
+            fonteConexoes.zerarEstatisticas();
+        } catch (RuntimeException e) {
+            System.err.println("Erro no aquecimento da aplicação: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Aquecimento da aplicação interrompido.");
+        } finally {
+            fim = Instant.now();
+            concluido = true;
+            System.out.println("Aquecimento concluído em " + Duration.between(inicio, fim).toMillis() + " ms ("
+                    + iteracoes + " rodadas, " + rodadasComErro.get() + " com erro).");
+        }
+    }
+
+    /**
+     * Obtém ao mesmo tempo as conexões mínimas do pool, para que ele precise abrir todas, e as devolve.
+     */
+    private void preencherPool(FonteConexoes fonte) {
+        int conexoes = fonte.tamanhoMinimoPool();
+        List<Connection> abertas = new ArrayList<>(conexoes);
+        try {
+            for (int i = 0; i < conexoes; i++) {
+                abertas.add(fonte.obter());
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao abrir as conexões do pool", e);
+        } finally {
+            for (Connection conexao : abertas) {
+                try {
+                    conexao.close();
+                } catch (SQLException e) {
+                    System.err.println("Erro ao devolver conexão ao pool: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Executa as rodadas até o limite; as que não terminarem até lá contam como erro e são interrompidas.
+     */
+    private void executarRodadas(long limite) throws InterruptedException {
+        boolean jdbc = "jdbc".equals(armazenamento);
+        int threads = jdbc ? Math.max(1, fonteConexoes.tamanhoMinimoPool()) : 1;
+        boolean tambemNoPrincipal = jdbc && fonteConexoes.temReplicas();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, tarefa -> {
+            Thread thread = new Thread(tarefa, "aquecimento-rodadas");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> tarefas = new ArrayList<>(iteracoes);
+            for (int i = 0; i < iteracoes; i++) {
+                tarefas.add(executor.submit(() -> rodada(limite, tambemNoPrincipal)));
+            }
+            for (Future<?> tarefa : tarefas) {
+                try {
+                    tarefa.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException | TimeoutException e) {
+                    rodadasComErro.incrementAndGet();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Uma rodada de requisições sintéticas, com o prazo que resta do aquecimento.
+     *
+     * @param tambemNoPrincipal Repete as leituras em um escopo compartilhado, que usa o banco principal
+     *                          mesmo com réplicas configuradas.
+     */
+    private Void rodada(long limite, boolean tambemNoPrincipal) throws JsonProcessingException {
+        ContextoRequisicao.iniciar();
+        ContextoRequisicao.definirPrazo(Math.max(0, (limite - System.nanoTime()) / 1_000_000));
+        try {
+            leituras();
+            if (tambemNoPrincipal) {
+                try (FonteConexoes.Escopo escopo = fonteConexoes.compartilhar()) {
+                    leituras();
+                }
+            }
+            return null;
+        } finally {
+            ContextoRequisicao.encerrar();
+        }
+    }
+
+    /**
+     * As listagens (primeira e segunda página), a busca por IDs e as buscas por chave, como fariam os recursos.
+     */
+    private void leituras() throws JsonProcessingException {
+        PaginaResponseDto<?> pacientes = pacienteService.listar(null, null);
+        serializar(pacientes);
+        if (pacientes.getProximoCursor() != null) {
+            serializar(pacienteService.listar(null, pacientes.getProximoCursor()));
+        }
+        PaginaResponseDto<?> profissionais = profissionalService.listar(null, null);
+        serializar(profissionais);
+        if (profissionais.getProximoCursor() != null) {
+            serializar(profissionalService.listar(null, profissionais.getProximoCursor()));
+        }
+        PaginaResponseDto<?> consultas = consultaService.listar(null, null);
+        serializar(consultas);
+        if (consultas.getProximoCursor() != null) {
+            serializar(consultaService.listar(null, consultas.getProximoCursor()));
+        }
+
+        serializar(pacienteService.buscarPorIds(List.of("1,2,3")));
+        serializar(profissionalService.buscarPorIds(List.of("1,2,3")));
+        serializar(consultaService.buscarPorIds(List.of("1,2,3")));
+        serializar(pacienteService.buscarPorCpf("00000000000"));
+    }
+
+    private void serializar(Object resposta) throws JsonProcessingException {
+        objectMapper.writeValueAsBytes(resposta);
+    }
+
+    /** Indica se o aquecimento terminou (ou está desabilitado). */
+    public boolean isConcluido() { return concluido; }
+
+    /** Início do aquecimento, ou {@code null} se ainda não começou. */
+    public Instant getInicio() { return inicio; }
+
+    /** Fim do aquecimento, ou {@code null} se ainda não terminou. */
+    public Instant getFim() { return fim; }
+
+    /** Rodadas de requisições sintéticas que terminaram com erro. */
+    public int getRodadasComErro() { return rodadasComErro.get(); }
+}
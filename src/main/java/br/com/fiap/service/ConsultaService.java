@@ -1,18 +1,23 @@
 package br.com.fiap.service;
 
-import br.com.fiap.dao.ConsultaDao;
+import br.com.fiap.dao.ConexaoCompartilhada;
+import br.com.fiap.dao.ConsultaRepositorio;
+import br.com.fiap.dao.FiltroConsulta;
+import br.com.fiap.dto.BuscaPorIdsResponseDto;
 import br.com.fiap.dto.ConsultaRequestDto;
 import br.com.fiap.dto.ConsultaResponseDto;
+import br.com.fiap.dto.PaginaResponseDto;
 import br.com.fiap.models.Consulta;
+import com.fasterxml.jackson.core.JsonGenerator;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.NotFoundException;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Serviço para gerenciar operações relacionadas a consultas médicas.
@@ -22,26 +27,109 @@ import java.util.stream.Collectors;
 public class ConsultaService {
 
     @Inject
-    private ConsultaDao consultaDao;
+    ConsultaRepositorio consultaRepositorio;
+
+    @Inject
+    Paginacao paginacao;
 
     /**
-     * Lista todas as consultas cadastradas.
+     * Lista as consultas cadastradas, uma página por vez, da mais recente para a mais antiga.
      *
-     * @return Lista de {@link ConsultaResponseDto} contendo as consultas.
+     * @param limite Tamanho da página, ou {@code null} para o padrão configurado.
+     * @param cursor Cursor devolvido na página anterior, ou {@code null} para a primeira página.
+     * @return {@link PaginaResponseDto} com as consultas e o cursor da próxima página.
+     * @throws IllegalArgumentException Caso o limite ou o cursor sejam inválidos.
      * @throws RuntimeException Caso ocorra algum erro interno ao listar consultas.
      */
-    public List<ConsultaResponseDto> listar() {
+    public PaginaResponseDto<ConsultaResponseDto> listar(Integer limite, String cursor) {
+        return listar(limite, cursor, null, null, null);
+    }
+
+    /**
+     * Lista as consultas que atendem aos critérios, uma página por vez, da mais recente para a mais antiga.
+     * O filtro é aplicado no banco; critérios ausentes ou em branco não filtram.
+     *
+     * @param limite       Tamanho da página, ou {@code null} para o padrão configurado.
+     * @param cursor       Cursor devolvido na página anterior (com os mesmos critérios), ou {@code null}.
+     * @param tipoConsulta Tipo da consulta, comparado por igualdade.
+     * @param dataInicio   Primeira data do período ({@code AAAA-MM-DD}, inclusive).
+     * @param dataFim      Última data do período ({@code AAAA-MM-DD}, inclusive).
+     * @return {@link PaginaResponseDto} com as consultas e o cursor da próxima página.
+     * @throws IllegalArgumentException Caso o limite, o cursor ou as datas sejam inválidos.
+     * @throws RuntimeException Caso ocorra algum erro interno ao listar consultas.
+     */
+    public PaginaResponseDto<ConsultaResponseDto> listar(Integer limite, String cursor, String tipoConsulta,
+                                                         String dataInicio, String dataFim) {
         try {
-            List<Consulta> consultas = consultaDao.listarConsultas();
-            return consultas.stream()
-                    .map(ConsultaResponseDto::convertToDto)
-                    .collect(Collectors.toList());
+            int tamanho = paginacao.normalizarLimite(limite);
+            Paginacao.Cursor posicao = paginacao.decodificar(cursor);
+            FiltroConsulta filtro = new FiltroConsulta(paginacao.criterio(tipoConsulta),
+                    paginacao.criterioData(dataInicio, "data_inicio"), paginacao.criterioData(dataFim, "data_fim"));
+            if (filtro.dataInicio() != null && filtro.dataFim() != null
+                    && filtro.dataInicio().isAfter(filtro.dataFim())) {
+                throw new IllegalArgumentException("data_inicio não pode ser posterior a data_fim.");
+            }
+
+            List<Consulta> consultas;
+            if (posicao == null) {
+                consultas = consultaRepositorio.listarConsultas(filtro, null, 0, tamanho + 1);
+            } else {
+                LocalDate dataAntes = null;
+                try {
+                    if (posicao.getChave() != null) {
+                        dataAntes = LocalDate.parse(posicao.getChave());
+                    }
+                } catch (DateTimeParseException ex) {
+                    throw new IllegalArgumentException("Cursor de paginação inválido.");
+                }
+                consultas = consultaRepositorio.listarConsultas(filtro, dataAntes, posicao.getId(), tamanho + 1);
+            }
+
+            return paginacao.montar(consultas, tamanho, ConsultaResponseDto::convertToDto,
+                    c -> new Paginacao.Cursor(c.getDataConsulta() != null ? c.getDataConsulta().toString() : null,
+                            c.getIdConsulta()));
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("Erro ao listar consultas: " + e.getMessage());
             throw new RuntimeException("Erro interno ao listar consultas.", e);
         }
     }
 
+    /**
+     * Grava todas as consultas como um array JSON no gerador informado, da mais recente para a mais antiga,
+     * lendo-as página a página (ver {@link Paginacao#transmitir}): a memória usada depende do tamanho da página,
+     * não da quantidade de registros.
+     *
+     * @param gerador {@link JsonGenerator} ligado à saída da resposta HTTP.
+     * @throws IOException Caso a escrita na saída falhe.
+     */
+    public void transmitir(JsonGenerator gerador) throws IOException {
+        paginacao.transmitir(gerador, (ultimo, quantidade) -> consultaRepositorio.listarConsultas(FiltroConsulta.VAZIO,
+                ultimo != null ? ultimo.getDataConsulta() : null, ultimo != null ? ultimo.getIdConsulta() : 0,
+                quantidade), ConsultaResponseDto::convertToDto);
+    }
+
+    /**
+     * Busca várias consultas pelos IDs, em poucas idas ao banco.
+     *
+     * @param ids Valores do parâmetro {@code ids} (separados por vírgula ou repetidos).
+     * @return {@link BuscaPorIdsResponseDto} com as consultas na ordem dos IDs e os IDs não encontrados.
+     * @throws IllegalArgumentException Caso os IDs sejam inválidos ou excedam o máximo por busca.
+     * @throws RuntimeException Em caso de erro interno.
+     */
+    public BuscaPorIdsResponseDto<ConsultaResponseDto> buscarPorIds(List<String> ids) {
+        try {
+            List<Integer> lista = paginacao.interpretarIds(ids);
+            return paginacao.montarPorIds(lista, consultaRepositorio.buscarPorIds(lista), ConsultaResponseDto::convertToDto);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            System.err.println("Erro ao buscar consultas por IDs: " + e.getMessage());
+            throw new RuntimeException("Erro interno ao buscar consultas.", e);
+        }
+    }
+
     /**
      * Busca uma consulta pelo seu ID.
      *
@@ -57,7 +145,7 @@ public class ConsultaService {
                 throw new IllegalArgumentException("O ID da consulta deve ser maior que zero.");
             }
 
-            Consulta consulta = consultaDao.buscarPorId(id);
+            Consulta consulta = consultaRepositorio.buscarPorId(id);
             if (consulta == null) {
                 throw new NotFoundException("Consulta não encontrada com ID: " + id);
             }
@@ -80,6 +168,7 @@ public class ConsultaService {
      * @throws IllegalArgumentException Caso o DTO seja nulo ou contenha dados inválidos.
      * @throws RuntimeException Em caso de erro interno ao cadastrar consulta.
      */
+    @ConexaoCompartilhada
     public ConsultaResponseDto cadastrar(ConsultaRequestDto dto) {
         try {
             if (dto == null) {
@@ -115,7 +204,7 @@ public class ConsultaService {
                 throw new IllegalArgumentException("Formato de data inválido. Use yyyy-MM-dd.");
             }
 
-            consultaDao.cadastrarConsulta(nova);
+            consultaRepositorio.cadastrarConsulta(nova);
 
             return ConsultaResponseDto.convertToDto(nova);
 
@@ -137,6 +226,7 @@ public class ConsultaService {
      * @throws NotFoundException Caso a consulta não seja encontrada.
      * @throws RuntimeException Em caso de erro interno.
      */
+    @ConexaoCompartilhada
     public Consulta atualizar(Integer id, ConsultaRequestDto dto) {
         try {
             if (id == null || id <= 0) {
@@ -149,30 +239,25 @@ public class ConsultaService {
 
             dto.cleanData();
 
-            Consulta existente = consultaDao.buscarPorId(id);
-            if (existente == null) {
-                throw new NotFoundException("Consulta não encontrada com ID: " + id);
-            }
-
-            if (dto.getTipoConsulta() != null) {
-                existente.setTipoConsulta(dto.getTipoConsulta());
-            }
+            // Somente os campos informados são enviados; os demais mantêm o valor gravado
+            Consulta alteracoes = new Consulta();
+            alteracoes.setIdConsulta(id);
+            alteracoes.setTipoConsulta(dto.getTipoConsulta());
+            alteracoes.setMotivoConsulta(dto.getMotivoConsulta());
 
             if (dto.getDataConsulta() != null && !dto.getDataConsulta().isBlank()) {
                 try {
                     DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-                    LocalDate data = LocalDate.parse(dto.getDataConsulta(), formatter);
-                    existente.setDataConsulta(data);
+                    alteracoes.setDataConsulta(LocalDate.parse(dto.getDataConsulta(), formatter));
                 } catch (DateTimeParseException ex) {
                     throw new IllegalArgumentException("Formato de data inválido. Use yyyy-MM-dd.");
                 }
             }
 
-            if (dto.getMotivoConsulta() != null) {
-                existente.setMotivoConsulta(dto.getMotivoConsulta());
+            Consulta atualizada = consultaRepositorio.atualizarDadosConsulta(alteracoes);
+            if (atualizada == null) {
+                throw new NotFoundException("Consulta não encontrada com ID: " + id);
             }
-
-            Consulta atualizada = consultaDao.atualizarConsulta(existente);
             System.out.println("Consulta atualizada com sucesso: " + atualizada);
             return atualizada;
 
@@ -193,19 +278,17 @@ public class ConsultaService {
      * @throws NotFoundException Caso a consulta não seja encontrada.
      * @throws RuntimeException Em caso de erro interno ou se houver dependências que impeçam a exclusão.
      */
+    @ConexaoCompartilhada
     public void excluir(int id) {
         try {
             if (id <= 0) {
                 throw new IllegalArgumentException("O ID da consulta deve ser maior que zero.");
             }
 
-            Consulta consulta = consultaDao.buscarPorId(id);
-            if (consulta == null) {
+            if (!consultaRepositorio.excluirConsulta(id)) {
                 throw new NotFoundException("Consulta não encontrada com ID: " + id);
             }
 
-            consultaDao.excluirConsulta(id);
-
         } catch (IllegalArgumentException | NotFoundException e) {
             throw e;
         } catch (RuntimeException e) {
@@ -0,0 +1,333 @@
+package br.com.fiap.service;
+
+import br.com.fiap.dao.ContextoRequisicao;
+import br.com.fiap.dao.PacienteRepositorio;
+import br.com.fiap.dto.PacienteRequestDto;
+import br.com.fiap.models.Paciente;
+import br.com.fiap.security.PasswordHash;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Serviço de importação em massa de pacientes (POST /pacientes/import).
+ *
+ * <p>O arquivo é lido linha a linha e processado em lotes de {@code app.importacao.tamanho-lote} linhas.
+ * Para cada lote, os CPFs são verificados no banco com poucos comandos, as senhas são criptografadas
+ * em paralelo em um pool limitado a {@code app.importacao.threads-hash} threads e os pacientes válidos
+ * são gravados em um único lote JDBC. Os erros são gravados no relatório à medida que cada lote termina,
+ * de modo que a memória usada depende do tamanho do lote e não do tamanho do arquivo.</p>
+ *
+ * <p>O tempo total da importação depende do tamanho do arquivo, e por isso o prazo da requisição não se aplica
+ * a ela: cada lote recebe o seu, {@code app.importacao.prazo-lote-ms}, como tempo limite dos seus comandos.</p>
+ */
+@ApplicationScoped
+public class ImportacaoPacienteService {
+
+    /** Formatos aceitos pela importação. */
+    public enum Formato {
+        /** Um objeto JSON por linha, com os mesmos campos do POST /pacientes. */
+        NDJSON,
+        /** Primeira linha com os nomes dos campos do POST /pacientes, separados por vírgula. */
+        CSV
+    }
+
+    @Inject
+    PacienteRepositorio pacienteRepositorio;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "app.importacao.tamanho-lote", defaultValue = "500")
+    int tamanhoLote;
+
+    /** Quantidade de threads para o hash das senhas; 0 usa a quantidade de processadores. */
+    @ConfigProperty(name = "app.importacao.threads-hash", defaultValue = "0")
+    int threadsHash;
+
+    /** Prazo dos comandos de cada lote, em milissegundos; 0 deixa os lotes sem prazo. */
+    @ConfigProperty(name = "app.importacao.prazo-lote-ms", defaultValue = "30000")
+    long prazoLoteMs;
+
+    private ExecutorService executorHash;
+
+    @PostConstruct
+    void iniciar() {
+        int threads = threadsHash > 0 ? threadsHash : Runtime.getRuntime().availableProcessors();
+        executorHash = Executors.newFixedThreadPool(threads, tarefa -> {
+            Thread thread = new Thread(tarefa, "importacao-hash");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executorHash.shutdownNow();
+    }
+
+    /**
+     * Importa os pacientes lidos da entrada e grava o relatório como um objeto JSON no gerador informado:
+     * {@code {"erros": [{"linha": n, "mensagem": "..."}, ...], "importados": n, "rejeitados": n}}.
+     *
+     * @param entrada Conteúdo enviado pelo cliente, no formato informado.
+     * @param formato Formato das linhas da entrada.
+     * @param gerador {@link JsonGenerator} ligado à saída da resposta HTTP.
+     * @throws IOException Caso a leitura da entrada ou a escrita do relatório falhe.
+     */
+    public void importar(Reader entrada, Formato formato, JsonGenerator gerador) throws IOException {
+        BufferedReader leitor = new BufferedReader(entrada);
+        Totais totais = new Totais();
+        List<LinhaImportacao> lote = new ArrayList<>(tamanhoLote);
+        List<String> cabecalho = null;
+        int numero = 0;
+
+        gerador.writeStartObject();
+        gerador.writeArrayFieldStart("erros");
+        gerador.flush();
+
+        String linha;
+        while ((linha = leitor.readLine()) != null) {
+            numero++;
+            if (linha.isBlank()) {
+                continue;
+            }
+            if (formato == Formato.CSV && cabecalho == null) {
+                cabecalho = dividirCsv(linha);
+                continue;
+            }
+
+            LinhaImportacao item = new LinhaImportacao(numero);
+            try {
+                item.dto = formato == Formato.CSV
+                        ? lerCsv(cabecalho, linha)
+                        : objectMapper.readValue(linha, PacienteRequestDto.class);
+            } catch (IOException | IllegalArgumentException e) {
+                item.erro = "Linha mal formada.";
+            }
+            lote.add(item);
+
+            if (lote.size() >= tamanhoLote) {
+                processarLote(lote, totais, gerador);
+                lote.clear();
+            }
+        }
+        processarLote(lote, totais, gerador);
+
+        gerador.writeEndArray();
+        gerador.writeNumberField("importados", totais.importados);
+        gerador.writeNumberField("rejeitados", totais.rejeitados);
+        gerador.writeEndObject();
+
+        System.out.println("Importação de pacientes concluída: " + totais.importados + " importados, "
+                + totais.rejeitados + " rejeitados.");
+    }
+
+    /**
+     * Grava os pacientes do lote. Se outro cadastro gravar algum dos CPFs depois da consulta feita pelo lote,
+     * só essas linhas são recusadas como "CPF já cadastrado." e as demais são gravadas de novo.
+     *
+     * @param novos    Pacientes a gravar.
+     * @param gravadas Linhas de origem, na mesma ordem de {@code novos}.
+     */
+    private void gravar(List<Paciente> novos, List<LinhaImportacao> gravadas, Totais totais) {
+        try {
+            pacienteRepositorio.cadastrarPacientes(novos);
+            totais.importados += novos.size();
+            return;
+        } catch (IllegalArgumentException e) {
+            Set<String> concorrentes = pacienteRepositorio.buscarCpfsCadastrados(
+                    novos.stream().map(Paciente::getCpf).toList());
+            if (!concorrentes.isEmpty()) {
+                List<Paciente> restantes = new ArrayList<>(novos.size());
+                List<LinhaImportacao> linhasRestantes = new ArrayList<>(novos.size());
+                for (int i = 0; i < novos.size(); i++) {
+                    if (concorrentes.contains(novos.get(i).getCpf())) {
+                        gravadas.get(i).erro = "CPF já cadastrado.";
+                    } else {
+                        restantes.add(novos.get(i));
+                        linhasRestantes.add(gravadas.get(i));
+                    }
+                }
+                if (restantes.size() < novos.size()) {
+                    if (!restantes.isEmpty()) {
+                        gravar(restantes, linhasRestantes, totais);
+                    }
+                    return;
+                }
+            }
+            System.err.println("Erro ao gravar lote da importação: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao gravar lote da importação: " + e.getMessage());
+        }
+        for (LinhaImportacao item : gravadas) {
+            item.erro = "Erro ao gravar o lote desta linha; nenhuma linha do lote foi importada.";
+        }
+    }
+
+    private void processarLote(List<LinhaImportacao> lote, Totais totais, JsonGenerator gerador) throws IOException {
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        if (prazoLoteMs > 0) {
+            ContextoRequisicao.definirPrazo(prazoLoteMs);
+        }
+
+        // Validação e CPFs repetidos dentro do próprio lote
+        Map<String, LinhaImportacao> porCpf = new LinkedHashMap<>();
+        for (LinhaImportacao item : lote) {
+            if (item.erro != null) {
+                continue;
+            }
+            item.dto.cleanData();
+            String erros = PacienteService.validarCadastro(item.dto);
+            if (!erros.isEmpty()) {
+                item.erro = erros.replace('\n', ' ');
+                continue;
+            }
+            LinhaImportacao anterior = porCpf.putIfAbsent(item.dto.getCpf(), item);
+            if (anterior != null) {
+                item.erro = "CPF repetido no arquivo (linha " + anterior.numero + ").";
+            }
+        }
+
+        // CPFs já cadastrados, inclusive os gravados por lotes anteriores deste arquivo
+        Set<String> cadastrados = pacienteRepositorio.buscarCpfsCadastrados(porCpf.keySet());
+        for (String cpf : cadastrados) {
+            LinhaImportacao item = porCpf.remove(cpf);
+            if (item != null) {
+                item.erro = "CPF já cadastrado.";
+            }
+        }
+
+        // Hash das senhas em paralelo
+        Map<LinhaImportacao, Future<String>> hashes = new HashMap<>();
+        for (LinhaImportacao item : porCpf.values()) {
+            String senha = item.dto.getSenha();
+            hashes.put(item, executorHash.submit(() -> PasswordHash.hashPassword(senha)));
+        }
+
+        List<Paciente> novos = new ArrayList<>(porCpf.size());
+        List<LinhaImportacao> gravadas = new ArrayList<>(porCpf.size());
+        for (LinhaImportacao item : porCpf.values()) {
+            try {
+                novos.add(novoPaciente(item.dto, hashes.get(item).get()));
+                gravadas.add(item);
+            } catch (ExecutionException e) {
+                item.erro = "Erro ao processar a senha.";
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                hashes.values().forEach(f -> f.cancel(true));
+                throw new RuntimeException("Importação interrompida.", e);
+            }
+        }
+
+        gravar(novos, gravadas, totais);
+
+        for (LinhaImportacao item : lote) {
+            if (item.erro != null) {
+                totais.rejeitados++;
+                gerador.writeStartObject();
+                gerador.writeNumberField("linha", item.numero);
+                gerador.writeStringField("mensagem", item.erro);
+                gerador.writeEndObject();
+            }
+        }
+        gerador.flush();
+    }
+
+    private static Paciente novoPaciente(PacienteRequestDto dto, String senhaCriptografada) {
+        Paciente novo = new Paciente();
+        novo.setNome(dto.getNome());
+        novo.setCpf(dto.getCpf());
+        novo.setIdade(dto.getIdade());
+        novo.setNivelTecnico(dto.getNivelTecnico());
+        novo.setTipoAtendimento(dto.getTipoAtendimento());
+        novo.setSenha(senhaCriptografada);
+        return novo;
+    }
+
+    /**
+     * Converte uma linha CSV em DTO, usando os nomes do cabeçalho como nomes dos campos JSON.
+     */
+    private PacienteRequestDto lerCsv(List<String> cabecalho, String linha) {
+        List<String> valores = dividirCsv(linha);
+        if (valores.size() != cabecalho.size()) {
+            throw new IllegalArgumentException("Quantidade de colunas diferente do cabeçalho.");
+        }
+        Map<String, String> campos = new HashMap<>();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            campos.put(cabecalho.get(i), valores.get(i).isEmpty() ? null : valores.get(i));
+        }
+        return objectMapper.convertValue(campos, PacienteRequestDto.class);
+    }
+
+    /**
+     * Divide uma linha CSV separada por vírgulas. Campos entre aspas podem conter vírgulas,
+     * e aspas dentro deles são escritas em dobro.
+     */
+    static List<String> dividirCsv(String linha) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(atual.toString().trim());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        campos.add(atual.toString().trim());
+        return campos;
+    }
+
+    /** Linha do arquivo em processamento. */
+    private static final class LinhaImportacao {
+        private final int numero;
+        private PacienteRequestDto dto;
+        private String erro;
+
+        LinhaImportacao(int numero) {
+            this.numero = numero;
+        }
+    }
+
+    /** Contadores do relatório de importação. */
+    private static final class Totais {
+        private long importados;
+        private long rejeitados;
+    }
+}
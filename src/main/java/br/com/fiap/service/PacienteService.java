@@ -1,16 +1,21 @@
 package br.com.fiap.service;
 
-import br.com.fiap.dao.PacienteDao;
+import br.com.fiap.dao.ConexaoCompartilhada;
+import br.com.fiap.dao.FiltroPaciente;
+import br.com.fiap.dao.PacienteRepositorio;
+import br.com.fiap.dto.BuscaPorIdsResponseDto;
 import br.com.fiap.dto.PacienteRequestDto;
 import br.com.fiap.dto.PacienteResponseDto;
+import br.com.fiap.dto.PaginaResponseDto;
 import br.com.fiap.models.Paciente;
 import br.com.fiap.security.PasswordHash;
+import com.fasterxml.jackson.core.JsonGenerator;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.NotFoundException;
 
+import java.io.IOException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Serviço responsável pelas operações de Paciente.
@@ -20,26 +25,88 @@ import java.util.stream.Collectors;
 public class PacienteService {
 
     @Inject
-    private PacienteDao pacienteDao;
+    PacienteRepositorio pacienteRepositorio;
+
+    @Inject
+    Paginacao paginacao;
+
+    /**
+     * Lista os pacientes cadastrados, uma página por vez, ordenados por nome.
+     *
+     * @param limite Tamanho da página, ou {@code null} para o padrão configurado.
+     * @param cursor Cursor devolvido na página anterior, ou {@code null} para a primeira página.
+     * @return {@link PaginaResponseDto} com os pacientes e o cursor da próxima página.
+     * @throws IllegalArgumentException Caso o limite ou o cursor sejam inválidos.
+     * @throws RuntimeException Em caso de erro interno ao listar pacientes.
+     */
+    public PaginaResponseDto<PacienteResponseDto> listar(Integer limite, String cursor) {
+        return listar(limite, cursor, null);
+    }
 
     /**
-     * Lista todos os pacientes cadastrados.
+     * Lista os pacientes que atendem aos critérios, uma página por vez, ordenados por nome.
+     * O filtro é aplicado no banco; critérios ausentes ou em branco não filtram.
      *
-     * @return Lista de {@link PacienteResponseDto} contendo os pacientes.
+     * @param limite          Tamanho da página, ou {@code null} para o padrão configurado.
+     * @param cursor          Cursor devolvido na página anterior (com os mesmos critérios), ou {@code null}.
+     * @param tipoAtendimento Tipo de atendimento, comparado por igualdade.
+     * @return {@link PaginaResponseDto} com os pacientes e o cursor da próxima página.
+     * @throws IllegalArgumentException Caso o limite ou o cursor sejam inválidos.
      * @throws RuntimeException Em caso de erro interno ao listar pacientes.
      */
-    public List<PacienteResponseDto> listar() {
+    public PaginaResponseDto<PacienteResponseDto> listar(Integer limite, String cursor, String tipoAtendimento) {
         try {
-            List<Paciente> pacientes = pacienteDao.listarPacientes();
-            return pacientes.stream()
-                    .map(PacienteResponseDto::convertToDto)
-                    .collect(Collectors.toList());
+            int tamanho = paginacao.normalizarLimite(limite);
+            Paginacao.Cursor posicao = paginacao.decodificar(cursor);
+            FiltroPaciente filtro = new FiltroPaciente(paginacao.criterio(tipoAtendimento));
+
+            List<Paciente> pacientes = posicao == null
+                    ? pacienteRepositorio.listarPacientes(filtro, null, 0, tamanho + 1)
+                    : pacienteRepositorio.listarPacientes(filtro, posicao.getChave(), posicao.getId(), tamanho + 1);
+
+            return paginacao.montar(pacientes, tamanho, PacienteResponseDto::convertToDto,
+                    p -> new Paginacao.Cursor(p.getNome(), p.getId()));
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("Erro ao listar pacientes: " + e.getMessage());
             throw new RuntimeException("Erro interno ao listar pacientes.", e);
         }
     }
 
+    /**
+     * Grava todos os pacientes como um array JSON no gerador informado, ordenados por nome, lendo-os página a página
+     * (ver {@link Paginacao#transmitir}): a memória usada depende do tamanho da página, não da quantidade de registros.
+     *
+     * @param gerador {@link JsonGenerator} ligado à saída da resposta HTTP.
+     * @throws IOException Caso a escrita na saída falhe.
+     */
+    public void transmitir(JsonGenerator gerador) throws IOException {
+        paginacao.transmitir(gerador, (ultimo, quantidade) -> pacienteRepositorio.listarPacientes(FiltroPaciente.VAZIO,
+                ultimo != null ? ultimo.getNome() : null, ultimo != null ? ultimo.getId() : 0, quantidade),
+                PacienteResponseDto::convertToDto);
+    }
+
+    /**
+     * Busca vários pacientes pelos IDs, em poucas idas ao banco.
+     *
+     * @param ids Valores do parâmetro {@code ids} (separados por vírgula ou repetidos).
+     * @return {@link BuscaPorIdsResponseDto} com os pacientes na ordem dos IDs e os IDs não encontrados.
+     * @throws IllegalArgumentException Caso os IDs sejam inválidos ou excedam o máximo por busca.
+     * @throws RuntimeException Em caso de erro interno.
+     */
+    public BuscaPorIdsResponseDto<PacienteResponseDto> buscarPorIds(List<String> ids) {
+        try {
+            List<Integer> lista = paginacao.interpretarIds(ids);
+            return paginacao.montarPorIds(lista, pacienteRepositorio.buscarPorIds(lista), PacienteResponseDto::convertToDto);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            System.err.println("Erro ao buscar pacientes por IDs: " + e.getMessage());
+            throw new RuntimeException("Erro interno ao buscar pacientes.", e);
+        }
+    }
+
     /**
      * Busca um paciente pelo seu ID.
      *
@@ -55,7 +122,7 @@ public class PacienteService {
                 throw new IllegalArgumentException("O ID do paciente deve ser maior que zero.");
             }
 
-            Paciente paciente = pacienteDao.buscarPorId(id);
+            Paciente paciente = pacienteRepositorio.buscarPorId(id);
             if (paciente == null) {
                 throw new NotFoundException("Paciente não encontrado com ID: " + id);
             }
@@ -84,7 +151,7 @@ public class PacienteService {
                 throw new IllegalArgumentException("CPF deve conter exatamente 11 dígitos numéricos.");
             }
 
-            Paciente paciente = pacienteDao.buscarPorCpf(cpf);
+            Paciente paciente = pacienteRepositorio.buscarPorCpf(cpf);
             if (paciente == null) {
                 return null;
             }
@@ -106,7 +173,7 @@ public class PacienteService {
      * @return {@link Paciente} ou null se não encontrado.
      */
     public Paciente buscarPorCpfRaw(String cpf) {
-        return pacienteDao.buscarPorCpf(cpf);
+        return pacienteRepositorio.buscarPorCpf(cpf);
     }
 
     /**
@@ -117,40 +184,15 @@ public class PacienteService {
      * @throws IllegalArgumentException Caso dados sejam inválidos ou CPF já cadastrado.
      * @throws RuntimeException Em caso de erro interno.
      */
+    @ConexaoCompartilhada
     public PacienteResponseDto cadastrar(PacienteRequestDto pacienteDto) {
         try {
             if (pacienteDto == null) {
                 throw new IllegalArgumentException("Os dados do paciente não podem ser nulos.");
             }
 
-            if (pacienteDto.getNome() != null) pacienteDto.setNome(pacienteDto.getNome().trim());
-            if (pacienteDto.getCpf() != null) pacienteDto.setCpf(pacienteDto.getCpf().replaceAll("[^0-9]", ""));
-
-            StringBuilder erros = new StringBuilder();
-
-            if (pacienteDto.getNome() == null || pacienteDto.getNome().length() < 2) {
-                erros.append("Nome inválido (mínimo 2 caracteres).\n");
-            }
-            if (pacienteDto.getCpf() == null || !pacienteDto.getCpf().matches("\\d{11}")) {
-                erros.append("CPF deve conter exatamente 11 números.\n");
-            }
-            if (pacienteDto.getIdade() == null || pacienteDto.getIdade() < 0 || pacienteDto.getIdade() > 120) {
-                erros.append("Idade deve estar entre 0 e 120.\n");
-            }
-            if (pacienteDto.getNivelTecnico() == null || pacienteDto.getNivelTecnico() < 0 || pacienteDto.getNivelTecnico() > 10) {
-                erros.append("Nível técnico deve estar entre 0 e 10.\n");
-            }
-            if (pacienteDto.getTipoAtendimento() == null || pacienteDto.getTipoAtendimento().isBlank()) {
-                erros.append("Tipo de atendimento é obrigatório.\n");
-            }
-            if (pacienteDto.getSenha() == null || pacienteDto.getSenha().length() < 6 || pacienteDto.getSenha().length() > 8) {
-                erros.append("Senha deve ter entre 6 e 8 caracteres.\n");
-            }
-
-            if (!erros.isEmpty()) throw new IllegalArgumentException(erros.toString().trim());
-
-            Paciente existente = pacienteDao.buscarPorCpf(pacienteDto.getCpf());
-            if (existente != null) throw new IllegalArgumentException("CPF já cadastrado.");
+            String erros = validarCadastro(pacienteDto);
+            if (!erros.isEmpty()) throw new IllegalArgumentException(erros);
 
             String senhaCriptografada = PasswordHash.hashPassword(pacienteDto.getSenha());
             pacienteDto.setSenha(senhaCriptografada);
@@ -163,7 +205,7 @@ public class PacienteService {
             novo.setTipoAtendimento(pacienteDto.getTipoAtendimento());
             novo.setSenha(pacienteDto.getSenha());
 
-            pacienteDao.cadastrarPaciente(novo);
+            pacienteRepositorio.cadastrarPaciente(novo);
 
             return PacienteResponseDto.convertToDto(novo);
 
@@ -175,15 +217,51 @@ public class PacienteService {
         }
     }
 
+    /**
+     * Normaliza nome e CPF do DTO e valida os campos exigidos para o cadastro.
+     *
+     * @param dto DTO com os dados do novo paciente.
+     * @return Mensagens de erro separadas por quebra de linha, ou texto vazio se o DTO for válido.
+     */
+    static String validarCadastro(PacienteRequestDto dto) {
+        if (dto.getNome() != null) dto.setNome(dto.getNome().trim());
+        if (dto.getCpf() != null) dto.setCpf(dto.getCpf().replaceAll("[^0-9]", ""));
+
+        StringBuilder erros = new StringBuilder();
+
+        if (dto.getNome() == null || dto.getNome().length() < 2) {
+            erros.append("Nome inválido (mínimo 2 caracteres).\n");
+        }
+        if (dto.getCpf() == null || !dto.getCpf().matches("\\d{11}")) {
+            erros.append("CPF deve conter exatamente 11 números.\n");
+        }
+        if (dto.getIdade() == null || dto.getIdade() < 0 || dto.getIdade() > 120) {
+            erros.append("Idade deve estar entre 0 e 120.\n");
+        }
+        if (dto.getNivelTecnico() == null || dto.getNivelTecnico() < 0 || dto.getNivelTecnico() > 10) {
+            erros.append("Nível técnico deve estar entre 0 e 10.\n");
+        }
+        if (dto.getTipoAtendimento() == null || dto.getTipoAtendimento().isBlank()) {
+            erros.append("Tipo de atendimento é obrigatório.\n");
+        }
+        if (dto.getSenha() == null || dto.getSenha().length() < 6 || dto.getSenha().length() > 8) {
+            erros.append("Senha deve ter entre 6 e 8 caracteres.\n");
+        }
+
+        return erros.toString().trim();
+    }
+
     /**
      * Atualiza um paciente existente.
      *
      * @param id  ID do paciente.
      * @param dto DTO com os dados a serem atualizados.
-     * @return {@link Paciente} atualizado, ou null se não encontrado.
+     * @return {@link Paciente} como ficou gravado.
      * @throws IllegalArgumentException Caso ID ou dados sejam inválidos.
+     * @throws NotFoundException Caso o paciente não seja encontrado.
      * @throws RuntimeException Em caso de erro interno.
      */
+    @ConexaoCompartilhada
     public Paciente atualizar(Integer id, PacienteRequestDto dto) {
         try {
             if (id == null || id <= 0) {
@@ -196,29 +274,31 @@ public class PacienteService {
 
             dto.cleanData();
 
-            Paciente existente = pacienteDao.buscarPorId(id);
-            if (existente == null) {
-                System.out.println("Paciente não encontrado com ID: " + id);
-                return null;
-            }
-
-            if (dto.getNome() != null) existente.setNome(dto.getNome());
-            if (dto.getIdade() != null) existente.setIdade(dto.getIdade());
-            if (dto.getNivelTecnico() != null) existente.setNivelTecnico(dto.getNivelTecnico());
-            if (dto.getTipoAtendimento() != null) existente.setTipoAtendimento(dto.getTipoAtendimento());
-            if (dto.getCpf() != null) existente.setCpf(dto.getCpf());
+            // Somente os campos informados são enviados; os demais mantêm o valor gravado
+            Paciente alteracoes = new Paciente();
+            alteracoes.setId(id);
+            alteracoes.setNome(dto.getNome());
+            alteracoes.setIdade(dto.getIdade());
+            alteracoes.setNivelTecnico(dto.getNivelTecnico());
+            alteracoes.setTipoAtendimento(dto.getTipoAtendimento());
+            alteracoes.setCpf(dto.getCpf());
 
             if (dto.getSenha() != null && !dto.getSenha().isBlank()) {
                 String senhaCriptografada = PasswordHash.hashPassword(dto.getSenha());
-                existente.setSenha(senhaCriptografada);
+                alteracoes.setSenha(senhaCriptografada);
             }
 
-            existente.limparDados();
+            alteracoes.limparDados();
 
-            Paciente atualizado = pacienteDao.atualizarPaciente(existente);
+            Paciente atualizado = pacienteRepositorio.atualizarPaciente(alteracoes);
+            if (atualizado == null) {
+                throw new NotFoundException("Paciente não encontrado com ID: " + id);
+            }
             System.out.println("Paciente atualizado com sucesso: " + atualizado);
             return atualizado;
 
+        } catch (IllegalArgumentException | NotFoundException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("Erro ao atualizar paciente: " + e.getMessage());
             e.printStackTrace();
@@ -234,19 +314,17 @@ public class PacienteService {
      * @throws NotFoundException Caso o paciente não seja encontrado.
      * @throws RuntimeException Em caso de erro interno ou se houver dependências relacionadas.
      */
+    @ConexaoCompartilhada
     public void excluir(int id) {
         try {
             if (id <= 0) {
                 throw new IllegalArgumentException("O ID do paciente deve ser maior que zero.");
             }
 
-            Paciente paciente = pacienteDao.buscarPorId(id);
-            if (paciente == null) {
+            if (!pacienteRepositorio.excluirPaciente(id)) {
                 throw new NotFoundException("Paciente não encontrado com ID: " + id);
             }
 
-            pacienteDao.excluirPaciente(id);
-
         } catch (IllegalArgumentException | NotFoundException e) {
             throw e;
         } catch (RuntimeException e) {
@@ -0,0 +1,287 @@
+package br.com.fiap.service;
+
+import br.com.fiap.dao.ContextoRequisicao;
+import br.com.fiap.dto.BuscaPorIdsResponseDto;
+import br.com.fiap.dto.PaginaResponseDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Regras compartilhadas de paginação por cursor (keyset) das listagens.
+ *
+ * <p>O cursor é um token opaco que guarda a chave de ordenação e o ID do último item entregue.
+ * Os DAOs usam esses valores como predicado de busca ("seek"), de modo que qualquer página
+ * custa o mesmo que a primeira, sem OFFSET. Uma chave nula (nome ou data não preenchidos) é gravada
+ * sem o separador, só com o ID, e volta como {@code null}.</p>
+ *
+ * <p>Os critérios de filtro das listagens não entram no cursor: o cliente deve repeti-los em cada página.</p>
+ *
+ * <p>Também trata as buscas por vários IDs ({@code ?ids=...}), limitadas ao mesmo tamanho máximo de página,
+ * e as listagens completas em streaming ({@code GET .../stream}), lidas pelas mesmas páginas.</p>
+ */
+@ApplicationScoped
+public class Paginacao {
+
+    private static final char SEPARADOR = '\u001F';
+
+    @ConfigProperty(name = "app.paginacao.tamanho-padrao", defaultValue = "50")
+    int tamanhoPadrao;
+
+    @ConfigProperty(name = "app.paginacao.tamanho-maximo", defaultValue = "500")
+    int tamanhoMaximo;
+
+    @ConfigProperty(name = "app.streaming.tamanho-pagina", defaultValue = "500")
+    int tamanhoStreaming;
+
+    /** Prazo dos comandos de cada página transmitida, em milissegundos; 0 deixa as páginas sem prazo. */
+    @ConfigProperty(name = "app.streaming.prazo-pagina-ms", defaultValue = "10000")
+    long prazoPaginaMs;
+
+    /**
+     * Posição de uma listagem: chave de ordenação (que pode ser nula) e ID do último item entregue.
+     */
+    public static final class Cursor {
+
+        private final String chave;
+        private final int id;
+
+        public Cursor(String chave, int id) {
+            this.chave = chave;
+            this.id = id;
+        }
+
+        public String getChave() { return chave; }
+        public int getId() { return id; }
+    }
+
+    /**
+     * Lê uma página de uma listagem a partir do último item entregue.
+     *
+     * @param <M> Tipo do modelo lido.
+     */
+    @FunctionalInterface
+    public interface LeitorPagina<M> {
+
+        /**
+         * @param ultimo     Último item já entregue, ou {@code null} para a primeira página.
+         * @param quantidade Quantidade máxima de itens.
+         */
+        List<M> ler(M ultimo, int quantidade);
+    }
+
+    /**
+     * Valida o tamanho de página pedido pelo cliente, aplicando o padrão e o máximo configurados.
+     *
+     * @param limite Tamanho pedido, ou {@code null} para o padrão.
+     * @return Tamanho de página efetivo.
+     * @throws IllegalArgumentException Caso o limite seja menor ou igual a zero.
+     */
+    public int normalizarLimite(Integer limite) {
+        if (limite == null) {
+            return Math.min(tamanhoPadrao, tamanhoMaximo);
+        }
+        if (limite <= 0) {
+            throw new IllegalArgumentException("O limite da página deve ser maior que zero.");
+        }
+        return Math.min(limite, tamanhoMaximo);
+    }
+
+    /**
+     * Decodifica o cursor recebido do cliente.
+     *
+     * @param token Cursor opaco, ou {@code null} para a primeira página.
+     * @return {@link Cursor} decodificado, ou {@code null} para a primeira página.
+     * @throws IllegalArgumentException Caso o cursor seja inválido.
+     */
+    public Cursor decodificar(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        int id;
+        String chave;
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int posicao = valor.lastIndexOf(SEPARADOR);
+            chave = posicao < 0 ? null : valor.substring(0, posicao);
+            id = Integer.parseInt(valor.substring(posicao + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.");
+        }
+        // Os repositórios tratam o ID zero como primeira página
+        if (id <= 0) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.");
+        }
+        return new Cursor(chave, id);
+    }
+
+    /**
+     * Monta a página de resposta a partir das linhas lidas do banco.
+     * O DAO deve ter sido chamado com {@code limite + 1} para que se saiba se há próxima página.
+     *
+     * @param linhas    Linhas lidas (até {@code limite + 1}).
+     * @param limite    Tamanho da página.
+     * @param conversor Conversão do modelo para o DTO de resposta.
+     * @param posicao   Extrai o {@link Cursor} de um modelo.
+     */
+    public <M, D> PaginaResponseDto<D> montar(List<M> linhas, int limite,
+                                              Function<M, D> conversor, Function<M, Cursor> posicao) {
+        boolean haMais = linhas.size() > limite;
+        List<M> pagina = haMais ? linhas.subList(0, limite) : linhas;
+
+        String proximo = null;
+        if (haMais) {
+            Cursor ultimo = posicao.apply(pagina.get(pagina.size() - 1));
+            String valor = ultimo.getChave() == null
+                    ? String.valueOf(ultimo.getId())
+                    : ultimo.getChave() + SEPARADOR + ultimo.getId();
+            proximo = Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return new PaginaResponseDto<>(pagina.stream().map(conversor).collect(Collectors.toList()), proximo);
+    }
+
+    /**
+     * Grava todos os itens de uma listagem como um array JSON, lendo-os em páginas de
+     * {@code app.streaming.tamanho-pagina} itens.
+     *
+     * <p>Cada página é uma chamada própria ao repositório, que devolve a conexão ao pool antes de a página ser
+     * escrita: um cliente lento não prende conexões. Em troca, o resultado não é um retrato único da tabela;
+     * como na paginação por cursor, cada item é entregue uma vez, mas gravações feitas durante a transmissão
+     * podem ou não aparecer.</p>
+     *
+     * <p>O tempo total da transmissão depende do tamanho da tabela e da velocidade do cliente, e por isso o prazo
+     * da requisição não deve se aplicar a ela ({@code app.prazos.<Recurso>.transmitir-ms=0}): cada página recebe
+     * o seu, {@code app.streaming.prazo-pagina-ms}, como tempo limite dos comandos que a leem.</p>
+     *
+     * @param gerador   {@link JsonGenerator} ligado à saída da resposta HTTP.
+     * @param leitor    Leitura de uma página do repositório.
+     * @param conversor Conversão do modelo para o DTO de resposta.
+     * @throws IOException Caso a escrita na saída falhe.
+     */
+    public <M> void transmitir(JsonGenerator gerador, LeitorPagina<M> leitor, Function<M, ?> conversor)
+            throws IOException {
+        gerador.writeStartArray();
+        gerador.flush();
+
+        M ultimo = null;
+        List<M> pagina;
+        do {
+            if (prazoPaginaMs > 0) {
+                ContextoRequisicao.definirPrazo(prazoPaginaMs);
+            }
+            pagina = leitor.ler(ultimo, tamanhoStreaming);
+            for (M item : pagina) {
+                gerador.writeObject(conversor.apply(item));
+            }
+            gerador.flush();
+            if (!pagina.isEmpty()) {
+                ultimo = pagina.get(pagina.size() - 1);
+            }
+        } while (pagina.size() == tamanhoStreaming);
+
+        gerador.writeEndArray();
+    }
+
+    /**
+     * Interpreta os IDs de uma busca por vários IDs, recebidos separados por vírgula ({@code ?ids=1,2,3}),
+     * em parâmetros repetidos ({@code ?ids=1&ids=2}) ou ambos. IDs repetidos são considerados uma vez.
+     *
+     * @param valores Valores do parâmetro {@code ids}.
+     * @return IDs distintos, na ordem recebida.
+     * @throws IllegalArgumentException Caso algum ID seja inválido ou a quantidade passe do tamanho máximo de página.
+     */
+    public List<Integer> interpretarIds(List<String> valores) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (String valor : valores) {
+            for (String parte : valor.split(",")) {
+                if (parte.isBlank()) {
+                    continue;
+                }
+                int id;
+                try {
+                    id = Integer.parseInt(parte.trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("ID inválido: " + parte.trim());
+                }
+                if (id <= 0) {
+                    throw new IllegalArgumentException("Os IDs devem ser maiores que zero.");
+                }
+                ids.add(id);
+            }
+        }
+
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um ID.");
+        }
+        if (ids.size() > tamanhoMaximo) {
+            throw new IllegalArgumentException("Informe no máximo " + tamanhoMaximo + " IDs por busca.");
+        }
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * Normaliza um critério de filtro recebido como texto: espaços nas pontas são removidos
+     * e um valor vazio equivale a não filtrar.
+     *
+     * @return O valor aparado, ou {@code null} se ausente ou em branco.
+     */
+    public String criterio(String valor) {
+        return valor == null || valor.isBlank() ? null : valor.trim();
+    }
+
+    /**
+     * Interpreta um critério de filtro por data, no formato {@code AAAA-MM-DD}.
+     *
+     * @param valor Valor recebido, ou {@code null}.
+     * @param nome  Nome do parâmetro, usado na mensagem de erro.
+     * @return A data, ou {@code null} se ausente ou em branco.
+     * @throws IllegalArgumentException Caso a data seja inválida.
+     */
+    public LocalDate criterioData(String valor, String nome) {
+        String texto = criterio(valor);
+        if (texto == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(texto);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Data inválida em " + nome + ": use o formato AAAA-MM-DD.");
+        }
+    }
+
+    /**
+     * Monta a resposta de uma busca por vários IDs, com os itens na ordem dos IDs pedidos.
+     *
+     * @param ids         IDs pedidos, na ordem de {@link #interpretarIds(List)}.
+     * @param encontrados Modelos lidos do banco, indexados pelo ID.
+     * @param conversor   Conversão do modelo para o DTO de resposta.
+     */
+    public <M, D> BuscaPorIdsResponseDto<D> montarPorIds(List<Integer> ids, Map<Integer, M> encontrados,
+                                                        Function<M, D> conversor) {
+        List<D> itens = new ArrayList<>(encontrados.size());
+        List<Integer> naoEncontrados = new ArrayList<>();
+        for (Integer id : ids) {
+            M modelo = encontrados.get(id);
+            if (modelo != null) {
+                itens.add(conversor.apply(modelo));
+            } else {
+                naoEncontrados.add(id);
+            }
+        }
+        return new BuscaPorIdsResponseDto<>(itens, naoEncontrados);
+    }
+}
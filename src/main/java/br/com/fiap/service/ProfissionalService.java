@@ -1,15 +1,24 @@
 package br.com.fiap.service;
 
-import br.com.fiap.dao.ProfissionalDao;
+import br.com.fiap.dao.ConexaoCompartilhada;
+import br.com.fiap.dao.FiltroProfissional;
+import br.com.fiap.dao.ProfissionalRepositorio;
+import br.com.fiap.dto.BuscaPorIdsResponseDto;
+import br.com.fiap.dto.PaginaResponseDto;
 import br.com.fiap.dto.ProfissionalRequestDto;
 import br.com.fiap.dto.ProfissionalResponseDto;
+import br.com.fiap.dto.UpsertResponseDto;
 import br.com.fiap.models.Profissional;
+import com.fasterxml.jackson.core.JsonGenerator;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.NotFoundException;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * Serviço responsável pelas operações de Profissional.
@@ -19,26 +28,92 @@ import java.util.stream.Collectors;
 public class ProfissionalService {
 
     @Inject
-    private ProfissionalDao profissionalDao;
+    ProfissionalRepositorio profissionalRepositorio;
+
+    @Inject
+    Paginacao paginacao;
 
     /**
-     * Lista todos os profissionais cadastrados.
+     * Lista os profissionais cadastrados, uma página por vez, ordenados por nome.
      *
-     * @return Lista de {@link ProfissionalResponseDto}.
+     * @param limite Tamanho da página, ou {@code null} para o padrão configurado.
+     * @param cursor Cursor devolvido na página anterior, ou {@code null} para a primeira página.
+     * @return {@link PaginaResponseDto} com os profissionais e o cursor da próxima página.
+     * @throws IllegalArgumentException Caso o limite ou o cursor sejam inválidos.
      * @throws RuntimeException Em caso de erro interno.
      */
-    public List<ProfissionalResponseDto> listar() {
+    public PaginaResponseDto<ProfissionalResponseDto> listar(Integer limite, String cursor) {
+        return listar(limite, cursor, null, null);
+    }
+
+    /**
+     * Lista os profissionais que atendem aos critérios, uma página por vez, ordenados por nome.
+     * O filtro é aplicado no banco; critérios ausentes ou em branco não filtram.
+     *
+     * @param limite          Tamanho da página, ou {@code null} para o padrão configurado.
+     * @param cursor          Cursor devolvido na página anterior (com os mesmos critérios), ou {@code null}.
+     * @param especialidade   Especialidade, comparada por igualdade.
+     * @param tipoAtendimento Tipo de atendimento, comparado por igualdade.
+     * @return {@link PaginaResponseDto} com os profissionais e o cursor da próxima página.
+     * @throws IllegalArgumentException Caso o limite ou o cursor sejam inválidos.
+     * @throws RuntimeException Em caso de erro interno ao listar profissionais.
+     */
+    public PaginaResponseDto<ProfissionalResponseDto> listar(Integer limite, String cursor, String especialidade,
+                                                             String tipoAtendimento) {
         try {
-            List<Profissional> profissionais = profissionalDao.listarProfissionais();
-            return profissionais.stream()
-                    .map(ProfissionalResponseDto::convertToDto)
-                    .collect(Collectors.toList());
+            int tamanho = paginacao.normalizarLimite(limite);
+            Paginacao.Cursor posicao = paginacao.decodificar(cursor);
+            FiltroProfissional filtro = new FiltroProfissional(paginacao.criterio(especialidade),
+                    paginacao.criterio(tipoAtendimento));
+
+            List<Profissional> profissionais = posicao == null
+                    ? profissionalRepositorio.listarProfissionais(filtro, null, 0, tamanho + 1)
+                    : profissionalRepositorio.listarProfissionais(filtro, posicao.getChave(), posicao.getId(),
+                            tamanho + 1);
+
+            return paginacao.montar(profissionais, tamanho, ProfissionalResponseDto::convertToDto,
+                    p -> new Paginacao.Cursor(p.getNome(), p.getId()));
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("Erro ao listar profissionais: " + e.getMessage());
             throw new RuntimeException("Erro interno ao listar profissionais.", e);
         }
     }
 
+    /**
+     * Grava todos os profissionais como um array JSON no gerador informado, ordenados por nome, lendo-os página a página
+     * (ver {@link Paginacao#transmitir}): a memória usada depende do tamanho da página, não da quantidade de registros.
+     *
+     * @param gerador {@link JsonGenerator} ligado à saída da resposta HTTP.
+     * @throws IOException Caso a escrita na saída falhe.
+     */
+    public void transmitir(JsonGenerator gerador) throws IOException {
+        paginacao.transmitir(gerador, (ultimo, quantidade) -> profissionalRepositorio.listarProfissionais(
+                FiltroProfissional.VAZIO, ultimo != null ? ultimo.getNome() : null, ultimo != null ? ultimo.getId() : 0,
+                quantidade), ProfissionalResponseDto::convertToDto);
+    }
+
+    /**
+     * Busca vários profissionais pelos IDs, em poucas idas ao banco.
+     *
+     * @param ids Valores do parâmetro {@code ids} (separados por vírgula ou repetidos).
+     * @return {@link BuscaPorIdsResponseDto} com os profissionais na ordem dos IDs e os IDs não encontrados.
+     * @throws IllegalArgumentException Caso os IDs sejam inválidos ou excedam o máximo por busca.
+     * @throws RuntimeException Em caso de erro interno.
+     */
+    public BuscaPorIdsResponseDto<ProfissionalResponseDto> buscarPorIds(List<String> ids) {
+        try {
+            List<Integer> lista = paginacao.interpretarIds(ids);
+            return paginacao.montarPorIds(lista, profissionalRepositorio.buscarPorIds(lista), ProfissionalResponseDto::convertToDto);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            System.err.println("Erro ao buscar profissionais por IDs: " + e.getMessage());
+            throw new RuntimeException("Erro interno ao buscar profissionais.", e);
+        }
+    }
+
     /**
      * Busca um profissional pelo ID.
      *
@@ -54,7 +129,7 @@ public class ProfissionalService {
                 throw new IllegalArgumentException("O ID do profissional deve ser maior que zero.");
             }
 
-            Profissional profissional = profissionalDao.buscarPorId(id);
+            Profissional profissional = profissionalRepositorio.buscarPorId(id);
             if (profissional == null) {
                 throw new NotFoundException("Profissional não encontrado com ID: " + id);
             }
@@ -82,7 +157,7 @@ public class ProfissionalService {
                 throw new IllegalArgumentException("CRM deve ser um número positivo.");
             }
 
-            Profissional profissional = profissionalDao.buscarPorCrm(crm);
+            Profissional profissional = profissionalRepositorio.buscarPorCrm(crm);
             if (profissional == null) {
                 return null;
             }
@@ -102,35 +177,16 @@ public class ProfissionalService {
      * @throws IllegalArgumentException Caso os dados sejam inválidos ou CRM já exista.
      * @throws RuntimeException Em caso de erro interno.
      */
+    @ConexaoCompartilhada
     public ProfissionalResponseDto cadastrar(ProfissionalRequestDto dto) {
         try {
             if (dto == null) {
                 throw new IllegalArgumentException("Os dados do profissional não podem ser nulos.");
             }
 
-            dto.cleanData();
-
-            StringBuilder erros = new StringBuilder();
-            if (dto.getNome() == null || dto.getNome().trim().length() < 2) {
-                erros.append("Nome do profissional inválido (mínimo 2 caracteres).\n");
-            }
-            if (dto.getEspecialidade() == null || dto.getEspecialidade().isBlank()) {
-                erros.append("Especialidade é obrigatória.\n");
-            }
-            if (dto.getTipoAtendimento() == null || dto.getTipoAtendimento().isBlank()) {
-                erros.append("Tipo de atendimento é obrigatório.\n");
-            }
-            if (dto.getCrm() == null || dto.getCrm() <= 0) {
-                erros.append("CRM deve ser um número positivo.\n");
-            }
-
+            String erros = validarCadastro(dto);
             if (!erros.isEmpty()) {
-                throw new IllegalArgumentException(erros.toString().trim());
-            }
-
-            Profissional existente = profissionalDao.buscarPorCrm(dto.getCrm());
-            if (existente != null) {
-                throw new IllegalArgumentException("Já existe um profissional com esse CRM.");
+                throw new IllegalArgumentException(erros);
             }
 
             Profissional novo = new Profissional();
@@ -139,7 +195,7 @@ public class ProfissionalService {
             novo.setTipoAtendimento(dto.getTipoAtendimento());
             novo.setCrm(dto.getCrm());
 
-            profissionalDao.cadastrarProfissional(novo);
+            profissionalRepositorio.cadastrarProfissional(novo);
 
             return ProfissionalResponseDto.convertToDto(novo);
         } catch (IllegalArgumentException e) {
@@ -150,6 +206,86 @@ public class ProfissionalService {
         }
     }
 
+    /**
+     * Normaliza os campos de texto do DTO e valida os campos exigidos para o cadastro.
+     *
+     * @param dto DTO com os dados do profissional.
+     * @return Mensagens de erro separadas por quebra de linha, ou texto vazio se o DTO for válido.
+     */
+    static String validarCadastro(ProfissionalRequestDto dto) {
+        dto.cleanData();
+
+        StringBuilder erros = new StringBuilder();
+        if (dto.getNome() == null || dto.getNome().trim().length() < 2) {
+            erros.append("Nome do profissional inválido (mínimo 2 caracteres).\n");
+        }
+        if (dto.getEspecialidade() == null || dto.getEspecialidade().isBlank()) {
+            erros.append("Especialidade é obrigatória.\n");
+        }
+        if (dto.getTipoAtendimento() == null || dto.getTipoAtendimento().isBlank()) {
+            erros.append("Tipo de atendimento é obrigatório.\n");
+        }
+        if (dto.getCrm() == null || dto.getCrm() <= 0) {
+            erros.append("CRM deve ser um número positivo.\n");
+        }
+
+        return erros.toString().trim();
+    }
+
+    /**
+     * Insere ou atualiza profissionais em massa, usando o CRM como chave.
+     * Todos os itens são validados antes da gravação; se algum for inválido, nada é gravado.
+     *
+     * @param dtos Profissionais recebidos, com CRMs distintos.
+     * @return {@link UpsertResponseDto} com as quantidades de inseridos, atualizados e inalterados.
+     * @throws IllegalArgumentException Caso a lista esteja vazia, algum item seja inválido ou haja CRM repetido.
+     * @throws RuntimeException Em caso de erro interno.
+     */
+    @ConexaoCompartilhada
+    public UpsertResponseDto sincronizarPorCrm(List<ProfissionalRequestDto> dtos) {
+        try {
+            if (dtos == null || dtos.isEmpty()) {
+                throw new IllegalArgumentException("A lista de profissionais não pode ser vazia.");
+            }
+
+            StringBuilder erros = new StringBuilder();
+            Set<Integer> crms = new HashSet<>();
+            List<Profissional> profissionais = new ArrayList<>(dtos.size());
+
+            for (int i = 0; i < dtos.size(); i++) {
+                ProfissionalRequestDto dto = dtos.get(i);
+                String errosItem = dto == null ? "Dados nulos." : validarCadastro(dto);
+                if (!errosItem.isEmpty()) {
+                    erros.append("Item ").append(i).append(": ").append(errosItem.replace('\n', ' ')).append('\n');
+                    continue;
+                }
+                if (!crms.add(dto.getCrm() % 1_000_000)) {
+                    erros.append("Item ").append(i).append(": CRM repetido na lista.\n");
+                    continue;
+                }
+
+                Profissional profissional = new Profissional();
+                profissional.setNome(dto.getNome());
+                profissional.setEspecialidade(dto.getEspecialidade());
+                profissional.setTipoAtendimento(dto.getTipoAtendimento());
+                profissional.setCrm(dto.getCrm());
+                profissionais.add(profissional);
+            }
+
+            if (!erros.isEmpty()) {
+                throw new IllegalArgumentException(erros.toString().trim());
+            }
+
+            return UpsertResponseDto.convertToDto(profissionalRepositorio.upsertPorCrm(profissionais));
+
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            System.err.println("Erro ao sincronizar profissionais: " + e.getMessage());
+            throw new RuntimeException("Erro interno ao sincronizar profissionais.", e);
+        }
+    }
+
     /**
      * Atualiza um profissional existente.
      *
@@ -159,6 +295,7 @@ public class ProfissionalService {
      * @throws NotFoundException Caso o profissional não exista.
      * @throws RuntimeException Em caso de erro interno.
      */
+    @ConexaoCompartilhada
     public void atualizar(Integer id, ProfissionalRequestDto dto) {
         try {
             if (id == null || id <= 0) {
@@ -171,16 +308,18 @@ public class ProfissionalService {
 
             dto.cleanData();
 
-            Profissional existente = profissionalDao.buscarPorId(id);
-            if (existente == null) {
+            // Somente os campos informados são enviados; os demais mantêm o valor gravado
+            Profissional alteracoes = new Profissional();
+            alteracoes.setId(id);
+            alteracoes.setNome(dto.getNome());
+            alteracoes.setTipoAtendimento(dto.getTipoAtendimento());
+            alteracoes.setCrm(dto.getCrm());
+
+            if (profissionalRepositorio.atualizarProfissional(alteracoes) == null) {
                 throw new NotFoundException("Profissional não encontrado com ID: " + id);
             }
-
-            if (dto.getNome() != null) existente.setNome(dto.getNome());
-            if (dto.getTipoAtendimento() != null) existente.setTipoAtendimento(dto.getTipoAtendimento());
-            if (dto.getCrm() != null) existente.setCrm(dto.getCrm());
-
-            profissionalDao.atualizarProfissional(existente);
+        } catch (IllegalArgumentException | NotFoundException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("Erro ao atualizar profissional: " + e.getMessage());
             throw new RuntimeException("Erro interno ao atualizar profissional.", e);
@@ -195,18 +334,16 @@ public class ProfissionalService {
      * @throws NotFoundException Caso profissional não exista.
      * @throws RuntimeException Em caso de erro interno ou se houver dependências relacionadas.
      */
+    @ConexaoCompartilhada
     public void excluir(Integer id) {
         try {
             if (id == null || id <= 0) {
                 throw new IllegalArgumentException("O ID do profissional deve ser maior que zero.");
             }
 
-            Profissional profissional = profissionalDao.buscarPorId(id);
-            if (profissional == null) {
+            if (!profissionalRepositorio.excluirProfissional(id)) {
                 throw new NotFoundException("Profissional não encontrado com ID: " + id);
             }
-
-            profissionalDao.excluirProfissional(id);
         } catch (IllegalArgumentException | NotFoundException e) {
             throw e;
         } catch (RuntimeException e) {
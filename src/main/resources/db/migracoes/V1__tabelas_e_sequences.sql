@@ -0,0 +1,37 @@
+-- Tabelas e sequences usadas pelos DAOs.
+-- As sequences são consumidas pelo GeradorIds (hi-lo), por isso usam INCREMENT BY 1.
+
+CREATE TABLE PACIENTE (
+    id_pac           NUMBER(10)    PRIMARY KEY,
+    nome_pac         VARCHAR2(50)  NOT NULL,
+    idade_pac        NUMBER(3),
+    nivel_tec        NUMBER(2),
+    tipo_atendimento VARCHAR2(30),
+    cpf_pac          VARCHAR2(11)  NOT NULL,
+    senha_pac        VARCHAR2(100)
+);
+
+CREATE TABLE PROFISSIONAL (
+    id_profissional            NUMBER(10)   PRIMARY KEY,
+    nome_profissional          VARCHAR2(80) NOT NULL,
+    especialidade_profissional VARCHAR2(50),
+    tipo_atend                 VARCHAR2(30),
+    crm_profissional           NUMBER(6)    NOT NULL
+);
+
+CREATE TABLE CONSULTA (
+    id_consulta     NUMBER(10)    PRIMARY KEY,
+    tipo_consulta   VARCHAR2(50),
+    data_consulta   DATE,
+    motivo_consulta VARCHAR2(200)
+);
+
+CREATE TABLE CONSULTA_PROFIS (
+    fk_consulta NUMBER(10) NOT NULL REFERENCES CONSULTA (id_consulta),
+    fk_profis   NUMBER(10) NOT NULL REFERENCES PROFISSIONAL (id_profissional),
+    PRIMARY KEY (fk_consulta, fk_profis)
+);
+
+CREATE SEQUENCE SEQ_PACIENTE START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE SEQ_PROFISSIONAL START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE SEQ_CONSULTA START WITH 1 INCREMENT BY 1;
@@ -0,0 +1,17 @@
+-- Índices das buscas e junções feitas pelos DAOs.
+
+-- Busca por CPF e detecção de CPF repetido no cadastro
+CREATE UNIQUE INDEX UK_PACIENTE_CPF ON PACIENTE (cpf_pac);
+
+-- Busca por CRM, upsert por CRM e detecção de CRM repetido no cadastro
+CREATE UNIQUE INDEX UK_PROFISSIONAL_CRM ON PROFISSIONAL (crm_profissional);
+
+-- Paginação por cursor e streaming ordenados por nome
+CREATE INDEX IX_PACIENTE_NOME ON PACIENTE (nome_pac, id_pac);
+CREATE INDEX IX_PROFISSIONAL_NOME ON PROFISSIONAL (nome_profissional, id_profissional);
+
+-- Paginação por cursor e streaming das consultas, da mais recente para a mais antiga
+CREATE INDEX IX_CONSULTA_DATA ON CONSULTA (data_consulta DESC, id_consulta DESC);
+
+-- Vínculos por profissional (a chave primária já cobre as buscas por fk_consulta)
+CREATE INDEX IX_CONSULTA_PROFIS_PROFIS ON CONSULTA_PROFIS (fk_profis, fk_consulta);
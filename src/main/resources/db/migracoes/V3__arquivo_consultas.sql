@@ -0,0 +1,16 @@
+-- Tabelas de arquivo das consultas antigas, preenchidas pelo RetencaoConsultas.
+-- Sem chaves estrangeiras: o arquivo guarda os IDs mesmo que o profissional seja excluído depois.
+
+CREATE TABLE CONSULTA_ARQ (
+    id_consulta     NUMBER(10)    PRIMARY KEY,
+    tipo_consulta   VARCHAR2(50),
+    data_consulta   DATE,
+    motivo_consulta VARCHAR2(200),
+    arquivada_em    TIMESTAMP     NOT NULL
+);
+
+CREATE TABLE CONSULTA_PROFIS_ARQ (
+    fk_consulta NUMBER(10) NOT NULL,
+    fk_profis   NUMBER(10) NOT NULL,
+    PRIMARY KEY (fk_consulta, fk_profis)
+);
@@ -0,0 +1,13 @@
+-- Índices das listagens filtradas: cada um começa pela coluna comparada por igualdade
+-- e segue a ordem da paginação, para que o filtro e o cursor usem o mesmo intervalo do índice.
+-- O filtro por período das consultas usa IX_CONSULTA_DATA.
+
+-- Pacientes por tipo de atendimento, ordenados por nome
+CREATE INDEX IX_PACIENTE_TIPO_NOME ON PACIENTE (tipo_atendimento, nome_pac, id_pac);
+
+-- Profissionais por especialidade ou por tipo de atendimento, ordenados por nome
+CREATE INDEX IX_PROFISSIONAL_ESPEC_NOME ON PROFISSIONAL (especialidade_profissional, nome_profissional, id_profissional);
+CREATE INDEX IX_PROFISSIONAL_TIPO_NOME ON PROFISSIONAL (tipo_atend, nome_profissional, id_profissional);
+
+-- Consultas por tipo, da mais recente para a mais antiga (com ou sem período)
+CREATE INDEX IX_CONSULTA_TIPO_DATA ON CONSULTA (tipo_consulta, data_consulta DESC, id_consulta DESC);
@@ -0,0 +1,141 @@
+package br.com.fiap.dao;
+
+import org.h2.jdbcx.JdbcDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utilitários de teste para os DAOs: cria bancos H2 em memória no modo Oracle
+ * e conta as conexões e comandos emitidos contra eles.
+ * Pública para que os testes dos recursos REST possam montar uma {@link FonteConexoes}.
+ */
+public final class BancoTeste {
+
+    private BancoTeste() {}
+
+    /**
+     * Cria um banco H2 em memória, isolado pelo nome informado, com o esquema usado pelos DAOs.
+     */
+    static DataSource novoBanco(String nome) throws SQLException {
+        DataSource ds = bancoVazio(nome);
+        criarEsquema(ds);
+        return ds;
+    }
+
+    /**
+     * Cria um banco H2 em memória, isolado pelo nome informado, sem nenhuma tabela.
+     */
+    static DataSource bancoVazio(String nome) {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:" + nome + ";MODE=Oracle;DB_CLOSE_DELAY=-1");
+        ds.setUser("sa");
+        ds.setPassword("");
+        return ds;
+    }
+
+    /**
+     * Cria uma {@link FonteConexoes} sobre o {@link DataSource} informado.
+     */
+    public static FonteConexoes fonte(DataSource ds) {
+        FonteConexoes fonte = new FonteConexoes();
+        fonte.dataSource = ds;
+        return fonte;
+    }
+
+    /**
+     * Cria um {@link GeradorIds} ligado ao banco informado.
+     */
+    static GeradorIds geradorIds(DataSource ds, int tamanhoBloco) {
+        GeradorIds gerador = new GeradorIds();
+        gerador.conexoes = fonte(ds);
+        gerador.tamanhoBloco = tamanhoBloco;
+        return gerador;
+    }
+
+    /**
+     * Cria o esquema com as mesmas migrações aplicadas pela aplicação ao iniciar.
+     */
+    private static void criarEsquema(DataSource ds) {
+        MigradorEsquema migrador = new MigradorEsquema();
+        migrador.conexoes = fonte(ds);
+        migrador.tamanhoBloco = 50;
+        migrador.migrar();
+    }
+
+    /**
+     * {@link DataSource} que delega a outro e conta conexões abertas e comandos preparados.
+     */
+    static final class Contador {
+
+        final AtomicInteger conexoes = new AtomicInteger();
+        final AtomicInteger comandos = new AtomicInteger();
+        final DataSource dataSource;
+
+        Contador(DataSource alvo) {
+            this.dataSource = (DataSource) Proxy.newProxyInstance(
+                    DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                    repassar(alvo, (metodo, resultado) -> {
+                        if (metodo.equals("getConnection")) {
+                            conexoes.incrementAndGet();
+                            return Proxy.newProxyInstance(
+                                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                                    repassar(resultado, (m, r) -> {
+                                        if (m.equals("prepareStatement") || m.equals("prepareCall")
+                                                || m.equals("createStatement")) {
+                                            comandos.incrementAndGet();
+                                        }
+                                        return r;
+                                    }));
+                        }
+                        return resultado;
+                    }));
+        }
+
+        void zerar() {
+            conexoes.set(0);
+            comandos.set(0);
+        }
+
+        private interface Interceptador {
+            Object aposChamada(String metodo, Object resultado) throws Throwable;
+        }
+
+        private static InvocationHandler repassar(Object alvo, Interceptador interceptador) {
+            return (proxy, metodo, args) -> {
+                try {
+                    return interceptador.aposChamada(metodo.getName(), metodo.invoke(alvo, args));
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            };
+        }
+    }
+
+    /**
+     * Executa um comando de carga diretamente no banco, sem passar pelos contadores.
+     * Sem linhas, o comando é executado uma única vez sem parâmetros.
+     */
+    static void executar(DataSource ds, String sql, Object[]... linhas) throws SQLException {
+        try (Connection conexao = ds.getConnection();
+             PreparedStatement ps = conexao.prepareStatement(sql)) {
+            if (linhas.length == 0) {
+                ps.execute();
+                return;
+            }
+            for (Object[] linha : linhas) {
+                for (int i = 0; i < linha.length; i++) {
+                    ps.setObject(i + 1, linha[i]);
+                }
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.models.Consulta;
+import br.com.fiap.models.Profissional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsultaDaoTest {
+
+    private static final int TOTAL_CONSULTAS = 2500;
+
+    private DataSource banco;
+    private ConsultaDao dao;
+    private BancoTeste.Contador contador;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        banco = BancoTeste.novoBanco("consultas" + System.nanoTime());
+
+        BancoTeste.executar(banco, "INSERT INTO PROFISSIONAL VALUES (?, ?, ?, ?, ?)",
+                new Object[]{1, "Ana", "Pediatria", "Presencial", 1111},
+                new Object[]{2, "Bruno", "Ortopedia", "Teleconsulta", 2222});
+
+        Object[][] consultas = new Object[TOTAL_CONSULTAS][];
+        Object[][] vinculos = new Object[TOTAL_CONSULTAS * 2][];
+        LocalDate base = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < TOTAL_CONSULTAS; i++) {
+            int id = i + 1;
+            consultas[i] = new Object[]{id, "Retorno", Date.valueOf(base.plusDays(i % 365)), "Motivo " + id};
+            vinculos[i * 2] = new Object[]{id, 1};
+            vinculos[i * 2 + 1] = new Object[]{id, 2};
+        }
+        BancoTeste.executar(banco, "INSERT INTO CONSULTA VALUES (?, ?, ?, ?)", consultas);
+        BancoTeste.executar(banco, "INSERT INTO CONSULTA_PROFIS VALUES (?, ?)", vinculos);
+
+        contador = new BancoTeste.Contador(banco);
+        dao = new ConsultaDao();
+        dao.conexoes = BancoTeste.fonte(contador.dataSource);
+        dao.geradorIds = BancoTeste.geradorIds(banco, 50);
+        BancoTeste.executar(banco, "ALTER SEQUENCE SEQ_CONSULTA RESTART WITH 100");
+    }
+
+    @Test
+    void listarConsultasCarregaProfissionaisEmLote() {
+        List<Consulta> consultas = dao.listarConsultas();
+
+        assertEquals(TOTAL_CONSULTAS, consultas.size());
+        assertTrue(consultas.stream().allMatch(c -> c.getProfissionais().size() == 2));
+
+        // 1 comando para as consultas + 1 por bloco de 1000 IDs, sempre na mesma conexão
+        assertEquals(1, contador.conexoes.get());
+        assertEquals(1 + 3, contador.comandos.get());
+    }
+
+    @Test
+    void buscarPorIdUsaUmaUnicaConexao() {
+        Consulta consulta = dao.buscarPorId(42);
+
+        assertEquals(2, consulta.getProfissionais().size());
+        assertEquals(1, contador.conexoes.get());
+        assertEquals(2, contador.comandos.get());
+    }
+
+    @Test
+    void buscarPorIdsLeVariasConsultasEmUmaIdaPorTabela() {
+        Map<Integer, Consulta> consultas = dao.buscarPorIds(List.of(7, 99_999, 3, 7));
+
+        assertEquals(Set.of(3, 7), consultas.keySet());
+        assertEquals(2, consultas.get(3).getProfissionais().size());
+
+        // 1 comando para as consultas + 1 para os profissionais, na mesma conexão
+        assertEquals(1, contador.conexoes.get());
+        assertEquals(2, contador.comandos.get());
+    }
+
+    @Test
+    void cadastrarConsultaGravaVinculosEmLoteNaMesmaTransacao() {
+        Consulta consulta = new Consulta(null, "Retorno", LocalDate.of(2025, 6, 1), "Dor");
+        consulta.setProfissionais(List.of(
+                new Profissional(1, "Ana", "Pediatria", "Presencial", 1111),
+                new Profissional(2, "Bruno", "Ortopedia", "Teleconsulta", 2222)));
+
+        dao.cadastrarConsulta(consulta);
+
+        // insert da consulta + um único lote com os vínculos
+        assertEquals(1, contador.conexoes.get());
+        assertEquals(2, contador.comandos.get());
+        assertEquals(2, dao.buscarPorId(consulta.getIdConsulta()).getProfissionais().size());
+    }
+
+    @Test
+    void periodoIncluiAsDuasDatasLimiteEPaginaDentroDele() {
+        LocalDate inicio = LocalDate.of(2025, 1, 1);
+        LocalDate fim = LocalDate.of(2025, 1, 2);
+        FiltroConsulta periodo = new FiltroConsulta(null, inicio, fim);
+
+        List<Consulta> primeira = dao.listarConsultas(periodo, null, 0, 10);
+        Consulta ultima = primeira.get(primeira.size() - 1);
+        List<Consulta> segunda = dao.listarConsultas(periodo, ultima.getDataConsulta(), ultima.getIdConsulta(), 10);
+
+        // Dias 0 e 1 de cada ano de 365 consultas: 7 de cada data
+        assertEquals(10, primeira.size());
+        assertEquals(4, segunda.size());
+        assertEquals(fim, primeira.get(0).getDataConsulta());
+        assertEquals(inicio, segunda.get(3).getDataConsulta());
+        assertEquals(7, primeira.stream().filter(c -> c.getDataConsulta().equals(fim)).count());
+        assertEquals(1, (int) segunda.get(3).getIdConsulta());
+        assertTrue(dao.listarConsultas(new FiltroConsulta("Primeira", inicio, fim), null, 0, 10).isEmpty());
+        assertEquals(7, dao.listarConsultas(new FiltroConsulta("Retorno", fim, fim), null, 0, 10).size());
+    }
+
+    @Test
+    void consultasSemDataVemPrimeiroESaoPaginadasPeloId() throws Exception {
+        BancoTeste.executar(banco, "INSERT INTO CONSULTA VALUES (?, ?, ?, ?)",
+                new Object[]{3001, "Retorno", null, "Sem data"},
+                new Object[]{3002, "Retorno", null, "Sem data"});
+
+        List<Consulta> primeira = dao.listarConsultas(FiltroConsulta.VAZIO, null, 0, 1);
+        List<Consulta> segunda = dao.listarConsultas(FiltroConsulta.VAZIO, null, 3002, 2);
+
+        assertEquals(3002, (int) primeira.get(0).getIdConsulta());
+        assertEquals(3001, (int) segunda.get(0).getIdConsulta());
+        // A maior data do cadastro (dia 364) tem como último ID 2190
+        assertEquals(2190, (int) segunda.get(1).getIdConsulta());
+    }
+
+    @Test
+    void falhaAoVincularDesfazACadastroDaConsulta() {
+        Consulta consulta = new Consulta(null, "Retorno", LocalDate.of(2025, 6, 1), "Dor");
+        consulta.setProfissionais(List.of(new Profissional(999, "Inexistente", "Clínica", "Presencial", 9999)));
+
+        assertThrows(RuntimeException.class, () -> dao.cadastrarConsulta(consulta));
+        assertEquals(TOTAL_CONSULTAS, dao.listarConsultas().size());
+    }
+
+    @Test
+    void atualizarSemMudarProfissionaisNaoTocaNosVinculos() {
+        Consulta consulta = dao.buscarPorId(7);
+        consulta.setMotivoConsulta("Novo motivo");
+        contador.zerar();
+
+        dao.atualizarConsulta(consulta);
+
+        // update + leitura dos vínculos atuais, sem gravar em CONSULTA_PROFIS
+        assertEquals(2, contador.comandos.get());
+    }
+
+    @Test
+    void atualizarCalculaADiferencaComOsVinculosGravadosNaHora() throws Exception {
+        Consulta consulta = dao.buscarPorId(7);
+        assertEquals(2, consulta.getProfissionais().size());
+
+        // Outra requisição remove um vínculo depois que esta leu a consulta
+        int removido = consulta.getProfissionais().get(1).getId();
+        BancoTeste.executar(banco, "DELETE FROM CONSULTA_PROFIS WHERE fk_consulta = ? AND fk_profis = ?",
+                new Object[]{7, removido});
+
+        dao.atualizarConsulta(consulta);
+
+        assertEquals(2, dao.buscarPorId(7).getProfissionais().size());
+    }
+
+    @Test
+    void atualizarGravaSomenteADiferencaDosVinculos() {
+        Consulta consulta = dao.buscarPorId(7);
+        consulta.setProfissionais(new java.util.ArrayList<>(List.of(consulta.getProfissionais().get(0))));
+        contador.zerar();
+
+        dao.atualizarConsulta(consulta);
+
+        // update + leitura dos vínculos atuais + lote de exclusão (nenhuma inclusão)
+        assertEquals(3, contador.comandos.get());
+        assertEquals(1, dao.buscarPorId(7).getProfissionais().size());
+    }
+
+    @Test
+    void excluirRemoveVinculosEConsultaSemLeituraPrevia() {
+        contador.zerar();
+
+        assertTrue(dao.excluirConsulta(7));
+
+        // exclusão dos vínculos + exclusão da consulta
+        assertEquals(2, contador.comandos.get());
+        assertNull(dao.buscarPorId(7));
+        assertFalse(dao.excluirConsulta(7));
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.fiap.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DisjuntorTest {
+
+    private static final long MS = 1_000_000;
+
+    private final AtomicLong agora = new AtomicLong();
+    private final Disjuntor disjuntor = new Disjuntor(10, 4, 0.5, 0.5, 100 * MS, 1_000 * MS, 2, agora::get);
+
+    @Test
+    void abrePorFalhasETestaOBancoAposOTempoAberto() {
+        chamar(false, 10 * MS);
+        chamar(true, 10 * MS);
+        chamar(false, 10 * MS);
+        assertEquals(Disjuntor.Estado.FECHADO, disjuntor.getEstado());
+
+        chamar(true, 10 * MS);
+        assertEquals(Disjuntor.Estado.ABERTO, disjuntor.getEstado());
+        assertFalse(disjuntor.permitir());
+
+        agora.addAndGet(1_000 * MS);
+        assertTrue(disjuntor.permitir());
+        assertTrue(disjuntor.permitir());
+        assertFalse(disjuntor.permitir());
+        assertEquals(Disjuntor.Estado.SEMIABERTO, disjuntor.getEstado());
+
+        disjuntor.registrar(false, 10 * MS);
+        disjuntor.registrar(false, 10 * MS);
+        assertEquals(Disjuntor.Estado.FECHADO, disjuntor.getEstado());
+        assertEquals(0, disjuntor.getChamadasNaJanela());
+        assertEquals(1, disjuntor.getAberturas());
+        assertEquals(2, disjuntor.getRecusas());
+    }
+
+    @Test
+    void abrePorLentidaoEReabreSeOTesteFalhar() {
+        for (int i = 0; i < 4; i++) {
+            chamar(false, i % 2 == 0 ? 10 * MS : 200 * MS);
+        }
+        assertEquals(Disjuntor.Estado.ABERTO, disjuntor.getEstado());
+
+        agora.addAndGet(1_000 * MS);
+        assertTrue(disjuntor.permitir());
+        disjuntor.registrar(false, 200 * MS);
+        assertEquals(Disjuntor.Estado.ABERTO, disjuntor.getEstado());
+        assertEquals(2, disjuntor.getAberturas());
+    }
+
+    private void chamar(boolean falha, long nanos) {
+        assertTrue(disjuntor.permitir());
+        disjuntor.registrar(falha, nanos);
+    }
+}
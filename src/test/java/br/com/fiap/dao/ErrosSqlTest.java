@@ -0,0 +1,60 @@
+package br.com.fiap.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ErrosSqlTest {
+
+    @Test
+    void classificaFalhasTransitoriasPelaCausa() {
+        assertTrue(ErrosSql.transitoria(new RuntimeException("Erro ao buscar",
+                new SQLException("IO Error", "08006", 17002))));
+        assertTrue(ErrosSql.transitoria(new SQLException("ORA-00060: deadlock", "61000", 60)));
+        assertTrue(ErrosSql.transitoria(new SQLRecoverableException("conexão fechada")));
+
+        assertFalse(ErrosSql.transitoria(new SQLException("ORA-00001", "23000", 1)));
+        assertFalse(ErrosSql.transitoria(new SQLTimeoutException("prazo", "HYT00")));
+        assertFalse(ErrosSql.transitoria(new IllegalArgumentException("ID inválido")));
+
+        assertTrue(ErrosSql.falhaDoBanco(new RuntimeException(new SQLException("x", "08006"))));
+        assertFalse(ErrosSql.falhaDoBanco(new RuntimeException(new SQLException("x", "23505"))));
+    }
+
+    @Test
+    void violacaoDeUnicidadeSoContaParaARestricaoInformada() {
+        SQLException cpfOracle = new SQLException(
+                "ORA-00001: unique constraint (APP.UK_PACIENTE_CPF) violated", "23000", 1);
+        SQLException chavePrimariaOracle = new SQLException(
+                "ORA-00001: unique constraint (APP.SYS_C0012345) violated", "23000", 1);
+        SQLException cpfH2 = new SQLException("Unique index or primary key violation: "
+                + "\"PUBLIC.UK_PACIENTE_CPF ON PUBLIC.PACIENTE(CPF_PAC NULLS FIRST) VALUES ( /* 1 */ '111' )\"",
+                "23505", 23505);
+
+        assertTrue(ErrosSql.violacaoUnicidade(cpfOracle, PacienteDao.INDICE_CPF));
+        assertTrue(ErrosSql.violacaoUnicidade(cpfH2, PacienteDao.INDICE_CPF));
+        assertFalse(ErrosSql.violacaoUnicidade(chavePrimariaOracle, PacienteDao.INDICE_CPF));
+        assertFalse(ErrosSql.violacaoUnicidade(cpfOracle, ProfissionalDao.INDICE_CRM));
+        assertTrue(ErrosSql.violacaoUnicidade(chavePrimariaOracle));
+    }
+
+    @Test
+    void orcamentoLimitaNovasTentativasAUmaFracaoDasChamadas() {
+        OrcamentoRetentativas orcamento = new OrcamentoRetentativas(0.5, 2);
+        assertTrue(orcamento.retirar());
+        assertTrue(orcamento.retirar());
+        assertFalse(orcamento.retirar());
+
+        orcamento.registrarChamada();
+        orcamento.registrarChamada();
+        assertTrue(orcamento.retirar());
+        assertEquals(3, orcamento.getConcedidas());
+        assertEquals(1, orcamento.getNegadas());
+    }
+}
@@ -0,0 +1,302 @@
+package br.com.fiap.dao;
+
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.configuration.supplier.AgroalDataSourceConfigurationSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FonteConexoesTest {
+
+    private static final String SQL = "SELECT id_pac FROM PACIENTE WHERE idade_pac >= ?";
+
+    private DataSource banco;
+    private Connection fisica;
+    private FonteConexoes fonte;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        banco = BancoTeste.novoBanco("fonte" + System.nanoTime());
+        BancoTeste.executar(banco, "INSERT INTO PACIENTE VALUES (?, ?, ?, ?, ?, ?, ?)",
+                new Object[]{1, "Ana", 30, 1, "Presencial", "11111111111", "x"},
+                new Object[]{2, "Bruno", 40, 2, "Presencial", "22222222222", "x"});
+
+        fisica = banco.getConnection();
+        fonte = BancoTeste.fonte(poolDeUmaConexao(fisica));
+    }
+
+    @AfterEach
+    void encerrar() throws SQLException {
+        fisica.close();
+    }
+
+    @Test
+    void contabilizaPreparacoesExecucoesELinhasPorSql() throws SQLException {
+        assertEquals(2, contarPacientes(18));
+        assertEquals(1, contarPacientes(35));
+
+        EstatisticaComando estatistica = estatisticaDe(SQL);
+        assertEquals(2, estatistica.getPreparacoes());
+        assertEquals(2, estatistica.getExecucoes());
+        assertEquals(3, estatistica.getLinhas());
+        assertFalse(fisica.isClosed());
+    }
+
+    @Test
+    void comandosEConexoesVoltamAoPoolDoAgroal() throws SQLException {
+        String nome = "agroal" + System.nanoTime();
+        BancoTeste.novoBanco(nome);
+        try (AgroalDataSource pool = AgroalDataSource.from(new AgroalDataSourceConfigurationSupplier()
+                .metricsEnabled(true)
+                .connectionPoolConfiguration(conexoes -> conexoes
+                        .maxSize(1)
+                        .acquisitionTimeout(Duration.ofSeconds(1))
+                        .connectionFactoryConfiguration(fabrica -> fabrica
+                                .jdbcUrl("jdbc:h2:mem:" + nome + ";MODE=Oracle;DB_CLOSE_DELAY=-1"))))) {
+            FonteConexoes fontePool = BancoTeste.fonte(pool);
+
+            PreparedStatement esquecido;
+            try (Connection conexao = fontePool.obter()) {
+                esquecido = conexao.prepareStatement(SQL);
+                try (PreparedStatement fechado = conexao.prepareStatement(SQL)) {
+                    fechado.setInt(1, 0);
+                    fechado.executeQuery().close();
+                }
+                assertEquals(1, pool.getMetrics().activeCount());
+            }
+
+            // O Agroal recebe a conexão de volta e fecha o comando que ficou aberto
+            assertTrue(esquecido.isClosed());
+            assertEquals(0, pool.getMetrics().activeCount());
+
+            // Com uma única conexão no pool, a segunda requisição só a obtém se a primeira a devolveu
+            try (Connection conexao = fontePool.obter()) {
+                assertFalse(conexao.isClosed());
+            }
+            assertEquals(1, pool.getMetrics().creationCount());
+        }
+    }
+
+    @Test
+    void tamanhoDeFetchAcompanhaAsLinhasLidasPorExecucao() throws SQLException {
+        fonte.fetchMinimo = 1;
+        fonte.fetchMaximo = 100;
+
+        assertEquals(2, contarPacientes(18));
+        assertEquals(1, estatisticaDe(SQL).getTamanhoFetch());
+        assertEquals(2.0, estatisticaDe(SQL).getLinhasEstimadas());
+
+        assertEquals(1, contarPacientes(35));
+        assertEquals(3, estatisticaDe(SQL).getTamanhoFetch());
+        assertEquals(1.75, estatisticaDe(SQL).getLinhasEstimadas());
+    }
+
+    @Test
+    void comandoComPrazoEsgotadoFalhaSemExecutar() throws SQLException {
+        ContextoRequisicao.iniciar();
+        try {
+            ContextoRequisicao.definirPrazo(60_000);
+            assertEquals(2, contarPacientes(18));
+            assertFalse(ContextoRequisicao.prazoEsgotado());
+
+            ContextoRequisicao.definirPrazo(0);
+            assertThrows(SQLTimeoutException.class, () -> contarPacientes(18));
+            assertTrue(ContextoRequisicao.prazoEsgotado());
+        } finally {
+            ContextoRequisicao.encerrar();
+        }
+        assertEquals(1, estatisticaDe(SQL).getExecucoes());
+    }
+
+    @Test
+    void comandoLentoEhCanceladoNoPrazoSemAfetarOSeguinte() throws SQLException {
+        String lento = "SELECT COUNT(*) FROM SYSTEM_RANGE(1, 100000) a, SYSTEM_RANGE(1, 100000) b"
+                + " WHERE a.X + b.X = 0";
+        ContextoRequisicao.iniciar();
+        try {
+            ContextoRequisicao.definirPrazo(200);
+            long inicio = System.nanoTime();
+            try (Connection conexao = fonte.obter();
+                 PreparedStatement ps = conexao.prepareStatement(lento)) {
+                assertThrows(SQLTimeoutException.class, ps::executeQuery);
+            }
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) < 5_000);
+            assertTrue(ContextoRequisicao.prazoEsgotado());
+
+            // A mesma conexão física segue utilizável depois do cancelamento
+            ContextoRequisicao.definirPrazo(60_000);
+            assertEquals(2, contarPacientes(18));
+        } finally {
+            ContextoRequisicao.encerrar();
+        }
+    }
+
+    @Test
+    void cancelamentoAtrasadoNaoAtingeAExecucaoSeguinte() throws Exception {
+        AtomicInteger cancelamentos = new AtomicInteger();
+        PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (comando, metodo, args) -> {
+                    if (!metodo.getName().equals("cancel")) {
+                        throw new UnsupportedOperationException(metodo.getName());
+                    }
+                    cancelamentos.incrementAndGet();
+                    return null;
+                });
+
+        // Disparo que chega depois do fim da execução, já a caminho quando o agendamento foi cancelado
+        FonteConexoes.CancelamentoExecucao terminada = FonteConexoes.CancelamentoExecucao.agendar(ps,
+                TimeUnit.MINUTES.toNanos(1));
+        assertFalse(terminada.encerrar());
+        terminada.run();
+        assertEquals(0, cancelamentos.get());
+
+        // Durante a execução, o disparo chega ao driver
+        FonteConexoes.CancelamentoExecucao estourada = FonteConexoes.CancelamentoExecucao.agendar(ps, 0);
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cancelamentos.get() == 0 && System.nanoTime() < limite) {
+            Thread.sleep(1);
+        }
+        assertTrue(estourada.encerrar());
+        estourada.run();
+        assertEquals(1, cancelamentos.get());
+    }
+
+    @Test
+    void cancelamentoQueChegaAoFimDoComandoFalhaComoPrazoEsgotado() throws Exception {
+        CountDownLatch cancelada = new CountDownLatch(1);
+        AtomicInteger leiturasFechadas = new AtomicInteger();
+        ResultSet rs = (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (leitura, metodo, args) -> {
+                    if (!metodo.getName().equals("close")) {
+                        throw new UnsupportedOperationException(metodo.getName());
+                    }
+                    leiturasFechadas.incrementAndGet();
+                    return null;
+                });
+        // O comando termina normalmente logo depois de o cancelamento ser enviado
+        PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (comando, metodo, args) -> switch (metodo.getName()) {
+                    case "executeQuery" -> {
+                        if (!cancelada.await(10, TimeUnit.SECONDS)) {
+                            throw new IllegalStateException("Consulta não foi cancelada.");
+                        }
+                        yield rs;
+                    }
+                    case "cancel" -> {
+                        cancelada.countDown();
+                        yield null;
+                    }
+                    case "setFetchSize", "setQueryTimeout", "close" -> null;
+                    default -> throw new UnsupportedOperationException(metodo.getName());
+                });
+        Connection conexao = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (c, metodo, args) -> switch (metodo.getName()) {
+                    case "prepareStatement" -> ps;
+                    case "close" -> null;
+                    default -> throw new UnsupportedOperationException(metodo.getName());
+                });
+        FonteConexoes fonteLenta = BancoTeste.fonte(poolDeUmaConexao(conexao));
+
+        ContextoRequisicao.iniciarComPrazo(TimeUnit.MILLISECONDS.toNanos(50));
+        try (Connection c = fonteLenta.obter();
+             PreparedStatement comando = c.prepareStatement(SQL)) {
+            assertThrows(SQLTimeoutException.class, comando::executeQuery);
+            assertTrue(ContextoRequisicao.prazoEsgotado());
+        } finally {
+            ContextoRequisicao.encerrar();
+        }
+        assertEquals(1, leiturasFechadas.get());
+    }
+
+    @Test
+    void escopoCompartilhadoUsaUmaConexaoParaTodasAsChamadas() {
+        BancoTeste.Contador contador = new BancoTeste.Contador(banco);
+        FonteConexoes fonteContada = BancoTeste.fonte(contador.dataSource);
+        PacienteDao dao = new PacienteDao();
+        dao.conexoes = fonteContada;
+        dao.shards = new ShardsPaciente();
+
+        ContextoRequisicao.iniciar();
+        try (FonteConexoes.Escopo escopo = fonteContada.compartilhar()) {
+            try (FonteConexoes.Escopo aninhado = fonteContada.compartilhar()) {
+                assertEquals("Ana", dao.buscarPorId(1).getNome());
+            }
+            dao.excluirPaciente(1);
+            assertNull(dao.buscarPorId(1));
+        }
+        fonteContada.registrarRequisicao(ContextoRequisicao.encerrar());
+
+        assertEquals(1, contador.conexoes.get());
+        assertEquals(1, fonteContada.getMaximoConexoesPorRequisicao());
+    }
+
+    private int contarPacientes(int idadeMinima) throws SQLException {
+        int total = 0;
+        try (Connection conexao = fonte.obter();
+             PreparedStatement ps = conexao.prepareStatement(SQL)) {
+            ps.setInt(1, idadeMinima);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    total++;
+                }
+            }
+        }
+        return total;
+    }
+
+    private EstatisticaComando estatisticaDe(String sql) {
+        return fonte.estatisticas().stream()
+                .filter(e -> e.getSql().equals(sql))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Simula um pool com uma única conexão física: cada empréstimo é um invólucro novo,
+     * cujo {@code close()} apenas devolve a conexão.
+     */
+    private static DataSource poolDeUmaConexao(Connection fisica) {
+        return (DataSource) Proxy.newProxyInstance(
+                DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (ds, metodoDs, argsDs) -> {
+                    if (!metodoDs.getName().equals("getConnection")) {
+                        throw new UnsupportedOperationException(metodoDs.getName());
+                    }
+                    return Proxy.newProxyInstance(
+                            Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                            (conexao, metodo, args) -> switch (metodo.getName()) {
+                                case "close" -> null;
+                                default -> {
+                                    try {
+                                        yield metodo.invoke(fisica, args);
+                                    } catch (InvocationTargetException e) {
+                                        throw e.getCause();
+                                    }
+                                }
+                            });
+                });
+    }
+}
@@ -0,0 +1,121 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.models.Paciente;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GeradorIdsTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_POR_THREAD = 500;
+    private static final int INSERTS_POR_THREAD = 500;
+
+    @Test
+    void instanciasConcorrentesNuncaRepetemIds() throws Exception {
+        DataSource banco = BancoTeste.novoBanco("ids" + System.nanoTime());
+        GeradorIds noA = BancoTeste.geradorIds(banco, 50);
+        GeradorIds noB = BancoTeste.geradorIds(banco, 50);
+
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                GeradorIds no = t % 2 == 0 ? noA : noB;
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < IDS_POR_THREAD; i++) {
+                        ids.add(no.proximoId(GeradorIds.SEQ_PACIENTE));
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(THREADS * IDS_POR_THREAD, ids.size());
+    }
+
+    @Test
+    void cadaBlocoVemDeUmNextvalEInstanciasRecebemBlocosDiferentes() throws Exception {
+        DataSource banco = BancoTeste.novoBanco("idsBlocos" + System.nanoTime());
+        GeradorIds noA = BancoTeste.geradorIds(banco, 3);
+        GeradorIds noB = BancoTeste.geradorIds(banco, 3);
+
+        // SEQ_PACIENTE começa em 1: o primeiro bloco é 3..5, o segundo 6..8 e assim por diante
+        assertEquals(List.of(3, 4, 5), List.of(noA.proximoId(GeradorIds.SEQ_PACIENTE),
+                noA.proximoId(GeradorIds.SEQ_PACIENTE), noA.proximoId(GeradorIds.SEQ_PACIENTE)));
+        assertEquals(6, noB.proximoId(GeradorIds.SEQ_PACIENTE));
+        assertEquals(9, noA.proximoId(GeradorIds.SEQ_PACIENTE));
+        assertEquals(7, noB.proximoId(GeradorIds.SEQ_PACIENTE));
+
+        // Cada sequence tem os seus blocos
+        assertEquals(3, noA.proximoId(GeradorIds.SEQ_PROFISSIONAL));
+
+        try (var conexao = banco.getConnection();
+             var rs = conexao.createStatement().executeQuery("SELECT SEQ_PACIENTE.NEXTVAL FROM DUAL")) {
+            rs.next();
+            assertEquals(4, rs.getInt(1));
+        }
+    }
+
+    /**
+     * Benchmark de vazão de inserts concorrentes de pacientes com IDs vindos do gerador.
+     * Falha se algum insert colidir na chave primária.
+     *
+     * <p>Fica fora da execução padrão dos testes; para rodá-lo:
+     * {@code mvn test -Dtest=GeradorIdsTest -Dtestes.excluidos= -Dgroups=benchmark}.</p>
+     */
+    @Test
+    @Tag("benchmark")
+    void vazaoDeInsertsConcorrentes() throws Exception {
+        DataSource banco = BancoTeste.novoBanco("idsVazao" + System.nanoTime());
+        PacienteDao dao = new PacienteDao();
+        dao.conexoes = BancoTeste.fonte(banco);
+        dao.shards = new ShardsPaciente();
+        dao.geradorIds = BancoTeste.geradorIds(banco, 50);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long inicio = System.nanoTime();
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < INSERTS_POR_THREAD; i++) {
+                        String cpf = String.format("%05d%06d", thread, i);
+                        dao.cadastrarPaciente(new Paciente(null, "Paciente " + cpf, 30, 5, "Presencial", cpf, "hash"));
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        int total = THREADS * INSERTS_POR_THREAD;
+        System.out.printf("%d inserts concorrentes em %.2fs (%.0f inserts/s)%n", total, segundos, total / segundos);
+
+        try (var conexao = banco.getConnection();
+             var rs = conexao.createStatement().executeQuery("SELECT COUNT(DISTINCT id_pac) FROM PACIENTE")) {
+            rs.next();
+            assertEquals(total, rs.getInt(1));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.models.Consulta;
+import br.com.fiap.models.Paciente;
+import br.com.fiap.models.Profissional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MapeadorLinhasTest {
+
+    private DataSource banco;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        banco = BancoTeste.novoBanco("mapeador" + System.nanoTime());
+    }
+
+    @Test
+    void colunasSaoTodasAsDaTabelaNaOrdemDoEsquema() throws SQLException {
+        assertEquals(colunasDaTabela("PACIENTE"), MapeadorLinhas.COLUNAS_PACIENTE);
+        assertEquals(colunasDaTabela("PROFISSIONAL"), MapeadorLinhas.COLUNAS_PROFISSIONAL);
+        assertEquals(colunasDaTabela("CONSULTA"), MapeadorLinhas.COLUNAS_CONSULTA);
+        assertEquals("c.id_consulta, c.tipo_consulta, c.data_consulta, c.motivo_consulta",
+                MapeadorLinhas.comAlias(MapeadorLinhas.COLUNAS_CONSULTA, "c."));
+    }
+
+    @Test
+    void mapeiaPacienteComColunasNulas() throws SQLException {
+        BancoTeste.executar(banco, "INSERT INTO PACIENTE VALUES (?, ?, ?, ?, ?, ?, ?)",
+                new Object[]{1, "Ana", 30, 2, "Presencial", "11111111111", "hash"},
+                new Object[]{2, "Bruno", null, null, null, "22222222222", null});
+
+        List<Paciente> pacientes = ler("SELECT " + MapeadorLinhas.COLUNAS_PACIENTE + " FROM PACIENTE ORDER BY id_pac",
+                MapeadorLinhas::paciente);
+
+        Paciente ana = pacientes.get(0);
+        assertEquals(1, (int) ana.getId());
+        assertEquals("Ana", ana.getNome());
+        assertEquals(30, (int) ana.getIdade());
+        assertEquals(2, (int) ana.getNivelTecnico());
+        assertEquals("Presencial", ana.getTipoAtendimento());
+        assertEquals("11111111111", ana.getCpf());
+        assertEquals("hash", ana.getSenha());
+
+        Paciente bruno = pacientes.get(1);
+        assertNull(bruno.getIdade());
+        assertNull(bruno.getNivelTecnico());
+        assertNull(bruno.getTipoAtendimento());
+        assertNull(bruno.getSenha());
+    }
+
+    @Test
+    void mapeiaProfissionalAPartirDeQualquerPosicao() throws SQLException {
+        BancoTeste.executar(banco, "INSERT INTO PROFISSIONAL VALUES (?, ?, ?, ?, ?)",
+                new Object[]{7, "Carla", null, "Teleconsulta", 123456});
+
+        Profissional sozinho = ler("SELECT " + MapeadorLinhas.COLUNAS_PROFISSIONAL + " FROM PROFISSIONAL",
+                MapeadorLinhas::profissional).get(0);
+        Profissional deslocado = ler("SELECT 0, " + MapeadorLinhas.COLUNAS_PROFISSIONAL + " FROM PROFISSIONAL",
+                rs -> MapeadorLinhas.profissional(rs, 2)).get(0);
+
+        for (Profissional profissional : List.of(sozinho, deslocado)) {
+            assertEquals(7, (int) profissional.getId());
+            assertEquals("Carla", profissional.getNome());
+            assertNull(profissional.getEspecialidade());
+            assertEquals("Teleconsulta", profissional.getTipoAtendimento());
+            assertEquals(123456, (int) profissional.getCrm());
+        }
+    }
+
+    @Test
+    void mapeiaConsultaComDataNula() throws SQLException {
+        BancoTeste.executar(banco, "INSERT INTO CONSULTA VALUES (?, ?, ?, ?)",
+                new Object[]{1, "Retorno", Date.valueOf(LocalDate.of(2024, 3, 15)), "Dor"},
+                new Object[]{2, null, null, null});
+
+        List<Consulta> consultas = ler("SELECT " + MapeadorLinhas.COLUNAS_CONSULTA
+                + " FROM CONSULTA ORDER BY id_consulta", MapeadorLinhas::consulta);
+
+        Consulta retorno = consultas.get(0);
+        assertEquals(1, (int) retorno.getIdConsulta());
+        assertEquals("Retorno", retorno.getTipoConsulta());
+        assertEquals(LocalDate.of(2024, 3, 15), retorno.getDataConsulta());
+        assertEquals("Dor", retorno.getMotivoConsulta());
+
+        Consulta vazia = consultas.get(1);
+        assertEquals(2, (int) vazia.getIdConsulta());
+        assertNull(vazia.getTipoConsulta());
+        assertNull(vazia.getDataConsulta());
+        assertNull(vazia.getMotivoConsulta());
+    }
+
+    private interface Mapeador<T> {
+        T mapear(ResultSet rs) throws SQLException;
+    }
+
+    private <T> List<T> ler(String sql, Mapeador<T> mapeador) throws SQLException {
+        List<T> lista = new ArrayList<>();
+        try (Connection conexao = banco.getConnection();
+             PreparedStatement ps = conexao.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                lista.add(mapeador.mapear(rs));
+            }
+        }
+        return lista;
+    }
+
+    /**
+     * Colunas da tabela na ordem de criação, no formato das constantes {@code COLUNAS_*}.
+     */
+    private String colunasDaTabela(String tabela) throws SQLException {
+        List<String> colunas = new ArrayList<>();
+        try (Connection conexao = banco.getConnection();
+             ResultSet rs = conexao.getMetaData().getColumns(null, null, tabela, null)) {
+            while (rs.next()) {
+                colunas.add(rs.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+            }
+        }
+        return String.join(", ", colunas);
+    }
+}
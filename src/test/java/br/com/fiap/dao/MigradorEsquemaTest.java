@@ -0,0 +1,126 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.models.Paciente;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MigradorEsquemaTest {
+
+    private DataSource banco;
+    private MigradorEsquema migrador;
+
+    @BeforeEach
+    void preparar() {
+        banco = BancoTeste.bancoVazio("migracoes" + System.nanoTime());
+        migrador = new MigradorEsquema();
+        migrador.conexoes = BancoTeste.fonte(banco);
+        migrador.tamanhoBloco = 50;
+    }
+
+    @Test
+    void criaTabelasSequencesEIndicesDasConsultasFrequentes() throws SQLException {
+        assertEquals(MigradorEsquema.MIGRACOES.size(), migrador.migrar());
+
+        try (Connection conexao = banco.getConnection()) {
+            DatabaseMetaData meta = conexao.getMetaData();
+            for (String tabela : List.of("PACIENTE", "PROFISSIONAL", "CONSULTA", "CONSULTA_PROFIS",
+                    "CONSULTA_ARQ", "CONSULTA_PROFIS_ARQ", "SCHEMA_VERSAO")) {
+                try (ResultSet rs = meta.getTables(null, null, tabela, null)) {
+                    assertTrue(rs.next(), "Tabela ausente: " + tabela);
+                }
+            }
+
+            Map<String, String> pacientes = indices(meta, "PACIENTE");
+            assertEquals("CPF_PAC", pacientes.get("UK_PACIENTE_CPF"));
+            assertEquals("NOME_PAC", pacientes.get("IX_PACIENTE_NOME"));
+            assertEquals("CRM_PROFISSIONAL", indices(meta, "PROFISSIONAL").get("UK_PROFISSIONAL_CRM"));
+            assertEquals("DATA_CONSULTA", indices(meta, "CONSULTA").get("IX_CONSULTA_DATA"));
+            assertEquals("FK_PROFIS", indices(meta, "CONSULTA_PROFIS").get("IX_CONSULTA_PROFIS_PROFIS"));
+        }
+
+        // As sequences usadas pelo GeradorIds existem
+        assertEquals(1, BancoTeste.geradorIds(banco, 1).proximoId(GeradorIds.SEQ_CONSULTA));
+    }
+
+    @Test
+    void segundaExecucaoNaoReaplicaMigracoes() {
+        migrador.migrar();
+
+        assertEquals(0, migrador.migrar());
+    }
+
+    @Test
+    void adotaBancoCriadoAntesDoControleDeVersao() throws SQLException {
+        BancoTeste.executar(banco, """
+            CREATE TABLE PACIENTE (
+                id_pac NUMBER(10) PRIMARY KEY, nome_pac VARCHAR2(50), idade_pac NUMBER(3),
+                nivel_tec NUMBER(2), tipo_atendimento VARCHAR2(30), cpf_pac VARCHAR2(11), senha_pac VARCHAR2(100))
+        """);
+        // IDs gerados antes por MAX(id) + 1, incluindo os primeiros do bloco que a sequence nova reservaria
+        BancoTeste.executar(banco, "INSERT INTO PACIENTE VALUES (?, ?, ?, ?, ?, ?, ?)",
+                new Object[]{1, "Ana", 30, 1, "Presencial", "11111111111", "x"},
+                new Object[]{50, "Bruno", 40, 2, "Presencial", "22222222222", "x"},
+                new Object[]{120, "Carla", 50, 3, "Teleconsulta", "33333333333", "x"});
+
+        assertEquals(MigradorEsquema.MIGRACOES.size(), migrador.migrar());
+
+        try (Connection conexao = banco.getConnection()) {
+            assertEquals("CPF_PAC", indices(conexao.getMetaData(), "PACIENTE").get("UK_PACIENTE_CPF"));
+        }
+
+        PacienteDao dao = new PacienteDao();
+        dao.conexoes = BancoTeste.fonte(banco);
+        dao.shards = new ShardsPaciente();
+        dao.geradorIds = BancoTeste.geradorIds(banco, 50);
+        Paciente novo = new Paciente(0, "Daniel", 20, 1, "Presencial", "44444444444", "x");
+        dao.cadastrarPaciente(novo);
+
+        assertTrue(novo.getId() > 120, "ID gerado abaixo dos existentes: " + novo.getId());
+        assertEquals("Daniel", dao.buscarPorId(novo.getId()).getNome());
+        assertEquals("Bruno", dao.buscarPorId(50).getNome());
+    }
+
+    @Test
+    void indiceUnicoSoEDadoComoExistenteSeAsColunasJaForemUnicas() throws SQLException {
+        BancoTeste.executar(banco, "CREATE TABLE T (a NUMBER(10), b NUMBER(10))");
+        BancoTeste.executar(banco, "CREATE INDEX IX_T_A ON T (a)");
+        SQLException jaIndexadas = new SQLException("ORA-01408: such column list already indexed", "72000", 1408);
+
+        try (Connection conexao = banco.getConnection()) {
+            assertFalse(MigradorEsquema.jaAplicado(conexao, "CREATE UNIQUE INDEX UK_T_A ON T (a)", jaIndexadas));
+            assertTrue(MigradorEsquema.jaAplicado(conexao, "CREATE INDEX IX_T_A2 ON T (a)", jaIndexadas));
+
+            BancoTeste.executar(banco, "CREATE UNIQUE INDEX UK_T_AB ON T (b, a)");
+            assertTrue(MigradorEsquema.jaAplicado(conexao, "CREATE UNIQUE INDEX UK_T_AB2 ON T (a, b)", jaIndexadas));
+            assertFalse(MigradorEsquema.jaAplicado(conexao, "CREATE UNIQUE INDEX UK_T_A ON T (a)", jaIndexadas));
+        }
+    }
+
+    /**
+     * Nome de cada índice da tabela associado à sua primeira coluna.
+     */
+    private static Map<String, String> indices(DatabaseMetaData meta, String tabela) throws SQLException {
+        Map<String, String> indices = new HashMap<>();
+        try (ResultSet rs = meta.getIndexInfo(null, null, tabela, false, false)) {
+            while (rs.next()) {
+                if (rs.getShort("ORDINAL_POSITION") == 1) {
+                    indices.put(rs.getString("INDEX_NAME"), rs.getString("COLUMN_NAME"));
+                }
+            }
+        }
+        return indices;
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.dao.memoria.PacienteRepositorioMemoria;
+import br.com.fiap.models.Paciente;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PacienteDaoTest {
+
+    private static final String[] NOMES = {"Carla", "Ana", "Bruno", null, "Ana", "Diego", "Elisa", null, "Bruno",
+            "Fábio"};
+    private static final String[] TIPOS = {"Presencial", "Teleconsulta", "Presencial", "Presencial", "Presencial",
+            "Teleconsulta", "Presencial", "Teleconsulta", "Teleconsulta", "Presencial"};
+
+    private PacienteDao dao;
+    private PacienteRepositorioMemoria memoria;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        DataSource banco = BancoTeste.novoBanco("pacientes" + System.nanoTime());
+
+        dao = new PacienteDao();
+        dao.conexoes = BancoTeste.fonte(banco);
+        dao.geradorIds = BancoTeste.geradorIds(banco, 50);
+        dao.shards = new ShardsPaciente();
+        memoria = new PacienteRepositorioMemoria();
+
+        for (int i = 0; i < NOMES.length; i++) {
+            String cpf = String.format("%011d", i + 1);
+            dao.cadastrarPaciente(new Paciente(null, NOMES[i], 30, 1, TIPOS[i], cpf, "hash"));
+            memoria.cadastrarPaciente(new Paciente(null, NOMES[i], 30, 1, TIPOS[i], cpf, "hash"));
+        }
+    }
+
+    @Test
+    void filtroPorTipoDeAtendimentoPaginaDentroDoFiltro() {
+        FiltroPaciente presenciais = new FiltroPaciente("Presencial");
+
+        List<Paciente> primeira = dao.listarPacientes(presenciais, null, 0, 3);
+        Paciente ultimo = primeira.get(2);
+        List<Paciente> segunda = dao.listarPacientes(presenciais, ultimo.getNome(), ultimo.getId(), 3);
+
+        assertEquals(List.of("Ana", "Bruno", "Carla"), nomes(primeira));
+        assertEquals(Arrays.asList("Elisa", "Fábio", null), nomes(segunda));
+        assertTrue(primeira.stream().allMatch(p -> p.getTipoAtendimento().equals("Presencial")));
+
+        // Depois de um paciente sem nome, seguem só os sem nome de ID maior
+        Paciente semNome = segunda.get(2);
+        assertTrue(dao.listarPacientes(presenciais, null, semNome.getId(), 3).isEmpty());
+        List<Paciente> semNomes = dao.listarPacientes(FiltroPaciente.VAZIO, null, semNome.getId() - 1, 3);
+        assertEquals(Arrays.asList(null, null), nomes(semNomes));
+        assertTrue(dao.listarPacientes(new FiltroPaciente("Domiciliar"), null, 0, 10).isEmpty());
+    }
+
+    @Test
+    void atualizarParaCpfDeOutroPacienteERecusado() {
+        Paciente primeiro = dao.listarPacientes(FiltroPaciente.VAZIO, null, 0, 1).get(0);
+        String cpfOriginal = primeiro.getCpf();
+        String cpfDeOutro = cpfOriginal.equals("00000000001") ? "00000000002" : "00000000001";
+        Paciente alteracoes = new Paciente();
+        alteracoes.setId(primeiro.getId());
+        alteracoes.setCpf(cpfDeOutro);
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> dao.atualizarPaciente(alteracoes));
+
+        assertEquals("CPF já cadastrado.", erro.getMessage());
+        assertEquals(cpfOriginal, dao.buscarPorId(primeiro.getId()).getCpf());
+    }
+
+    @Test
+    void loteComCpfJaCadastradoERecusadoSemGravarNenhum() {
+        Paciente novo = new Paciente(null, "Novo", 30, 1, "Presencial", "00000000077", "hash");
+        Paciente repetido = new Paciente(null, "Repetido", 30, 1, "Presencial", "00000000001", "hash");
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> dao.cadastrarPacientes(List.of(novo, repetido)));
+
+        assertEquals("CPF já cadastrado.", erro.getMessage());
+        assertNull(dao.buscarPorCpf("00000000077"));
+    }
+
+    @Test
+    void memoriaFiltraEPaginaComoOBanco() {
+        for (FiltroPaciente filtro : List.of(FiltroPaciente.VAZIO, new FiltroPaciente("Presencial"),
+                new FiltroPaciente("Teleconsulta"), new FiltroPaciente("Domiciliar"))) {
+            assertEquals(paginas(dao, filtro), paginas(memoria, filtro), String.valueOf(filtro));
+        }
+    }
+
+    /**
+     * Percorre todas as páginas de tamanho 2 e devolve os pacientes como "nome/CPF", na ordem entregue.
+     */
+    private static List<String> paginas(PacienteRepositorio repositorio, FiltroPaciente filtro) {
+        List<String> vistos = new ArrayList<>();
+        String nomeApos = null;
+        int idApos = 0;
+        List<Paciente> pagina;
+        do {
+            pagina = repositorio.listarPacientes(filtro, nomeApos, idApos, 2);
+            for (Paciente paciente : pagina) {
+                vistos.add(paciente.getNome() + "/" + paciente.getCpf());
+                nomeApos = paciente.getNome();
+                idApos = paciente.getId();
+            }
+        } while (pagina.size() == 2);
+        return vistos;
+    }
+
+    private static List<String> nomes(List<Paciente> pacientes) {
+        return pacientes.stream().map(Paciente::getNome).toList();
+    }
+}
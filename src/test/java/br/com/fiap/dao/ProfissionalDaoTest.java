@@ -0,0 +1,136 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.models.Profissional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProfissionalDaoTest {
+
+    private DataSource banco;
+    private ProfissionalDao dao;
+    private BancoTeste.Contador contador;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        banco = BancoTeste.novoBanco("profissionais" + System.nanoTime());
+        BancoTeste.executar(banco, "INSERT INTO PROFISSIONAL VALUES (?, ?, ?, ?, ?)",
+                new Object[]{1, "Ana", "Pediatria", "Presencial", 1111},
+                new Object[]{2, "Bruno", "Ortopedia", "Teleconsulta", 2222});
+        BancoTeste.executar(banco, "ALTER SEQUENCE SEQ_PROFISSIONAL RESTART WITH 100");
+
+        contador = new BancoTeste.Contador(banco);
+        dao = new ProfissionalDao();
+        dao.conexoes = BancoTeste.fonte(contador.dataSource);
+        dao.geradorIds = BancoTeste.geradorIds(banco, 50);
+    }
+
+    @Test
+    void upsertPorCrmSeparaInseridosAtualizadosEInalterados() {
+        List<Profissional> recebidos = List.of(
+                new Profissional(0, "Ana", "Pediatria", "Presencial", 1111),
+                new Profissional(0, "Bruno", "Cardiologia", "Teleconsulta", 2222),
+                new Profissional(0, "Carla", "Neurologia", "Presencial", 3333));
+
+        ResultadoUpsert resultado = dao.upsertPorCrm(recebidos);
+
+        assertEquals(1, resultado.getInseridos());
+        assertEquals(1, resultado.getAtualizados());
+        assertEquals(1, resultado.getInalterados());
+
+        // 1 SELECT por CRM + 1 lote de MERGE, na mesma conexão
+        assertEquals(1, contador.conexoes.get());
+        assertEquals(2, contador.comandos.get());
+
+        assertEquals("Cardiologia", dao.buscarPorCrm(2222).getEspecialidade());
+        assertEquals(recebidos.get(2).getId(), dao.buscarPorCrm(3333).getId());
+        assertEquals(1, (int) recebidos.get(0).getId());
+    }
+
+    @Test
+    void atualizacaoParcialDevolveEstadoGravadoSemLeituraPrevia() {
+        Profissional alteracoes = new Profissional();
+        alteracoes.setId(2);
+        alteracoes.setTipoAtendimento("Presencial");
+
+        Profissional atualizado = dao.atualizarProfissional(alteracoes);
+
+        assertEquals("Bruno", atualizado.getNome());
+        assertEquals("Ortopedia", atualizado.getEspecialidade());
+        assertEquals("Presencial", atualizado.getTipoAtendimento());
+        assertEquals(2222, (int) atualizado.getCrm());
+        // Sem RETURNING (H2), o estado é relido na mesma conexão do UPDATE
+        assertEquals(1, contador.conexoes.get());
+    }
+
+    @Test
+    void atualizacaoEExclusaoDeIdInexistenteNaoEncontramLinha() {
+        Profissional alteracoes = new Profissional();
+        alteracoes.setId(99);
+        alteracoes.setNome("Ninguém");
+
+        assertNull(dao.atualizarProfissional(alteracoes));
+        assertFalse(dao.excluirProfissional(99));
+    }
+
+    @Test
+    void listagemFiltradaPaginaPorCursorDentroDoFiltro() throws Exception {
+        BancoTeste.executar(banco, "INSERT INTO PROFISSIONAL VALUES (?, ?, ?, ?, ?)",
+                new Object[]{3, "Carla", "Pediatria", "Teleconsulta", 3333},
+                new Object[]{4, "Ana", "Pediatria", "Teleconsulta", 4444});
+        FiltroProfissional pediatras = new FiltroProfissional("Pediatria", null);
+
+        List<Profissional> primeira = dao.listarProfissionais(pediatras, null, 0, 2);
+        assertEquals(List.of(1, 4), primeira.stream().map(Profissional::getId).toList());
+
+        Profissional ultimo = primeira.get(1);
+        List<Profissional> segunda = dao.listarProfissionais(pediatras, ultimo.getNome(), ultimo.getId(), 2);
+        assertEquals(List.of(3), segunda.stream().map(Profissional::getId).toList());
+
+        List<Profissional> combinados = dao.listarProfissionais(
+                new FiltroProfissional("Pediatria", "Teleconsulta"), null, 0, 10);
+        assertEquals(List.of(4, 3), combinados.stream().map(Profissional::getId).toList());
+    }
+
+    @Test
+    void colisaoDeChavePrimariaNaoEReportadaComoCrmRepetido() throws Exception {
+        // Próximo ID da sequence (bloco 1, RESTART WITH 100) já ocupado
+        dao.geradorIds = BancoTeste.geradorIds(banco, 1);
+        BancoTeste.executar(banco, "INSERT INTO PROFISSIONAL VALUES (?, ?, ?, ?, ?)",
+                new Object[]{100, "Diego", "Neurologia", "Presencial", 5555});
+
+        RuntimeException erro = assertThrows(RuntimeException.class,
+                () -> dao.cadastrarProfissional(new Profissional(0, "Carla", "Neurologia", "Presencial", 3333)));
+
+        assertFalse(erro instanceof IllegalArgumentException, erro.getMessage());
+    }
+
+    @Test
+    void crmRepetidoERecusadoPeloIndiceUnicoSemConsultaPrevia() {
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> dao.cadastrarProfissional(new Profissional(0, "Carla", "Neurologia", "Presencial", 1111)));
+
+        assertEquals("Já existe um profissional com esse CRM.", erro.getMessage());
+        assertEquals(1, contador.comandos.get());
+    }
+
+    @Test
+    void atualizarParaCrmDeOutroProfissionalERecusado() {
+        Profissional alteracoes = new Profissional();
+        alteracoes.setId(2);
+        alteracoes.setCrm(1111);
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> dao.atualizarProfissional(alteracoes));
+
+        assertEquals("Já existe um profissional com esse CRM.", erro.getMessage());
+        assertEquals(2222, (int) dao.buscarPorId(2).getCrm());
+    }
+}
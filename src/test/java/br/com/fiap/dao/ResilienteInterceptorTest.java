@@ -0,0 +1,269 @@
+package br.com.fiap.dao;
+
+import jakarta.interceptor.InvocationContext;
+import org.eclipse.microprofile.config.spi.ConfigProviderResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResilienteInterceptorTest {
+
+    private ResilienciaBanco resiliencia;
+    private ResilienteInterceptor interceptor;
+
+    @BeforeEach
+    void preparar() {
+        resiliencia = new ResilienciaBanco();
+        resiliencia.config = ConfigProviderResolver.instance().getBuilder().build();
+        resiliencia.habilitada = true;
+        resiliencia.maximoConcorrente = 1;
+        resiliencia.janela = 4;
+        resiliencia.minimoChamadas = 2;
+        resiliencia.taxaFalhas = 0.5;
+        resiliencia.taxaLentas = 1;
+        resiliencia.limiteLentoMs = 60_000;
+        resiliencia.abertoMs = 60_000;
+        resiliencia.chamadasTeste = 1;
+        resiliencia.maximoTentativas = 3;
+        resiliencia.esperaInicialMs = 1;
+        resiliencia.esperaMaximaMs = 1;
+        resiliencia.proporcaoRetentativas = 0.1;
+        resiliencia.saldoMaximoRetentativas = 10;
+        resiliencia.iniciar();
+
+        interceptor = new ResilienteInterceptor();
+        interceptor.resiliencia = resiliencia;
+        interceptor.fonteConexoes = new FonteConexoes();
+
+        ContextoRequisicao.iniciar();
+    }
+
+    @AfterEach
+    void encerrar() {
+        ContextoRequisicao.encerrar();
+    }
+
+    @Test
+    void recusaChamadasAlemDoLimiteDoCompartimento() throws Exception {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> ocupada = executor.submit(() -> interceptor.proteger(chamada("gravar", () -> {
+                dentro.countDown();
+                liberar.await();
+                return "gravado";
+            })));
+            assertTrue(dentro.await(5, TimeUnit.SECONDS));
+
+            AtomicInteger execucoes = new AtomicInteger();
+            assertThrows(BancoIndisponivelException.class,
+                    () -> interceptor.proteger(chamada("gravar", execucoes::incrementAndGet)));
+            assertEquals(0, execucoes.get());
+            assertTrue(ContextoRequisicao.recusada());
+
+            liberar.countDown();
+            assertEquals("gravado", ocupada.get(5, TimeUnit.SECONDS));
+        } finally {
+            liberar.countDown();
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, resiliencia.compartimento("teste").getRecusas());
+        assertEquals(0, resiliencia.compartimento("teste").getEmUso());
+    }
+
+    @Test
+    void abreODisjuntorComFalhasDoBancoMasNaoComErrosDeValidacao() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalArgumentException.class, () -> interceptor.proteger(chamada("gravar", () -> {
+                throw new IllegalArgumentException("CPF inválido.");
+            })));
+        }
+        assertEquals(Disjuntor.Estado.FECHADO, resiliencia.getDisjuntor().getEstado());
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(RuntimeException.class, () -> interceptor.proteger(chamada("gravar", () -> {
+                throw new RuntimeException("Erro ao gravar", new SQLException("ORA-03113", "08006", 3113));
+            })));
+        }
+        assertEquals(Disjuntor.Estado.ABERTO, resiliencia.getDisjuntor().getEstado());
+
+        AtomicInteger execucoes = new AtomicInteger();
+        assertThrows(BancoIndisponivelException.class,
+                () -> interceptor.proteger(chamada("gravar", execucoes::incrementAndGet)));
+        assertEquals(0, execucoes.get());
+        assertTrue(ContextoRequisicao.recusada());
+    }
+
+    @Test
+    void repeteLeituraComFalhaTransitoriaAteDarCerto() throws Exception {
+        AtomicInteger tentativas = new AtomicInteger();
+
+        Object resultado = interceptor.proteger(chamada("ler", () -> {
+            if (tentativas.incrementAndGet() == 1) {
+                throw falhaTransitoria();
+            }
+            return "lido";
+        }));
+
+        assertEquals("lido", resultado);
+        assertEquals(2, tentativas.get());
+        assertEquals(1, resiliencia.getOrcamento().getConcedidas());
+    }
+
+    @Test
+    void naoRepeteGravacoesNemErrosPermanentes() {
+        AtomicInteger tentativas = new AtomicInteger();
+
+        assertThrows(RuntimeException.class, () -> interceptor.proteger(chamada("gravar", () -> {
+            tentativas.incrementAndGet();
+            throw falhaTransitoria();
+        })));
+        assertEquals(1, tentativas.get());
+
+        assertThrows(RuntimeException.class, () -> interceptor.proteger(chamada("ler", () -> {
+            tentativas.incrementAndGet();
+            throw new RuntimeException("Erro ao ler", new SQLException("ORA-00001", "23000", 1));
+        })));
+        assertEquals(2, tentativas.get());
+        assertEquals(0, resiliencia.getOrcamento().getConcedidas());
+    }
+
+    @Test
+    void naoRepeteDentroDeEscopoCompartilhado() {
+        AtomicInteger tentativas = new AtomicInteger();
+
+        try (FonteConexoes.Escopo escopo = interceptor.fonteConexoes.compartilhar()) {
+            assertThrows(RuntimeException.class, () -> interceptor.proteger(chamada("ler", () -> {
+                tentativas.incrementAndGet();
+                throw falhaTransitoria();
+            })));
+        }
+
+        assertEquals(1, tentativas.get());
+    }
+
+    @Test
+    void paraDeRepetirQuandoOOrcamentoSeEsgota() {
+        resiliencia.janela = 20;
+        resiliencia.minimoChamadas = 20;
+        resiliencia.proporcaoRetentativas = 0;
+        resiliencia.saldoMaximoRetentativas = 1;
+        resiliencia.iniciar();
+        AtomicInteger tentativas = new AtomicInteger();
+
+        // A primeira chamada gasta o único saldo na segunda tentativa; dali em diante não há novas tentativas
+        for (int i = 0; i < 2; i++) {
+            assertThrows(RuntimeException.class, () -> interceptor.proteger(chamada("ler", () -> {
+                tentativas.incrementAndGet();
+                throw falhaTransitoria();
+            })));
+        }
+
+        assertEquals(3, tentativas.get());
+        assertEquals(1, resiliencia.getOrcamento().getConcedidas());
+        assertEquals(2, resiliencia.getOrcamento().getNegadas());
+    }
+
+    @Test
+    void paraDeRepetirQuandoAEsperaNaoCabeNoPrazo() {
+        ContextoRequisicao.definirPrazo(0);
+        AtomicInteger tentativas = new AtomicInteger();
+
+        assertThrows(RuntimeException.class, () -> interceptor.proteger(chamada("ler", () -> {
+            tentativas.incrementAndGet();
+            throw falhaTransitoria();
+        })));
+
+        assertEquals(1, tentativas.get());
+        assertEquals(0, resiliencia.getOrcamento().getConcedidas());
+    }
+
+    @Test
+    void chamadaAninhadaPassaPelaProtecaoDoProprioCompartimento() throws Exception {
+        Object resultado = interceptor.proteger(chamada("gravar", () -> {
+            // Outro DAO chamado de dentro: ocupa a vaga do seu compartimento
+            Object aninhada = interceptor.proteger(chamada(OutroDaoTeste.class, "gravar",
+                    () -> resiliencia.compartimento("outro").getEmUso()));
+            assertEquals(1, aninhada);
+
+            // O mesmo DAO chamado de dentro não é liberado: o limite de "teste" é uma chamada
+            assertThrows(BancoIndisponivelException.class,
+                    () -> interceptor.proteger(chamada("ler", () -> "lido")));
+            return "gravado";
+        }));
+
+        assertEquals("gravado", resultado);
+        assertEquals(1, resiliencia.compartimento("teste").getRecusas());
+        assertEquals(0, resiliencia.compartimento("teste").getEmUso());
+        assertEquals(0, resiliencia.compartimento("outro").getEmUso());
+    }
+
+    /** Erro como o que os DAOs lançam quando a conexão com o banco cai. */
+    private static RuntimeException falhaTransitoria() {
+        return new RuntimeException("Erro ao ler", new SQLException("ORA-03113", "08006", 3113));
+    }
+
+    /**
+     * DAO de teste: só os métodos e as anotações importam para o interceptador.
+     */
+    @Resiliente("teste")
+    static class DaoTeste {
+
+        @Repetivel
+        void ler() {}
+
+        void gravar() {}
+    }
+
+    @Resiliente("outro")
+    static class OutroDaoTeste {
+
+        void gravar() {}
+    }
+
+    /**
+     * Contexto de invocação do método de {@link DaoTeste} com o nome informado, que executa o corpo a cada
+     * {@code proceed()}.
+     */
+    static InvocationContext chamada(String nomeMetodo, Callable<Object> corpo) {
+        return chamada(DaoTeste.class, nomeMetodo, corpo);
+    }
+
+    static InvocationContext chamada(Class<?> dao, String nomeMetodo, Callable<Object> corpo) {
+        Method metodo = Arrays.stream(dao.getDeclaredMethods())
+                .filter(m -> m.getName().equals(nomeMetodo))
+                .findFirst()
+                .orElseThrow();
+        Map<String, Object> dados = new HashMap<>();
+        return new InvocationContext() {
+            @Override public Object getTarget() { return null; }
+            @Override public Object getTimer() { return null; }
+            @Override public Method getMethod() { return metodo; }
+            @Override public Constructor<?> getConstructor() { return null; }
+            @Override public Object[] getParameters() { return new Object[0]; }
+            @Override public void setParameters(Object[] parametros) {}
+            @Override public Map<String, Object> getContextData() { return dados; }
+            @Override public Object proceed() throws Exception { return corpo.call(); }
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.fiap.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RetencaoConsultasTest {
+
+    private DataSource banco;
+    private RetencaoConsultas retencao;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        banco = BancoTeste.novoBanco("retencao" + System.nanoTime());
+        BancoTeste.executar(banco, "INSERT INTO PROFISSIONAL VALUES (?, ?, ?, ?, ?)",
+                new Object[]{1, "Ana", "Pediatria", "Presencial", 1111});
+
+        // 25 consultas antigas e 5 recentes, cada uma com um profissional
+        LocalDate hoje = LocalDate.now();
+        Object[][] consultas = new Object[30][];
+        Object[][] vinculos = new Object[30][];
+        for (int i = 0; i < 30; i++) {
+            LocalDate data = i < 25 ? hoje.minusDays(1000 + i) : hoje.minusDays(i);
+            consultas[i] = new Object[]{i + 1, "Retorno", Date.valueOf(data), "Motivo " + (i + 1)};
+            vinculos[i] = new Object[]{i + 1, 1};
+        }
+        BancoTeste.executar(banco, "INSERT INTO CONSULTA VALUES (?, ?, ?, ?)", consultas);
+        BancoTeste.executar(banco, "INSERT INTO CONSULTA_PROFIS VALUES (?, ?)", vinculos);
+
+        retencao = new RetencaoConsultas();
+        retencao.conexoes = BancoTeste.fonte(banco);
+        retencao.horizonteDias = 730;
+        retencao.tamanhoLote = 10;
+        retencao.pausaMs = 0;
+    }
+
+    @Test
+    void arquivaConsultasAntigasEmLotesEContinuaDeOndeParou() throws Exception {
+        // Um lote isolado, como uma execução interrompida antes de terminar
+        assertEquals(10, retencao.arquivarLote(LocalDate.now().minusDays(730)));
+        assertEquals(20, contar("CONSULTA"));
+
+        assertEquals(15, retencao.executar());
+
+        assertEquals(5, contar("CONSULTA"));
+        assertEquals(5, contar("CONSULTA_PROFIS"));
+        assertEquals(25, contar("CONSULTA_ARQ"));
+        assertEquals(25, contar("CONSULTA_PROFIS_ARQ"));
+        assertEquals(25, retencao.getConsultasArquivadas());
+        assertEquals(3, retencao.getLotes());
+        assertEquals(LocalDate.now().minusDays(1000), retencao.getUltimaDataArquivada());
+
+        assertEquals(0, retencao.executar());
+    }
+
+    private int contar(String tabela) throws Exception {
+        try (Connection conexao = banco.getConnection();
+             PreparedStatement ps = conexao.prepareStatement("SELECT COUNT(*) FROM " + tabela);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
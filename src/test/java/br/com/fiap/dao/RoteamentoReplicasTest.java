@@ -0,0 +1,91 @@
+package br.com.fiap.dao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RoteamentoReplicasTest {
+
+    private PacienteDao dao;
+    private FonteConexoes fonte;
+    private List<BalanceadorReplicas.Replica> replicas;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        // Cada banco tem um paciente com nome diferente, para identificar quem atendeu a leitura
+        DataSource principal = bancoComPaciente("principal");
+        replicas = List.of(
+                new BalanceadorReplicas.Replica("replica1", bancoComPaciente("replica1")),
+                new BalanceadorReplicas.Replica("replica2", bancoComPaciente("replica2")));
+
+        fonte = BancoTeste.fonte(principal);
+        dao = new PacienteDao();
+        dao.conexoes = fonte;
+        dao.shards = new ShardsPaciente();
+        dao.geradorIds = BancoTeste.geradorIds(principal, 50);
+    }
+
+    @AfterEach
+    void encerrar() {
+        ContextoRequisicao.encerrar();
+    }
+
+    @Test
+    void semReplicasLeDoPrincipal() {
+        assertEquals("principal", lerNome());
+    }
+
+    @Test
+    void roundRobinAlternaEntreAsReplicas() {
+        fonte.replicas = new BalanceadorReplicas(replicas, BalanceadorReplicas.Estrategia.ROUND_ROBIN);
+
+        assertEquals("replica1", lerNome());
+        assertEquals("replica2", lerNome());
+        assertEquals("replica1", lerNome());
+    }
+
+    @Test
+    void menosPendentesEvitaReplicaOcupada() throws Exception {
+        fonte.replicas = new BalanceadorReplicas(replicas, BalanceadorReplicas.Estrategia.MENOS_PENDENTES);
+
+        try (Connection ocupada = fonte.obterLeitura()) {
+            String nomeOcupada = replicas.get(0).pendentes.get() == 1 ? "replica1" : "replica2";
+            String nomeLivre = nomeOcupada.equals("replica1") ? "replica2" : "replica1";
+            assertEquals(nomeLivre, lerNome());
+            assertEquals(nomeLivre, lerNome());
+        }
+        assertEquals(0, replicas.get(0).pendentes.get() + replicas.get(1).pendentes.get());
+    }
+
+    @Test
+    void requisicaoQueEscreveuLeDoPrincipal() throws Exception {
+        fonte.replicas = new BalanceadorReplicas(replicas, BalanceadorReplicas.Estrategia.ROUND_ROBIN);
+
+        ContextoRequisicao.iniciar();
+        assertEquals("replica1", lerNome());
+        fonte.obter().close();
+        assertEquals("principal", lerNome());
+        assertEquals("principal", lerNome());
+
+        // A próxima requisição volta a ler das réplicas
+        ContextoRequisicao.iniciar();
+        assertEquals("replica2", lerNome());
+    }
+
+    private String lerNome() {
+        return dao.listarPacientes().get(0).getNome();
+    }
+
+    private static DataSource bancoComPaciente(String nome) throws Exception {
+        DataSource banco = BancoTeste.novoBanco(nome + System.nanoTime());
+        BancoTeste.executar(banco, "INSERT INTO PACIENTE VALUES (?, ?, ?, ?, ?, ?, ?)",
+                new Object[]{1, nome, 30, 1, "Presencial", "11111111111", "x"});
+        return banco;
+    }
+}
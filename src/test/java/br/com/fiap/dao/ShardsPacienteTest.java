@@ -0,0 +1,124 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.models.Paciente;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardsPacienteTest {
+
+    private final List<String> nomes = new ArrayList<>();
+    private final List<DataSource> bancos = new ArrayList<>();
+    private final List<FonteConexoes> fontes = new ArrayList<>();
+    private ShardsPaciente shards;
+    private PacienteDao dao;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        DataSource principal = BancoTeste.novoBanco("shard-principal" + System.nanoTime());
+        incluirShard("shard1");
+        incluirShard("shard2");
+
+        shards = new ShardsPaciente();
+        shards.definir(nomes, fontes);
+
+        dao = new PacienteDao();
+        dao.conexoes = BancoTeste.fonte(principal);
+        dao.geradorIds = BancoTeste.geradorIds(principal, 50);
+        dao.shards = shards;
+
+        List<Paciente> pacientes = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            pacientes.add(new Paciente(null, "Paciente " + (char) ('A' + i % 26) + i, 30, 1, "Presencial",
+                    String.format("%011d", 10_000_000_000L + i * 7919L), "hash"));
+        }
+        dao.cadastrarPacientes(pacientes);
+    }
+
+    @Test
+    void cadaPacienteFicaApenasNoShardDono() throws Exception {
+        int total = 0;
+        for (int i = 0; i < bancos.size(); i++) {
+            for (int id : ids(bancos.get(i))) {
+                assertEquals(fontes.get(i), shards.porId(id));
+                total++;
+            }
+        }
+        assertEquals(40, total);
+        assertTrue(ids(bancos.get(0)).size() > 0 && ids(bancos.get(1)).size() > 0);
+
+        Paciente porCpf = dao.buscarPorCpf(String.format("%011d", 10_000_000_000L + 7 * 7919L));
+        assertNotNull(porCpf);
+        assertEquals(porCpf.getCpf(), dao.buscarPorId(porCpf.getId()).getCpf());
+    }
+
+    @Test
+    void listagemIntercalaOsShardsPorNomeEId() {
+        List<Paciente> todos = dao.listarPacientes();
+        List<Paciente> ordenados = new ArrayList<>(todos);
+        ordenados.sort(Comparator.comparing(Paciente::getNome).thenComparing(Paciente::getId));
+        assertEquals(40, todos.size());
+        assertEquals(ordenados.stream().map(Paciente::getId).toList(), todos.stream().map(Paciente::getId).toList());
+
+        List<Paciente> paginas = new ArrayList<>(dao.listarPacientes(FiltroPaciente.VAZIO, null, 0, 15));
+        while (paginas.size() < 40) {
+            Paciente ultimo = paginas.get(paginas.size() - 1);
+            paginas.addAll(dao.listarPacientes(FiltroPaciente.VAZIO, ultimo.getNome(), ultimo.getId(), 15));
+        }
+        assertEquals(todos.stream().map(Paciente::getId).toList(), paginas.stream().map(Paciente::getId).toList());
+    }
+
+    @Test
+    void rebalanceamentoMoveApenasAsFatiasDoNovoShard() throws Exception {
+        List<Integer> antes = new ArrayList<>();
+        antes.addAll(ids(bancos.get(0)));
+        antes.addAll(ids(bancos.get(1)));
+
+        incluirShard("shard3");
+        shards.definir(nomes, fontes);
+
+        int movidos = shards.rebalancear();
+
+        assertTrue(movidos > 0);
+        assertEquals(movidos, ids(bancos.get(2)).size());
+        for (int i = 0; i < bancos.size(); i++) {
+            for (int id : ids(bancos.get(i))) {
+                assertEquals(fontes.get(i), shards.porId(id));
+            }
+        }
+        for (int id : antes) {
+            assertNotNull(dao.buscarPorId(id));
+        }
+        assertEquals(0, shards.rebalancear());
+    }
+
+    private void incluirShard(String nome) throws Exception {
+        DataSource banco = BancoTeste.novoBanco(nome + System.nanoTime());
+        nomes.add(nome);
+        bancos.add(banco);
+        fontes.add(BancoTeste.fonte(banco));
+    }
+
+    private static List<Integer> ids(DataSource banco) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conexao = banco.getConnection();
+             PreparedStatement ps = conexao.prepareStatement("SELECT id_pac FROM PACIENTE");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,126 @@
+package br.com.fiap.dao.memoria;
+
+import br.com.fiap.dao.FiltroConsulta;
+import br.com.fiap.dao.FiltroPaciente;
+import br.com.fiap.models.Consulta;
+import br.com.fiap.models.Paciente;
+import br.com.fiap.models.Profissional;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RepositoriosMemoriaTest {
+
+    @Test
+    void mapaIntSeComportaComoHashMapEmGravacoesERemocoesAleatorias() {
+        MapaInt<Integer> mapa = new MapaInt<>();
+        Map<Integer, Integer> esperado = new HashMap<>();
+        Random aleatorio = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            int chave = 1 + aleatorio.nextInt(5_000);
+            if (aleatorio.nextBoolean()) {
+                assertEquals(esperado.put(chave, i), mapa.gravar(chave, i));
+            } else {
+                assertEquals(esperado.remove(chave), mapa.remover(chave));
+            }
+        }
+
+        assertEquals(esperado.size(), mapa.tamanho());
+        for (int chave = 1; chave <= 5_000; chave++) {
+            assertEquals(esperado.get(chave), mapa.obter(chave));
+        }
+    }
+
+    @Test
+    void pacientesPaginadosPorNomeComCpfUnico() {
+        PacienteRepositorioMemoria repositorio = new PacienteRepositorioMemoria();
+        repositorio.cadastrarPacientes(List.of(
+                paciente("Carla", "33333333333"), paciente("Ana", "11111111111"), paciente("Bruno", "22222222222")));
+
+        List<Paciente> primeira = repositorio.listarPacientes(FiltroPaciente.VAZIO, null, 0, 2);
+        assertEquals("Ana", primeira.get(0).getNome());
+        assertEquals("Bruno", primeira.get(1).getNome());
+
+        Paciente ultimo = primeira.get(1);
+        List<Paciente> segunda = repositorio.listarPacientes(FiltroPaciente.VAZIO, ultimo.getNome(), ultimo.getId(), 2);
+        assertEquals(1, segunda.size());
+        assertEquals("Carla", segunda.get(0).getNome());
+
+        assertThrows(IllegalArgumentException.class, () -> repositorio.cadastrarPaciente(paciente("Outra", "11111111111")));
+
+        Paciente alteracoes = new Paciente();
+        alteracoes.setId(ultimo.getId());
+        alteracoes.setCpf("44444444444");
+        assertEquals("Bruno", repositorio.atualizarPaciente(alteracoes).getNome());
+        assertNull(repositorio.buscarPorCpf("22222222222"));
+        assertEquals(ultimo.getId(), repositorio.buscarPorCpf("44444444444").getId());
+    }
+
+    @Test
+    void consultasPorDataDecrescenteComProfissionaisVinculados() {
+        ProfissionalRepositorioMemoria profissionais = new ProfissionalRepositorioMemoria();
+        ConsultaRepositorioMemoria consultas = new ConsultaRepositorioMemoria();
+        consultas.profissionais = profissionais;
+
+        Profissional ana = new Profissional(0, "Ana", "Pediatria", "Presencial", 1111);
+        profissionais.cadastrarProfissional(ana);
+
+        Consulta antiga = new Consulta(null, "Retorno", LocalDate.of(2024, 1, 10), "Revisão");
+        Consulta recente = new Consulta(null, "Primeira", LocalDate.of(2024, 3, 5), "Dor");
+        recente.getProfissionais().add(ana);
+        consultas.cadastrarConsulta(antiga);
+        consultas.cadastrarConsulta(recente);
+
+        List<Consulta> lista = consultas.listarConsultas();
+        assertEquals(recente.getIdConsulta(), lista.get(0).getIdConsulta());
+        assertEquals("Ana", lista.get(0).getProfissionais().get(0).getNome());
+        assertEquals(antiga.getIdConsulta(), consultas.listarConsultas(FiltroConsulta.VAZIO,
+                recente.getDataConsulta(), recente.getIdConsulta(), 10).get(0).getIdConsulta());
+
+        // O vínculo impede a exclusão do profissional, como a chave estrangeira no banco
+        assertThrows(RuntimeException.class, () -> profissionais.excluirProfissional(ana.getId()));
+        assertTrue(consultas.excluirConsulta(recente.getIdConsulta()));
+        assertTrue(profissionais.excluirProfissional(ana.getId()));
+        assertFalse(profissionais.excluirProfissional(ana.getId()));
+    }
+
+    @Test
+    void periodoDeConsultasIncluiAsDuasDatasLimiteComoNoBanco() {
+        ConsultaRepositorioMemoria consultas = new ConsultaRepositorioMemoria();
+        consultas.profissionais = new ProfissionalRepositorioMemoria();
+        LocalDate base = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < 10; i++) {
+            consultas.cadastrarConsulta(new Consulta(null, i % 2 == 0 ? "Retorno" : "Primeira", base.plusDays(i), "Dor"));
+        }
+        consultas.cadastrarConsulta(new Consulta(null, "Retorno", null, "Sem data"));
+
+        FiltroConsulta periodo = new FiltroConsulta(null, base.plusDays(2), base.plusDays(5));
+        List<Consulta> primeira = consultas.listarConsultas(periodo, null, 0, 3);
+        Consulta ultima = primeira.get(2);
+        List<Consulta> segunda = consultas.listarConsultas(periodo, ultima.getDataConsulta(), ultima.getIdConsulta(), 3);
+
+        assertEquals(List.of(base.plusDays(5), base.plusDays(4), base.plusDays(3)),
+                primeira.stream().map(Consulta::getDataConsulta).toList());
+        assertEquals(List.of(base.plusDays(2)), segunda.stream().map(Consulta::getDataConsulta).toList());
+        assertEquals(2, consultas.listarConsultas(new FiltroConsulta("Retorno", base.plusDays(2), base.plusDays(5)),
+                null, 0, 10).size());
+        // Sem data, a consulta não entra em nenhum período
+        assertEquals(10, consultas.listarConsultas(new FiltroConsulta(null, base.minusYears(1), null), null, 0, 20)
+                .size());
+    }
+
+    private static Paciente paciente(String nome, String cpf) {
+        return new Paciente(null, nome, 30, 1, "Presencial", cpf, "x");
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.fiap.resource;
+
+import br.com.fiap.dao.FiltroPaciente;
+import br.com.fiap.dao.memoria.ConsultaRepositorioMemoria;
+import br.com.fiap.dao.memoria.PacienteRepositorioMemoria;
+import br.com.fiap.dao.memoria.ProfissionalRepositorioMemoria;
+import br.com.fiap.models.Paciente;
+import br.com.fiap.service.AquecimentoAplicacao;
+import br.com.fiap.service.ServicosTeste;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AquecimentoHealthCheckTest {
+
+    @Test
+    void ficaDownAteOAquecimentoTerminarEDepoisUp() throws Exception {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        AquecimentoHealthCheck check = check(pacientes(() -> {
+            dentro.countDown();
+            liberar.await();
+        }), 3, 60_000);
+
+        ServicosTeste.iniciarAquecimento(check.aquecimento);
+        assertTrue(dentro.await(5, TimeUnit.SECONDS));
+        assertEquals(HealthCheckResponse.Status.DOWN, check.call().getStatus());
+
+        liberar.countDown();
+        esperarConclusao(check.aquecimento);
+
+        HealthCheckResponse resposta = check.call();
+        assertEquals(HealthCheckResponse.Status.UP, resposta.getStatus());
+        assertEquals(0L, ((Number) resposta.getData().orElseThrow().get("rodadas_com_erro")).longValue());
+    }
+
+    @Test
+    void rodadasComFalhaNaoImpedemOReadiness() {
+        AquecimentoHealthCheck check = check(pacientes(() -> {
+            throw new RuntimeException("Erro ao listar pacientes");
+        }), 3, 60_000);
+
+        ServicosTeste.aquecer(check.aquecimento);
+
+        assertEquals(HealthCheckResponse.Status.UP, check.call().getStatus());
+        assertEquals(3, check.aquecimento.getRodadasComErro());
+    }
+
+    @Test
+    void rodadaTravadaNaoPrendeOReadinessAlemDoPrazo() {
+        CountDownLatch nunca = new CountDownLatch(1);
+        AquecimentoHealthCheck check = check(pacientes(nunca::await), 3, 200);
+
+        ServicosTeste.aquecer(check.aquecimento);
+
+        assertEquals(HealthCheckResponse.Status.UP, check.call().getStatus());
+        assertEquals(3, check.aquecimento.getRodadasComErro());
+    }
+
+    private interface Acao {
+        void executar() throws Exception;
+    }
+
+    /** Repositório de pacientes que executa a ação antes de cada listagem. */
+    private static PacienteRepositorioMemoria pacientes(Acao antesDeListar) {
+        return new PacienteRepositorioMemoria() {
+            @Override
+            public List<Paciente> listarPacientes(FiltroPaciente filtro, String nomeApos, int idApos, int quantidade) {
+                try {
+                    antesDeListar.executar();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                return super.listarPacientes(filtro, nomeApos, idApos, quantidade);
+            }
+        };
+    }
+
+    private static AquecimentoHealthCheck check(PacienteRepositorioMemoria pacientes, int iteracoes, long prazoMs) {
+        AquecimentoHealthCheck check = new AquecimentoHealthCheck();
+        check.aquecimento = ServicosTeste.aquecimento(pacientes, new ProfissionalRepositorioMemoria(),
+                new ConsultaRepositorioMemoria(), iteracoes, prazoMs);
+        return check;
+    }
+
+    private static void esperarConclusao(AquecimentoAplicacao aquecimento) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!aquecimento.isConcluido() && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+    }
+}
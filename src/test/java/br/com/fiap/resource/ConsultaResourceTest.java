@@ -0,0 +1,21 @@
+package br.com.fiap.resource;
+
+import br.com.fiap.service.ServicosTeste;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConsultaResourceTest {
+
+    @Test
+    void periodoInvertidoResponde400() {
+        ConsultaResource recurso = new ConsultaResource();
+        recurso.consultaService = ServicosTeste.consultas(null);
+
+        Response resposta = recurso.listar(10, null, null, "2025-03-10", "2025-03-01", null);
+
+        assertEquals(400, resposta.getStatus());
+        assertEquals("data_inicio não pode ser posterior a data_fim.", resposta.getEntity());
+    }
+}
@@ -0,0 +1,161 @@
+package br.com.fiap.resource;
+
+import br.com.fiap.dao.BancoTeste;
+import br.com.fiap.dao.FiltroPaciente;
+import br.com.fiap.dao.FonteConexoes;
+import br.com.fiap.dao.memoria.PacienteRepositorioMemoria;
+import br.com.fiap.models.Paciente;
+import br.com.fiap.service.ServicosTeste;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContextoRequisicaoFilterTest {
+
+    private final CountDownLatch cancelada = new CountDownLatch(1);
+    private ContextoRequisicaoFilter filtro;
+    private PacienteResource recurso;
+
+    @BeforeEach
+    void preparar() {
+        FonteConexoes fonte = BancoTeste.fonte(bancoComConsultaLenta());
+
+        filtro = new ContextoRequisicaoFilter();
+        filtro.fonteConexoes = fonte;
+        filtro.prazoPadraoMs = 10_000;
+
+        recurso = new PacienteResource();
+        recurso.pacienteService = ServicosTeste.pacientes(new PacienteRepositorioMemoria() {
+            @Override
+            public List<Paciente> listarPacientes(FiltroPaciente filtro, String nomeApos, int idApos, int quantidade) {
+                List<Paciente> pacientes = new ArrayList<>();
+                try (Connection conexao = fonte.obterLeitura();
+                     PreparedStatement ps = conexao.prepareStatement("SELECT id_pac FROM PACIENTE");
+                     ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        pacientes.add(new Paciente(rs.getInt(1), null, null, null, null, null, null));
+                    }
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erro ao listar pacientes", e);
+                }
+                return pacientes;
+            }
+        });
+    }
+
+    @Test
+    void consultaLentaInterrompidaPeloPrazoResponde504() throws Exception {
+        ContainerRequestContext requisicao = requisicao("100");
+        long inicio = System.nanoTime();
+
+        filtro.filter(requisicao);
+        Response erro = recurso.listar(10, null, null, null);
+        Resposta resposta = new Resposta(erro);
+        filtro.filter(requisicao, resposta.contexto);
+
+        assertTrue(cancelada.await(0, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) < 5_000);
+        assertEquals(504, resposta.status);
+        assertEquals("Tempo limite da requisição esgotado.", resposta.entidade);
+    }
+
+    /**
+     * Requisição cujo cabeçalho {@value ContextoRequisicaoFilter#CABECALHO_PRAZO} tem o valor informado.
+     */
+    private static ContainerRequestContext requisicao(String prazoMs) {
+        return (ContainerRequestContext) Proxy.newProxyInstance(
+                ContainerRequestContext.class.getClassLoader(), new Class<?>[]{ContainerRequestContext.class},
+                (contexto, metodo, args) -> {
+                    if (metodo.getName().equals("getHeaderString")
+                            && ContextoRequisicaoFilter.CABECALHO_PRAZO.equals(args[0])) {
+                        return prazoMs;
+                    }
+                    throw new UnsupportedOperationException(metodo.getName());
+                });
+    }
+
+    /**
+     * Banco cujas consultas só terminam quando canceladas, falhando como o Oracle ({@code ORA-01013}).
+     */
+    private DataSource bancoComConsultaLenta() {
+        PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (comando, metodo, args) -> switch (metodo.getName()) {
+                    case "executeQuery" -> {
+                        if (!cancelada.await(10, TimeUnit.SECONDS)) {
+                            throw new IllegalStateException("Consulta não foi cancelada.");
+                        }
+                        throw new SQLException("ORA-01013: user requested cancel of current operation", "72000", 1013);
+                    }
+                    case "cancel" -> {
+                        cancelada.countDown();
+                        yield null;
+                    }
+                    case "setFetchSize", "setQueryTimeout", "close" -> null;
+                    default -> throw new UnsupportedOperationException(metodo.getName());
+                });
+        Connection conexao = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (c, metodo, args) -> switch (metodo.getName()) {
+                    case "prepareStatement" -> ps;
+                    case "close" -> null;
+                    default -> throw new UnsupportedOperationException(metodo.getName());
+                });
+        return (DataSource) Proxy.newProxyInstance(
+                DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (ds, metodo, args) -> {
+                    if (!metodo.getName().equals("getConnection")) {
+                        throw new UnsupportedOperationException(metodo.getName());
+                    }
+                    return conexao;
+                });
+    }
+
+    /**
+     * Contexto de resposta mínimo, com o status, o corpo e os cabeçalhos alteráveis pelo filtro.
+     */
+    private static final class Resposta {
+
+        int status;
+        Object entidade;
+        final MultivaluedHashMap<String, Object> cabecalhos = new MultivaluedHashMap<>();
+        final ContainerResponseContext contexto;
+
+        Resposta(Response resposta) {
+            status = resposta.getStatus();
+            entidade = resposta.getEntity();
+            contexto = (ContainerResponseContext) Proxy.newProxyInstance(
+                    ContainerResponseContext.class.getClassLoader(), new Class<?>[]{ContainerResponseContext.class},
+                    (c, metodo, args) -> switch (metodo.getName()) {
+                        case "getStatus" -> status;
+                        case "setStatus" -> {
+                            status = (Integer) args[0];
+                            yield null;
+                        }
+                        case "setEntity" -> {
+                            entidade = args[0];
+                            yield null;
+                        }
+                        case "getHeaders" -> cabecalhos;
+                        default -> throw new UnsupportedOperationException(metodo.getName());
+                    });
+        }
+    }
+}
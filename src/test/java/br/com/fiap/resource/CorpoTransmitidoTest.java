@@ -0,0 +1,59 @@
+package br.com.fiap.resource;
+
+import br.com.fiap.dao.ContextoRequisicao;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CorpoTransmitidoTest {
+
+    @Test
+    void escreveComOPrazoQueRestavaQuandoORecursoRespondeu() throws Exception {
+        AtomicLong restanteNaEscrita = new AtomicLong();
+
+        // Como no recurso: o corpo é criado com o contexto da requisição aberto...
+        ContextoRequisicao.iniciar();
+        ContextoRequisicao.definirPrazo(60_000);
+        StreamingOutput corpo = CorpoTransmitido.comPrazoDaRequisicao(
+                saida -> restanteNaEscrita.set(ContextoRequisicao.nanosRestantes()));
+        // ...e escrito depois que o filtro de resposta o encerrou
+        ContextoRequisicao.encerrar();
+
+        corpo.write(new ByteArrayOutputStream());
+
+        assertTrue(restanteNaEscrita.get() > 0 && restanteNaEscrita.get() <= 60_000_000_000L);
+        assertEquals(Long.MAX_VALUE, ContextoRequisicao.nanosRestantes());
+    }
+
+    @Test
+    void semPrazoNaRequisicaoEscreveSemPrazo() throws Exception {
+        AtomicLong restanteNaEscrita = new AtomicLong();
+        StreamingOutput corpo = CorpoTransmitido.comPrazoDaRequisicao(
+                saida -> restanteNaEscrita.set(ContextoRequisicao.nanosRestantes()));
+
+        corpo.write(new ByteArrayOutputStream());
+
+        assertEquals(Long.MAX_VALUE, restanteNaEscrita.get());
+    }
+
+    @Test
+    void geradorNaoCompletaOJsonDeUmaEscritaInterrompida() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        try (JsonGenerator gerador = CorpoTransmitido.gerador(new ObjectMapper(), saida)) {
+            gerador.writeStartArray();
+            gerador.writeNumber(1);
+            // falha aqui: o writeEndArray() não chega a ser chamado
+        }
+
+        assertEquals("[1", saida.toString(StandardCharsets.UTF_8));
+    }
+}
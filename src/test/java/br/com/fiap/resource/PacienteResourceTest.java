@@ -0,0 +1,51 @@
+package br.com.fiap.resource;
+
+import br.com.fiap.dao.memoria.PacienteRepositorioMemoria;
+import br.com.fiap.dto.PaginaResponseDto;
+import br.com.fiap.models.Paciente;
+import br.com.fiap.service.ServicosTeste;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PacienteResourceTest {
+
+    private PacienteResource recurso;
+
+    @BeforeEach
+    void preparar() {
+        PacienteRepositorioMemoria repositorio = new PacienteRepositorioMemoria();
+        repositorio.cadastrarPaciente(new Paciente(null, "Ana", 30, 1, "Presencial", "11111111111", "hash"));
+        repositorio.cadastrarPaciente(new Paciente(null, null, 40, 2, "Presencial", "22222222222", "hash"));
+
+        recurso = new PacienteResource();
+        recurso.pacienteService = ServicosTeste.pacientes(repositorio);
+    }
+
+    @Test
+    void paginasPorCursorAteAUltimaSemProximoCursor() {
+        Response primeira = recurso.listar(1, null, null, null);
+        PaginaResponseDto<?> corpo = (PaginaResponseDto<?>) primeira.getEntity();
+        assertEquals(200, primeira.getStatus());
+        assertEquals(1, corpo.getItens().size());
+        assertNotNull(corpo.getProximoCursor());
+
+        Response ultima = recurso.listar(1, corpo.getProximoCursor(), null, null);
+        PaginaResponseDto<?> corpoUltima = (PaginaResponseDto<?>) ultima.getEntity();
+        assertEquals(200, ultima.getStatus());
+        assertEquals(1, corpoUltima.getItens().size());
+        assertNull(corpoUltima.getProximoCursor());
+    }
+
+    @Test
+    void cursorInvalidoResponde400() {
+        Response resposta = recurso.listar(1, "%%%", null, null);
+
+        assertEquals(400, resposta.getStatus());
+        assertEquals("Cursor de paginação inválido.", resposta.getEntity());
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.fiap.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConsultaServiceTest {
+
+    // Os critérios são validados antes de qualquer acesso ao repositório
+    private final ConsultaService servico = ServicosTeste.consultas(null);
+
+    @Test
+    void recusaPeriodoComInicioDepoisDoFim() {
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> servico.listar(10, null, null, "2025-01-02", "2025-01-01"));
+
+        assertEquals("data_inicio não pode ser posterior a data_fim.", erro.getMessage());
+    }
+
+    @Test
+    void recusaDataForaDoFormato() {
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> servico.listar(10, null, null, "02/01/2025", null));
+
+        assertEquals("Data inválida em data_inicio: use o formato AAAA-MM-DD.", erro.getMessage());
+    }
+}
@@ -0,0 +1,176 @@
+package br.com.fiap.service;
+
+import br.com.fiap.dao.memoria.PacienteRepositorioMemoria;
+import br.com.fiap.models.Paciente;
+import br.com.fiap.security.PasswordHash;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImportacaoPacienteServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PacienteRepositorioMemoria repositorio;
+    private ImportacaoPacienteService servico;
+
+    @BeforeEach
+    void preparar() {
+        repositorio = new PacienteRepositorioMemoria();
+        servico = new ImportacaoPacienteService();
+        servico.pacienteRepositorio = repositorio;
+        servico.objectMapper = objectMapper;
+        servico.tamanhoLote = 2;
+        servico.threadsHash = 2;
+        servico.iniciar();
+    }
+
+    @AfterEach
+    void encerrar() {
+        servico.encerrar();
+    }
+
+    @Test
+    void ndjsonImportaAsLinhasValidasERelataAsDemaisPeloNumero() throws IOException {
+        String arquivo = String.join("\n",
+                ndjson("Ana", "00000000001", 30),
+                "{\"nome_paciente\": ",
+                "",
+                ndjson("Bruno", "00000000002", 40),
+                ndjson("Bruna", "00000000002", 41),
+                ndjson("Ana Maria", "00000000001", 30),
+                ndjson("Carla", "00000000003", 200));
+
+        JsonNode relatorio = importar(arquivo, ImportacaoPacienteService.Formato.NDJSON);
+
+        assertEquals(List.of(
+                "2: Linha mal formada.",
+                "5: CPF repetido no arquivo (linha 4).",
+                "6: CPF já cadastrado.",
+                "7: Idade deve estar entre 0 e 120."), erros(relatorio));
+        assertEquals(2, relatorio.get("importados").asInt());
+        assertEquals(4, relatorio.get("rejeitados").asInt());
+
+        Paciente ana = repositorio.buscarPorCpf("00000000001");
+        assertEquals("Ana", ana.getNome());
+        assertTrue(PasswordHash.verificarSenha("senha1", ana.getSenha()));
+        assertEquals("Bruno", repositorio.buscarPorCpf("00000000002").getNome());
+    }
+
+    @Test
+    void csvUsaOCabecalhoComoNomesDosCampos() throws IOException {
+        repositorio.cadastrarPaciente(new Paciente(null, "Existente", 50, 1, "Presencial", "00000000009", "hash"));
+        String arquivo = String.join("\n",
+                "nome_paciente,cpf_paciente,idade_paciente,nivel_tecnico,tipo_atendimento,senha_paciente",
+                "\"Silva, Ana\",000.000.000-01,30,2,Presencial,senha1",
+                "Bruno,00000000002,40,1,Teleconsulta",
+                "Outro,00000000009,20,1,Presencial,senha1",
+                "Diego,00000000004,25,1,,senha1");
+
+        JsonNode relatorio = importar(arquivo, ImportacaoPacienteService.Formato.CSV);
+
+        assertEquals(List.of(
+                "3: Linha mal formada.",
+                "4: CPF já cadastrado.",
+                "5: Tipo de atendimento é obrigatório."), erros(relatorio));
+        assertEquals(1, relatorio.get("importados").asInt());
+        assertEquals(3, relatorio.get("rejeitados").asInt());
+
+        Paciente ana = repositorio.buscarPorCpf("00000000001");
+        assertEquals("Silva, Ana", ana.getNome());
+        assertEquals(2, (int) ana.getNivelTecnico());
+        assertEquals("Presencial", ana.getTipoAtendimento());
+    }
+
+    @Test
+    void cpfCadastradoPorOutraImportacaoDuranteOLoteSoRecusaASuaLinha() throws IOException {
+        servico.pacienteRepositorio = new PacienteRepositorioMemoria() {
+            private boolean primeiroLote = true;
+
+            @Override
+            public void cadastrarPacientes(List<Paciente> pacientes) {
+                if (primeiroLote) {
+                    primeiroLote = false;
+                    cadastrarPaciente(new Paciente(null, "Concorrente", 50, 1, "Presencial", "00000000002", "hash"));
+                }
+                super.cadastrarPacientes(pacientes);
+            }
+        };
+        String arquivo = String.join("\n",
+                ndjson("Ana", "00000000001", 30),
+                ndjson("Bruno", "00000000002", 40));
+
+        JsonNode relatorio = importar(arquivo, ImportacaoPacienteService.Formato.NDJSON);
+
+        assertEquals(List.of("2: CPF já cadastrado."), erros(relatorio));
+        assertEquals(1, relatorio.get("importados").asInt());
+        assertEquals("Ana", servico.pacienteRepositorio.buscarPorCpf("00000000001").getNome());
+        assertEquals("Concorrente", servico.pacienteRepositorio.buscarPorCpf("00000000002").getNome());
+    }
+
+    @Test
+    void cpfCadastradoForaDoLoteNaConsultaNaoInterrompeAImportacao() throws IOException {
+        servico.pacienteRepositorio = new PacienteRepositorioMemoria() {
+            @Override
+            public Set<String> buscarCpfsCadastrados(Collection<String> cpfs) {
+                Set<String> cadastrados = new HashSet<>(super.buscarCpfsCadastrados(cpfs));
+                cadastrados.add("00000000099");
+                return cadastrados;
+            }
+        };
+
+        JsonNode relatorio = importar(ndjson("Ana", "00000000001", 30), ImportacaoPacienteService.Formato.NDJSON);
+
+        assertEquals(List.of(), erros(relatorio));
+        assertEquals(1, relatorio.get("importados").asInt());
+    }
+
+    @Test
+    void arquivoVazioGeraRelatorioSemErros() throws IOException {
+        JsonNode relatorio = importar("", ImportacaoPacienteService.Formato.NDJSON);
+
+        assertEquals(List.of(), erros(relatorio));
+        assertEquals(0, relatorio.get("importados").asInt());
+        assertEquals(0, relatorio.get("rejeitados").asInt());
+    }
+
+    @Test
+    void dividirCsvRespeitaAspas() {
+        assertEquals(List.of("a", "b, c", "d \"e\"", ""),
+                ImportacaoPacienteService.dividirCsv("a,\"b, c\",\"d \"\"e\"\"\","));
+    }
+
+    private JsonNode importar(String arquivo, ImportacaoPacienteService.Formato formato) throws IOException {
+        StringWriter saida = new StringWriter();
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+            servico.importar(new StringReader(arquivo), formato, gerador);
+        }
+        return objectMapper.readTree(saida.toString());
+    }
+
+    private static String ndjson(String nome, String cpf, int idade) {
+        return "{\"nome_paciente\": \"" + nome + "\", \"cpf_paciente\": \"" + cpf + "\", \"idade_paciente\": " + idade
+                + ", \"nivel_tecnico\": 1, \"tipo_atendimento\": \"Presencial\", \"senha_paciente\": \"senha1\"}";
+    }
+
+    /** Erros do relatório no formato "linha: mensagem". */
+    private static List<String> erros(JsonNode relatorio) {
+        List<String> erros = new ArrayList<>();
+        relatorio.get("erros").forEach(erro -> erros.add(erro.get("linha").asInt() + ": " + erro.get("mensagem").asText()));
+        return erros;
+    }
+}
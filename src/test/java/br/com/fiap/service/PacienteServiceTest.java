@@ -0,0 +1,134 @@
+package br.com.fiap.service;
+
+import br.com.fiap.dao.memoria.PacienteRepositorioMemoria;
+import br.com.fiap.dto.PacienteResponseDto;
+import br.com.fiap.dto.PaginaResponseDto;
+import br.com.fiap.dao.FiltroPaciente;
+import br.com.fiap.models.Paciente;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PacienteServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PacienteRepositorioMemoria repositorio;
+    private PacienteService servico;
+
+    @BeforeEach
+    void preparar() {
+        repositorio = new PacienteRepositorioMemoria();
+        String[] nomes = {"Carla", null, "Ana", "Bruno", null, "Ana", null};
+        for (int i = 0; i < nomes.length; i++) {
+            repositorio.cadastrarPaciente(new Paciente(null, nomes[i], 30, 1, i % 2 == 0 ? "Presencial" : "Teleconsulta",
+                    String.format("%011d", i + 1), "hash"));
+        }
+        servico = ServicosTeste.pacientes(repositorio);
+    }
+
+    @Test
+    void cursorPercorreTodasAsPaginasIncluindoPacientesSemNome() {
+        List<String> vistos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            PaginaResponseDto<PacienteResponseDto> pagina = servico.listar(2, cursor, null);
+            pagina.getItens().forEach(p -> vistos.add(p.getNome() + "/" + p.getId()));
+            cursor = pagina.getProximoCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertEquals(List.of("Ana/3", "Ana/6", "Bruno/4", "Carla/1", "null/2", "null/5", "null/7"), vistos);
+        assertEquals(4, paginas);
+    }
+
+    @Test
+    void filtroSeguePelasPaginasSemNome() {
+        PaginaResponseDto<PacienteResponseDto> primeira = servico.listar(3, null, "Presencial");
+        PaginaResponseDto<PacienteResponseDto> segunda = servico.listar(3, primeira.getProximoCursor(), "Presencial");
+
+        assertEquals(Arrays.asList("Ana", "Carla", null), nomes(primeira));
+        assertEquals(Arrays.asList((String) null), nomes(segunda));
+        assertNull(segunda.getProximoCursor());
+    }
+
+    @Test
+    void cursorInvalidoERecusado() {
+        assertThrows(IllegalArgumentException.class, () -> servico.listar(2, "nao-e-um-cursor", null));
+    }
+
+    @Test
+    void transmitirEntregaTodosOsPacientesNaOrdemDaListagem() throws IOException {
+        servico.paginacao.tamanhoStreaming = 2;
+
+        JsonNode pacientes = objectMapper.readTree(transmitir(servico));
+
+        List<String> vistos = new ArrayList<>();
+        pacientes.forEach(p -> vistos.add(p.get("nome_paciente").asText(null) + "/" + p.get("id_paciente").asInt()));
+        assertEquals(List.of("Ana/3", "Ana/6", "Bruno/4", "Carla/1", "null/2", "null/5", "null/7"), vistos);
+        assertEquals("Presencial", pacientes.get(0).get("tipo_atendimento").asText());
+        assertEquals("00000000003", pacientes.get(0).get("cpf_paciente").asText());
+    }
+
+    @Test
+    void transmitirSemPacientesGeraArrayVazio() throws IOException {
+        assertEquals("[]", transmitir(ServicosTeste.pacientes(new PacienteRepositorioMemoria())));
+    }
+
+    @Test
+    void falhaNoMeioDaTransmissaoInterrompeOArray() {
+        PacienteRepositorioMemoria falhaNaSegundaPagina = new PacienteRepositorioMemoria() {
+            private int leituras;
+
+            @Override
+            public List<Paciente> listarPacientes(FiltroPaciente filtro, String nomeApos, int idApos, int quantidade) {
+                if (++leituras == 2) {
+                    throw new RuntimeException("Erro ao listar pacientes");
+                }
+                return repositorio.listarPacientes(filtro, nomeApos, idApos, quantidade);
+            }
+        };
+        PacienteService comFalha = ServicosTeste.pacientes(falhaNaSegundaPagina);
+        comFalha.paginacao.tamanhoStreaming = 2;
+        StringWriter saida = new StringWriter();
+
+        assertThrows(RuntimeException.class, () -> {
+            // Como nos recursos: o gerador não fecha o array quando a transmissão falha
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+                comFalha.transmitir(gerador);
+            }
+        });
+
+        // A primeira página já foi enviada; o array fica aberto e o cliente percebe o corpo incompleto
+        String parcial = saida.toString();
+        assertTrue(parcial.startsWith("[{"), parcial);
+        assertTrue(parcial.contains("\"id_paciente\":6"), parcial);
+        assertTrue(!parcial.contains("\"id_paciente\":4") && !parcial.endsWith("]"), parcial);
+    }
+
+    private String transmitir(PacienteService servico) throws IOException {
+        StringWriter saida = new StringWriter();
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+            servico.transmitir(gerador);
+        }
+        return saida.toString();
+    }
+
+    private static List<String> nomes(PaginaResponseDto<PacienteResponseDto> pagina) {
+        return pagina.getItens().stream().map(PacienteResponseDto::getNome).toList();
+    }
+}
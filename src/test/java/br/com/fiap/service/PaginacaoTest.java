@@ -0,0 +1,131 @@
+package br.com.fiap.service;
+
+import br.com.fiap.dao.ContextoRequisicao;
+import br.com.fiap.dto.PaginaResponseDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PaginacaoTest {
+
+    private final Paginacao paginacao = ServicosTeste.paginacao(2, 5);
+
+    @Test
+    void transmitirLePaginasAPartirDoUltimoItemAteUmaIncompleta() throws IOException {
+        List<Integer> itens = List.of(1, 2, 3, 4, 5);
+        List<String> leituras = new ArrayList<>();
+        paginacao.tamanhoStreaming = 2;
+
+        String json = transmitir((ultimo, quantidade) -> {
+            leituras.add(ultimo + "/" + quantidade);
+            int inicio = ultimo == null ? 0 : itens.indexOf(ultimo) + 1;
+            return itens.subList(inicio, Math.min(inicio + quantidade, itens.size()));
+        });
+
+        assertEquals("[\"n1\",\"n2\",\"n3\",\"n4\",\"n5\"]", json);
+        assertEquals(List.of("null/2", "2/2", "4/2"), leituras);
+    }
+
+    @Test
+    void transmitirPaginaCheiaNoFimFazUmaLeituraVazia() throws IOException {
+        List<String> leituras = new ArrayList<>();
+        paginacao.tamanhoStreaming = 2;
+
+        String json = transmitir((ultimo, quantidade) -> {
+            leituras.add(String.valueOf(ultimo));
+            return ultimo == null ? List.of(1, 2) : List.of();
+        });
+
+        assertEquals("[\"n1\",\"n2\"]", json);
+        assertEquals(List.of("null", "2"), leituras);
+        assertEquals("[]", transmitir((ultimo, quantidade) -> List.of()));
+    }
+
+    @Test
+    void cadaPaginaTransmitidaTemOProprioPrazo() throws IOException {
+        List<Integer> itens = List.of(1, 2, 3, 4, 5);
+        paginacao.tamanhoStreaming = 2;
+        paginacao.prazoPaginaMs = 60_000;
+
+        // O prazo da requisição já passou quando a escrita começa, como depois de um cliente lento
+        ContextoRequisicao.iniciarComPrazo(0);
+        try {
+            String json = transmitir((ultimo, quantidade) -> {
+                // Como a FonteConexoes, recusa ler sem prazo restante
+                if (ContextoRequisicao.nanosRestantes() <= 0) {
+                    throw new RuntimeException("Prazo da requisição esgotado.");
+                }
+                int inicio = ultimo == null ? 0 : itens.indexOf(ultimo) + 1;
+                return itens.subList(inicio, Math.min(inicio + quantidade, itens.size()));
+            });
+
+            assertEquals("[\"n1\",\"n2\",\"n3\",\"n4\",\"n5\"]", json);
+        } finally {
+            ContextoRequisicao.encerrar();
+        }
+    }
+
+    private String transmitir(Paginacao.LeitorPagina<Integer> leitor) throws IOException {
+        StringWriter saida = new StringWriter();
+        try (JsonGenerator gerador = new ObjectMapper().getFactory().createGenerator(saida)) {
+            paginacao.transmitir(gerador, leitor, item -> "n" + item);
+        }
+        return saida.toString();
+    }
+
+    @Test
+    void cursorDevolveAChaveEOIdDoUltimoItemDaPagina() {
+        for (String chave : new String[]{"Ana", "Maria da Silva", "2025-01-31", "", null}) {
+            PaginaResponseDto<String> pagina = paginacao.montar(List.of("a", "b", "c"), 2, Function.identity(),
+                    item -> new Paginacao.Cursor(chave, item.equals("b") ? 42 : -1));
+
+            Paginacao.Cursor cursor = paginacao.decodificar(pagina.getProximoCursor());
+
+            assertEquals(chave, cursor.getChave());
+            assertEquals(42, cursor.getId());
+        }
+    }
+
+    @Test
+    void ultimaPaginaNaoTemProximoCursor() {
+        PaginaResponseDto<String> pagina = paginacao.montar(List.of("a", "b"), 2, Function.identity(),
+                item -> new Paginacao.Cursor(item, 1));
+
+        assertEquals(List.of("a", "b"), pagina.getItens());
+        assertNull(pagina.getProximoCursor());
+        assertNull(paginacao.decodificar(null));
+        assertNull(paginacao.decodificar(" "));
+    }
+
+    @Test
+    void recusaCursoresInvalidos() {
+        for (String token : new String[]{"@@@", codificar("Ana\u001Fx"), codificar("Ana\u001F0"), codificar("Ana")}) {
+            IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                    () -> paginacao.decodificar(token), token);
+            assertEquals("Cursor de paginação inválido.", erro.getMessage());
+        }
+    }
+
+    @Test
+    void limiteUsaOPadraoERespeitaOMaximo() {
+        assertEquals(2, paginacao.normalizarLimite(null));
+        assertEquals(5, paginacao.normalizarLimite(100));
+        assertThrows(IllegalArgumentException.class, () -> paginacao.normalizarLimite(0));
+    }
+
+    private static String codificar(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.fiap.service;
+
+import br.com.fiap.dao.ConsultaRepositorio;
+import br.com.fiap.dao.FonteConexoes;
+import br.com.fiap.dao.PacienteRepositorio;
+import br.com.fiap.dao.ProfissionalRepositorio;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Utilitários de teste para os serviços: monta-os fora do CDI, sobre os repositórios informados.
+ * Pública para ser usada também pelos testes dos recursos REST.
+ */
+public final class ServicosTeste {
+
+    private ServicosTeste() {}
+
+    /**
+     * Cria uma {@link Paginacao} com os tamanhos de página informados; o streaming lê páginas do tamanho máximo,
+     * cada uma com prazo de dez segundos.
+     */
+    public static Paginacao paginacao(int tamanhoPadrao, int tamanhoMaximo) {
+        Paginacao paginacao = new Paginacao();
+        paginacao.tamanhoPadrao = tamanhoPadrao;
+        paginacao.tamanhoMaximo = tamanhoMaximo;
+        paginacao.tamanhoStreaming = tamanhoMaximo;
+        paginacao.prazoPaginaMs = 10_000;
+        return paginacao;
+    }
+
+    /**
+     * Cria um {@link PacienteService} sobre o repositório informado, com páginas de até 50 itens.
+     */
+    public static PacienteService pacientes(PacienteRepositorio repositorio) {
+        PacienteService servico = new PacienteService();
+        servico.pacienteRepositorio = repositorio;
+        servico.paginacao = paginacao(50, 50);
+        return servico;
+    }
+
+    /**
+     * Cria um {@link ProfissionalService} sobre o repositório informado, com páginas de até 50 itens.
+     */
+    public static ProfissionalService profissionais(ProfissionalRepositorio repositorio) {
+        ProfissionalService servico = new ProfissionalService();
+        servico.profissionalRepositorio = repositorio;
+        servico.paginacao = paginacao(50, 50);
+        return servico;
+    }
+
+    /**
+     * Cria um {@link ConsultaService} sobre o repositório informado, com páginas de até 50 itens.
+     */
+    public static ConsultaService consultas(ConsultaRepositorio repositorio) {
+        ConsultaService servico = new ConsultaService();
+        servico.consultaRepositorio = repositorio;
+        servico.paginacao = paginacao(50, 50);
+        return servico;
+    }
+
+    /**
+     * Cria um {@link AquecimentoAplicacao} em memória, sobre os repositórios informados, com as rodadas
+     * executadas uma de cada vez.
+     */
+    public static AquecimentoAplicacao aquecimento(PacienteRepositorio pacientes, ProfissionalRepositorio profissionais,
+                                                   ConsultaRepositorio consultas, int iteracoes, long prazoMs) {
+        AquecimentoAplicacao aquecimento = new AquecimentoAplicacao();
+        aquecimento.armazenamento = "memoria";
+        aquecimento.habilitado = true;
+        aquecimento.iteracoes = iteracoes;
+        aquecimento.prazoMs = prazoMs;
+        aquecimento.fonteConexoes = new FonteConexoes();
+        aquecimento.pacienteService = pacientes(pacientes);
+        aquecimento.profissionalService = profissionais(profissionais);
+        aquecimento.consultaService = consultas(consultas);
+        aquecimento.objectMapper = new ObjectMapper().findAndRegisterModules();
+        return aquecimento;
+    }
+
+    /**
+     * Inicia o aquecimento em segundo plano, como ao iniciar a aplicação.
+     */
+    public static void iniciarAquecimento(AquecimentoAplicacao aquecimento) {
+        aquecimento.aoIniciar(null);
+    }
+
+    /**
+     * Executa o aquecimento na thread atual.
+     */
+    public static void aquecer(AquecimentoAplicacao aquecimento) {
+        aquecimento.aquecer();
+    }
+}